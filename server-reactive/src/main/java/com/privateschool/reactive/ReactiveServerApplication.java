@@ -0,0 +1,13 @@
+package com.privateschool.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveServerApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveServerApplication.class, args);
+    }
+
+}
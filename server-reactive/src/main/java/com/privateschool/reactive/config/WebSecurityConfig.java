@@ -0,0 +1,71 @@
+package com.privateschool.reactive.config;
+
+import com.privateschool.reactive.jwt.JwtAuthorizationWebFilter;
+import com.privateschool.reactive.jwt.JwtTokenProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.logout.HttpStatusReturningServerLogoutSuccessHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+@Configuration
+@EnableWebFluxSecurity
+public class WebSecurityConfig {
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // Same URL rules as the servlet server's WebSecurityConfig.
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http.cors().and()
+                .authorizeExchange()
+                //These are public pages.
+                .pathMatchers("/resources/**", "/error", "/api/user/**", "/actuator/**").permitAll()
+                //These can be reachable for just have student role.
+                .pathMatchers("/api/student/**").hasRole("STUDENT")
+                //These can be reachable for just have teacher role.
+                .pathMatchers("/api/teacher/**").hasRole("TEACHER")
+                //These can be reachable for just have manager role.
+                .pathMatchers("/api/manager/**").hasRole("MANAGER")
+                //All remaining paths should need authentication.
+                .anyExchange().authenticated()
+                .and()
+                .logout().logoutUrl("/api/user/logout")
+                .logoutSuccessHandler(new HttpStatusReturningServerLogoutSuccessHandler())
+                .and()
+                .formLogin().disable()
+                .httpBasic().and()
+                .csrf().disable()
+                //Stateless: every request carries its own basic credentials or JWT.
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .addFilterAt(new JwtAuthorizationWebFilter(jwtTokenProvider), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.addAllowedOrigin("*");
+        configuration.addAllowedMethod("*");
+        configuration.addAllowedHeader("*");
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+}
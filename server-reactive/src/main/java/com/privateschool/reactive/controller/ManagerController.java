@@ -0,0 +1,23 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.service.CourseStudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+public class ManagerController {
+
+    @Autowired
+    private CourseStudentService courseStudentService;
+
+    @GetMapping(value = "/api/manager/enrollments",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<EnrollmentResponse> findAllEnrollments() {
+        return courseStudentService.findAllEnrollments();
+    }
+
+}
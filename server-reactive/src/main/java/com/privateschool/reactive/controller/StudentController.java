@@ -0,0 +1,34 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentRequest;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.service.CourseStudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class StudentController {
+
+    @Autowired
+    private CourseStudentService courseStudentService;
+
+    @GetMapping(value = "/api/student/courses/{studentId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<CourseResponse> findAllCoursesOfStudent(@PathVariable Long studentId) {
+        return courseStudentService.findAllCoursesOfStudent(studentId);
+    }
+
+    @PostMapping("/api/student/enroll")
+    public Mono<ResponseEntity<EnrollmentResponse>> enroll(@RequestBody EnrollmentRequest request) {
+        return courseStudentService.saveCourseStudent(request.studentId(), request.courseId())
+                .map(result -> new ResponseEntity<>(result.getEnrollment(),
+                        result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK));
+    }
+
+}
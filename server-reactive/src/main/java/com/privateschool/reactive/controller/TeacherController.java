@@ -0,0 +1,24 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.service.CourseStudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+public class TeacherController {
+
+    @Autowired
+    private CourseStudentService courseStudentService;
+
+    @GetMapping(value = "/api/teacher/students/{teacherId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<UserResponse> findAllStudentsOfInstructor(@PathVariable Long teacherId) {
+        return courseStudentService.findAllStudentsOfInstructor(teacherId);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentRequest;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.jwt.JwtTokenProvider;
+import com.privateschool.reactive.model.Role;
+import com.privateschool.reactive.model.User;
+import com.privateschool.reactive.service.CourseService;
+import com.privateschool.reactive.service.CourseStudentService;
+import com.privateschool.reactive.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class UserController {
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseStudentService courseStudentService;
+
+    @PostMapping("/api/user/registration")
+    public Mono<ResponseEntity<UserResponse>> register(@RequestBody User user) {
+        return userService.findByUsername(user.getUsername())
+                .map(existing -> new ResponseEntity<UserResponse>(HttpStatus.CONFLICT))
+                .switchIfEmpty(Mono.defer(() -> {
+                    user.setRole(Role.STUDENT);
+                    return userService.saveUser(user)
+                            .map(saved -> new ResponseEntity<>(UserResponse.of(saved), HttpStatus.CREATED));
+                }));
+    }
+
+    @GetMapping("/api/user/login")
+    public Mono<ResponseEntity<UserResponse>> getUser() {
+        // Unlike the servlet stack, reactive basic authentication keeps the credentials on the token, so any
+        // username/password authentication (basic or JWT) gets a fresh token here.
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication instanceof UsernamePasswordAuthenticationToken)
+                .flatMap(authentication -> userService.findByUsername(authentication.getName())
+                        .map(user -> {
+                            UserResponse response = UserResponse.of(user);
+                            response.setToken(tokenProvider.generateToken(authentication));
+                            return ResponseEntity.ok(response);
+                        }))
+                // When there is no authenticated user (e.g., anonymous), return 200 OK with empty body
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    @PostMapping("/api/user/enroll")
+    public Mono<ResponseEntity<EnrollmentResponse>> enrollCourse(@RequestBody EnrollmentRequest request) {
+        return courseStudentService.saveCourseStudent(request.studentId(), request.courseId())
+                .map(result -> new ResponseEntity<>(result.getEnrollment(),
+                        result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/api/user/courses",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<CourseResponse> getAllCourses() {
+        return courseService.findAllCourses();
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.privateschool.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseResponse {
+
+    private Long id;
+
+    private String name;
+
+    private UserResponse instructor;
+
+}
@@ -0,0 +1,37 @@
+package com.privateschool.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The servlet server binds enrollments straight onto its JPA entity, so clients send nested student and course
+ * objects. Only their ids matter here.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentRequest {
+
+    private Ref student;
+
+    private Ref course;
+
+    public Long studentId() {
+        return student != null ? student.getId() : null;
+    }
+
+    public Long courseId() {
+        return course != null ? course.getId() : null;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Ref {
+
+        private Long id;
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.privateschool.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentResponse {
+
+    private Long id;
+
+    private UserResponse student;
+
+    private CourseResponse course;
+
+}
@@ -0,0 +1,15 @@
+package com.privateschool.reactive.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** The enrollment after an enroll call, and whether this call created it or found it already there. */
+@Getter
+@RequiredArgsConstructor
+public class EnrollmentResult {
+
+    private final EnrollmentResponse enrollment;
+
+    private final boolean created;
+
+}
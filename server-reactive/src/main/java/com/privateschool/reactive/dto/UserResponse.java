@@ -0,0 +1,30 @@
+package com.privateschool.reactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.privateschool.reactive.model.Role;
+import com.privateschool.reactive.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse {
+
+    private Long id;
+
+    private String name;
+
+    private String username;
+
+    private Role role;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
+
+    public static UserResponse of(User user) {
+        return new UserResponse(user.getId(), user.getName(), user.getUsername(), user.getRole(), null);
+    }
+
+}
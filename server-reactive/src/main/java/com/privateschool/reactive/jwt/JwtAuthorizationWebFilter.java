@@ -0,0 +1,33 @@
+package com.privateschool.reactive.jwt;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+public class JwtAuthorizationWebFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public JwtAuthorizationWebFilter(JwtTokenProvider tokenProvider) {
+        jwtTokenProvider = tokenProvider;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (jwtTokenProvider.validateToken(request)) {
+            Authentication authentication = jwtTokenProvider.getAuthentication(request);
+            if (authentication != null) {
+                return chain.filter(exchange)
+                        .subscriberContext(ReactiveSecurityContextHolder.withAuthentication(authentication));
+            }
+        }
+        // Always continue the filter chain
+        return chain.filter(exchange);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.privateschool.reactive.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Same claims, secret and header handling as the servlet server's provider, so tokens issued by either server
+ * are accepted by the other.
+ */
+@Component
+public class JwtTokenProvider {
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${app.jwt.token.prefix}")
+    private String jwtTokenPrefix;
+
+    @Value("${app.jwt.header.string}")
+    private String jwtHeaderString;
+
+    @Value("${app.jwt.expiration-in-ms}")
+    private Long jwtExpirationInMs;
+
+    public String generateToken(Authentication auth) {
+        String authorities = auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining());
+
+        return Jwts.builder().setSubject(auth.getName()).claim("roles", authorities)
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
+                .signWith(SignatureAlgorithm.HS512, jwtSecret).compact();
+    }
+
+    public Authentication getAuthentication(ServerHttpRequest request) {
+        String token = resolveToken(request);
+        if (token == null) {
+            return null;
+        }
+        try {
+            Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            String username = claims.getSubject();
+            List<GrantedAuthority> authorities = Arrays.stream(claims.get("roles").toString().split(","))
+                    .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+            return username != null ? new UsernamePasswordAuthenticationToken(username, null, authorities) : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean validateToken(ServerHttpRequest request) {
+        String token = resolveToken(request);
+        if (token == null) {
+            return false;
+        }
+        try {
+            Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            return !claims.getExpiration().before(new Date());
+        } catch (ExpiredJwtException e) {
+            return false;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String resolveToken(ServerHttpRequest req) {
+        String bearerToken = req.getHeaders().getFirst(jwtHeaderString);
+        if (bearerToken != null && bearerToken.startsWith(jwtTokenPrefix)) {
+            return bearerToken.substring(jwtTokenPrefix.length());
+        }
+        return null;
+    }
+
+}
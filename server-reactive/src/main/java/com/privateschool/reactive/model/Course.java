@@ -0,0 +1,20 @@
+package com.privateschool.reactive.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Table("course")
+public class Course {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    @Column("instructor_id")
+    private Long instructorId;
+
+}
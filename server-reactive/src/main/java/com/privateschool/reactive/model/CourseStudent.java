@@ -0,0 +1,25 @@
+package com.privateschool.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("course_student")
+public class CourseStudent {
+
+    @Id
+    private Long id;
+
+    @Column("student_id")
+    private Long studentId;
+
+    @Column("course_id")
+    private Long courseId;
+
+}
@@ -0,0 +1,7 @@
+package com.privateschool.reactive.model;
+
+public enum Role {
+    STUDENT,
+    TEACHER,
+    MANAGER
+}
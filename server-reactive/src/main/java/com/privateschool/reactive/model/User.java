@@ -0,0 +1,22 @@
+package com.privateschool.reactive.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Table("user")
+public class User {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String username;
+
+    private String password;
+
+    private Role role;
+
+}
@@ -0,0 +1,24 @@
+package com.privateschool.reactive.repository;
+
+import com.privateschool.reactive.model.Course;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface CourseRepository extends ReactiveCrudRepository<Course, Long> {
+
+    /**
+     * The servlet server's conditional seat update: takes a seat only while the course has one left, so both
+     * stacks can enroll into the same database without overbooking it. Returns 0 when the course is full.
+     */
+    @Modifying
+    @Query("UPDATE course SET enrolled = enrolled + 1"
+            + " WHERE id = :courseId AND (capacity IS NULL OR enrolled < capacity)")
+    Mono<Integer> reserveSeat(Long courseId);
+
+    @Modifying
+    @Query("UPDATE course SET enrolled = enrolled - 1 WHERE id = :courseId AND enrolled > 0")
+    Mono<Integer> releaseSeat(Long courseId);
+
+}
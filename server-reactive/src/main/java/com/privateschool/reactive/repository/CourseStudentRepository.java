@@ -0,0 +1,22 @@
+package com.privateschool.reactive.repository;
+
+import com.privateschool.reactive.model.CourseStudent;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface CourseStudentRepository extends ReactiveCrudRepository<CourseStudent, Long> {
+
+    @Query("SELECT * FROM course_student WHERE student_id = :studentId AND course_id = :courseId")
+    Mono<CourseStudent> findEnrollment(Long studentId, Long courseId);
+
+    /**
+     * The servlet server's insert-if-absent on MySQL: a repeated enrollment skips the duplicate key instead of
+     * failing on {@code uq_cs}. Returns 0 when the student was already enrolled.
+     */
+    @Modifying
+    @Query("INSERT IGNORE INTO course_student (student_id, course_id) VALUES (:studentId, :courseId)")
+    Mono<Integer> insertIfAbsent(Long studentId, Long courseId);
+
+}
@@ -0,0 +1,25 @@
+package com.privateschool.reactive.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * The servlet server builds its ETags from the version stamps in {@code resource_version}. Writes made here bump
+ * the same stamps, so the servlet server's cached course lists and rosters are revalidated after them.
+ */
+@Repository
+public class ResourceVersionRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Void> bump(String name) {
+        return databaseClient.execute("INSERT INTO resource_version (name, version) VALUES (:name, 1)"
+                + " ON DUPLICATE KEY UPDATE version = version + 1")
+                .bind("name", name)
+                .then();
+    }
+
+}
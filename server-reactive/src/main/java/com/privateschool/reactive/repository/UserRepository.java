@@ -0,0 +1,11 @@
+package com.privateschool.reactive.repository;
+
+import com.privateschool.reactive.model.User;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface UserRepository extends ReactiveCrudRepository<User, Long> {
+
+    Mono<User> findByUsername(String username);
+
+}
@@ -0,0 +1,94 @@
+package com.privateschool.reactive.repository;
+
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.model.Role;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC has no entity relationships, so the joined reads are single SQL statements mapped straight onto the
+ * response DTOs. Rows are emitted as they arrive from the driver.
+ */
+@Repository
+public class ViewRepository {
+
+    private static final String COURSE_COLUMNS = "c.id AS course_id, c.name AS course_name, "
+            + "i.id AS instructor_id, i.name AS instructor_name, i.username AS instructor_username, "
+            + "i.role AS instructor_role";
+
+    private static final String STUDENT_COLUMNS = "s.id AS student_id, s.name AS student_name, "
+            + "s.username AS student_username, s.role AS student_role";
+
+    private static final String ENROLLMENTS = "SELECT cs.id AS id, " + STUDENT_COLUMNS + ", " + COURSE_COLUMNS
+            + " FROM course_student cs"
+            + " JOIN user s ON s.id = cs.student_id"
+            + " JOIN course c ON c.id = cs.course_id"
+            + " JOIN user i ON i.id = c.instructor_id";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<CourseResponse> findCourses() {
+        return databaseClient.execute("SELECT " + COURSE_COLUMNS
+                + " FROM course c JOIN user i ON i.id = c.instructor_id ORDER BY c.id")
+                .map((row, metadata) -> course(row))
+                .all();
+    }
+
+    public Flux<CourseResponse> findCoursesOfStudent(Long studentId) {
+        return databaseClient.execute("SELECT " + COURSE_COLUMNS
+                + " FROM course_student cs"
+                + " JOIN course c ON c.id = cs.course_id"
+                + " JOIN user i ON i.id = c.instructor_id"
+                + " WHERE cs.student_id = :studentId ORDER BY cs.id")
+                .bind("studentId", studentId)
+                .map((row, metadata) -> course(row))
+                .all();
+    }
+
+    public Flux<UserResponse> findStudentsOfInstructor(Long instructorId) {
+        return databaseClient.execute("SELECT " + STUDENT_COLUMNS
+                + " FROM course_student cs"
+                + " JOIN course c ON c.id = cs.course_id"
+                + " JOIN user s ON s.id = cs.student_id"
+                + " WHERE c.instructor_id = :instructorId ORDER BY cs.id")
+                .bind("instructorId", instructorId)
+                .map((row, metadata) -> user(row, "student_"))
+                .all();
+    }
+
+    public Flux<EnrollmentResponse> findEnrollments() {
+        return databaseClient.execute(ENROLLMENTS + " ORDER BY cs.id")
+                .map((row, metadata) -> enrollment(row))
+                .all();
+    }
+
+    public Mono<EnrollmentResponse> findEnrollment(Long id) {
+        return databaseClient.execute(ENROLLMENTS + " WHERE cs.id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> enrollment(row))
+                .one();
+    }
+
+    private static EnrollmentResponse enrollment(Row row) {
+        return new EnrollmentResponse(row.get("id", Long.class), user(row, "student_"), course(row));
+    }
+
+    private static CourseResponse course(Row row) {
+        return new CourseResponse(row.get("course_id", Long.class), row.get("course_name", String.class),
+                user(row, "instructor_"));
+    }
+
+    private static UserResponse user(Row row, String prefix) {
+        String role = row.get(prefix + "role", String.class);
+        return new UserResponse(row.get(prefix + "id", Long.class), row.get(prefix + "name", String.class),
+                row.get(prefix + "username", String.class), role != null ? Role.valueOf(role) : null, null);
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.privateschool.reactive.service;
+
+import com.privateschool.reactive.dto.CourseResponse;
+import reactor.core.publisher.Flux;
+
+public interface CourseService {
+
+    Flux<CourseResponse> findAllCourses();
+
+}
@@ -0,0 +1,22 @@
+package com.privateschool.reactive.service;
+
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.repository.ViewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+
+@Service
+@Transactional
+public class CourseServiceImpl implements CourseService {
+
+    @Autowired
+    private ViewRepository viewRepository;
+
+    @Override
+    public Flux<CourseResponse> findAllCourses() {
+        return viewRepository.findCourses();
+    }
+
+}
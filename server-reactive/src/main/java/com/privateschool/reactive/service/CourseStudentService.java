@@ -0,0 +1,20 @@
+package com.privateschool.reactive.service;
+
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.dto.EnrollmentResult;
+import com.privateschool.reactive.dto.UserResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CourseStudentService {
+
+    Mono<EnrollmentResult> saveCourseStudent(Long studentId, Long courseId);
+
+    Flux<CourseResponse> findAllCoursesOfStudent(Long studentId);
+
+    Flux<UserResponse> findAllStudentsOfInstructor(Long instructorId);
+
+    Flux<EnrollmentResponse> findAllEnrollments();
+
+}
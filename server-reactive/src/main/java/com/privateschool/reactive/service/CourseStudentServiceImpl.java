@@ -0,0 +1,94 @@
+package com.privateschool.reactive.service;
+
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.dto.EnrollmentResult;
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.model.CourseStudent;
+import com.privateschool.reactive.repository.CourseRepository;
+import com.privateschool.reactive.repository.CourseStudentRepository;
+import com.privateschool.reactive.repository.ResourceVersionRepository;
+import com.privateschool.reactive.repository.ViewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Transactional
+public class CourseStudentServiceImpl implements CourseStudentService {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseStudentRepository courseStudentRepository;
+
+    @Autowired
+    private ViewRepository viewRepository;
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    // As in the servlet server: an existing enrollment is returned as is, even for a full course. Otherwise the seat
+    // is taken first and the row inserted if absent; when a concurrent call inserted it first, the seat goes back.
+    @Override
+    public Mono<EnrollmentResult> saveCourseStudent(Long studentId, Long courseId) {
+        if (studentId == null || courseId == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Both student and course are required"));
+        }
+        return courseStudentRepository.findEnrollment(studentId, courseId)
+                .flatMap(existing -> result(existing, false))
+                .switchIfEmpty(Mono.defer(() -> courseRepository.reserveSeat(courseId)
+                        .flatMap(reserved -> reserved > 0 ? insert(studentId, courseId) : noSeat(courseId))));
+    }
+
+    @Override
+    public Flux<CourseResponse> findAllCoursesOfStudent(Long studentId) {
+        return viewRepository.findCoursesOfStudent(studentId);
+    }
+
+    @Override
+    public Flux<UserResponse> findAllStudentsOfInstructor(Long instructorId) {
+        return viewRepository.findStudentsOfInstructor(instructorId);
+    }
+
+    @Override
+    public Flux<EnrollmentResponse> findAllEnrollments() {
+        return viewRepository.findEnrollments();
+    }
+
+    private Mono<EnrollmentResult> insert(Long studentId, Long courseId) {
+        return courseStudentRepository.insertIfAbsent(studentId, courseId)
+                .flatMap(inserted -> inserted > 0
+                        ? Mono.just(true)
+                        : courseRepository.releaseSeat(courseId).thenReturn(false))
+                .flatMap(created -> courseStudentRepository.findEnrollment(studentId, courseId)
+                        .switchIfEmpty(Mono.error(
+                                new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown student or course")))
+                        .flatMap(enrollment -> result(enrollment, created)));
+    }
+
+    private Mono<EnrollmentResult> result(CourseStudent enrollment, boolean created) {
+        return viewRepository.findEnrollment(enrollment.getId())
+                .flatMap(response -> (created ? enrollmentChanged(response) : Mono.<Void>empty())
+                        .thenReturn(new EnrollmentResult(response, created)));
+    }
+
+    // Same stamps and name order as the servlet server's ResourceVersionServiceImpl.enrollmentChanged.
+    private Mono<Void> enrollmentChanged(EnrollmentResponse enrollment) {
+        return resourceVersionRepository.bump("instructor:" + enrollment.getCourse().getInstructor().getId())
+                .then(resourceVersionRepository.bump("student:" + enrollment.getStudent().getId()));
+    }
+
+    private <T> Mono<T> noSeat(Long courseId) {
+        return courseRepository.existsById(courseId)
+                .flatMap(exists -> Mono.error(exists
+                        ? new ResponseStatusException(HttpStatus.CONFLICT, "Course is full")
+                        : new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown course")));
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.privateschool.reactive.service;
+
+import com.privateschool.reactive.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+@Service
+public class UserDetailsServiceImpl implements ReactiveUserDetailsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new org.springframework.security.core.userdetails.User(user.getUsername(),
+                        user.getPassword() != null ? user.getPassword() : "",
+                        Collections.singleton(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))));
+    }
+
+}
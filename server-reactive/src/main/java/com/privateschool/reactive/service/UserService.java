@@ -0,0 +1,12 @@
+package com.privateschool.reactive.service;
+
+import com.privateschool.reactive.model.User;
+import reactor.core.publisher.Mono;
+
+public interface UserService {
+
+    Mono<User> saveUser(User user);
+
+    Mono<User> findByUsername(String username);
+
+}
@@ -0,0 +1,38 @@
+package com.privateschool.reactive.service;
+
+import com.privateschool.reactive.model.User;
+import com.privateschool.reactive.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@Transactional
+public class UserServiceImpl implements UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Override
+    public Mono<User> saveUser(User user) {
+        // BCrypt is deliberately slow; keep it off the event loop.
+        return Mono.fromCallable(() -> passwordEncoder.encode(user.getPassword()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(encoded -> {
+                    user.setPassword(encoded);
+                    return userRepository.save(user);
+                });
+    }
+
+    @Override
+    public Mono<User> findByUsername(String username) {
+        return userRepository.findByUsername(username);
+    }
+
+}
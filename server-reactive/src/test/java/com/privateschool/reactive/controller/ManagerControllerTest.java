@@ -0,0 +1,82 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.config.WebSecurityConfig;
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.jwt.JwtTokenProvider;
+import com.privateschool.reactive.model.Role;
+import com.privateschool.reactive.service.CourseStudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ManagerController.class)
+@Import({WebSecurityConfig.class, JwtTokenProvider.class})
+class ManagerControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private CourseStudentService courseStudentService;
+
+    @Test
+    void testGetAllEnrollments_WithManagerJwt_ReturnsEnrollments() {
+        // Given
+        UserResponse teacher = new UserResponse(1L, "John Teacher", "john.teacher", Role.TEACHER, null);
+        UserResponse student = new UserResponse(2L, "Jane Student", "jane.student", Role.STUDENT, null);
+        when(courseStudentService.findAllEnrollments()).thenReturn(Flux.just(
+                new EnrollmentResponse(1L, student, new CourseResponse(1L, "Java Programming", teacher))));
+
+        // When/Then
+        webTestClient.get().uri("/api/manager/enrollments")
+                .header("Authorization", "Bearer" + token("ROLE_MANAGER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].student.name").isEqualTo("Jane Student")
+                .jsonPath("$[0].course.instructor.name").isEqualTo("John Teacher");
+    }
+
+    @Test
+    void testGetAllEnrollments_WithStudentJwt_ReturnsForbidden() {
+        // When/Then
+        webTestClient.get().uri("/api/manager/enrollments")
+                .header("Authorization", "Bearer" + token("ROLE_STUDENT"))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verifyNoInteractions(courseStudentService);
+    }
+
+    @Test
+    void testGetAllEnrollments_WithTamperedJwt_ReturnsUnauthorized() {
+        // When/Then
+        webTestClient.get().uri("/api/manager/enrollments")
+                .header("Authorization", "Bearer" + token("ROLE_MANAGER") + "x")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verifyNoInteractions(courseStudentService);
+    }
+
+    private String token(String role) {
+        return jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken("someone", null,
+                Collections.singletonList(new SimpleGrantedAuthority(role))));
+    }
+
+}
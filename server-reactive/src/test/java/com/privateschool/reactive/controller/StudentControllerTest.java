@@ -0,0 +1,102 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.config.WebSecurityConfig;
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.dto.EnrollmentResult;
+import com.privateschool.reactive.jwt.JwtTokenProvider;
+import com.privateschool.reactive.service.CourseStudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockUser;
+
+@WebFluxTest(StudentController.class)
+@Import({WebSecurityConfig.class, JwtTokenProvider.class})
+class StudentControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private CourseStudentService courseStudentService;
+
+    @Test
+    void testGetCoursesOfStudent_AsStudent_ReturnsCourses() {
+        // Given
+        when(courseStudentService.findAllCoursesOfStudent(2L))
+                .thenReturn(Flux.just(new CourseResponse(1L, "Java Programming", null)));
+
+        // When/Then
+        webTestClient.mutateWith(mockUser().roles("STUDENT"))
+                .get().uri("/api/student/courses/{studentId}", 2L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Java Programming");
+    }
+
+    @Test
+    void testGetCoursesOfStudent_Unauthenticated_ReturnsUnauthorized() {
+        // When/Then
+        webTestClient.get().uri("/api/student/courses/{studentId}", 2L)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verifyNoInteractions(courseStudentService);
+    }
+
+    @Test
+    void testGetCoursesOfStudent_AsTeacher_ReturnsForbidden() {
+        // When/Then
+        webTestClient.mutateWith(mockUser().roles("TEACHER"))
+                .get().uri("/api/student/courses/{studentId}", 2L)
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verifyNoInteractions(courseStudentService);
+    }
+
+    @Test
+    void testEnroll_AsStudent_ReturnsCreated() {
+        // Given
+        when(courseStudentService.saveCourseStudent(2L, 1L))
+                .thenReturn(Mono.just(new EnrollmentResult(new EnrollmentResponse(5L, null, null), true)));
+
+        // When/Then
+        webTestClient.mutateWith(mockUser().roles("STUDENT"))
+                .post().uri("/api/student/enroll")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"student\":{\"id\":2},\"course\":{\"id\":1}}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(5);
+    }
+
+    @Test
+    void testEnroll_AlreadyEnrolled_ReturnsOk() {
+        // Given
+        when(courseStudentService.saveCourseStudent(2L, 1L))
+                .thenReturn(Mono.just(new EnrollmentResult(new EnrollmentResponse(5L, null, null), false)));
+
+        // When/Then
+        webTestClient.mutateWith(mockUser().roles("STUDENT"))
+                .post().uri("/api/student/enroll")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"student\":{\"id\":2},\"course\":{\"id\":1}}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(5);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.config.WebSecurityConfig;
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.jwt.JwtTokenProvider;
+import com.privateschool.reactive.model.Role;
+import com.privateschool.reactive.service.CourseStudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockUser;
+
+@WebFluxTest(TeacherController.class)
+@Import({WebSecurityConfig.class, JwtTokenProvider.class})
+class TeacherControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private CourseStudentService courseStudentService;
+
+    @Test
+    void testGetStudentsOfTeacher_AsTeacher_ReturnsStudents() {
+        // Given
+        when(courseStudentService.findAllStudentsOfInstructor(1L)).thenReturn(Flux.just(
+                new UserResponse(2L, "Jane Student", "jane.student", Role.STUDENT, null),
+                new UserResponse(3L, "Bob Student", "bob.student", Role.STUDENT, null)));
+
+        // When/Then
+        webTestClient.mutateWith(mockUser().roles("TEACHER"))
+                .get().uri("/api/teacher/students/{teacherId}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].name").isEqualTo("Bob Student")
+                .jsonPath("$[0].token").doesNotExist();
+    }
+
+    @Test
+    void testGetStudentsOfTeacher_AsStudent_ReturnsForbidden() {
+        // When/Then
+        webTestClient.mutateWith(mockUser().roles("STUDENT"))
+                .get().uri("/api/teacher/students/{teacherId}", 1L)
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verifyNoInteractions(courseStudentService);
+    }
+
+}
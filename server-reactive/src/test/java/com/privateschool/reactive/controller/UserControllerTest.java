@@ -0,0 +1,185 @@
+package com.privateschool.reactive.controller;
+
+import com.privateschool.reactive.config.WebSecurityConfig;
+import com.privateschool.reactive.dto.CourseResponse;
+import com.privateschool.reactive.dto.EnrollmentResponse;
+import com.privateschool.reactive.dto.EnrollmentResult;
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.jwt.JwtTokenProvider;
+import com.privateschool.reactive.model.Role;
+import com.privateschool.reactive.model.User;
+import com.privateschool.reactive.service.CourseService;
+import com.privateschool.reactive.service.CourseStudentService;
+import com.privateschool.reactive.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(UserController.class)
+@Import({WebSecurityConfig.class, JwtTokenProvider.class})
+class UserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private CourseService courseService;
+
+    @MockBean
+    private CourseStudentService courseStudentService;
+
+    private User testStudent;
+
+    private CourseResponse testCourse;
+
+    @BeforeEach
+    void setUp() {
+        testStudent = new User();
+        testStudent.setId(2L);
+        testStudent.setName("Jane Student");
+        testStudent.setUsername("jane.student");
+        testStudent.setPassword("encodedPassword");
+        testStudent.setRole(Role.STUDENT);
+
+        testCourse = new CourseResponse(1L, "Java Programming",
+                new UserResponse(1L, "John Teacher", "john.teacher", Role.TEACHER, null));
+    }
+
+    @Test
+    void testRegister_NewUser_ReturnsCreatedStudent() {
+        // Given
+        when(userService.findByUsername("jane.student")).thenReturn(Mono.empty());
+        when(userService.saveUser(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(2L);
+            return Mono.just(user);
+        });
+
+        // When/Then
+        webTestClient.post().uri("/api/user/registration")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Jane Student\",\"username\":\"jane.student\",\"password\":\"secret\",\"role\":\"MANAGER\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(2)
+                .jsonPath("$.role").isEqualTo("STUDENT")
+                .jsonPath("$.password").doesNotExist();
+    }
+
+    @Test
+    void testRegister_ExistingUsername_ReturnsConflict() {
+        // Given
+        when(userService.findByUsername("jane.student")).thenReturn(Mono.just(testStudent));
+
+        // When/Then
+        webTestClient.post().uri("/api/user/registration")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Jane Student\",\"username\":\"jane.student\",\"password\":\"secret\"}")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        verify(userService, never()).saveUser(any());
+    }
+
+    @Test
+    void testLogin_Anonymous_ReturnsEmptyOk() {
+        // When/Then
+        webTestClient.get().uri("/api/user/login")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void testLogin_WithJwt_ReturnsUserWithFreshToken() {
+        // Given
+        when(userService.findByUsername("jane.student")).thenReturn(Mono.just(testStudent));
+        String token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken("jane.student", null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_STUDENT"))));
+
+        // When/Then
+        webTestClient.get().uri("/api/user/login")
+                .header("Authorization", "Bearer" + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.username").isEqualTo("jane.student")
+                .jsonPath("$.token").isNotEmpty()
+                .jsonPath("$.password").doesNotExist();
+    }
+
+    @Test
+    void testGetAllCourses_ReturnsJsonArray() {
+        // Given
+        when(courseService.findAllCourses()).thenReturn(Flux.just(testCourse));
+
+        // When/Then
+        webTestClient.get().uri("/api/user/courses")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Java Programming")
+                .jsonPath("$[0].instructor.name").isEqualTo("John Teacher");
+    }
+
+    @Test
+    void testGetAllCourses_StreamJson_EmitsOneObjectPerLine() {
+        // Given
+        CourseResponse python = new CourseResponse(2L, "Python Programming", testCourse.getInstructor());
+        when(courseService.findAllCourses()).thenReturn(Flux.just(testCourse, python));
+
+        // When/Then
+        webTestClient.get().uri("/api/user/courses")
+                .accept(MediaType.APPLICATION_STREAM_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(CourseResponse.class)
+                .getResponseBody()
+                .map(CourseResponse::getName)
+                .as(StepVerifier::create)
+                .expectNext("Java Programming", "Python Programming")
+                .verifyComplete();
+    }
+
+    @Test
+    void testEnrollCourse_ReturnsCreatedEnrollment() {
+        // Given
+        EnrollmentResponse enrollment = new EnrollmentResponse(5L, UserResponse.of(testStudent), testCourse);
+        when(courseStudentService.saveCourseStudent(2L, 1L))
+                .thenReturn(Mono.just(new EnrollmentResult(enrollment, true)));
+
+        // When/Then
+        webTestClient.post().uri("/api/user/enroll")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"student\":{\"id\":2,\"name\":\"Jane Student\"},\"course\":{\"id\":1}}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(5)
+                .jsonPath("$.course.name").isEqualTo("Java Programming");
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.privateschool.reactive.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@DataR2dbcTest
+class CourseRepositoryTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String schema = StreamUtils.copyToString(new ClassPathResource("schema.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        Flux.fromIterable(Arrays.asList(schema.split(";")))
+                .filter(statement -> !statement.trim().isEmpty())
+                .concatMap(statement -> databaseClient.execute(statement).then())
+                .thenMany(Flux.just(
+                        "DELETE FROM course_student",
+                        "DELETE FROM course",
+                        "DELETE FROM user",
+                        "INSERT INTO user (id, username, name, password, role) VALUES "
+                                + "(1, 'john.teacher', 'John Teacher', 'x', 'TEACHER')",
+                        "INSERT INTO course (id, name, instructor_id, capacity, enrolled) VALUES "
+                                + "(1, 'Java Programming', 1, 2, 1), (2, 'Open Lecture', 1, NULL, 500)"))
+                .concatMap(statement -> databaseClient.execute(statement).then())
+                .blockLast();
+    }
+
+    @Test
+    void testReserveSeat_StopsAtCapacity() {
+        // When/Then
+        StepVerifier.create(courseRepository.reserveSeat(1L).concatWith(courseRepository.reserveSeat(1L)))
+                .expectNext(1, 0)
+                .verifyComplete();
+    }
+
+    @Test
+    void testReserveSeat_WithoutCapacityIsUnlimited() {
+        // When/Then
+        StepVerifier.create(courseRepository.reserveSeat(2L))
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void testReserveSeat_UnknownCourse() {
+        // When/Then
+        StepVerifier.create(courseRepository.reserveSeat(42L))
+                .expectNext(0)
+                .verifyComplete();
+    }
+
+}
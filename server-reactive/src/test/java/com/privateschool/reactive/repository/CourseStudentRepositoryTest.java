@@ -0,0 +1,57 @@
+package com.privateschool.reactive.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@DataR2dbcTest
+class CourseStudentRepositoryTest {
+
+    @Autowired
+    private CourseStudentRepository courseStudentRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String schema = StreamUtils.copyToString(new ClassPathResource("schema.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        Flux.fromIterable(Arrays.asList(schema.split(";")))
+                .filter(statement -> !statement.trim().isEmpty())
+                .concatMap(statement -> databaseClient.execute(statement).then())
+                .thenMany(Flux.just(
+                        "DELETE FROM course_student",
+                        "DELETE FROM course",
+                        "DELETE FROM user",
+                        "INSERT INTO user (id, username, name, password, role) VALUES "
+                                + "(1, 'john.teacher', 'John Teacher', 'x', 'TEACHER'), "
+                                + "(2, 'jane.student', 'Jane Student', 'x', 'STUDENT')",
+                        "INSERT INTO course (id, name, instructor_id, capacity, enrolled) VALUES "
+                                + "(1, 'Java Programming', 1, NULL, 0)"))
+                .concatMap(statement -> databaseClient.execute(statement).then())
+                .blockLast();
+    }
+
+    @Test
+    void testInsertIfAbsent_SkipsTheDuplicate() {
+        // When/Then
+        StepVerifier.create(courseStudentRepository.insertIfAbsent(2L, 1L)
+                        .concatWith(courseStudentRepository.insertIfAbsent(2L, 1L)))
+                .expectNext(1, 0)
+                .verifyComplete();
+        StepVerifier.create(courseStudentRepository.findEnrollment(2L, 1L))
+                .expectNextMatches(enrollment -> enrollment.getStudentId() == 2L && enrollment.getCourseId() == 1L)
+                .verifyComplete();
+    }
+
+}
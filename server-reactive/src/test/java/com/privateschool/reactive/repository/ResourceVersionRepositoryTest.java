@@ -0,0 +1,51 @@
+package com.privateschool.reactive.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@DataR2dbcTest
+@Import(ResourceVersionRepository.class)
+class ResourceVersionRepositoryTest {
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String schema = StreamUtils.copyToString(new ClassPathResource("schema.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        Flux.fromIterable(Arrays.asList(schema.split(";")))
+                .filter(statement -> !statement.trim().isEmpty())
+                .concatMap(statement -> databaseClient.execute(statement).then())
+                .then(databaseClient.execute("DELETE FROM resource_version").then())
+                .block();
+    }
+
+    @Test
+    void testBump_CreatesThenIncrementsTheStamp() {
+        // When
+        resourceVersionRepository.bump("student:2").then(resourceVersionRepository.bump("student:2")).block();
+
+        // Then
+        StepVerifier.create(databaseClient.execute("SELECT version FROM resource_version WHERE name = 'student:2'")
+                        .map((row, metadata) -> row.get("version", Long.class))
+                        .one())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+}
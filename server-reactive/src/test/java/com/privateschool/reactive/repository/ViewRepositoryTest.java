@@ -0,0 +1,90 @@
+package com.privateschool.reactive.repository;
+
+import com.privateschool.reactive.dto.UserResponse;
+import com.privateschool.reactive.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest
+@Import(ViewRepository.class)
+class ViewRepositoryTest {
+
+    @Autowired
+    private ViewRepository viewRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String schema = StreamUtils.copyToString(new ClassPathResource("schema.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        Flux.fromIterable(Arrays.asList(schema.split(";")))
+                .filter(statement -> !statement.trim().isEmpty())
+                .concatMap(statement -> databaseClient.execute(statement).then())
+                .thenMany(Flux.just(
+                        "DELETE FROM course_student",
+                        "DELETE FROM course",
+                        "DELETE FROM user",
+                        "INSERT INTO user (id, username, name, password, role) VALUES "
+                                + "(1, 'john.teacher', 'John Teacher', 'x', 'TEACHER'), "
+                                + "(2, 'jane.student', 'Jane Student', 'x', 'STUDENT'), "
+                                + "(3, 'bob.student', 'Bob Student', 'x', 'STUDENT')",
+                        "INSERT INTO course (id, name, instructor_id) VALUES (1, 'Java Programming', 1), "
+                                + "(2, 'Python Programming', 1)",
+                        "INSERT INTO course_student (id, student_id, course_id) VALUES (1, 2, 1), (2, 3, 1), (3, 2, 2)"))
+                .concatMap(statement -> databaseClient.execute(statement).then())
+                .blockLast();
+    }
+
+    @Test
+    void testFindCourses_JoinsInstructor() {
+        StepVerifier.create(viewRepository.findCourses())
+                .assertNext(course -> {
+                    assertThat(course.getName()).isEqualTo("Java Programming");
+                    assertThat(course.getInstructor().getName()).isEqualTo("John Teacher");
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindCoursesOfStudent_OnlyReturnsTheirCourses() {
+        StepVerifier.create(viewRepository.findCoursesOfStudent(3L))
+                .assertNext(course -> assertThat(course.getName()).isEqualTo("Java Programming"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindStudentsOfInstructor_ReturnsOneRowPerEnrollment() {
+        StepVerifier.create(viewRepository.findStudentsOfInstructor(1L).map(UserResponse::getName))
+                .expectNext("Jane Student", "Bob Student", "Jane Student")
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindEnrollment_MapsStudentCourseAndInstructor() {
+        StepVerifier.create(viewRepository.findEnrollment(3L))
+                .assertNext(enrollment -> {
+                    assertThat(enrollment.getStudent().getUsername()).isEqualTo("jane.student");
+                    assertThat(enrollment.getCourse().getName()).isEqualTo("Python Programming");
+                    assertThat(enrollment.getCourse().getInstructor().getRole()).isEqualTo(Role.TEACHER);
+                })
+                .verifyComplete();
+        StepVerifier.create(viewRepository.findEnrollments()).expectNextCount(3).verifyComplete();
+    }
+
+}
@@ -0,0 +1,27 @@
+CREATE TABLE IF NOT EXISTS user (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL
+);
+CREATE TABLE IF NOT EXISTS course (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    instructor_id BIGINT NOT NULL,
+    capacity INT NULL,
+    enrolled INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (instructor_id) REFERENCES user (id)
+);
+CREATE TABLE IF NOT EXISTS course_student (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    FOREIGN KEY (student_id) REFERENCES user (id),
+    FOREIGN KEY (course_id) REFERENCES course (id),
+    CONSTRAINT uq_cs UNIQUE (student_id, course_id)
+);
+CREATE TABLE IF NOT EXISTS resource_version (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL
+);
@@ -0,0 +1,218 @@
+package com.privateschool.server.batch;
+
+import com.privateschool.server.dto.BatchRequest;
+import com.privateschool.server.dto.BatchResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Runs the sub-requests of a batch call concurrently through the {@link DispatcherServlet}. The security filter
+ * chain has already authenticated the outer call once; its {@link SecurityContext} is reused for every
+ * sub-request, and each path is checked against the same URL rules the filter chain would have applied.
+ * <p>
+ * Sub-requests skip the servlet filters: they get no {@code http.server.requests} timer, slow-request log or span
+ * of their own, and route log scopes match the batch route only. Their queries, repository spans and user log
+ * scopes carry over from the batch call through the executor, so batched work shows up under
+ * {@code POST /api/batch}.
+ */
+@Component
+public class BatchDispatcher {
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    @Autowired
+    private DispatcherServlet dispatcherServlet;
+
+    @Autowired
+    private WebInvocationPrivilegeEvaluator privilegeEvaluator;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    @Qualifier("batchExecutor")
+    private AsyncTaskExecutor batchExecutor;
+
+    @Value("${app.batch.max-requests:10}")
+    private int maxRequests;
+
+    @Value("${app.batch.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private List<RequestMappingInfo> streamingMappings;
+
+    // A stream never finishes: batched, it would stay open past the deadline and buffer everything it sends.
+    @PostConstruct
+    void findStreamingMappings() {
+        streamingMappings = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(mapping -> isStreaming(mapping.getKey(), mapping.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    public BatchResponse dispatch(BatchRequest batch, HttpServletRequest request, HttpServletResponse response) {
+        List<BatchRequest.Item> items = batch.getRequests();
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A batch needs at least one request");
+        }
+        if (items.size() > maxRequests) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + maxRequests + " requests");
+        }
+
+        SecurityContext context = SecurityContextHolder.getContext();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Detachable<HttpServletRequest> outerRequest = Detachable.of(HttpServletRequest.class, request);
+        Detachable<HttpServletResponse> outerResponse = Detachable.of(HttpServletResponse.class, response);
+        List<Future<BatchResponse.Item>> futures = new ArrayList<>(items.size());
+        try {
+            for (BatchRequest.Item item : items) {
+                futures.add(submit(item, context, request, outerRequest.proxy(), outerResponse.proxy(), deadline));
+            }
+
+            List<BatchResponse.Item> results = new ArrayList<>(items.size());
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(await(futures.get(i), items.get(i), deadline));
+            }
+            return new BatchResponse(results);
+        } finally {
+            // Sub-requests cancelled at the deadline may not notice the interrupt; they lose the outer objects here.
+            outerRequest.detach();
+            outerResponse.detach();
+        }
+    }
+
+    private Future<BatchResponse.Item> submit(BatchRequest.Item item, SecurityContext context,
+                                              HttpServletRequest request, HttpServletRequest outerRequest,
+                                              HttpServletResponse outerResponse, long deadline) {
+        BatchResponse.Item rejected = validate(item, context.getAuthentication(), request);
+        if (rejected != null) {
+            return CompletableFuture.completedFuture(rejected);
+        }
+        try {
+            return batchExecutor.submit(() -> execute(item, context, outerRequest, outerResponse, deadline));
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(status(item, HttpStatus.SERVICE_UNAVAILABLE));
+        }
+    }
+
+    private BatchResponse.Item validate(BatchRequest.Item item, Authentication authentication,
+                                        HttpServletRequest request) {
+        if (item.getPath() == null) {
+            return status(item, HttpStatus.BAD_REQUEST);
+        }
+        // The rules are checked against the decoded path the dispatcher will resolve, not the raw one.
+        SubRequest probe = new SubRequest(request, item.getPath());
+        String path = probe.path();
+        if (path == null || !path.startsWith("/api/") || path.startsWith("/api/batch")) {
+            return status(item, HttpStatus.BAD_REQUEST);
+        }
+        if (item.getMethod() != null && !"GET".equalsIgnoreCase(item.getMethod())) {
+            return status(item, HttpStatus.METHOD_NOT_ALLOWED);
+        }
+        if (streamingMappings.stream().anyMatch(mapping -> mapping.getPatternsCondition()
+                .getMatchingCondition(probe) != null)) {
+            return status(item, HttpStatus.BAD_REQUEST);
+        }
+        if (!privilegeEvaluator.isAllowed(request.getContextPath(), path, "GET", authentication)) {
+            boolean anonymous = authentication == null || trustResolver.isAnonymous(authentication);
+            return status(item, anonymous ? HttpStatus.UNAUTHORIZED : HttpStatus.FORBIDDEN);
+        }
+        return null;
+    }
+
+    private BatchResponse.Item execute(BatchRequest.Item item, SecurityContext context,
+                                       HttpServletRequest request, HttpServletResponse response, long deadline) {
+        SubRequest subRequest = new SubRequest(request, item.getPath());
+        SubResponse subResponse = new SubResponse(response);
+        SecurityContextHolder.setContext(context);
+        try {
+            dispatcherServlet.service(subRequest, subResponse);
+            SubAsyncContext asyncContext = subRequest.asyncContext();
+            if (asyncContext != null) {
+                if (!asyncContext.awaitDispatch(deadline)) {
+                    // Lets the handler release what it holds, as the container does when a client goes away.
+                    asyncContext.fireComplete();
+                    return status(item, HttpStatus.GATEWAY_TIMEOUT);
+                }
+                subRequest.asyncDispatch();
+                dispatcherServlet.service(subRequest, subResponse);
+                asyncContext.fireComplete();
+            }
+            return new BatchResponse.Item(item.getId(), subResponse.status(), subResponse.headers(),
+                    subResponse.body());
+        } catch (Exception e) {
+            return status(item, HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static boolean isStreaming(RequestMappingInfo mapping, HandlerMethod handler) {
+        if (mapping.getProducesCondition().getProducibleMediaTypes().stream()
+                .anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype)) {
+            return true;
+        }
+        ResolvableType type = ResolvableType.forMethodParameter(handler.getReturnType());
+        if (HttpEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric();
+        }
+        Class<?> body = type.resolve(Object.class);
+        return ResponseBodyEmitter.class.isAssignableFrom(body) || StreamingResponseBody.class.isAssignableFrom(body);
+    }
+
+    private static BatchResponse.Item await(Future<BatchResponse.Item> future, BatchRequest.Item item,
+                                            long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return status(item, HttpStatus.GATEWAY_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return status(item, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            return status(item, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static BatchResponse.Item status(BatchRequest.Item item, HttpStatus status) {
+        return new BatchResponse.Item(item.getId(), status.value(), null, null);
+    }
+
+}
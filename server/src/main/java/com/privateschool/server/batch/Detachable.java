@@ -0,0 +1,60 @@
+package com.privateschool.server.batch;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Lends the outer request or response to the sub-requests only for as long as the batch call lasts. Tomcat recycles
+ * both once the call returns, so a sub-request still running past the deadline gets an {@link IllegalStateException}
+ * instead of reading or writing whatever request the objects serve next.
+ */
+final class Detachable<T> implements InvocationHandler {
+
+    private final Class<T> type;
+
+    private volatile T target;
+
+    private Detachable(Class<T> type, T target) {
+        this.type = type;
+        this.target = target;
+    }
+
+    static <T> Detachable<T> of(Class<T> type, T target) {
+        return new Detachable<>(type, target);
+    }
+
+    T proxy() {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, this));
+    }
+
+    void detach() {
+        target = null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Detachable " + type.getSimpleName();
+            }
+        }
+        T current = target;
+        if (current == null) {
+            throw new IllegalStateException("The batch call is over; its " + type.getSimpleName()
+                    + " is no longer available");
+        }
+        try {
+            return method.invoke(current, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
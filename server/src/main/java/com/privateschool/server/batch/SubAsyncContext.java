@@ -0,0 +1,137 @@
+package com.privateschool.server.batch;
+
+import org.springframework.beans.BeanUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+/**
+ * Stands in for the container's {@link AsyncContext} when a batched endpoint goes async. The container never sees
+ * sub-requests, so the batch worker waits for {@link #dispatch()} itself and then re-enters the dispatcher, the
+ * same way Tomcat would for a top-level request.
+ */
+class SubAsyncContext implements AsyncContext {
+
+    private final ServletRequest request;
+
+    private final ServletResponse response;
+
+    private final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch dispatched = new CountDownLatch(1);
+
+    private volatile long timeout = 30000;
+
+    SubAsyncContext(ServletRequest request, ServletResponse response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    /**
+     * Waits for the async result, firing the listeners' timeout callbacks once the context's own timeout has
+     * passed. Returns false if nothing was dispatched before the batch deadline.
+     */
+    boolean awaitDispatch(long deadline) throws InterruptedException, IOException {
+        long timeoutDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        if (timeout <= 0 || timeoutDeadline - deadline > 0) {
+            return dispatched.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        if (dispatched.await(Math.max(0, timeoutDeadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        for (AsyncListener listener : listeners) {
+            listener.onTimeout(event());
+        }
+        return dispatched.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    void fireComplete() throws IOException {
+        for (AsyncListener listener : listeners) {
+            listener.onComplete(event());
+        }
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return true;
+    }
+
+    @Override
+    public void dispatch() {
+        dispatched.countDown();
+    }
+
+    @Override
+    public void dispatch(String path) {
+        throw new UnsupportedOperationException("Batched requests can only dispatch back to themselves");
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        throw new UnsupportedOperationException("Batched requests can only dispatch back to themselves");
+    }
+
+    @Override
+    public void complete() {
+        dispatched.countDown();
+    }
+
+    @Override
+    public void start(Runnable run) {
+        throw new UnsupportedOperationException("Batched requests do not run container threads");
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest request, ServletResponse response) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> type) throws ServletException {
+        try {
+            return BeanUtils.instantiateClass(type);
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
+    private AsyncEvent event() {
+        return new AsyncEvent(this, request, response);
+    }
+
+}
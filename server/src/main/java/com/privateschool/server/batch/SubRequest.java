@@ -0,0 +1,321 @@
+package com.privateschool.server.batch;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * A body-less GET carved out of a batch call. It shares the caller's credentials and other headers but has its
+ * own path, query and attribute map, so several sub-requests can run through the dispatcher at the same time.
+ * <p>
+ * The path is normalized the way the container and {@code StrictHttpFirewall} would have done it for a real
+ * request, and the wrapper only ever exposes that form: the URL rules are checked against the same path the
+ * dispatcher resolves. A path the firewall would reject has no normalized form, and {@link #path()} is null.
+ */
+class SubRequest extends HttpServletRequestWrapper {
+
+    // Encoded forms StrictHttpFirewall rejects: decoded, they would change which segments the path has.
+    private static final String[] ENCODED_SEPARATORS = {"%2f", "%5c", "%25", "%2e", "%3b"};
+
+    // Per-call headers of the outer batch request that must not leak into the sub-requests.
+    private static final Set<String> HIDDEN_HEADERS = new HashSet<>(Arrays.asList(
+            "accept", "accept-encoding", "content-type", "content-length", "if-none-match", "if-modified-since"));
+
+    private final String path;
+
+    private final String queryString;
+
+    private final Map<String, String[]> parameters;
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private DispatcherType dispatcherType = DispatcherType.REQUEST;
+
+    private SubAsyncContext asyncContext;
+
+    private boolean asyncStarted;
+
+    SubRequest(HttpServletRequest request, String target) {
+        super(request);
+        UriComponents uri = UriComponentsBuilder.fromUriString(target).build();
+        path = normalize(uri.getPath());
+        queryString = uri.getQuery();
+        parameters = decode(uri.getQueryParams());
+    }
+
+    /** The decoded path without {@code ;} parameters, or null when it is not one the firewall would let through. */
+    String path() {
+        return path;
+    }
+
+    @Override
+    public String getMethod() {
+        return "GET";
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return dispatcherType;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return getContextPath() + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(getScheme()).append("://").append(getServerName()).append(':')
+                .append(getServerPort()).append(getRequestURI());
+    }
+
+    @Override
+    public String getServletPath() {
+        return path;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if (HttpHeaders.ACCEPT.equalsIgnoreCase(name)) {
+            return MediaType.APPLICATION_JSON_VALUE;
+        }
+        return HIDDEN_HEADERS.contains(name.toLowerCase()) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = getHeader(name);
+        if (HttpHeaders.ACCEPT.equalsIgnoreCase(name) || value == null) {
+            return Collections.enumeration(value != null ? Collections.singletonList(value) : Collections.emptyList());
+        }
+        return super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        List<String> names = Collections.list(super.getHeaderNames());
+        names.removeIf(name -> HIDDEN_HEADERS.contains(name.toLowerCase()));
+        names.add(HttpHeaders.ACCEPT);
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return HIDDEN_HEADERS.contains(name.toLowerCase()) ? -1 : super.getDateHeader(name);
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public int getContentLength() {
+        return 0;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return 0;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return true;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // The sub-request body is already in memory; async reads are not supported.
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Async I/O is not supported on a batched request body");
+            }
+
+            @Override
+            public int read() {
+                return -1;
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new StringReader(""));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        return startAsync(this, null);
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        asyncContext = new SubAsyncContext(request, response);
+        asyncStarted = true;
+        return asyncContext;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncStarted;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        if (asyncContext == null) {
+            throw new IllegalStateException("Async processing has not been started");
+        }
+        return asyncContext;
+    }
+
+    // Strips ';' parameters from every segment and decodes the rest; rejects '.' and '..' segments, empty segments,
+    // backslashes, control characters and the encoded separators above.
+    static String normalize(String rawPath) {
+        if (rawPath == null || !rawPath.startsWith("/") || rawPath.indexOf('\\') >= 0) {
+            return null;
+        }
+        String lower = rawPath.toLowerCase(Locale.ROOT);
+        for (String separator : ENCODED_SEPARATORS) {
+            if (lower.contains(separator)) {
+                return null;
+            }
+        }
+        StringBuilder normalized = new StringBuilder();
+        String[] segments = rawPath.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            int semicolon = segment.indexOf(';');
+            if (semicolon >= 0) {
+                segment = segment.substring(0, semicolon);
+            }
+            try {
+                segment = UriUtils.decode(segment, StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            boolean last = i == segments.length - 1;
+            if ((segment.isEmpty() && !last) || ".".equals(segment) || "..".equals(segment)
+                    || segment.chars().anyMatch(Character::isISOControl)) {
+                return null;
+            }
+            normalized.append('/').append(segment);
+        }
+        return normalized.toString();
+    }
+
+    SubAsyncContext asyncContext() {
+        return asyncStarted ? asyncContext : null;
+    }
+
+    /**
+     * Switches to the async dispatch that hands the concurrent result back to the dispatcher.
+     */
+    void asyncDispatch() {
+        asyncStarted = false;
+        dispatcherType = DispatcherType.ASYNC;
+    }
+
+    private static Map<String, String[]> decode(MultiValueMap<String, String> query) {
+        MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+        query.forEach((name, values) -> values.forEach(value -> decoded.add(
+                UriUtils.decode(name, StandardCharsets.UTF_8),
+                value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : "")));
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        decoded.forEach((name, values) -> parameters.put(name, values.toArray(new String[0])));
+        return parameters;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.privateschool.server.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.dto.ResponseMapper;
+import com.privateschool.server.service.CourseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the course catalog serialized and gzip-compressed in memory, keyed by its ETag. Hot reads are served
+ * straight from these bytes; the catalog is only re-read, re-serialized and re-compressed after it changes.
+ */
+@Component
+public class CourseCatalogCache {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicReference<Payload> current = new AtomicReference<>();
+
+    private Counter gzipHits;
+
+    private Counter identityHits;
+
+    private Counter bytesSaved;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    private Timer buildTimer;
+
+    @PostConstruct
+    void registerMeters() {
+        gzipHits = meterRegistry.counter("catalog.precompressed.requests", "encoding", "gzip");
+        identityHits = meterRegistry.counter("catalog.precompressed.requests", "encoding", "identity");
+        bytesSaved = Counter.builder("catalog.precompressed.bytes.saved").baseUnit("bytes").register(meterRegistry);
+        hits = meterRegistry.counter("cache.gets", "cache", "courseCatalog", "result", "hit");
+        misses = meterRegistry.counter("cache.gets", "cache", "courseCatalog", "result", "miss");
+        buildTimer = Timer.builder("catalog.precompressed.build")
+                .description("Time spent loading, serializing and compressing the catalog")
+                .register(meterRegistry);
+    }
+
+    public Payload get(String eTag) {
+        Payload payload = current.get();
+        if (payload == null || !payload.getETag().equals(eTag)) {
+            misses.increment();
+            payload = buildTimer.record(() -> build(eTag));
+            current.set(payload);
+        } else {
+            hits.increment();
+        }
+        return payload;
+    }
+
+    public byte[] body(Payload payload, boolean gzip) {
+        if (gzip) {
+            gzipHits.increment();
+            bytesSaved.increment(payload.getJson().length - payload.getGzip().length);
+            return payload.getGzip();
+        }
+        identityHits.increment();
+        return payload.getJson();
+    }
+
+    private Payload build(String eTag) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ResponseMapper.courses(courseService.findAllCourses()));
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return new Payload(eTag, json, buffer.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Payload {
+
+        private final String eTag;
+
+        private final byte[] json;
+
+        private final byte[] gzip;
+
+    }
+
+}
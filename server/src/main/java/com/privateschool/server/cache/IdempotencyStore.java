@@ -0,0 +1,122 @@
+package com.privateschool.server.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the responses of idempotent POSTs by key. Entries live for a fixed TTL and the oldest ones are evicted
+ * once the store is full, so a flood of unique keys cannot grow it without bound.
+ */
+public class IdempotencyStore {
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyStore(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::nanoTime);
+    }
+
+    IdempotencyStore(int maxEntries, long ttlMs, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.clock = clock;
+    }
+
+    /**
+     * Claims the key for a new request. Returns null when the caller should go ahead and process the request,
+     * or the entry already held for the key (still in flight when {@link Entry#getResponse()} is null).
+     */
+    public synchronized Entry begin(String key, String fingerprint) {
+        long now = clock.getAsLong();
+        purgeExpired(now);
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(key, new Entry(fingerprint, now + ttlNanos));
+        if (entries.size() > maxEntries) {
+            Iterator<Entry> oldest = entries.values().iterator();
+            oldest.next();
+            oldest.remove();
+            evictions.increment();
+        }
+        return null;
+    }
+
+    public synchronized void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response = response;
+        }
+    }
+
+    /** Forgets the key so that a retry runs the request again, e.g. after a server error. */
+    public synchronized void release(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Entries dropped before their request was forgotten on purpose: expired, or pushed out by newer keys. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    // Every entry gets the same TTL, so insertion order is also expiry order.
+    private void purgeExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && iterator.next().getValue().expiresAt - now <= 0) {
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    public static class Entry {
+
+        @Getter
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        private volatile StoredResponse response;
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        public StoredResponse getResponse() {
+            return response;
+        }
+
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class StoredResponse {
+
+        private final int status;
+
+        private final String contentType;
+
+        private final byte[] body;
+
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.privateschool.server.cache;
+
+import com.privateschool.server.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This node's view of the free seats per course, used to turn away enrollments into a full course without a
+ * database round trip. Each course's free seats are spread over a few atomic stripes, so concurrent enrollments
+ * into one popular course rarely contend on the same counter.
+ * <p>
+ * The ledger is only a hint: the conditional update in {@link CourseRepository#reserveSeat} has the final say, and
+ * seats taken or freed on other nodes show up here once the course's view is older than
+ * {@code app.capacity.refresh-ms} and it runs out.
+ */
+@Component
+public class SeatLedger {
+
+    private static final int STRIPES =
+            Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())) * 2);
+
+    private final ConcurrentMap<Long, Seats> courses = new ConcurrentHashMap<>();
+
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Value("${app.capacity.refresh-ms:1000}")
+    private long refreshMs;
+
+    /**
+     * Takes a seat from this node's view. Returns false when the course looks full (or does not exist), in which
+     * case the caller should not try the database.
+     */
+    public boolean tryAcquire(Long courseId) {
+        // Unknown ids are not remembered (computeIfAbsent records nothing for null), so made-up ids cannot grow the
+        // ledger; the view holds at most one entry per existing course.
+        Seats seats = courses.computeIfAbsent(courseId, this::load);
+        if (seats == null) {
+            return false;
+        }
+        if (seats.unlimited || seats.tryAcquire()) {
+            return true;
+        }
+        if (System.nanoTime() - seats.loadedAt < TimeUnit.MILLISECONDS.toNanos(refreshMs)) {
+            return false;
+        }
+        Seats reloaded = load(courseId);
+        if (reloaded == null) {
+            courses.remove(courseId);
+            return false;
+        }
+        courses.put(courseId, reloaded);
+        return reloaded.unlimited || reloaded.tryAcquire();
+    }
+
+    /**
+     * Gives back a seat taken by {@link #tryAcquire} that did not turn into an enrollment. A seat already handed to
+     * {@link #releaseOnRollback} in this transaction is then not released a second time if it rolls back.
+     */
+    public void release(Long courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                if (synchronization instanceof RollbackRelease
+                        && ((RollbackRelease) synchronization).claim(this, courseId)) {
+                    break;
+                }
+            }
+        }
+        giveBack(courseId);
+    }
+
+    /** Releases the seat again if the surrounding transaction rolls back, unless {@link #release} already did. */
+    public void releaseOnRollback(Long courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new RollbackRelease(this, courseId));
+        }
+    }
+
+    /** The database said the course is full; stop sending enrollments for it there until the next refresh. */
+    public void markFull(Long courseId) {
+        Seats seats = courses.get(courseId);
+        if (seats != null) {
+            seats.drain();
+        }
+    }
+
+    /** Forgets the course, e.g. after its capacity changed; the next enrollment reloads it. */
+    public void invalidate(Long courseId) {
+        if (courses.remove(courseId) != null) {
+            evictions.increment();
+        }
+    }
+
+    /** How many courses this node holds a view of. */
+    public int courseCount() {
+        return courses.size();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private void giveBack(Long courseId) {
+        Seats seats = courses.get(courseId);
+        if (seats != null && !seats.unlimited) {
+            seats.release();
+        }
+    }
+
+    private Seats load(Long courseId) {
+        CourseRepository.Seats row = courseRepository.findSeatsById(courseId);
+        if (row == null) {
+            return null;
+        }
+        if (row.getCapacity() == null) {
+            return new Seats(0, true);
+        }
+        return new Seats(Math.max(0, row.getCapacity() - row.getEnrolled()), false);
+    }
+
+    // One seat to give back on rollback; the flag keeps an earlier release() from being repeated.
+    private static final class RollbackRelease extends TransactionSynchronizationAdapter {
+
+        private final SeatLedger ledger;
+
+        private final Long courseId;
+
+        private boolean released;
+
+        RollbackRelease(SeatLedger ledger, Long courseId) {
+            this.ledger = ledger;
+            this.courseId = courseId;
+        }
+
+        boolean claim(SeatLedger ledger, Long courseId) {
+            if (released || this.ledger != ledger || !this.courseId.equals(courseId)) {
+                return false;
+            }
+            released = true;
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK && !released) {
+                released = true;
+                ledger.giveBack(courseId);
+            }
+        }
+
+    }
+
+    private static final class Seats {
+
+        private final AtomicIntegerArray stripes = new AtomicIntegerArray(STRIPES);
+
+        private final boolean unlimited;
+
+        private final long loadedAt = System.nanoTime();
+
+        Seats(int free, boolean unlimited) {
+            this.unlimited = unlimited;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.set(i, free / STRIPES + (i < free % STRIPES ? 1 : 0));
+            }
+        }
+
+        // Starts at a random stripe and moves on to the next ones only when it is empty.
+        boolean tryAcquire() {
+            int start = ThreadLocalRandom.current().nextInt(STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                int stripe = (start + i) & (STRIPES - 1);
+                int free = stripes.get(stripe);
+                while (free > 0) {
+                    if (stripes.compareAndSet(stripe, free, free - 1)) {
+                        return true;
+                    }
+                    free = stripes.get(stripe);
+                }
+            }
+            return false;
+        }
+
+        void release() {
+            stripes.incrementAndGet(ThreadLocalRandom.current().nextInt(STRIPES));
+        }
+
+        void drain() {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.set(i, 0);
+            }
+        }
+
+    }
+
+}
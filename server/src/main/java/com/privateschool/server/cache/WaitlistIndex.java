@@ -0,0 +1,144 @@
+package com.privateschool.server.cache;
+
+import com.privateschool.server.repository.WaitlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This node's copy of the waitlist order per course, so a student's position is a map lookup instead of a count
+ * over the waitlist table. Students only join at the tail and are only promoted from the head, so each one keeps
+ * the sequence number it joined with and its position is that number minus the head's.
+ * <p>
+ * A course is loaded from the table on first use and again once its copy is older than
+ * {@code app.waitlist.refresh-ms}, which is how joins and promotions on other nodes show up here. Anything that
+ * does not fit the FIFO shape, like a student leaving the middle of the queue, just drops the course's copy.
+ */
+@Component
+public class WaitlistIndex {
+
+    private final ConcurrentMap<Long, Queue> courses = new ConcurrentHashMap<>();
+
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Value("${app.waitlist.refresh-ms:5000}")
+    private long refreshMs;
+
+    /** The student's 1-based position in the course's waitlist, or null if they are not waiting. */
+    public Integer position(Long courseId, Long studentId) {
+        return queue(courseId).position(studentId);
+    }
+
+    public int size(Long courseId) {
+        return queue(courseId).size();
+    }
+
+    /** Adds the student at the tail, unless they are already waiting, and returns their position. */
+    public int append(Long courseId, Long studentId) {
+        return queue(courseId).append(studentId);
+    }
+
+    /**
+     * Takes promoted students off the head, in the order they were promoted. If they are not at the head here, this
+     * node's copy is out of date and is dropped instead.
+     */
+    public void removePromoted(Long courseId, List<Long> studentIds) {
+        Queue queue = courses.get(courseId);
+        if (queue != null && !queue.removeHead(studentIds) && courses.remove(courseId, queue)) {
+            evictions.increment();
+        }
+    }
+
+    /** Forgets the course; the next lookup reloads it from the table. */
+    public void invalidate(Long courseId) {
+        if (courses.remove(courseId) != null) {
+            evictions.increment();
+        }
+    }
+
+    /** How many courses' waitlists this node holds a copy of. */
+    public int courseCount() {
+        return courses.size();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Queue queue(Long courseId) {
+        Queue queue = courses.computeIfAbsent(courseId, this::load);
+        if (System.nanoTime() - queue.loadedAt < TimeUnit.MILLISECONDS.toNanos(refreshMs)) {
+            return queue;
+        }
+        Queue reloaded = load(courseId);
+        courses.put(courseId, reloaded);
+        return reloaded;
+    }
+
+    private Queue load(Long courseId) {
+        Queue queue = new Queue();
+        for (Long studentId : waitlistRepository.findStudentIds(courseId)) {
+            queue.append(studentId);
+        }
+        return queue;
+    }
+
+    private static final class Queue {
+
+        private final Deque<Long> students = new ArrayDeque<>();
+
+        private final Map<Long, Long> sequence = new HashMap<>();
+
+        private final long loadedAt = System.nanoTime();
+
+        private long head;
+
+        private long tail;
+
+        synchronized Integer position(Long studentId) {
+            Long joined = sequence.get(studentId);
+            return joined == null ? null : (int) (joined - head) + 1;
+        }
+
+        synchronized int size() {
+            return students.size();
+        }
+
+        synchronized int append(Long studentId) {
+            Long joined = sequence.get(studentId);
+            if (joined == null) {
+                joined = tail++;
+                sequence.put(studentId, joined);
+                students.addLast(studentId);
+            }
+            return (int) (joined - head) + 1;
+        }
+
+        synchronized boolean removeHead(List<Long> studentIds) {
+            for (Long studentId : studentIds) {
+                if (!studentId.equals(students.peekFirst())) {
+                    return false;
+                }
+                students.removeFirst();
+                sequence.remove(studentId);
+                head++;
+            }
+            return true;
+        }
+
+    }
+
+}
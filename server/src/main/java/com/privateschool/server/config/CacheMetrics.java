@@ -0,0 +1,31 @@
+package com.privateschool.server.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the size and evictions of an in-memory cache as {@code cache.size} and {@code cache.evictions}, tagged
+ * with the cache, the names Micrometer uses for Caffeine and friends. The course catalog cache counts its own
+ * {@code cache.gets}.
+ */
+final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    static <T> void bind(MeterRegistry registry, String cache, T target, ToDoubleFunction<T> size,
+                         ToDoubleFunction<T> evictions) {
+        Gauge.builder("cache.size", target, size)
+                .description("Entries held by the cache")
+                .tag("cache", cache)
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", target, evictions)
+                .description("Entries dropped by the cache")
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+}
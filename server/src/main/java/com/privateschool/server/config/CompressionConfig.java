@@ -0,0 +1,28 @@
+package com.privateschool.server.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets Tomcat compress the cacheable routes. Tomcat 9 skips compression for every response with a strong ETag
+ * ({@code noCompressionStrongETag} defaults to true), which left the catalog, course and roster lists uncompressed.
+ * Their tags are weak and the precompressed catalog tags its gzip body separately, so the check is switched off;
+ * the {@code server.compression.*} properties decide everything else.
+ */
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    public TomcatConnectorCustomizer compressionConnectorCustomizer() {
+        return connector -> {
+            ProtocolHandler handler = connector.getProtocolHandler();
+            if (handler instanceof AbstractHttp11Protocol) {
+                ((AbstractHttp11Protocol<?>) handler).setNoCompressionStrongETag(false);
+            }
+        };
+    }
+
+}
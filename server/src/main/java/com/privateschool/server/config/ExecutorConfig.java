@@ -0,0 +1,77 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.logging.LogScopeTurboFilter;
+import com.privateschool.server.tracing.Tracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor batchExecutor(MeterRegistry meterRegistry,
+                                                @Value("${app.batch.pool-size:16}") int poolSize,
+                                                @Value("${app.batch.queue-capacity:200}") int queueCapacity) {
+        return instrumented("batch", meterRegistry, poolSize, queueCapacity);
+    }
+
+    // Slow reports run here instead of on Tomcat workers; a full queue rejects new work instead of
+    // letting it pile up behind the quick catalog reads.
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor(MeterRegistry meterRegistry,
+                                                 @Value("${app.async.pool-size:8}") int poolSize,
+                                                 @Value("${app.async.queue-capacity:50}") int queueCapacity) {
+        return instrumented("report", meterRegistry, poolSize, queueCapacity);
+    }
+
+    // Drains the per-subscriber SSE queues so a slow client never blocks the committing request thread.
+    @Bean
+    public ThreadPoolTaskExecutor sseExecutor(MeterRegistry meterRegistry,
+                                              @Value("${app.sse.pool-size:4}") int poolSize,
+                                              @Value("${app.sse.queue-capacity:1000}") int queueCapacity) {
+        return instrumented("sse", meterRegistry, poolSize, queueCapacity);
+    }
+
+    // Promotes waitlisted students once seats free up; at most one pass per course is queued at a time.
+    @Bean
+    public ThreadPoolTaskExecutor waitlistExecutor(MeterRegistry meterRegistry,
+                                                   @Value("${app.waitlist.pool-size:2}") int poolSize,
+                                                   @Value("${app.waitlist.queue-capacity:100}") int queueCapacity) {
+        return instrumented("waitlist", meterRegistry, poolSize, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor instrumented(String name, MeterRegistry meterRegistry, int poolSize,
+                                                       int queueCapacity) {
+        Timer queueWait = Timer.builder("executor.queue.wait")
+                .description("Time tasks spend queued before a thread picks them up")
+                .tag("name", name)
+                .register(meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(task -> {
+            long submitted = System.nanoTime();
+            // Queries the task runs count towards the request that submitted it, its log scopes still apply and
+            // its repository calls join the request's trace.
+            Runnable bound = Tracing.propagate(LogScopeTurboFilter.propagate(QueryStats.propagate(task)));
+            return () -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                bound.run();
+            };
+        });
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+}
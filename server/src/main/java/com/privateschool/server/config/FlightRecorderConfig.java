@@ -0,0 +1,27 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.profiling.FlightRecordingEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Only on runtimes that ship JFR, which came to Java 8 in 8u262; the Docker image's Temurin JRE has it.
+@Configuration
+@ConditionalOnClass(name = "jdk.jfr.FlightRecorder")
+public class FlightRecorderConfig {
+
+    @Bean
+    public static ServiceEventPostProcessor serviceEventPostProcessor() {
+        return new ServiceEventPostProcessor();
+    }
+
+    @Bean
+    public FlightRecordingEndpoint flightRecordingEndpoint(
+            @Value("${app.flight-recording.max-duration:PT30M}") Duration maxDuration) {
+        return new FlightRecordingEndpoint(maxDuration);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.hotpath.HeavyHitters;
+import com.privateschool.server.hotpath.HotKeys;
+import com.privateschool.server.hotpath.HotPathEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class HotPathConfig {
+
+    // Capacity is the counters per sketch: ids requested more than 1/capacity of the time are never missed.
+    @Bean(initMethod = "install", destroyMethod = "uninstall")
+    public HotKeys hotKeys(@Value("${app.hot-paths.window:PT5M}") Duration window,
+                           @Value("${app.hot-paths.buckets:5}") int buckets,
+                           @Value("${app.hot-paths.capacity:64}") int capacity) {
+        return new HotKeys(new HeavyHitters(window, buckets, capacity), new HeavyHitters(window, buckets, capacity));
+    }
+
+    @Bean
+    public HotPathEndpoint hotPathEndpoint(MeterRegistry meterRegistry, HotKeys hotKeys,
+                                           @Value("${app.hot-paths.top:10}") int top,
+                                           @Value("${app.hot-paths.window:PT5M}") Duration window) {
+        return new HotPathEndpoint(meterRegistry, hotKeys, top, window);
+    }
+
+}
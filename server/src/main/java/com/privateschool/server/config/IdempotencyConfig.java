@@ -0,0 +1,35 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.cache.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(MeterRegistry meterRegistry,
+                                             @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                                             @Value("${app.idempotency.ttl-ms:3600000}") long ttlMs) {
+        IdempotencyStore store = new IdempotencyStore(maxEntries, ttlMs);
+        CacheMetrics.bind(meterRegistry, "idempotency", store, IdempotencyStore::size, IdempotencyStore::evictions);
+        return store;
+    }
+
+    // Runs right after Spring Security (and the end of its tracing span), so keys are scoped to an authenticated
+    // user and rejected requests never claim one.
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                        MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, meterRegistry));
+        registration.addUrlPatterns("/api/student/enroll", "/api/user/enroll", "/api/user/registration");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+        return registration;
+    }
+
+}
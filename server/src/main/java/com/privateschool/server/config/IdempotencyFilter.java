@@ -0,0 +1,210 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.cache.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Honours the Idempotency-Key header on the enrollment and registration POSTs. The first request with a key runs
+ * normally and its response is stored; retries with the same key and body get that response back without reaching
+ * the controller. A retry that arrives while the first attempt is still running gets 429 with a Retry-After, and
+ * reusing a key for a different body gets 422. Keys are scoped to the authenticated user and the path. Anonymous
+ * callers (registration) all share one user, so their keys are also scoped to a hash of the body: one client's key
+ * can neither replay nor hold up another client's request.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyFilter(IdempotencyStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + HEADER);
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String fingerprint = DigestUtils.md5DigestAsHex(body);
+        String principal = principalName();
+        String scope = principal != null ? principal : "anonymous " + fingerprint;
+        String scopedKey = scope + ' ' + request.getRequestURI() + ' ' + key;
+
+        IdempotencyStore.Entry existing = store.begin(scopedKey, fingerprint);
+        if (existing != null) {
+            replay(existing, fingerprint, response);
+            return;
+        }
+        ErrorTrackingResponse wrapped = new ErrorTrackingResponse(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(new BufferedBodyRequest(request, body), wrapped);
+            // Server errors are not remembered, so the client's retry gets a real second attempt. Neither are
+            // errors sent with sendError (ResponseStatusException included): their body is rendered by the
+            // error dispatch after this filter returns, so all we could replay is an empty body.
+            if (wrapped.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value() && !wrapped.errorSent) {
+                store.complete(scopedKey, new IdempotencyStore.StoredResponse(wrapped.getStatus(),
+                        wrapped.getContentType(), wrapped.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(scopedKey);
+            }
+            count(stored ? "stored" : "released");
+            wrapped.copyBodyToResponse();
+        }
+    }
+
+    private void replay(IdempotencyStore.Entry existing, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!existing.getFingerprint().equals(fingerprint)) {
+            count("mismatch");
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), HEADER + " was used for another request");
+            return;
+        }
+        IdempotencyStore.StoredResponse stored = existing.getResponse();
+        if (stored == null) {
+            count("in_flight");
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                    "A request with this " + HEADER + " is in progress");
+            return;
+        }
+        count("replayed");
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static String principalName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // The body is read up front for the fingerprint, so the controller gets it from memory.
+    private static class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so there is nothing to wait for; async reads are not supported.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Async I/O is not supported on a buffered request body");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+    }
+
+    // Remembers whether the response went through sendError, whose body is not written through this wrapper.
+    private static class ErrorTrackingResponse extends ContentCachingResponseWrapper {
+
+        private boolean errorSent;
+
+        ErrorTrackingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            errorSent = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            errorSent = true;
+            super.sendError(sc, msg);
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.privateschool.server.config;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Publishes how many requests are in flight (http.server.requests.active), which is the number to compare between
+ * the platform-thread and virtual-thread modes. Async requests count until their async work completes.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class InFlightRequestFilter extends OncePerRequestFilter {
+
+    private final LongTaskTimer active;
+
+    public InFlightRequestFilter(MeterRegistry meterRegistry) {
+        active = LongTaskTimer.builder("http.server.requests.active")
+                .description("Requests currently being processed, including async ones")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LongTaskTimer.Sample sample = active.start();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(sample));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                sample.stop();
+            }
+        }
+    }
+
+    private static class CompletionListener implements AsyncListener {
+
+        private final LongTaskTimer.Sample sample;
+
+        CompletionListener(LongTaskTimer.Sample sample) {
+            this.sample = sample;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            sample.stop();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.logging.LogScopeEndpoint;
+import com.privateschool.server.logging.LogScopeRegistry;
+import com.privateschool.server.logging.LogScopeTurboFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class LogScopeConfig {
+
+    @Bean
+    public LogScopeRegistry logScopeRegistry(@Value("${app.logging.scopes.max-active:20}") int maxActive,
+                                             @Value("${app.logging.scopes.max-duration:PT1H}") Duration maxDuration) {
+        return new LogScopeRegistry(maxActive, maxDuration);
+    }
+
+    @Bean
+    public LogScopeEndpoint logScopeEndpoint(LogScopeRegistry logScopeRegistry) {
+        return new LogScopeEndpoint(logScopeRegistry);
+    }
+
+    @Bean(initMethod = "install", destroyMethod = "uninstall")
+    public LogScopeTurboFilter logScopeTurboFilter() {
+        return new LogScopeTurboFilter();
+    }
+
+    // After Spring Security and the idempotency filter, so the user is known.
+    @Bean
+    public FilterRegistrationBean<LogScopeFilter> logScopeFilter(LogScopeRegistry logScopeRegistry) {
+        FilterRegistrationBean<LogScopeFilter> registration =
+                new FilterRegistrationBean<>(new LogScopeFilter(logScopeRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 3);
+        return registration;
+    }
+
+}
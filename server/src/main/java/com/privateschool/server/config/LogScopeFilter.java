@@ -0,0 +1,51 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.logging.LogScope;
+import com.privateschool.server.logging.LogScopeRegistry;
+import com.privateschool.server.logging.LogScopeTurboFilter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Works out once per request which {@link LogScope}s it falls under and binds them for the
+ * {@link LogScopeTurboFilter}. Runs after Spring Security, so the user is known.
+ */
+public class LogScopeFilter extends OncePerRequestFilter {
+
+    private final LogScopeRegistry registry;
+
+    public LogScopeFilter(LogScopeRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        List<LogScope> scopes = registry.matching(username(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        List<LogScope> previous = LogScopeTurboFilter.bind(scopes);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            LogScopeTurboFilter.restore(previous);
+        }
+    }
+
+    private static String username() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+}
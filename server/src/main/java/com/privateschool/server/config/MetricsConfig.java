@@ -0,0 +1,40 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.cache.SeatLedger;
+import com.privateschool.server.cache.WaitlistIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Static, so it exists before the repositories and the password encoder it instruments are created.
+    @Bean
+    public static MetricsPostProcessor metricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    public InFlightRequestFilter inFlightRequestFilter(MeterRegistry meterRegistry) {
+        return new InFlightRequestFilter(meterRegistry);
+    }
+
+    @Bean
+    public QueryStatsFilter queryStatsFilter(MeterRegistry meterRegistry) {
+        return new QueryStatsFilter(meterRegistry);
+    }
+
+    // The idempotency store needs the registry itself, so IdempotencyConfig binds its cache meters.
+    @Bean
+    public MeterBinder cacheMetrics(SeatLedger seatLedger, WaitlistIndex waitlistIndex) {
+        return registry -> {
+            CacheMetrics.bind(registry, "seatLedger", seatLedger, SeatLedger::courseCount, SeatLedger::evictions);
+            CacheMetrics.bind(registry, "waitlistIndex", waitlistIndex, WaitlistIndex::courseCount,
+                    WaitlistIndex::evictions);
+        };
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.privateschool.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Adds timers to the beans whose latency we set objectives on: every Spring Data repository and every
+ * {@code @Repository} class get a {@link RepositoryMetricsInterceptor}, and the password encoder is wrapped in a
+ * {@link TimedPasswordEncoder}.
+ */
+public class MetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    MetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof PasswordEncoder && !(bean instanceof TimedPasswordEncoder)) {
+            return new TimedPasswordEncoder((PasswordEncoder) bean, meterRegistry.getObject());
+        }
+        String repository = repositoryName(bean);
+        if (repository == null) {
+            return bean;
+        }
+        RepositoryMetricsInterceptor interceptor = new RepositoryMetricsInterceptor(meterRegistry.getObject(),
+                repository);
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            // Outermost, so the time includes the transaction and exception translation around the query.
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    private static String repositoryName(Object bean) {
+        if (bean instanceof Repository && bean instanceof Advised) {
+            for (Class<?> type : ((Advised) bean).getProxiedInterfaces()) {
+                if (Repository.class.isAssignableFrom(type) && type != Repository.class) {
+                    return type.getSimpleName();
+                }
+            }
+            return null;
+        }
+        Class<?> type = AopUtils.getTargetClass(bean);
+        if (AnnotatedElementUtils.hasAnnotation(type, org.springframework.stereotype.Repository.class)) {
+            return type.getSimpleName();
+        }
+        return null;
+    }
+
+}
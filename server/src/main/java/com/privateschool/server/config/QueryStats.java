@@ -0,0 +1,111 @@
+package com.privateschool.server.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What Hibernate did on behalf of one request: statements sent to the database, entities loaded, lazy collections
+ * fetched and second-level cache lookups. {@link QueryStatsFilter} binds one to each request thread and the
+ * Hibernate hooks in {@link QueryStatsIntegrator} and {@link QueryStatsSessionListener} count into it. Work a request
+ * hands to one of our executors counts towards it too, see {@link #propagate(Runnable)}.
+ * <p>
+ * Counters may be bumped from several threads at once, hence the adders.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+
+    private final LongAdder entitiesLoaded = new LongAdder();
+
+    private final LongAdder collectionsFetched = new LongAdder();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /** The stats bound to this thread, or null outside a request. */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /** Binds the stats to this thread and returns what was bound before, to hand back to {@link #restore}. */
+    public static QueryStats bind(QueryStats stats) {
+        QueryStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    public static void restore(QueryStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /** Wraps the task so that, wherever it runs, it counts towards the stats bound to the submitting thread. */
+    public static Runnable propagate(Runnable task) {
+        QueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            QueryStats previous = bind(stats);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.sum();
+    }
+
+    public long getCollectionsFetched() {
+        return collectionsFetched.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    static void statementExecuted() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.increment();
+        }
+    }
+
+    static void entityLoaded() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded.increment();
+        }
+    }
+
+    static void collectionFetched() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.collectionsFetched.increment();
+        }
+    }
+
+    static void cacheLookup(boolean hit) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            (hit ? stats.cacheHits : stats.cacheMisses).increment();
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.privateschool.server.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Binds a fresh {@link QueryStats} to each request and, once the request completes, publishes it per route:
+ * hibernate.request.statements, hibernate.request.entities.loaded, hibernate.request.collections.fetched,
+ * hibernate.request.cache.hits and hibernate.request.cache.misses, tagged with the method and the route template
+ * like http.server.requests. A route whose statement count grows with the data is an N+1.
+ * <p>
+ * Runs just inside {@link InFlightRequestFilter} so the user lookup of the JWT filter counts as well.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = new QueryStats();
+        QueryStats previous = QueryStats.bind(stats);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(stats));
+                async = true;
+            }
+        } finally {
+            QueryStats.restore(previous);
+            if (!async) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = route != null ? route.toString() : "UNKNOWN";
+        summary("hibernate.request.statements", "SQL statements executed", request, uri)
+                .record(stats.getStatements());
+        summary("hibernate.request.entities.loaded", "Entities loaded", request, uri)
+                .record(stats.getEntitiesLoaded());
+        summary("hibernate.request.collections.fetched", "Lazy collections fetched", request, uri)
+                .record(stats.getCollectionsFetched());
+        summary("hibernate.request.cache.hits", "Second-level cache hits", request, uri)
+                .record(stats.getCacheHits());
+        summary("hibernate.request.cache.misses", "Second-level cache misses", request, uri)
+                .record(stats.getCacheMisses());
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description + " per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private class CompletionListener implements AsyncListener {
+
+        private final QueryStats stats;
+
+        CompletionListener(QueryStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record((HttpServletRequest) event.getSuppliedRequest(), stats);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.privateschool.server.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Counts the statements and second-level cache lookups of a Hibernate session into the current {@link QueryStats}.
+ * Hibernate creates one per session from the {@code hibernate.session.events.auto} setting, so it keeps no state.
+ * Native queries and the repositories' bulk updates go through the same JDBC path, so they are counted too.
+ */
+public class QueryStatsSessionListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.statementExecuted();
+    }
+
+    // A JDBC batch is one round trip however many rows it carries.
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.statementExecuted();
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        QueryStats.cacheLookup(hit);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.tracing.Span;
+import com.privateschool.server.tracing.Tracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call into one repository as {@code repository.invocations}, tagged with the repository, the method
+ * name and the exception it threw, if any. All three come from the code, never from arguments, so the number of
+ * series stays bounded. It also tells the {@link SlowQueryLog} which repository method its statements belong to,
+ * and records the call as a span of the request's trace.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final String repository;
+
+    private final ConcurrentMap<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Method, String> callers = new ConcurrentHashMap<>();
+
+    RepositoryMetricsInterceptor(MeterRegistry meterRegistry, String repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        String caller = callers.computeIfAbsent(method, key -> repository + "." + key.getName());
+        String previousCaller = SlowQueryLog.enter(caller);
+        Span span = Tracing.startSpan(caller);
+        long start = System.nanoTime();
+        String exception = NONE;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            span.tag("error", exception);
+            throw e;
+        } finally {
+            timer(method.getName(), exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            span.end();
+            SlowQueryLog.exit(previousCaller);
+        }
+    }
+
+    private Timer timer(String method, String exception) {
+        return timers.computeIfAbsent(new Key(method, exception), key -> Timer.builder("repository.invocations")
+                .description("Time spent in repository methods")
+                .tag("repository", repository)
+                .tag("method", key.method)
+                .tag("exception", key.exception)
+                .register(meterRegistry));
+    }
+
+    private static final class Key {
+
+        private final String method;
+
+        private final String exception;
+
+        Key(String method, String exception) {
+            this.method = method;
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return method.equals(other.method) && exception.equals(other.exception);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, exception);
+        }
+
+    }
+
+}
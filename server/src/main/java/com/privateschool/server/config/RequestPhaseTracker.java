@@ -0,0 +1,91 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.profiling.FlightEvents;
+import com.privateschool.server.tracing.Span;
+import com.privateschool.server.tracing.Tracing;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Marks the {@link RequestPhases} of a request: the handler starts at the first preHandle, serialization starts
+ * right before the body is handed to a message converter and everything ends at afterCompletion. For async
+ * requests that is the completion of the async dispatch, so the handler phase includes the executor.
+ * <p>
+ * The same two points bound the serialization flight event and the {@code write response} span of the trace, which
+ * therefore also cover writing to the socket.
+ */
+@ControllerAdvice
+public class RequestPhaseTracker implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String SERIALIZATION = RequestPhaseTracker.class.getName() + ".serialization";
+
+    private static final String WRITE_SPAN = RequestPhaseTracker.class.getName() + ".writeSpan";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestPhases phases = RequestPhases.of(request);
+        if (phases != null && phases.handlerStart == 0) {
+            phases.handlerStart = System.nanoTime();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestPhases phases = RequestPhases.of(request);
+        if (phases != null) {
+            phases.handlerEnd = System.nanoTime();
+        }
+        FlightEvents.Span serialization = (FlightEvents.Span) request.getAttribute(SERIALIZATION);
+        if (serialization != null) {
+            request.removeAttribute(SERIALIZATION);
+            serialization.finish(ex != null ? ex.getClass().getSimpleName() : String.valueOf(response.getStatus()));
+        }
+        Span write = (Span) request.getAttribute(WRITE_SPAN);
+        if (write != null) {
+            request.removeAttribute(WRITE_SPAN);
+            write.tag("error", ex != null ? ex.getClass().getSimpleName() : null).end();
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+            RequestPhases phases = RequestPhases.of(servletRequest);
+            if (phases != null) {
+                phases.bodyStart = System.nanoTime();
+            }
+            String bodyType = body != null ? body.getClass().getSimpleName() : "null";
+            Span write = Tracing.startSpan("write response");
+            if (write.isRecorded()) {
+                servletRequest.setAttribute(WRITE_SPAN,
+                        write.tag("body.type", bodyType).tag("content.type", selectedContentType));
+            }
+            if (FlightEvents.isAvailable()) {
+                servletRequest.setAttribute(SERIALIZATION,
+                        FlightEvents.serialization(bodyType, String.valueOf(selectedContentType)));
+            }
+        }
+        return body;
+    }
+
+}
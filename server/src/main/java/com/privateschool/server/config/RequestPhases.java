@@ -0,0 +1,33 @@
+package com.privateschool.server.config;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * When a request reached its handler, started writing its body and finished, stored on the request by
+ * {@link SlowRequestFilter} and filled in by {@link RequestPhaseTracker}. Async requests set these from different
+ * threads, hence volatile; zero means the point was never reached.
+ */
+final class RequestPhases {
+
+    private static final String ATTRIBUTE = RequestPhases.class.getName();
+
+    final long start = System.nanoTime();
+
+    volatile long handlerStart;
+
+    volatile long bodyStart;
+
+    volatile long handlerEnd;
+
+    static RequestPhases start(HttpServletRequest request) {
+        RequestPhases phases = new RequestPhases();
+        request.setAttribute(ATTRIBUTE, phases);
+        return phases;
+    }
+
+    /** The phases of the request, or null if {@link SlowRequestFilter} is not installed. */
+    static RequestPhases of(HttpServletRequest request) {
+        return (RequestPhases) request.getAttribute(ATTRIBUTE);
+    }
+
+}
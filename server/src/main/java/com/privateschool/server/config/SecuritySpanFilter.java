@@ -0,0 +1,49 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.tracing.Span;
+import com.privateschool.server.tracing.Tracing;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Traces the Spring Security filter chain, JWT checks included: registered right before it to start the span, and
+ * its {@link End} right after it to end the span once the request is let through. A request that security turns
+ * away never reaches the End, so its span ends on the way out instead.
+ */
+public class SecuritySpanFilter extends OncePerRequestFilter {
+
+    private static final String SPAN = SecuritySpanFilter.class.getName() + ".span";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = Tracing.startSpan("security");
+        request.setAttribute(SPAN, span);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            request.removeAttribute(SPAN);
+            span.end();
+        }
+    }
+
+    public static class End extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            Span span = (Span) request.getAttribute(SPAN);
+            if (span != null) {
+                span.end();
+            }
+            chain.doFilter(request, response);
+        }
+
+    }
+
+}
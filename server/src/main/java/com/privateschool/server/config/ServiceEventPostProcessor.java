@@ -0,0 +1,37 @@
+package com.privateschool.server.config;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+
+/**
+ * Adds a {@link ServiceEventInterceptor} to every {@code @Service} of the application, so a flight recording shows
+ * where requests spend their time between the controllers and the repositories.
+ */
+class ServiceEventPostProcessor implements BeanPostProcessor {
+
+    private static final String SERVICE_PACKAGE = "com.privateschool.server.service";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> type = AopUtils.getTargetClass(bean);
+        if (!type.getName().startsWith(SERVICE_PACKAGE)
+                || !AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return bean;
+        }
+        ServiceEventInterceptor interceptor = new ServiceEventInterceptor(type.getSimpleName());
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            // Outermost, so the event includes the transaction around the call.
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.privateschool.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SlowLogConfig {
+
+    // Static, so it exists before the data source it wraps. A negative threshold leaves the data source alone.
+    @Bean
+    public static BeanPostProcessor slowQueryPostProcessor(
+            @Value("${app.slow-query.threshold-ms:200}") long thresholdMs,
+            @Value("${app.slow-query.bind-sample-rate:0}") double bindSampleRate) {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(thresholdMs, bindSampleRate);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (thresholdMs < 0 || !(bean instanceof DataSource) || bean instanceof SlowQueryDataSource) {
+                    return bean;
+                }
+                return new SlowQueryDataSource((DataSource) bean, slowQueryLog);
+            }
+        };
+    }
+
+    @Bean
+    public SlowRequestFilter slowRequestFilter(@Value("${app.slow-request.threshold-ms:1000}") long thresholdMs) {
+        return new SlowRequestFilter(thresholdMs);
+    }
+
+}
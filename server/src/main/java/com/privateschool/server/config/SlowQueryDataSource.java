@@ -0,0 +1,148 @@
+package com.privateschool.server.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+
+/**
+ * Times every statement executed through the pool and hands it to the {@link SlowQueryLog}. Connections and
+ * statements are wrapped in JDK proxies that forward everything; a statement only keeps its binds when it was
+ * sampled for them.
+ */
+class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryLog slowQueryLog;
+
+    SlowQueryDataSource(DataSource target, SlowQueryLog slowQueryLog) {
+        super(target);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Hibernate tracks connections and statements in hash maps, so identity must be the proxy's.
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = forward(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrap(PreparedStatement.class, (Statement) result, (String) args[0], (Connection) proxy);
+                case "prepareCall":
+                    return wrap(CallableStatement.class, (Statement) result, (String) args[0], (Connection) proxy);
+                case "createStatement":
+                    return wrap(Statement.class, (Statement) result, null, (Connection) proxy);
+                default:
+                    return result;
+            }
+        }
+
+        private Object wrap(Class<?> type, Statement statement, String sql, Connection connection) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, sql, connection));
+        }
+
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final String sql;
+
+        private final Connection connection;
+
+        // Only sampled statements record binds, keyed by parameter index.
+        private final Map<Integer, Object> binds;
+
+        StatementHandler(Statement target, String sql, Connection connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+            this.binds = sql != null && slowQueryLog.sampleBinds() ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return connection;
+                case "clearParameters":
+                    if (binds != null) {
+                        binds.clear();
+                    }
+                    return forward(target, method, args);
+                default:
+                    break;
+            }
+            if (binds != null && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                binds.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            }
+            if (!name.startsWith("execute")) {
+                return forward(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return forward(target, method, args);
+            } finally {
+                String executed = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : "batch";
+                slowQueryLog.executed(executed, System.nanoTime() - start, binds);
+            }
+        }
+
+    }
+
+}
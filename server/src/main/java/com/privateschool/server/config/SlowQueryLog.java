@@ -0,0 +1,89 @@
+package com.privateschool.server.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs statements that take at least {@code app.slow-query.threshold-ms}, with their execution time, the repository
+ * method that ran them and, for a sampled fraction ({@code app.slow-query.bind-sample-rate}), their bind values.
+ * Replaces logging every statement and bind through {@code org.hibernate.SQL} and {@code BasicBinder}: fast
+ * statements cost a clock read, and binds are only recorded for the statements picked for sampling.
+ * <p>
+ * Bind values can hold personal data, so sampling is off unless configured.
+ */
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+
+    private static final int MAX_BIND_LENGTH = 100;
+
+    private final long thresholdNanos;
+
+    private final double bindSampleRate;
+
+    public SlowQueryLog(long thresholdMs, double bindSampleRate) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.bindSampleRate = bindSampleRate;
+    }
+
+    /** Marks the repository method running on this thread and returns the previous one, for {@link #exit}. */
+    static String enter(String caller) {
+        String previous = CALLER.get();
+        CALLER.set(caller);
+        return previous;
+    }
+
+    static void exit(String previous) {
+        if (previous == null) {
+            CALLER.remove();
+        } else {
+            CALLER.set(previous);
+        }
+    }
+
+    /** Whether a statement about to be prepared should record its binds, in case it turns out slow. */
+    boolean sampleBinds() {
+        return bindSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < bindSampleRate;
+    }
+
+    /** Called after every statement; binds is null unless the statement was sampled. */
+    void executed(String sql, long nanos, Map<Integer, Object> binds) {
+        if (nanos < thresholdNanos || !log.isWarnEnabled()) {
+            return;
+        }
+        String caller = CALLER.get();
+        StringBuilder message = new StringBuilder("Slow query took ")
+                .append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms in ")
+                .append(caller != null ? caller : "no repository").append(": ").append(sql);
+        if (binds != null) {
+            message.append(" binds [");
+            binds.forEach((index, value) -> message.append(index).append('=').append(render(value)).append(", "));
+            if (!binds.isEmpty()) {
+                message.setLength(message.length() - 2);
+            }
+            message.append(']');
+        }
+        log.warn(message.toString());
+    }
+
+    private static String render(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_BIND_LENGTH) {
+            text = text.substring(0, MAX_BIND_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+}
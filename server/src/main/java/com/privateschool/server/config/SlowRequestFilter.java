@@ -0,0 +1,118 @@
+package com.privateschool.server.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Logs requests that take at least {@code app.slow-request.threshold-ms}, split into the time spent in filters
+ * (security, the JWT user lookup, idempotency), in the handler and the services it calls, and in serializing the
+ * response, plus the number of SQL statements from {@link QueryStats}. Async requests are logged when their async
+ * work completes. A negative threshold turns the log off.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestFilter.class);
+
+    private final long thresholdNanos;
+
+    public SlowRequestFilter(long thresholdMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPhases phases = RequestPhases.start(request);
+        QueryStats stats = QueryStats.current();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(phases, stats));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                completed(request, response, phases, stats);
+            }
+        }
+    }
+
+    private void completed(HttpServletRequest request, HttpServletResponse response, RequestPhases phases,
+                           QueryStats stats) {
+        long end = System.nanoTime();
+        long total = end - phases.start;
+        if (thresholdNanos < 0 || total < thresholdNanos || !log.isWarnEnabled()) {
+            return;
+        }
+        long handler = 0;
+        long serialization = 0;
+        long filters = total;
+        if (phases.handlerStart != 0) {
+            long handlerEnd = phases.handlerEnd != 0 ? phases.handlerEnd : end;
+            handler = (phases.bodyStart != 0 ? phases.bodyStart : handlerEnd) - phases.handlerStart;
+            serialization = phases.bodyStart != 0 ? handlerEnd - phases.bodyStart : 0;
+            filters = total - (handlerEnd - phases.handlerStart);
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringBuilder message = new StringBuilder("Slow request ").append(request.getMethod()).append(' ')
+                .append(route != null ? route : request.getRequestURI()).append(' ').append(response.getStatus())
+                .append(" took ").append(millis(total)).append(" ms: filters ").append(millis(filters))
+                .append(" ms, handler ").append(millis(handler))
+                .append(" ms, serialization ").append(millis(serialization)).append(" ms");
+        if (stats != null) {
+            message.append(", ").append(stats.getStatements()).append(" statements");
+        }
+        log.warn(message.toString());
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private class CompletionListener implements AsyncListener {
+
+        private final RequestPhases phases;
+
+        private final QueryStats stats;
+
+        CompletionListener(RequestPhases phases, QueryStats stats) {
+            this.phases = phases;
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            completed((HttpServletRequest) event.getSuppliedRequest(),
+                    (HttpServletResponse) event.getSuppliedResponse(), phases, stats);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.profiling.FlightEvents;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records how long hashing and checking passwords take, as {@code password.hash} with an {@code operation} tag.
+ * BCrypt is deliberately slow, so these timers are usually what login and registration latency is made of.
+ * Checks are also recorded as Password Match flight events; the user is on the enclosing
+ * {@code loadUserByUsername} service call event, since the encoder never sees it.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final Timer encode;
+
+    private final Timer matches;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encode = timer("encode", meterRegistry);
+        this.matches = timer("matches", meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encode.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer.Sample sample = Timer.start();
+        FlightEvents.Span span = FlightEvents.passwordMatch();
+        String outcome = "error";
+        try {
+            boolean matched = delegate.matches(rawPassword, encodedPassword);
+            outcome = matched ? "match" : "mismatch";
+            return matched;
+        } finally {
+            sample.stop(matches);
+            span.finish(outcome);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hash")
+                .description("Time spent hashing or checking a password")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+}
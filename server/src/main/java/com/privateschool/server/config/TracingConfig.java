@@ -0,0 +1,61 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.tracing.SpanExporter;
+import com.privateschool.server.tracing.Tracer;
+import com.privateschool.server.tracing.ZipkinFileSpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.stream.Collectors;
+
+// Spans go to every SpanExporter bean; the Zipkin file is the default one and app.tracing.file.enabled=false drops it.
+@Configuration
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true")
+public class TracingConfig {
+
+    @Bean
+    public Tracer tracer(ObjectProvider<SpanExporter> exporters,
+                         @Value("${app.tracing.sample-rate:1.0}") double sampleRate) {
+        return new Tracer(sampleRate, exporters.orderedStream().collect(Collectors.toList()));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "app.tracing.file.enabled", havingValue = "true", matchIfMissing = true)
+    public ZipkinFileSpanExporter zipkinFileSpanExporter(
+            @Value("${spring.application.name:server}") String serviceName,
+            @Value("${app.tracing.file.name:logs/traces.json}") String file,
+            @Value("${app.tracing.file.max-size:50MB}") String maxFileSize,
+            @Value("${app.tracing.file.max-history:7}") int maxHistory,
+            @Value("${app.tracing.file.total-size-cap:1GB}") String totalSizeCap) {
+        return new ZipkinFileSpanExporter(serviceName, file, maxFileSize, maxHistory, totalSizeCap);
+    }
+
+    @Bean
+    public TracingFilter tracingFilter(Tracer tracer) {
+        return new TracingFilter(tracer);
+    }
+
+    // The two halves of the security span sit right around Spring Security's filter chain, ahead of the
+    // idempotency filter.
+    @Bean
+    public FilterRegistrationBean<SecuritySpanFilter> securitySpanFilter() {
+        FilterRegistrationBean<SecuritySpanFilter> registration =
+                new FilterRegistrationBean<>(new SecuritySpanFilter());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<SecuritySpanFilter.End> securitySpanEndFilter() {
+        FilterRegistrationBean<SecuritySpanFilter.End> registration =
+                new FilterRegistrationBean<>(new SecuritySpanFilter.End());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.tracing.Span;
+import com.privateschool.server.tracing.Tracer;
+import com.privateschool.server.tracing.Tracing;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Starts the root span of each request and binds it, with its ids in the MDC, for everything the request runs. The
+ * span is named after the route template once it is known and ends when the response is complete, which for async
+ * requests is when their async work completes. The trace id goes back to the client as {@code X-Trace-Id}.
+ * <p>
+ * Runs outside Spring Security, so the {@link SecuritySpanFilter} span and the JWT user lookup fall in the trace.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private static final String ROOT = TracingFilter.class.getName() + ".root";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    // The async dispatch writes the response on another thread, so the trace is bound there again.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span root = (Span) request.getAttribute(ROOT);
+        boolean dispatch = root != null;
+        if (!dispatch) {
+            root = tracer.startTrace(request.getMethod() + " " + request.getRequestURI(),
+                    request.getHeader("traceparent"));
+            root.tag("http.method", request.getMethod()).tag("http.path", request.getRequestURI());
+            request.setAttribute(ROOT, root);
+            response.setHeader(TRACE_ID_HEADER, root.getTraceId());
+        }
+        Span previous = Tracing.bind(root);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                if (!dispatch) {
+                    request.getAsyncContext().addListener(new CompletionListener(root));
+                }
+                async = true;
+            }
+        } finally {
+            Tracing.restore(previous);
+            if (!async && !isAsyncDispatch(request)) {
+                completed(root, request, response);
+            }
+        }
+    }
+
+    private static void completed(Span root, HttpServletRequest request, HttpServletResponse response) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route != null) {
+            root.name(request.getMethod() + " " + route).tag("http.route", route);
+        }
+        root.tag("http.status_code", response.getStatus());
+        if (response.getStatus() >= 500) {
+            root.tag("error", response.getStatus());
+        }
+        root.end();
+    }
+
+    private static class CompletionListener implements AsyncListener {
+
+        private final Span root;
+
+        CompletionListener(Span root) {
+            this.root = root;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            completed(root, (HttpServletRequest) event.getSuppliedRequest(),
+                    (HttpServletResponse) event.getSuppliedResponse());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
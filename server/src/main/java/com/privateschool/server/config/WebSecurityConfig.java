@@ -3,8 +3,10 @@ package com.privateschool.server.config;
 import com.privateschool.server.jwt.JwtAuthorizationFilter;
 import com.privateschool.server.jwt.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -26,8 +28,14 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
+        if (virtualThreads) {
+            return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), Runtime.getRuntime().availableProcessors());
+        }
         return new BCryptPasswordEncoder();
     }
 
@@ -36,8 +44,13 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         //Cross-origin-resource-sharing: localhost:8080, localhost:4200, 3000(allow for it.)
         http.cors().and()
                 .authorizeRequests()
+                //Raising log levels, recording the JVM and hot-path statistics are for managers only.
+                .antMatchers("/actuator/logscopes/**", "/actuator/flightrecording/**", "/actuator/hotpaths/**")
+                .hasRole("MANAGER")
                 //These are public pages.
                 .antMatchers("/resources/**", "/error", "/api/user/**", "/actuator/**").permitAll()
+                //Batch calls are authorized per sub-request by the batch dispatcher.
+                .antMatchers(HttpMethod.POST, "/api/batch").permitAll()
                 //These can be reachable for just have student role.
                 .antMatchers("/api/student/**").hasRole("STUDENT")
                 //These can be reachable for just have teacher role.
@@ -0,0 +1,27 @@
+package com.privateschool.server.controller;
+
+import com.privateschool.server.batch.BatchDispatcher;
+import com.privateschool.server.dto.BatchRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@RestController
+public class BatchController {
+
+    @Autowired
+    private BatchDispatcher batchDispatcher;
+
+    @PostMapping(value = "/api/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> batch(@RequestBody BatchRequest batch, HttpServletRequest request,
+                                   HttpServletResponse response) {
+        return ResponseEntity.ok(batchDispatcher.dispatch(batch, request, response));
+    }
+
+}
@@ -1,10 +1,22 @@
 package com.privateschool.server.controller;
 
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.dto.NormalizedEnrollmentsResponse;
+import com.privateschool.server.dto.ResponseMapper;
+import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.service.CourseStudentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.List;
 
 @RestController
 public class ManagerController {
@@ -12,9 +24,30 @@ public class ManagerController {
     @Autowired
     private CourseStudentService courseStudentService;
 
+    @Autowired
+    @Qualifier("reportExecutor")
+    private AsyncTaskExecutor reportExecutor;
+
+    @Value("${app.async.timeout-ms:15000}")
+    private long timeoutMs;
+
     @GetMapping("/api/manager/enrollments")
-    public ResponseEntity<?> findAllEnrollments() {
-        return ResponseEntity.ok(courseStudentService.findAllEnrollments());
+    public WebAsyncTask<ResponseEntity<?>> findAllEnrollments(
+            @RequestParam(defaultValue = "false") boolean normalized,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.ENROLLMENT_FIELDS);
+        WebAsyncTask<ResponseEntity<?>> task = new WebAsyncTask<>(timeoutMs, reportExecutor, () -> {
+            if (selection != null) {
+                return ResponseEntity.ok(courseStudentService.findAllEnrollments(selection));
+            }
+            List<CourseStudent> enrollments = courseStudentService.findAllEnrollments();
+            if (normalized) {
+                return ResponseEntity.ok(NormalizedEnrollmentsResponse.of(enrollments));
+            }
+            return ResponseEntity.ok(ResponseMapper.enrollments(enrollments));
+        });
+        task.onTimeout(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        return task;
     }
 
 }
@@ -0,0 +1,96 @@
+package com.privateschool.server.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resolves the Accept header of a cacheable route before its ETag is built. Left to the message converters, the
+ * format would only be picked after the tag went out, and a JSON, CBOR and Smile body of the same data would all
+ * share one tag. The resolved type is also set as the response's content type, so the body is written in exactly
+ * the format the tag names.
+ */
+final class Negotiation {
+
+    static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // In order of preference, so */* and a missing Accept header still get JSON.
+    private static final List<MediaType> PRODUCIBLE = Arrays.asList(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, SMILE);
+
+    private Negotiation() {
+    }
+
+    static MediaType mediaType(String accept) {
+        if (accept == null || accept.trim().isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed Accept header", e);
+        }
+        MediaType.sortBySpecificityAndQuality(acceptable);
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producible : PRODUCIBLE) {
+                if (mediaType.isCompatibleWith(producible) && quality(acceptable, producible) > 0) {
+                    return producible;
+                }
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Acceptable representations: " + PRODUCIBLE);
+    }
+
+    /**
+     * A 304 has to repeat the Vary headers of the full response, but the response body advice that adds
+     * {@code Vary: Accept} never runs for it. Adds them, with any others the route varies on, when the request is
+     * answered with a 304.
+     */
+    static boolean checkNotModified(WebRequest request, String eTag, String... vary) {
+        if (!request.checkNotModified(eTag)) {
+            return false;
+        }
+        HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            for (String header : vary) {
+                response.addHeader(HttpHeaders.VARY, header);
+            }
+        }
+        return true;
+    }
+
+    // The quality of the most specific range that names the type: application/json;q=0 refuses JSON even next to */*.
+    private static double quality(List<MediaType> acceptable, MediaType producible) {
+        List<MediaType> bySpecificity = new ArrayList<>(acceptable);
+        MediaType.sortBySpecificity(bySpecificity);
+        for (MediaType mediaType : bySpecificity) {
+            if (mediaType.includes(producible)) {
+                return mediaType.getQualityValue();
+            }
+        }
+        return 0;
+    }
+
+    /** Appends the format to the ETag of a non-JSON body; JSON keeps the plain tag. */
+    static String eTag(String eTag, MediaType mediaType) {
+        if (MediaType.APPLICATION_JSON.equals(mediaType)) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + "-" + mediaType.getSubtype() + "\"";
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.privateschool.server.controller;
+
+import com.privateschool.server.service.EnrollmentNotFoundException;
+import com.privateschool.server.service.InvalidEnrollmentException;
+import com.privateschool.server.service.UsernameTakenException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    // A saturated executor fails fast so clients back off instead of tying up more container threads. A timed-out
+    // async task is cancelled with an interrupt, which can surface before the timeout result; both mean "try later".
+    @ExceptionHandler({TaskRejectedException.class, InterruptedException.class})
+    public ResponseEntity<?> handleUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+
+    // The services throw domain exceptions and the status is chosen here. sendError keeps Boot's usual error body.
+    @ExceptionHandler(InvalidEnrollmentException.class)
+    public void handleInvalidEnrollment(InvalidEnrollmentException e, HttpServletResponse response)
+            throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(UsernameTakenException.class)
+    public void handleUsernameTaken(UsernameTakenException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(EnrollmentNotFoundException.class)
+    public void handleEnrollmentNotFound(EnrollmentNotFoundException e, HttpServletResponse response)
+            throws IOException {
+        response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+    }
+
+}
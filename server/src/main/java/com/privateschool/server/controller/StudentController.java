@@ -1,12 +1,23 @@
 package com.privateschool.server.controller;
 
+import com.privateschool.server.dto.EnrollmentResponse;
+import com.privateschool.server.dto.EnrollmentResult;
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.dto.ResponseMapper;
+import com.privateschool.server.dto.WaitlistResponse;
+import com.privateschool.server.hotpath.HotKeys;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.service.CourseStudentService;
+import com.privateschool.server.service.ResourceVersionService;
+import com.privateschool.server.service.WaitlistService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,18 +28,67 @@ public class StudentController {
     @Autowired
     private CourseStudentService courseStudentService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
     @GetMapping("/api/student/courses/{studentId}")
-    public ResponseEntity<?> findAllCoursesOfStudent(@PathVariable Long studentId) {
+    public ResponseEntity<?> findAllCoursesOfStudent(@PathVariable Long studentId,
+                                                     @RequestParam(required = false) String fields,
+                                                     WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.COURSE_FIELDS);
+        MediaType mediaType = Negotiation.mediaType(request.getHeader(HttpHeaders.ACCEPT));
+        String eTag = resourceVersionService.studentCoursesETag(studentId);
+        if (selection != null) {
+            eTag = selection.eTag(eTag);
+        }
+        eTag = Negotiation.eTag(eTag, mediaType);
+        if (Negotiation.checkNotModified(request, eTag)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok().eTag(eTag).contentType(mediaType)
+                    .body(courseStudentService.findAllCoursesOfStudent(studentId, selection));
+        }
         List<Course> courseList =
                 courseStudentService.findAllCoursesOfStudent(studentId).stream()
                         .map(cs -> cs.getCourse())
                         .collect(Collectors.toList());
-        return new ResponseEntity<>(courseList, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(eTag).contentType(mediaType).body(ResponseMapper.courses(courseList));
     }
 
     @PostMapping("/api/student/enroll")
     public ResponseEntity<?> enroll(@RequestBody CourseStudent courseStudent) {
-        return new ResponseEntity<>(courseStudentService.saveCourseStudent(courseStudent), HttpStatus.CREATED);
+        HotKeys.course(courseStudent.getCourse() != null ? courseStudent.getCourse().getId() : null);
+        EnrollmentResult result = courseStudentService.enroll(courseStudent);
+        if (result.isWaitlisted()) {
+            // 202: the course is full and the student waits for a seat.
+            return ResponseEntity.accepted()
+                    .body(new WaitlistResponse(courseStudent.getCourse().getId(), result.getWaitlistPosition()));
+        }
+        // 201 for a new enrollment, 200 with the existing one when the student was already enrolled.
+        return new ResponseEntity<>(EnrollmentResponse.of(result.getEnrollment()),
+                result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    // Drops the enrollment, or the waitlist spot if the student is still waiting; a freed seat goes to the waitlist.
+    @DeleteMapping("/api/student/courses/{studentId}/{courseId}")
+    public ResponseEntity<?> unenroll(@PathVariable Long studentId, @PathVariable Long courseId) {
+        HotKeys.course(courseId);
+        courseStudentService.unenroll(studentId, courseId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/api/student/courses/{studentId}/waitlist/{courseId}")
+    public ResponseEntity<?> waitlistPosition(@PathVariable Long studentId, @PathVariable Long courseId) {
+        HotKeys.course(courseId);
+        Integer position = waitlistService.position(studentId, courseId);
+        if (position == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new WaitlistResponse(courseId, position));
     }
 
 }
@@ -1,13 +1,27 @@
 package com.privateschool.server.controller;
 
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.dto.ResponseMapper;
+import com.privateschool.server.hotpath.HotKeys;
 import com.privateschool.server.model.User;
 import com.privateschool.server.service.CourseStudentService;
+import com.privateschool.server.service.EnrollmentEventService;
+import com.privateschool.server.service.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,13 +32,54 @@ public class TeacherController {
     @Autowired
     private CourseStudentService courseStudentService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private EnrollmentEventService enrollmentEventService;
+
+    @Autowired
+    @Qualifier("reportExecutor")
+    private AsyncTaskExecutor reportExecutor;
+
+    @Value("${app.async.timeout-ms:15000}")
+    private long timeoutMs;
+
     @GetMapping("/api/teacher/students/{teacherId}")
-    public ResponseEntity<?> findAllStudentsOfInstructor(@PathVariable Long teacherId) {
-        List<User> students =
-                courseStudentService.findAllStudentsOfInstructor(teacherId).stream()
-                        .map(cs -> cs.getStudent())
-                        .collect(Collectors.toList());
-        return new ResponseEntity<>(students, HttpStatus.OK);
+    public WebAsyncTask<ResponseEntity<?>> findAllStudentsOfInstructor(@PathVariable Long teacherId,
+                                                                       @RequestParam(required = false) String fields,
+                                                                       WebRequest request) {
+        HotKeys.teacher(teacherId);
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.USER_FIELDS);
+        MediaType mediaType = Negotiation.mediaType(request.getHeader(HttpHeaders.ACCEPT));
+        String eTag = resourceVersionService.instructorRosterETag(teacherId);
+        if (selection != null) {
+            eTag = selection.eTag(eTag);
+        }
+        eTag = Negotiation.eTag(eTag, mediaType);
+        if (Negotiation.checkNotModified(request, eTag)) {
+            return null;
+        }
+        String tag = eTag;
+        WebAsyncTask<ResponseEntity<?>> task = new WebAsyncTask<>(timeoutMs, reportExecutor, () -> {
+            if (selection != null) {
+                return ResponseEntity.ok().eTag(tag).contentType(mediaType)
+                        .body(courseStudentService.findAllStudentsOfInstructor(teacherId, selection));
+            }
+            List<User> students =
+                    courseStudentService.findAllStudentsOfInstructor(teacherId).stream()
+                            .map(cs -> cs.getStudent())
+                            .collect(Collectors.toList());
+            return ResponseEntity.ok().eTag(tag).contentType(mediaType).body(ResponseMapper.users(students));
+        });
+        task.onTimeout(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        return task;
+    }
+
+    @GetMapping(value = "/api/teacher/students/{teacherId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEnrollments(@PathVariable Long teacherId) {
+        HotKeys.teacher(teacherId);
+        return enrollmentEventService.subscribe(teacherId);
     }
 
 }
@@ -1,22 +1,36 @@
 package com.privateschool.server.controller;
 
+import com.privateschool.server.cache.CourseCatalogCache;
+import com.privateschool.server.dto.EnrollmentResponse;
+import com.privateschool.server.dto.EnrollmentResult;
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.dto.ResponseMapper;
+import com.privateschool.server.dto.UserResponse;
+import com.privateschool.server.dto.WaitlistResponse;
+import com.privateschool.server.hotpath.HotKeys;
 import com.privateschool.server.jwt.JwtTokenProvider;
 import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
 import com.privateschool.server.service.CourseService;
 import com.privateschool.server.service.CourseStudentService;
+import com.privateschool.server.service.ResourceVersionService;
 import com.privateschool.server.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.security.Principal;
+import java.util.Locale;
 
 @RestController
 public class UserController {
@@ -33,13 +47,17 @@ public class UserController {
     @Autowired
     private CourseStudentService courseStudentService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private CourseCatalogCache courseCatalogCache;
+
     @PostMapping("/api/user/registration")
     public ResponseEntity<?> register(@RequestBody User user) {
-        if (userService.findByUsername(user.getUsername()) != null) {
-            return new ResponseEntity<>(HttpStatus.CONFLICT);
-        }
+        // A taken username surfaces as 409 from the service, whether it was seen up front or hit the unique index.
         user.setRole(Role.STUDENT);
-        return new ResponseEntity<>(userService.saveUser(user), HttpStatus.CREATED);
+        return new ResponseEntity<>(UserResponse.of(userService.register(user)), HttpStatus.CREATED);
     }
 
     @GetMapping("/api/user/login")
@@ -58,17 +76,86 @@ public class UserController {
             return ResponseEntity.ok().build();
         }
         user.setToken(tokenProvider.generateToken(authenticationToken));
-        return new ResponseEntity<>(user, HttpStatus.OK);
+        return new ResponseEntity<>(UserResponse.of(user), HttpStatus.OK);
     }
 
     @PostMapping("/api/user/enroll")
     public ResponseEntity<?> enrollCourse(@RequestBody CourseStudent courseStudent) {
-        return new ResponseEntity<>(courseStudentService.saveCourseStudent(courseStudent), HttpStatus.CREATED);
+        HotKeys.course(courseStudent.getCourse() != null ? courseStudent.getCourse().getId() : null);
+        EnrollmentResult result = courseStudentService.enroll(courseStudent);
+        if (result.isWaitlisted()) {
+            // 202: the course is full and the student waits for a seat.
+            return ResponseEntity.accepted()
+                    .body(new WaitlistResponse(courseStudent.getCourse().getId(), result.getWaitlistPosition()));
+        }
+        return new ResponseEntity<>(EnrollmentResponse.of(result.getEnrollment()),
+                result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK);
     }
 
     @GetMapping("/api/user/courses")
-    public ResponseEntity<?> getAllCourses() {
-        return ResponseEntity.ok(courseService.findAllCourses());
+    public ResponseEntity<?> getAllCourses(@RequestParam(required = false) String fields, WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields, FieldSelection.COURSE_FIELDS);
+        MediaType mediaType = Negotiation.mediaType(request.getHeader(HttpHeaders.ACCEPT));
+        String eTag = resourceVersionService.catalogETag();
+        if (selection != null) {
+            eTag = selection.eTag(eTag);
+        }
+        eTag = Negotiation.eTag(eTag, mediaType);
+        // The precompressed catalog is the only body whose gzip bytes are ours, so it gets a tag of its own.
+        boolean precompressed = selection == null && MediaType.APPLICATION_JSON.equals(mediaType);
+        boolean gzip = precompressed && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String responseETag = gzip ? eTag.substring(0, eTag.length() - 1) + "-gz\"" : eTag;
+        if (precompressed ? Negotiation.checkNotModified(request, responseETag, HttpHeaders.ACCEPT_ENCODING)
+                : Negotiation.checkNotModified(request, responseETag)) {
+            return null;
+        }
+        if (selection != null) {
+            return ResponseEntity.ok().eTag(eTag).contentType(mediaType)
+                    .body(courseService.findAllCourses(selection));
+        }
+        if (!precompressed) {
+            return ResponseEntity.ok().eTag(eTag).contentType(mediaType)
+                    .body(ResponseMapper.courses(courseService.findAllCourses()));
+        }
+        CourseCatalogCache.Payload payload = courseCatalogCache.get(eTag);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(responseETag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(courseCatalogCache.body(payload, gzip));
+    }
+
+    // gzip counts as accepted unless its q-value (or that of *, when gzip is not listed) is 0.
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        double quality = gzip != null ? gzip : any != null ? any : 0;
+        return quality > 0;
     }
 
 }
@@ -0,0 +1,30 @@
+package com.privateschool.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest implements Serializable {
+
+    private List<Item> requests;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item implements Serializable {
+
+        private String id;
+
+        private String method = "GET";
+
+        private String path;
+
+    }
+
+}
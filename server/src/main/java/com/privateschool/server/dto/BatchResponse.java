@@ -0,0 +1,38 @@
+package com.privateschool.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse implements Serializable {
+
+    private List<Item> responses;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Item implements Serializable {
+
+        private String id;
+
+        private int status;
+
+        private Map<String, String> headers;
+
+        // Sub-responses are already JSON, so they are embedded as-is instead of being parsed and re-serialized.
+        @JsonRawValue
+        private String body;
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.Course;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseResponse implements Serializable {
+
+    private Long id;
+
+    private String name;
+
+    private UserResponse instructor;
+
+    public static CourseResponse of(Course course) {
+        return of(course, new ResponseCache());
+    }
+
+    static CourseResponse of(Course course, ResponseCache cache) {
+        if (course == null) {
+            return null;
+        }
+        return new CourseResponse(course.getId(), course.getName(), cache.user(course.getInstructor()));
+    }
+
+}
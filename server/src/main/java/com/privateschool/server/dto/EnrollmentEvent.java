@@ -0,0 +1,33 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.CourseStudent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * "Student X enrolled in course Y", pushed to the instructor's roster page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentEvent implements Serializable {
+
+    private Long enrollmentId;
+
+    private Long courseId;
+
+    private String courseName;
+
+    private UserResponse student;
+
+    public static EnrollmentEvent of(CourseStudent courseStudent) {
+        return new EnrollmentEvent(courseStudent.getId(),
+                courseStudent.getCourse() != null ? courseStudent.getCourse().getId() : null,
+                courseStudent.getCourse() != null ? courseStudent.getCourse().getName() : null,
+                UserResponse.of(courseStudent.getStudent()));
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.CourseStudent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentResponse implements Serializable {
+
+    private Long id;
+
+    private UserResponse student;
+
+    private CourseResponse course;
+
+    public static EnrollmentResponse of(CourseStudent courseStudent) {
+        return of(courseStudent, new ResponseCache());
+    }
+
+    static EnrollmentResponse of(CourseStudent courseStudent, ResponseCache cache) {
+        return new EnrollmentResponse(courseStudent.getId(), cache.user(courseStudent.getStudent()),
+                cache.course(courseStudent.getCourse()));
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.CourseStudent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The enrollment row after an enroll call, and whether this call created it or found it already there. When the
+ * course was full the student is on its waitlist instead and there is only their position.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EnrollmentResult {
+
+    private final CourseStudent enrollment;
+
+    private final boolean created;
+
+    private final Integer waitlistPosition;
+
+    public static EnrollmentResult created(CourseStudent enrollment) {
+        return new EnrollmentResult(enrollment, true, null);
+    }
+
+    public static EnrollmentResult existing(CourseStudent enrollment) {
+        return new EnrollmentResult(enrollment, false, null);
+    }
+
+    public static EnrollmentResult waitlisted(int position) {
+        return new EnrollmentResult(null, false, position);
+    }
+
+    public boolean isWaitlisted() {
+        return waitlistPosition != null;
+    }
+
+}
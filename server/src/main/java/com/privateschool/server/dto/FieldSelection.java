@@ -0,0 +1,105 @@
+package com.privateschool.server.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A validated {@code ?fields=} list such as {@code name,instructor.name}. Dotted names address nested
+ * objects and come back as nested JSON. Only whitelisted fields can be requested, so credentials are never
+ * reachable through a projection.
+ */
+public final class FieldSelection {
+
+    public static final Set<String> USER_FIELDS = fields("id", "name", "username", "role");
+
+    public static final Set<String> COURSE_FIELDS = fields("id", "name", nested("instructor", USER_FIELDS));
+
+    public static final Set<String> ENROLLMENT_FIELDS = fields("id", nested("student", USER_FIELDS),
+            nested("course", COURSE_FIELDS));
+
+    private final List<String> fields;
+
+    private FieldSelection(List<String> fields) {
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    public static FieldSelection parse(String param, Set<String> allowed) {
+        if (param == null || param.trim().isEmpty()) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : param.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + name);
+            }
+            fields.add(name);
+        }
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return new FieldSelection(new ArrayList<>(fields));
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Appends the selected fields themselves to the ETag, sorted so the order they were asked in does not matter.
+     * The whitelist keeps them to letters and dots, and unlike a hash two different selections can never collide.
+     */
+    public String eTag(String eTag) {
+        List<String> sorted = new ArrayList<>(fields);
+        Collections.sort(sorted);
+        return eTag.substring(0, eTag.length() - 1) + "-f" + String.join(",", sorted) + "\"";
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toRow(Object[] values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            Map<String, Object> target = row;
+            String[] parts = fields.get(i).split("\\.");
+            for (int p = 0; p < parts.length - 1; p++) {
+                target = (Map<String, Object>) target.computeIfAbsent(parts[p], k -> new LinkedHashMap<>());
+            }
+            target.put(parts[parts.length - 1], values[i]);
+        }
+        return row;
+    }
+
+    private static Set<String> fields(Object... entries) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (Object entry : entries) {
+            if (entry instanceof Set) {
+                for (Object field : (Set<?>) entry) {
+                    fields.add((String) field);
+                }
+            } else {
+                fields.add((String) entry);
+            }
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    private static Set<String> nested(String prefix, Set<String> fields) {
+        Set<String> nested = new LinkedHashSet<>();
+        for (String field : fields) {
+            nested.add(prefix + "." + field);
+        }
+        return nested;
+    }
+
+}
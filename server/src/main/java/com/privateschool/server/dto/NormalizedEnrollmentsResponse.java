@@ -0,0 +1,95 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrollment list where every row only references its student and course by id. Each user and course is
+ * written once in the {@code included} section, no matter how many rows point at it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NormalizedEnrollmentsResponse implements Serializable {
+
+    private List<Row> enrollments;
+
+    private Included included;
+
+    public static NormalizedEnrollmentsResponse of(List<CourseStudent> courseStudents) {
+        List<Row> rows = new ArrayList<>(courseStudents.size());
+        Map<Long, UserResponse> users = new LinkedHashMap<>();
+        Map<Long, CourseRef> courses = new LinkedHashMap<>();
+        for (CourseStudent courseStudent : courseStudents) {
+            User student = courseStudent.getStudent();
+            Course course = courseStudent.getCourse();
+            if (student != null) {
+                users.computeIfAbsent(student.getId(), id -> UserResponse.of(student));
+            }
+            if (course != null) {
+                courses.computeIfAbsent(course.getId(), id -> CourseRef.of(course));
+                User instructor = course.getInstructor();
+                if (instructor != null) {
+                    users.computeIfAbsent(instructor.getId(), id -> UserResponse.of(instructor));
+                }
+            }
+            rows.add(new Row(courseStudent.getId(), student != null ? student.getId() : null,
+                    course != null ? course.getId() : null));
+        }
+        return new NormalizedEnrollmentsResponse(rows, new Included(users.values(), courses.values()));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row implements Serializable {
+
+        private Long id;
+
+        private Long studentId;
+
+        private Long courseId;
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseRef implements Serializable {
+
+        private Long id;
+
+        private String name;
+
+        private Long instructorId;
+
+        static CourseRef of(Course course) {
+            User instructor = course.getInstructor();
+            return new CourseRef(course.getId(), course.getName(), instructor != null ? instructor.getId() : null);
+        }
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Included implements Serializable {
+
+        private Collection<UserResponse> users;
+
+        private Collection<CourseRef> courses;
+
+    }
+
+}
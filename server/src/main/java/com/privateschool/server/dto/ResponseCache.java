@@ -0,0 +1,37 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-response memo so that an instructor or course repeated on many rows is mapped once and shared.
+ */
+class ResponseCache {
+
+    private final Map<Long, UserResponse> users = new HashMap<>();
+
+    private final Map<Long, CourseResponse> courses = new HashMap<>();
+
+    UserResponse user(User user) {
+        if (user == null || user.getId() == null) {
+            return UserResponse.of(user);
+        }
+        return users.computeIfAbsent(user.getId(), id -> UserResponse.of(user));
+    }
+
+    CourseResponse course(Course course) {
+        if (course == null || course.getId() == null) {
+            return CourseResponse.of(course, this);
+        }
+        CourseResponse response = courses.get(course.getId());
+        if (response == null) {
+            response = CourseResponse.of(course, this);
+            courses.put(course.getId(), response);
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ResponseMapper {
+
+    private ResponseMapper() {
+    }
+
+    public static List<UserResponse> users(List<User> users) {
+        ResponseCache cache = new ResponseCache();
+        List<UserResponse> responses = new ArrayList<>(users.size());
+        for (User user : users) {
+            responses.add(cache.user(user));
+        }
+        return responses;
+    }
+
+    public static List<CourseResponse> courses(List<Course> courses) {
+        ResponseCache cache = new ResponseCache();
+        List<CourseResponse> responses = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            responses.add(cache.course(course));
+        }
+        return responses;
+    }
+
+    public static List<EnrollmentResponse> enrollments(List<CourseStudent> courseStudents) {
+        ResponseCache cache = new ResponseCache();
+        List<EnrollmentResponse> responses = new ArrayList<>(courseStudents.size());
+        for (CourseStudent courseStudent : courseStudents) {
+            responses.add(EnrollmentResponse.of(courseStudent, cache));
+        }
+        return responses;
+    }
+
+}
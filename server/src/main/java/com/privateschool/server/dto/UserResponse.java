@@ -0,0 +1,35 @@
+package com.privateschool.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse implements Serializable {
+
+    private Long id;
+
+    private String name;
+
+    private String username;
+
+    private Role role;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
+
+    public static UserResponse of(User user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserResponse(user.getId(), user.getName(), user.getUsername(), user.getRole(), user.getToken());
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.privateschool.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistResponse implements Serializable {
+
+    private Long courseId;
+
+    // 1 is next in line for a seat.
+    private int position;
+
+}
@@ -0,0 +1,102 @@
+package com.privateschool.server.hotpath;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * The most frequent ids over a sliding window, e.g. the most requested courses of the last five minutes. The window
+ * is cut into buckets, each with a {@link SpaceSaving} sketch per stripe; a thread only ever locks its own stripe, so
+ * recording stays cheap under load, and a query merges the sketches of the buckets still in the window.
+ * <p>
+ * Counts are approximate: a count may be too high by up to its error, and an id held by only some stripes may be
+ * undercounted. That is plenty to tell the handful of hot ids from the long tail.
+ */
+public class HeavyHitters {
+
+    private static final int STRIPES =
+            Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())) * 2);
+
+    private final long bucketNanos;
+
+    private final SpaceSaving[][] sketches;
+
+    private final LongSupplier clock;
+
+    public HeavyHitters(Duration window, int buckets, int capacity) {
+        this(window, buckets, capacity, System::nanoTime);
+    }
+
+    HeavyHitters(Duration window, int buckets, int capacity, LongSupplier clock) {
+        if (buckets <= 0 || capacity <= 0 || window.toNanos() < buckets) {
+            throw new IllegalArgumentException("window, buckets and capacity must be positive");
+        }
+        this.bucketNanos = window.toNanos() / buckets;
+        this.sketches = new SpaceSaving[buckets][STRIPES];
+        for (SpaceSaving[] bucket : sketches) {
+            for (int i = 0; i < STRIPES; i++) {
+                bucket[i] = new SpaceSaving(capacity);
+            }
+        }
+        this.clock = clock;
+    }
+
+    public void offer(long id) {
+        long epoch = Math.floorDiv(clock.getAsLong(), bucketNanos);
+        SpaceSaving sketch = sketches[(int) Math.floorMod(epoch, (long) sketches.length)]
+                [(int) Thread.currentThread().getId() & (STRIPES - 1)];
+        synchronized (sketch) {
+            sketch.offer(id, epoch);
+        }
+    }
+
+    /** The n most frequent ids in the window, most frequent first. */
+    public List<Count> top(int n) {
+        long oldest = Math.floorDiv(clock.getAsLong(), bucketNanos) - sketches.length + 1;
+        Map<Long, long[]> merged = new HashMap<>();
+        for (SpaceSaving[] bucket : sketches) {
+            for (SpaceSaving sketch : bucket) {
+                synchronized (sketch) {
+                    sketch.addTo(merged, oldest);
+                }
+            }
+        }
+        List<Count> counts = new ArrayList<>(merged.size());
+        merged.forEach((id, total) -> counts.add(new Count(id, total[0], total[1])));
+        counts.sort((a, b) -> Long.compare(b.count, a.count));
+        return counts.size() > n ? new ArrayList<>(counts.subList(0, n)) : counts;
+    }
+
+    public static final class Count {
+
+        private final long id;
+
+        private final long count;
+
+        private final long error;
+
+        Count(long id, long count, long error) {
+            this.id = id;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /** How much of the count may belong to ids this one displaced. */
+        public long getError() {
+            return error;
+        }
+
+    }
+
+}
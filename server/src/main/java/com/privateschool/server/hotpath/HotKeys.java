@@ -0,0 +1,53 @@
+package com.privateschool.server.hotpath;
+
+/**
+ * Counts which courses and teachers requests are about, for {@link HotPathEndpoint}. Recording is static, like
+ * {@link com.privateschool.server.tracing.Tracing}, so controllers need nothing injected; it does nothing until an
+ * instance is {@link #install installed}.
+ */
+public class HotKeys {
+
+    private static volatile HotKeys installed;
+
+    private final HeavyHitters courses;
+
+    private final HeavyHitters teachers;
+
+    public HotKeys(HeavyHitters courses, HeavyHitters teachers) {
+        this.courses = courses;
+        this.teachers = teachers;
+    }
+
+    public void install() {
+        installed = this;
+    }
+
+    public void uninstall() {
+        if (installed == this) {
+            installed = null;
+        }
+    }
+
+    public static void course(Long id) {
+        HotKeys keys = installed;
+        if (keys != null && id != null) {
+            keys.courses.offer(id);
+        }
+    }
+
+    public static void teacher(Long id) {
+        HotKeys keys = installed;
+        if (keys != null && id != null) {
+            keys.teachers.offer(id);
+        }
+    }
+
+    public HeavyHitters getCourses() {
+        return courses;
+    }
+
+    public HeavyHitters getTeachers() {
+        return teachers;
+    }
+
+}
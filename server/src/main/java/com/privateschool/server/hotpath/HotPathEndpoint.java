@@ -0,0 +1,171 @@
+package com.privateschool.server.hotpath;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.Search;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/hotpaths}: one document for performance triage on this node. It is read from meters that are
+ * recorded anyway, plus the {@link HotKeys}, so it adds nothing to the request path:
+ * <ul>
+ * <li>{@code auth}: JWT verifications by outcome and their latency, and password check latency. There is no token
+ * cache; every request verifies its token, so the outcomes are what there is to hit or miss.</li>
+ * <li>{@code slowestRoutes}: the routes with the highest mean latency.</li>
+ * <li>{@code connectionPools}: time spent waiting for a connection, and connections active, idle and waited for.</li>
+ * <li>{@code caches}: sizes, evictions and hit ratios of everything publishing {@code cache.*} meters.</li>
+ * <li>{@code hotCourses} and {@code hotTeachers}: the most requested ids over the sliding window.</li>
+ * </ul>
+ * Latencies are in milliseconds; means are since startup, maxima over the last few minutes. Managers only.
+ */
+@Endpoint(id = "hotpaths")
+public class HotPathEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    private final HotKeys hotKeys;
+
+    private final int top;
+
+    private final Duration window;
+
+    public HotPathEndpoint(MeterRegistry meterRegistry, HotKeys hotKeys, int top, Duration window) {
+        this.meterRegistry = meterRegistry;
+        this.hotKeys = hotKeys;
+        this.top = top;
+        this.window = window;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotPaths() {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("auth", auth());
+        document.put("slowestRoutes", slowestRoutes());
+        document.put("connectionPools", connectionPools());
+        document.put("caches", caches());
+        document.put("window", window.toString());
+        document.put("hotCourses", hotKeys.getCourses().top(top));
+        document.put("hotTeachers", hotKeys.getTeachers().top(top));
+        return document;
+    }
+
+    private Map<String, Object> auth() {
+        Collection<Timer> verifications = meterRegistry.find("jwt.verify").timers();
+        Map<String, Long> tokens = new TreeMap<>();
+        for (Timer timer : verifications) {
+            tokens.merge(timer.getId().getTag("result"), timer.count(), Long::sum);
+        }
+        Map<String, Object> auth = new LinkedHashMap<>();
+        auth.put("tokens", tokens);
+        auth.put("jwtVerify", latency(verifications));
+        auth.put("passwordMatch", latency(meterRegistry.find("password.hash").tag("operation", "matches").timers()));
+        return auth;
+    }
+
+    private List<Map<String, Object>> slowestRoutes() {
+        Map<String, List<Timer>> routes = meterRegistry.find("http.server.requests").timers().stream()
+                .collect(Collectors.groupingBy(timer -> timer.getId().getTag("method") + " "
+                        + timer.getId().getTag("uri")));
+        List<Map<String, Object>> slowest = new ArrayList<>();
+        routes.forEach((route, timers) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("route", route);
+            stats.putAll(latency(timers));
+            slowest.add(stats);
+        });
+        slowest.sort(Comparator.comparing((Map<String, Object> stats) -> (Double) stats.get("meanMs")).reversed());
+        return slowest.size() > top ? new ArrayList<>(slowest.subList(0, top)) : slowest;
+    }
+
+    private Map<String, Object> connectionPools() {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        for (String pool : tagValues("hikaricp.connections.acquire", "pool")) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("acquire", latency(meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool)
+                    .timers()));
+            for (String meter : new String[]{"active", "idle", "pending", "max", "timeout"}) {
+                stats.put(meter, sum(meterRegistry.find("hikaricp.connections." + meter).tag("pool", pool)));
+            }
+            pools.put(pool, stats);
+        }
+        return pools;
+    }
+
+    private Map<String, Object> caches() {
+        Set<String> names = new TreeSet<>(tagValues("cache.size", "cache"));
+        names.addAll(tagValues("cache.evictions", "cache"));
+        names.addAll(tagValues("cache.gets", "cache"));
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String cache : names) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("size", sum(meterRegistry.find("cache.size").tag("cache", cache)));
+            stats.put("evictions", sum(meterRegistry.find("cache.evictions").tag("cache", cache)));
+            Double hits = sum(meterRegistry.find("cache.gets").tags("cache", cache, "result", "hit"));
+            Double misses = sum(meterRegistry.find("cache.gets").tags("cache", cache, "result", "miss"));
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("hitRatio", hits != null && misses != null && hits + misses > 0 ? hits / (hits + misses) : null);
+            stats.values().removeIf(Objects::isNull);
+            caches.put(cache, stats);
+        }
+        return caches;
+    }
+
+    private Set<String> tagValues(String meter, String tag) {
+        return meterRegistry.find(meter).meters().stream()
+                .map(found -> found.getId().getTag(tag))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Map<String, Object> latency(Collection<Timer> timers) {
+        long count = 0;
+        double totalMs = 0;
+        double maxMs = 0;
+        for (Timer timer : timers) {
+            count += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            maxMs = Math.max(maxMs, timer.max(TimeUnit.MILLISECONDS));
+        }
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", count);
+        latency.put("meanMs", count > 0 ? totalMs / count : 0.0);
+        latency.put("maxMs", maxMs);
+        return latency;
+    }
+
+    // Counters count and gauges measure a value; either way it is the first measurement. Null when nothing matched.
+    private static Double sum(Search search) {
+        Collection<Meter> meters = search.meters();
+        if (meters.isEmpty()) {
+            return null;
+        }
+        double sum = 0;
+        for (Meter meter : meters) {
+            Iterator<Measurement> measurements = meter.measure().iterator();
+            if (measurements.hasNext()) {
+                sum += measurements.next().getValue();
+            }
+        }
+        return sum;
+    }
+
+}
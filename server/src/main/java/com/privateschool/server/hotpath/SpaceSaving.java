@@ -0,0 +1,69 @@
+package com.privateschool.server.hotpath;
+
+import java.util.Map;
+
+/**
+ * The space-saving heavy-hitters sketch: at most {@code capacity} counters, and a new id takes over the smallest one,
+ * inheriting its count as error. Any id seen more than 1/capacity of the time is guaranteed to be held. Counters are
+ * plain arrays scanned linearly, which for a few dozen of them beats a map and allocates nothing. Not thread-safe;
+ * {@link HeavyHitters} locks around it.
+ */
+final class SpaceSaving {
+
+    private final long[] keys;
+
+    private final long[] counts;
+
+    private final long[] errors;
+
+    private int size;
+
+    // The time bucket the counts belong to; a sketch reused for a later bucket starts over.
+    private long epoch = Long.MIN_VALUE;
+
+    SpaceSaving(int capacity) {
+        keys = new long[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+    }
+
+    void offer(long key, long now) {
+        if (epoch != now) {
+            epoch = now;
+            size = 0;
+        }
+        int min = 0;
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                counts[i]++;
+                return;
+            }
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = 1;
+            errors[size] = 0;
+            size++;
+            return;
+        }
+        keys[min] = key;
+        errors[min] = counts[min];
+        counts[min]++;
+    }
+
+    /** Adds the counts and errors to merged, keyed by id, if the sketch holds a bucket after oldest. */
+    void addTo(Map<Long, long[]> merged, long oldest) {
+        if (epoch < oldest) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            long[] total = merged.computeIfAbsent(keys[i], key -> new long[2]);
+            total[0] += counts[i];
+            total[1] += errors[i];
+        }
+    }
+
+}
@@ -24,14 +24,11 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        // First validate the token (even if absent/empty) so provider can decide validity
-        boolean valid = jwtTokenProvider.validateToken(request);
-
-        if (valid) {
-            Authentication authentication = jwtTokenProvider.getAuthentication(request);
-            if (authentication != null) {
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+        // One parse per request: getAuthentication checks the signature and expiry itself and returns null for a
+        // missing, invalid or expired token, so a separate validateToken call would only verify the token twice.
+        Authentication authentication = jwtTokenProvider.getAuthentication(request);
+        if (authentication != null) {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         // Always continue the filter chain
         chain.doFilter(request, response);
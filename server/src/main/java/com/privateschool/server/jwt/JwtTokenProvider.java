@@ -1,10 +1,14 @@
 package com.privateschool.server.jwt;
 
+import com.privateschool.server.profiling.FlightEvents;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -12,10 +16,12 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -33,6 +39,22 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration-in-ms}")
     private Long jwtExpirationInMs;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer verifiedValid;
+
+    private Timer verifiedExpired;
+
+    private Timer verifiedInvalid;
+
+    @PostConstruct
+    void registerMeters() {
+        verifiedValid = verifyTimer("valid");
+        verifiedExpired = verifyTimer("expired");
+        verifiedInvalid = verifyTimer("invalid");
+    }
+
     public String generateToken(Authentication auth) {
         String authorities = auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining());
 
@@ -47,7 +69,7 @@ public class JwtTokenProvider {
             return null;
         }
         try {
-            Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            Claims claims = verify(token);
             String username = claims.getSubject();
             List<GrantedAuthority> authorities = Arrays.stream(claims.get("roles").toString().split(","))
                     .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
@@ -65,7 +87,7 @@ public class JwtTokenProvider {
             return false;
         }
         try {
-            Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            Claims claims = verify(token);
             return !claims.getExpiration().before(new Date());
         } catch (ExpiredJwtException e) {
             return false;
@@ -74,6 +96,36 @@ public class JwtTokenProvider {
         }
     }
 
+    // Signature check and parsing, timed as jwt.verify with the outcome as the only tag and as a JWT Parse event.
+    private Claims verify(String token) {
+        long start = System.nanoTime();
+        FlightEvents.Span span = FlightEvents.jwtParse();
+        Timer timer = verifiedInvalid;
+        String outcome = "invalid";
+        try {
+            Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            span.subject(claims.getSubject());
+            timer = verifiedValid;
+            outcome = "valid";
+            return claims;
+        } catch (ExpiredJwtException e) {
+            span.subject(e.getClaims().getSubject());
+            timer = verifiedExpired;
+            outcome = "expired";
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            span.finish(outcome);
+        }
+    }
+
+    private Timer verifyTimer(String result) {
+        return Timer.builder("jwt.verify")
+                .description("Time spent checking a token's signature and parsing its claims")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
     private String resolveToken(HttpServletRequest req) {
         String bearerToken = req.getHeader(jwtHeaderString);
         if (bearerToken != null && bearerToken.startsWith(jwtTokenPrefix)) {
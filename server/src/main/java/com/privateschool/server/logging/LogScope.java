@@ -0,0 +1,77 @@
+package com.privateschool.server.logging;
+
+import ch.qos.logback.classic.Level;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Instant;
+
+/**
+ * A temporary log level for the requests of one user, of one route, or both: until it expires, loggers under
+ * {@link #getLogger()} log at {@link #getLevel()} while serving a matching request, whatever their configured level.
+ */
+public final class LogScope {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final String id;
+
+    private final String user;
+
+    private final String path;
+
+    private final String logger;
+
+    private final Level level;
+
+    private final long expiresAt;
+
+    LogScope(String id, String user, String path, String logger, Level level, long expiresAt) {
+        this.id = id;
+        this.user = user;
+        this.path = path;
+        this.logger = logger;
+        this.level = level;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /** The username to match, or null for any user. */
+    public String getUser() {
+        return user;
+    }
+
+    /** The Ant-style request path pattern to match, like {@code /api/student/**}, or null for any path. */
+    public String getPath() {
+        return path;
+    }
+
+    /** The logger name prefix the level applies to. */
+    public String getLogger() {
+        return logger;
+    }
+
+    public String getLevel() {
+        return level.toString();
+    }
+
+    public Instant getExpiresAt() {
+        return Instant.ofEpochMilli(expiresAt);
+    }
+
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    boolean matches(String requestUser, String requestPath, long now) {
+        return !isExpired(now) && (user == null || user.equals(requestUser))
+                && (path == null || (requestPath != null && PATH_MATCHER.match(path, requestPath)));
+    }
+
+    boolean enables(String loggerName, Level eventLevel, long now) {
+        return eventLevel.isGreaterOrEqual(level) && loggerName.startsWith(logger) && !isExpired(now);
+    }
+
+}
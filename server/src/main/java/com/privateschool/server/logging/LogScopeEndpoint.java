@@ -0,0 +1,62 @@
+package com.privateschool.server.logging;
+
+import ch.qos.logback.classic.Level;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code /actuator/logscopes}: raises the log level for one user or route on this node for a limited time, instead
+ * of running everything at DEBUG. POST a JSON body with {@code user} and/or {@code path} (Ant pattern), and
+ * optionally {@code level} (default DEBUG), {@code logger} (default {@code com.privateschool.server}) and
+ * {@code seconds} (default 300); DELETE {@code /actuator/logscopes/{id}} ends a scope early. Managers only.
+ */
+@Endpoint(id = "logscopes")
+public class LogScopeEndpoint {
+
+    private static final String DEFAULT_LOGGER = "com.privateschool.server";
+
+    private static final long DEFAULT_SECONDS = 300;
+
+    private final LogScopeRegistry registry;
+
+    public LogScopeEndpoint(LogScopeRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public List<LogScope> scopes() {
+        return registry.active();
+    }
+
+    @WriteOperation
+    public LogScope add(@Nullable String user, @Nullable String path, @Nullable String logger,
+                        @Nullable String level, @Nullable Long seconds) {
+        Level parsed = level != null ? Level.toLevel(level, null) : Level.DEBUG;
+        if (parsed == null) {
+            throw new InvalidEndpointRequestException("Unknown level " + level, "Unknown level");
+        }
+        if (seconds != null && seconds <= 0) {
+            throw new InvalidEndpointRequestException("seconds must be positive", "Invalid duration");
+        }
+        try {
+            return registry.add(user, path, logger != null ? logger : DEFAULT_LOGGER, parsed,
+                    Duration.ofSeconds(seconds != null ? seconds : DEFAULT_SECONDS));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public boolean remove(@Selector String id) {
+        return registry.remove(id);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.privateschool.server.logging;
+
+import ch.qos.logback.classic.Level;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * The active {@link LogScope}s of this node. Scopes change rarely and are read on every request, so the list is
+ * copied on write and read without locking. Expired scopes stop matching at once and are dropped on the next change
+ * or listing.
+ */
+public class LogScopeRegistry {
+
+    private final int maxScopes;
+
+    private final Duration maxDuration;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private volatile List<LogScope> scopes = Collections.emptyList();
+
+    public LogScopeRegistry(int maxScopes, Duration maxDuration) {
+        this.maxScopes = maxScopes;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Adds a scope lasting the given duration, capped at {@code app.logging.scopes.max-duration}.
+     *
+     * @throws IllegalArgumentException if neither a user nor a path is given, or too many scopes are active
+     */
+    public synchronized LogScope add(String user, String path, String logger, Level level, Duration duration) {
+        if (user == null && path == null) {
+            throw new IllegalArgumentException("A log scope needs a user, a path or both");
+        }
+        long now = System.currentTimeMillis();
+        List<LogScope> active = active(now);
+        if (active.size() >= maxScopes) {
+            throw new IllegalArgumentException("At most " + maxScopes + " log scopes can be active");
+        }
+        Duration lifetime = duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        LogScope scope = new LogScope(Long.toString(ids.incrementAndGet()), user, path, logger, level,
+                now + lifetime.toMillis());
+        List<LogScope> updated = new ArrayList<>(active);
+        updated.add(scope);
+        scopes = Collections.unmodifiableList(updated);
+        return scope;
+    }
+
+    public synchronized boolean remove(String id) {
+        List<LogScope> updated = active(System.currentTimeMillis());
+        boolean removed = updated.removeIf(scope -> scope.getId().equals(id));
+        scopes = Collections.unmodifiableList(updated);
+        return removed;
+    }
+
+    public List<LogScope> active() {
+        return Collections.unmodifiableList(active(System.currentTimeMillis()));
+    }
+
+    /** The scopes a request by this user on this path falls under; empty, without allocating, when none are set. */
+    public List<LogScope> matching(String user, String path) {
+        List<LogScope> current = scopes;
+        if (current.isEmpty()) {
+            return current;
+        }
+        long now = System.currentTimeMillis();
+        return current.stream().filter(scope -> scope.matches(user, path, now)).collect(Collectors.toList());
+    }
+
+    private List<LogScope> active(long now) {
+        return scopes.stream().filter(scope -> !scope.isExpired(now)).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.privateschool.server.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+import java.util.List;
+
+/**
+ * Lets through the events of a request that falls under a {@link LogScope}, even below their logger's level. Logback
+ * asks it before every log call, including the disabled ones, so outside a scoped request it is one thread-local
+ * read. The scopes are bound to the request thread by the LogScopeFilter; work a request hands to one of our
+ * executors runs under them too, see {@link #propagate(Runnable)}.
+ */
+public class LogScopeTurboFilter extends TurboFilter {
+
+    private static final ThreadLocal<List<LogScope>> CURRENT = new ThreadLocal<>();
+
+    /** Binds the scopes to this thread and returns what was bound before, to hand back to {@link #restore}. */
+    public static List<LogScope> bind(List<LogScope> scopes) {
+        List<LogScope> previous = CURRENT.get();
+        if (scopes.isEmpty()) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scopes);
+        }
+        return previous;
+    }
+
+    public static void restore(List<LogScope> previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static Runnable propagate(Runnable task) {
+        List<LogScope> scopes = CURRENT.get();
+        if (scopes == null) {
+            return task;
+        }
+        return () -> {
+            List<LogScope> previous = bind(scopes);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /** Adds the filter to Logback, which outlives the application context; {@link #uninstall()} takes it out. */
+    public void install() {
+        setName("logScopes");
+        start();
+        loggerContext().addTurboFilter(this);
+    }
+
+    public void uninstall() {
+        stop();
+        loggerContext().getTurboFilterList().remove(this);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        List<LogScope> scopes = CURRENT.get();
+        if (scopes == null || level == null) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = System.currentTimeMillis();
+        for (LogScope scope : scopes) {
+            if (scope.enables(logger.getName(), level, now)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private static LoggerContext loggerContext() {
+        return (LoggerContext) LoggerFactory.getILoggerFactory();
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.privateschool.server.model;
 
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -21,4 +22,13 @@ public class Course implements Serializable {
     @JoinColumn(name = "instructor_id", referencedColumnName = "id")
     private User instructor;
 
+    // Null means no limit.
+    @Column(name = "capacity")
+    private Integer capacity;
+
+    // Only the seat updates in CourseRepository change this column, so saving a course never overwrites it.
+    @ColumnDefault("0")
+    @Column(name = "enrolled", nullable = false, insertable = false, updatable = false)
+    private int enrolled;
+
 }
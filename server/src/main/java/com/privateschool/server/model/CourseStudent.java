@@ -2,12 +2,13 @@ package com.privateschool.server.model;
 
 import lombok.Data;
 
-import javax.persistence.*;
 import java.io.Serializable;
+import javax.persistence.*;
 
 @Data
 @Entity
-@Table(name = "course_student")
+@Table(name = "course_student",
+        uniqueConstraints = @UniqueConstraint(name = "uq_cs", columnNames = {"student_id", "course_id"}))
 public class CourseStudent implements Serializable {
 
     @Id
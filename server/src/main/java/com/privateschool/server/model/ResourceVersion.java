@@ -0,0 +1,21 @@
+package com.privateschool.server.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+// How often a group of cacheable payloads has changed; the ETags are built from these, so every node agrees on them.
+@Data
+@Entity
+@Table(name = "resource_version")
+public class ResourceVersion implements Serializable {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+}
@@ -0,0 +1,28 @@
+package com.privateschool.server.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+// A student waiting for a seat in a full course; the id gives the order in which they are promoted.
+@Data
+@Entity
+@Table(name = "waitlist",
+        uniqueConstraints = @UniqueConstraint(name = "uq_waitlist", columnNames = {"student_id", "course_id"}),
+        indexes = @Index(name = "ix_waitlist_course", columnList = "course_id, id"))
+public class WaitlistEntry implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", referencedColumnName = "id")
+    private User student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", referencedColumnName = "id")
+    private Course course;
+
+}
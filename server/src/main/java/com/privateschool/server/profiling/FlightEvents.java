@@ -0,0 +1,95 @@
+package com.privateschool.server.profiling;
+
+import org.springframework.util.ClassUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Java Flight Recorder events for the auth, service and serialization phases of a request. They cost next to nothing
+ * until a recording is started, for example through {@code /actuator/flightrecording}.
+ * <p>
+ * The runtime image is a Java 8 build older than the JFR backport, so nothing outside this class touches
+ * {@code jdk.jfr}: without it every method hands out {@link #NONE} and the event classes are never loaded.
+ * Usernames and ids are recorded as salted hashes; the salt is per process, so a hash links the events of one
+ * subject within a recording without revealing who it is.
+ */
+public final class FlightEvents {
+
+    private static final boolean AVAILABLE = ClassUtils.isPresent("jdk.jfr.FlightRecorder",
+            FlightEvents.class.getClassLoader());
+
+    private static final byte[] SALT = new SecureRandom().generateSeed(16);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** The span handed out when JFR is missing or the event is not being recorded. */
+    public static final Span NONE = new Span() {
+        @Override
+        public void subject(Object value) {
+        }
+
+        @Override
+        public void finish(String outcome) {
+        }
+    };
+
+    private FlightEvents() {
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /** Parsing and signature check of a JWT; the subject is the token's username. */
+    public static Span jwtParse() {
+        return AVAILABLE ? JfrEvents.jwtParse() : NONE;
+    }
+
+    /** A BCrypt password check. */
+    public static Span passwordMatch() {
+        return AVAILABLE ? JfrEvents.passwordMatch() : NONE;
+    }
+
+    /** A call into a service; the subject is the id or username it was called with. */
+    public static Span serviceCall(String service, String method) {
+        return AVAILABLE ? JfrEvents.serviceCall(service, method) : NONE;
+    }
+
+    /** Writing a response body through a message converter. */
+    public static Span serialization(String bodyType, String mediaType) {
+        return AVAILABLE ? JfrEvents.serialization(bodyType, mediaType) : NONE;
+    }
+
+    static String hash(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(SALT);
+            byte[] hash = digest.digest(value.toString().getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[16];
+            for (int i = 0; i < 8; i++) {
+                hex[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+                hex[2 * i + 1] = HEX[hash[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** One timed event; started when handed out, recorded by {@link #finish}. */
+    public interface Span {
+
+        /** Sets the username or id the event is about; it is recorded hashed. */
+        void subject(Object value);
+
+        void finish(String outcome);
+
+    }
+
+}
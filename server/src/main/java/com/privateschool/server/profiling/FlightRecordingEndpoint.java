@@ -0,0 +1,129 @@
+package com.privateschool.server.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/flightrecording}: records this node with Java Flight Recorder, including the {@link FlightEvents}.
+ * POST starts a recording, optionally with {@code settings} ({@code default} or the heavier {@code profile}) and
+ * {@code seconds} (default 300, capped at {@code app.flight-recording.max-duration}); GET downloads what has been
+ * recorded so far as a {@code .jfr} file for JDK Mission Control or {@code jfr print}; DELETE discards it.
+ * One recording at a time. Managers only.
+ */
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final String DEFAULT_SETTINGS = "profile";
+
+    private static final long DEFAULT_SECONDS = 300;
+
+    private final Duration maxDuration;
+
+    private Recording recording;
+
+    public FlightRecordingEndpoint(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long seconds) {
+        if (recording != null && recording.getState() != RecordingState.CLOSED) {
+            throw new InvalidEndpointRequestException("A recording is already running", "Recording already running");
+        }
+        if (seconds != null && seconds <= 0) {
+            throw new InvalidEndpointRequestException("seconds must be positive", "Invalid duration");
+        }
+        Configuration configuration = configuration(settings != null ? settings : DEFAULT_SETTINGS);
+        Duration duration = Duration.ofSeconds(seconds != null ? seconds : DEFAULT_SECONDS);
+        Recording started = new Recording(configuration);
+        started.setName("privateschool");
+        started.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        started.setToDisk(true);
+        JfrEvents.TYPES.forEach(started::enable);
+        started.start();
+        recording = started;
+        return status();
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<Resource> dump() {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            Path file = Files.createTempFile("privateschool-", ".jfr");
+            recording.dump(file);
+            return new WebEndpointResponse<>(deleteOnClose(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized boolean stop() {
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        recording = null;
+        return true;
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", recording.getName());
+        status.put("state", recording.getState());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        return status;
+    }
+
+    private static Configuration configuration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown settings " + settings, "Unknown settings");
+        }
+    }
+
+    // The dump can be large, so it is streamed from disk and the file removed once the response is written.
+    private static Resource deleteOnClose(Path file) {
+        return new FileSystemResource(file) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new FilterInputStream(super.getInputStream()) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+}
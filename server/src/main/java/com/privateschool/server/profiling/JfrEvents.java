@@ -0,0 +1,119 @@
+package com.privateschool.server.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The JFR event classes behind {@link FlightEvents}. Only loaded once FlightEvents has found JFR on the runtime.
+ */
+final class JfrEvents {
+
+    static final List<Class<? extends Event>> TYPES = Arrays.asList(JwtParseEvent.class, PasswordMatchEvent.class,
+            ServiceCallEvent.class, SerializationEvent.class);
+
+    private JfrEvents() {
+    }
+
+    static FlightEvents.Span jwtParse() {
+        return start(new JwtParseEvent());
+    }
+
+    static FlightEvents.Span passwordMatch() {
+        return start(new PasswordMatchEvent());
+    }
+
+    static FlightEvents.Span serviceCall(String service, String method) {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return FlightEvents.NONE;
+        }
+        event.service = service;
+        event.method = method;
+        return start(event);
+    }
+
+    static FlightEvents.Span serialization(String bodyType, String mediaType) {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            return FlightEvents.NONE;
+        }
+        event.bodyType = bodyType;
+        event.mediaType = mediaType;
+        return start(event);
+    }
+
+    private static FlightEvents.Span start(SpanEvent event) {
+        if (!event.isEnabled()) {
+            return FlightEvents.NONE;
+        }
+        event.begin();
+        return event;
+    }
+
+    abstract static class SpanEvent extends Event implements FlightEvents.Span {
+
+        @Label("Subject")
+        @Description("Salted hash of the username or id")
+        String subject;
+
+        @Label("Outcome")
+        String outcome;
+
+        @Override
+        public void subject(Object value) {
+            subject = FlightEvents.hash(value);
+        }
+
+        @Override
+        public void finish(String outcome) {
+            this.outcome = outcome;
+            commit();
+        }
+
+    }
+
+    @Name("com.privateschool.JwtParse")
+    @Label("JWT Parse")
+    @Category({"Private School", "Auth"})
+    static class JwtParseEvent extends SpanEvent {
+    }
+
+    @Name("com.privateschool.PasswordMatch")
+    @Label("Password Match")
+    @Category({"Private School", "Auth"})
+    static class PasswordMatchEvent extends SpanEvent {
+    }
+
+    @Name("com.privateschool.ServiceCall")
+    @Label("Service Call")
+    @Category({"Private School", "Service"})
+    static class ServiceCallEvent extends SpanEvent {
+
+        @Label("Service")
+        String service;
+
+        @Label("Method")
+        String method;
+
+    }
+
+    @Name("com.privateschool.Serialization")
+    @Label("Response Serialization")
+    @Category({"Private School", "Web"})
+    static class SerializationEvent extends SpanEvent {
+
+        @Label("Body Type")
+        String bodyType;
+
+        @Label("Media Type")
+        String mediaType;
+
+    }
+
+}
@@ -2,7 +2,44 @@ package com.privateschool.server.repository;
 
 import com.privateschool.server.model.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
+    /**
+     * Takes a seat if the course has one left. The condition is checked by the database on the row it updates, so
+     * two nodes can never both take the last seat.
+     *
+     * @return 1 when a seat was taken, 0 when the course is full or does not exist
+     */
+    @Modifying
+    @Query(value = "UPDATE course SET enrolled = enrolled + 1"
+            + " WHERE id = ?1 AND (capacity IS NULL OR enrolled < capacity)", nativeQuery = true)
+    int reserveSeat(Long courseId);
+
+    @Modifying
+    @Query(value = "UPDATE course SET enrolled = enrolled - 1 WHERE id = ?1 AND enrolled > 0", nativeQuery = true)
+    int releaseSeat(Long courseId);
+
+    /** Takes {@code count} seats at once, or none if fewer are left. */
+    @Modifying
+    @Query(value = "UPDATE course SET enrolled = enrolled + ?2"
+            + " WHERE id = ?1 AND (capacity IS NULL OR enrolled + ?2 <= capacity)", nativeQuery = true)
+    int reserveSeats(Long courseId, int count);
+
+    @Modifying
+    @Query(value = "UPDATE course SET enrolled = enrolled - ?2 WHERE id = ?1 AND enrolled >= ?2", nativeQuery = true)
+    int releaseSeats(Long courseId, int count);
+
+    Seats findSeatsById(Long courseId);
+
+    interface Seats {
+
+        Integer getCapacity();
+
+        int getEnrolled();
+
+    }
+
 }
@@ -2,13 +2,32 @@ package com.privateschool.server.repository;
 
 import com.privateschool.server.model.CourseStudent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface CourseStudentRepository extends JpaRepository<CourseStudent, Long> {
+public interface CourseStudentRepository extends JpaRepository<CourseStudent, Long>, CourseStudentRepositoryCustom {
 
+    // The lists fetch the student, course and instructor in the same statement; left to the EAGER mappings they
+    // would cost one more select per distinct student, course and instructor.
+    @Query("select cs from CourseStudent cs join fetch cs.student join fetch cs.course c join fetch c.instructor i"
+            + " where i.id = ?1")
     List<CourseStudent> findByCourseInstructorId(Long instructorId);
 
+    @Query("select cs from CourseStudent cs join fetch cs.student s join fetch cs.course c left join fetch c.instructor"
+            + " where s.id = ?1")
     List<CourseStudent> findByStudentId(Long studentId);
 
+    @Query("select cs from CourseStudent cs join fetch cs.student join fetch cs.course c left join fetch c.instructor")
+    List<CourseStudent> findAllEnrollments();
+
+    @Query("select cs from CourseStudent cs join fetch cs.student join fetch cs.course c left join fetch c.instructor"
+            + " where cs.student.id = ?1 and c.id = ?2")
+    CourseStudent findEnrollment(Long studentId, Long courseId);
+
+    @Query("select cs from CourseStudent cs join fetch cs.student s join fetch cs.course c left join fetch c.instructor"
+            + " where c.id = ?1 and s.id in ?2")
+    List<CourseStudent> findEnrollments(Long courseId, Collection<Long> studentIds);
+
 }
@@ -0,0 +1,12 @@
+package com.privateschool.server.repository;
+
+public interface CourseStudentRepositoryCustom {
+
+    /**
+     * Inserts the enrollment unless it already exists, without tripping the uq_cs constraint.
+     *
+     * @return 1 when a row was inserted, 0 when the student was already enrolled (or a reference is missing)
+     */
+    int insertIfAbsent(Long studentId, Long courseId);
+
+}
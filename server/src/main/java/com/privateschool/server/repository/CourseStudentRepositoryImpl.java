@@ -0,0 +1,32 @@
+package com.privateschool.server.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Uses MySQL's native INSERT IGNORE, which skips the duplicate key (and a missing student or course) inside the
+ * server; other databases get a portable INSERT ... SELECT that only yields a row when both references exist and
+ * the pair is not enrolled yet. Either way a duplicate costs one statement and no exception.
+ */
+public class CourseStudentRepositoryImpl implements CourseStudentRepositoryCustom {
+
+    private static final String MYSQL_INSERT =
+            "INSERT IGNORE INTO course_student (student_id, course_id) VALUES (?1, ?2)";
+
+    private static final String PORTABLE_INSERT =
+            "INSERT INTO course_student (student_id, course_id) SELECT s.id, c.id FROM user s, course c"
+                    + " WHERE s.id = ?1 AND c.id = ?2"
+                    + " AND NOT EXISTS (SELECT 1 FROM course_student WHERE student_id = ?1 AND course_id = ?2)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertIfAbsent(Long studentId, Long courseId) {
+        return entityManager.createNativeQuery(Databases.isMysql(entityManager) ? MYSQL_INSERT : PORTABLE_INSERT)
+                .setParameter(1, studentId)
+                .setParameter(2, courseId)
+                .executeUpdate();
+    }
+
+}
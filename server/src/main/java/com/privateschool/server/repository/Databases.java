@@ -0,0 +1,34 @@
+package com.privateschool.server.repository;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Which database the custom repositories talk to, read from the connection metadata once per persistence unit, so
+ * they can use MySQL's native statements and fall back to portable SQL elsewhere.
+ */
+final class Databases {
+
+    private static final Map<EntityManagerFactory, Boolean> MYSQL = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private Databases() {
+    }
+
+    static boolean isMysql(EntityManager entityManager) {
+        EntityManagerFactory factory = entityManager.getEntityManagerFactory();
+        Boolean mysql = MYSQL.get(factory);
+        if (mysql == null) {
+            String product = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            mysql = "MySQL".equalsIgnoreCase(product);
+            MYSQL.put(factory, mysql);
+        }
+        return mysql;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+/**
+ * Criteria queries that select only the columns named in a {@link FieldSelection}; joins are added only for
+ * the associations those columns live on.
+ */
+@Repository
+public class ProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<Map<String, Object>> findCourses(FieldSelection selection) {
+        return project(Course.class, "", selection, null);
+    }
+
+    public List<Map<String, Object>> findCoursesOfStudent(Long studentId, FieldSelection selection) {
+        return project(CourseStudent.class, "course.", selection,
+                (cb, root) -> cb.equal(root.get("student").get("id"), studentId));
+    }
+
+    public List<Map<String, Object>> findStudentsOfInstructor(Long instructorId, FieldSelection selection) {
+        return project(CourseStudent.class, "student.", selection,
+                (cb, root) -> cb.equal(root.get("course").get("instructor").get("id"), instructorId));
+    }
+
+    public List<Map<String, Object>> findEnrollments(FieldSelection selection) {
+        return project(CourseStudent.class, "", selection, null);
+    }
+
+    private List<Map<String, Object>> project(Class<?> type, String prefix, FieldSelection selection,
+                                              BiFunction<CriteriaBuilder, Root<?>, Predicate> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(type);
+        List<Selection<?>> columns = new ArrayList<>();
+        for (String field : selection.getFields()) {
+            columns.add(path(root, prefix + field));
+        }
+        query.multiselect(columns);
+        if (filter != null) {
+            query.where(filter.apply(cb, root));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            rows.add(selection.toRow(tuple.toArray()));
+        }
+        return rows;
+    }
+
+    private static Path<?> path(Root<?> root, String field) {
+        Path<?> path = root;
+        for (String part : field.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.model.ResourceVersion;
+import org.springframework.data.repository.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ResourceVersionRepository extends Repository<ResourceVersion, String>,
+        ResourceVersionRepositoryCustom {
+
+    List<ResourceVersion> findByNameIn(Collection<String> names);
+
+}
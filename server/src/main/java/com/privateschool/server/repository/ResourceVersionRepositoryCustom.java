@@ -0,0 +1,12 @@
+package com.privateschool.server.repository;
+
+public interface ResourceVersionRepositoryCustom {
+
+    /**
+     * Adds one to the named version, starting it at 1.
+     *
+     * @return the number of rows written
+     */
+    int bump(String name);
+
+}
@@ -0,0 +1,38 @@
+package com.privateschool.server.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * MySQL creates or increments the row in one statement, so two writers creating the same version never trip over
+ * the primary key. Other databases update first and insert only when there was nothing to update.
+ */
+public class ResourceVersionRepositoryImpl implements ResourceVersionRepositoryCustom {
+
+    private static final String MYSQL_UPSERT = "INSERT INTO resource_version (name, version) VALUES (?1, 1)"
+            + " ON DUPLICATE KEY UPDATE version = version + 1";
+
+    private static final String UPDATE = "UPDATE resource_version SET version = version + 1 WHERE name = ?1";
+
+    private static final String INSERT = "INSERT INTO resource_version (name, version) VALUES (?1, 1)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int bump(String name) {
+        if (Databases.isMysql(entityManager)) {
+            return execute(MYSQL_UPSERT, name);
+        }
+        int updated = execute(UPDATE, name);
+        return updated > 0 ? updated : execute(INSERT, name);
+    }
+
+    private int execute(String sql, String name) {
+        return entityManager.createNativeQuery(sql).setParameter(1, name).executeUpdate();
+    }
+
+}
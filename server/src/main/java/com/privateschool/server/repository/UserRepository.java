@@ -2,6 +2,7 @@ package com.privateschool.server.repository;
 
 import com.privateschool.server.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -9,4 +10,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    // Runs in its own short transaction, so registration does not keep this connection while it waits for the hash.
+    @Transactional(readOnly = true)
+    boolean existsByUsername(String username);
+
 }
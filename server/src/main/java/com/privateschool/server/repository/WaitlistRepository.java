@@ -0,0 +1,36 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.model.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long>, WaitlistRepositoryCustom {
+
+    @Query("select w.student.id from WaitlistEntry w where w.course.id = ?1 order by w.id")
+    List<Long> findStudentIds(Long courseId);
+
+    @Query("select w.id as id, w.student.id as studentId from WaitlistEntry w where w.course.id = ?1 order by w.id")
+    List<Waiting> findHead(Long courseId, Pageable page);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.id in ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.student.id = ?1 and w.course.id = ?2")
+    int deleteEntry(Long studentId, Long courseId);
+
+    interface Waiting {
+
+        Long getId();
+
+        Long getStudentId();
+
+    }
+
+}
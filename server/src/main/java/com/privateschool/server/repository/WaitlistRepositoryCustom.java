@@ -0,0 +1,22 @@
+package com.privateschool.server.repository;
+
+import java.util.Collection;
+
+public interface WaitlistRepositoryCustom {
+
+    /**
+     * Queues the student unless they are already waiting for the course, without tripping the uq_waitlist
+     * constraint.
+     *
+     * @return 1 when the student joined, 0 when they were already waiting or the student or course does not exist
+     */
+    int insertIfAbsent(Long studentId, Long courseId);
+
+    /**
+     * Enrolls the given waitlist entries with one statement, skipping students who are enrolled already.
+     *
+     * @return the number of enrollments created
+     */
+    int enrollAll(Collection<Long> ids);
+
+}
@@ -0,0 +1,50 @@
+package com.privateschool.server.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+/**
+ * Same split as {@link CourseStudentRepositoryImpl}: MySQL gets INSERT IGNORE, so a row inserted by a concurrent
+ * transaction after this statement's NOT EXISTS check cannot fail it; other databases get the portable
+ * INSERT ... SELECT, which only skips rows that were committed before it ran.
+ */
+public class WaitlistRepositoryImpl implements WaitlistRepositoryCustom {
+
+    private static final String MYSQL_JOIN =
+            "INSERT IGNORE INTO waitlist (student_id, course_id) VALUES (?1, ?2)";
+
+    private static final String PORTABLE_JOIN =
+            "INSERT INTO waitlist (student_id, course_id) SELECT s.id, c.id FROM user s, course c"
+                    + " WHERE s.id = ?1 AND c.id = ?2"
+                    + " AND NOT EXISTS (SELECT 1 FROM waitlist w WHERE w.student_id = ?1 AND w.course_id = ?2)";
+
+    private static final String MYSQL_ENROLL =
+            "INSERT IGNORE INTO course_student (student_id, course_id)"
+                    + " SELECT w.student_id, w.course_id FROM waitlist w WHERE w.id IN (?1)";
+
+    private static final String PORTABLE_ENROLL =
+            "INSERT INTO course_student (student_id, course_id)"
+                    + " SELECT w.student_id, w.course_id FROM waitlist w WHERE w.id IN (?1) AND NOT EXISTS"
+                    + " (SELECT 1 FROM course_student cs WHERE cs.student_id = w.student_id"
+                    + " AND cs.course_id = w.course_id)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertIfAbsent(Long studentId, Long courseId) {
+        return entityManager.createNativeQuery(Databases.isMysql(entityManager) ? MYSQL_JOIN : PORTABLE_JOIN)
+                .setParameter(1, studentId)
+                .setParameter(2, courseId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int enrollAll(Collection<Long> ids) {
+        return entityManager.createNativeQuery(Databases.isMysql(entityManager) ? MYSQL_ENROLL : PORTABLE_ENROLL)
+                .setParameter(1, ids)
+                .executeUpdate();
+    }
+
+}
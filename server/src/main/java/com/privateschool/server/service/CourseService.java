@@ -1,8 +1,10 @@
 package com.privateschool.server.service;
 
+import com.privateschool.server.dto.FieldSelection;
 import com.privateschool.server.model.Course;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CourseService {
 
@@ -14,4 +16,6 @@ public interface CourseService {
 
     List<Course> findAllCourses();
 
+    List<Map<String, Object>> findAllCourses(FieldSelection fields);
+
 }
@@ -1,12 +1,16 @@
 package com.privateschool.server.service;
 
+import com.privateschool.server.cache.SeatLedger;
+import com.privateschool.server.dto.FieldSelection;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.repository.CourseRepository;
+import com.privateschool.server.repository.ProjectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -15,19 +19,39 @@ public class CourseServiceImpl implements CourseService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
     @Override
     public Course addCourse(Course course) {
+        resourceVersionService.catalogChanged();
         return courseRepository.save(course);
     }
 
     @Override
     public Course updateCourse(Course course) {
-        return courseRepository.save(course);
+        resourceVersionService.catalogChanged();
+        Course saved = courseRepository.save(course);
+        seatLedger.invalidate(saved.getId());
+        // A higher capacity frees seats for the waitlist.
+        waitlistService.promoteLater(saved.getId());
+        return saved;
     }
 
     @Override
     public void deleteCourse(Long courseId) {
+        resourceVersionService.catalogChanged();
         courseRepository.deleteById(courseId);
+        seatLedger.invalidate(courseId);
     }
 
     @Override
@@ -35,4 +59,9 @@ public class CourseServiceImpl implements CourseService {
         return courseRepository.findAll();
     }
 
+    @Override
+    public List<Map<String, Object>> findAllCourses(FieldSelection fields) {
+        return projectionRepository.findCourses(fields);
+    }
+
 }
@@ -1,17 +1,28 @@
 package com.privateschool.server.service;
 
+import com.privateschool.server.dto.EnrollmentResult;
+import com.privateschool.server.dto.FieldSelection;
 import com.privateschool.server.model.CourseStudent;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CourseStudentService {
 
-    CourseStudent saveCourseStudent(CourseStudent courseStudent);
+    EnrollmentResult enroll(CourseStudent courseStudent);
+
+    void unenroll(Long studentId, Long courseId);
 
     List<CourseStudent> findAllCoursesOfStudent(Long studentId);
 
+    List<Map<String, Object>> findAllCoursesOfStudent(Long studentId, FieldSelection fields);
+
     List<CourseStudent> findAllStudentsOfInstructor(Long instructorId);
 
+    List<Map<String, Object>> findAllStudentsOfInstructor(Long instructorId, FieldSelection fields);
+
     List<CourseStudent> findAllEnrollments();
 
+    List<Map<String, Object>> findAllEnrollments(FieldSelection fields);
+
 }
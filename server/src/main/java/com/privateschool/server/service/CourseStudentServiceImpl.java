@@ -1,12 +1,19 @@
 package com.privateschool.server.service;
 
+import com.privateschool.server.cache.SeatLedger;
+import com.privateschool.server.dto.EnrollmentResult;
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.model.Course;
 import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.repository.CourseRepository;
 import com.privateschool.server.repository.CourseStudentRepository;
+import com.privateschool.server.repository.ProjectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -15,9 +22,73 @@ public class CourseStudentServiceImpl implements CourseStudentService {
     @Autowired
     private CourseStudentRepository courseStudentRepository;
 
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private EnrollmentEventService enrollmentEventService;
+
+    // Insert-if-absent instead of save-and-catch: a repeated enrollment is a cheap no-op insert plus the read we
+    // need anyway, with no constraint violation, exception or rollback. The seat is taken first, from this node's
+    // ledger and then with a conditional update on the course row; no row is locked before that update. While a
+    // course has a waitlist, freed seats belong to the students on it, so newcomers queue behind them.
+    @Override
+    public EnrollmentResult enroll(CourseStudent courseStudent) {
+        Long studentId = studentIdOf(courseStudent);
+        Long courseId = courseStudent.getCourse() != null ? courseStudent.getCourse().getId() : null;
+        if (studentId == null || courseId == null) {
+            throw new InvalidEnrollmentException("Enrollment needs a student and a course id");
+        }
+        if (waitlistService.hasWaiting(courseId) || !seatLedger.tryAcquire(courseId)) {
+            return existingOrWaitlisted(studentId, courseId);
+        }
+        if (courseRepository.reserveSeat(courseId) == 0) {
+            seatLedger.markFull(courseId);
+            return existingOrWaitlisted(studentId, courseId);
+        }
+        seatLedger.releaseOnRollback(courseId);
+        boolean created = courseStudentRepository.insertIfAbsent(studentId, courseId) > 0;
+        CourseStudent enrollment = courseStudentRepository.findEnrollment(studentId, courseId);
+        if (enrollment == null) {
+            throw new InvalidEnrollmentException("Unknown student or course");
+        }
+        if (!created) {
+            courseRepository.releaseSeat(courseId);
+            seatLedger.release(courseId);
+            return EnrollmentResult.existing(enrollment);
+        }
+        resourceVersionService.enrollmentChanged(studentId, instructorIdOf(enrollment));
+        enrollmentEventService.enrollmentSaved(enrollment);
+        return EnrollmentResult.created(enrollment);
+    }
+
+    // The seat goes back to the course and, after commit, to the head of its waitlist.
     @Override
-    public CourseStudent saveCourseStudent(CourseStudent courseStudent) {
-        return courseStudentRepository.save((courseStudent));
+    public void unenroll(Long studentId, Long courseId) {
+        CourseStudent enrollment = courseStudentRepository.findEnrollment(studentId, courseId);
+        if (enrollment == null) {
+            if (waitlistService.leave(studentId, courseId)) {
+                return;
+            }
+            throw new EnrollmentNotFoundException("Not enrolled in or waiting for this course");
+        }
+        courseStudentRepository.delete(enrollment);
+        courseRepository.releaseSeat(courseId);
+        seatLedger.invalidate(courseId);
+        resourceVersionService.enrollmentChanged(studentId, instructorIdOf(enrollment));
+        waitlistService.promoteLater(courseId);
     }
 
     @Override
@@ -25,14 +96,50 @@ public class CourseStudentServiceImpl implements CourseStudentService {
         return courseStudentRepository.findByStudentId(studentId);
     }
 
+    @Override
+    public List<Map<String, Object>> findAllCoursesOfStudent(Long studentId, FieldSelection fields) {
+        return projectionRepository.findCoursesOfStudent(studentId, fields);
+    }
+
     @Override
     public List<CourseStudent> findAllStudentsOfInstructor(Long instructorId) {
         return courseStudentRepository.findByCourseInstructorId(instructorId);
     }
 
+    @Override
+    public List<Map<String, Object>> findAllStudentsOfInstructor(Long instructorId, FieldSelection fields) {
+        return projectionRepository.findStudentsOfInstructor(instructorId, fields);
+    }
+
     @Override
     public List<CourseStudent> findAllEnrollments() {
-        return courseStudentRepository.findAll();
+        return courseStudentRepository.findAllEnrollments();
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllEnrollments(FieldSelection fields) {
+        return projectionRepository.findEnrollments(fields);
+    }
+
+    // A full course still answers an already enrolled student with their enrollment.
+    private EnrollmentResult existingOrWaitlisted(Long studentId, Long courseId) {
+        CourseStudent enrollment = courseStudentRepository.findEnrollment(studentId, courseId);
+        if (enrollment != null) {
+            return EnrollmentResult.existing(enrollment);
+        }
+        if (!courseRepository.existsById(courseId)) {
+            throw new InvalidEnrollmentException("Unknown student or course");
+        }
+        return EnrollmentResult.waitlisted(waitlistService.join(studentId, courseId));
+    }
+
+    private static Long studentIdOf(CourseStudent courseStudent) {
+        return courseStudent.getStudent() != null ? courseStudent.getStudent().getId() : null;
+    }
+
+    private static Long instructorIdOf(CourseStudent courseStudent) {
+        Course course = courseStudent.getCourse();
+        return course != null && course.getInstructor() != null ? course.getInstructor().getId() : null;
     }
 
 }
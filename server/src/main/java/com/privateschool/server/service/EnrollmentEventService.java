@@ -0,0 +1,12 @@
+package com.privateschool.server.service;
+
+import com.privateschool.server.model.CourseStudent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface EnrollmentEventService {
+
+    SseEmitter subscribe(Long instructorId);
+
+    void enrollmentSaved(CourseStudent courseStudent);
+
+}
@@ -0,0 +1,217 @@
+package com.privateschool.server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.dto.EnrollmentEvent;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+
+/**
+ * Pushes enrollment events to the instructors' open roster pages once the enrollment has committed. Each event is
+ * serialized once and the same JSON is queued for every subscriber of that instructor; every subscriber drains
+ * its own bounded queue on the SSE executor, so one slow connection only loses its own events.
+ */
+@Service
+public class EnrollmentEventServiceImpl implements EnrollmentEventService {
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("sseExecutor")
+    private Executor sseExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.sse.max-pending:100}")
+    private int maxPending;
+
+    private Counter sent;
+
+    private Counter droppedQueueFull;
+
+    private Counter droppedDisconnected;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("sse.connections", connections, AtomicInteger::get)
+                .description("Open enrollment event streams")
+                .register(meterRegistry);
+        sent = Counter.builder("sse.events.sent").register(meterRegistry);
+        droppedQueueFull = Counter.builder("sse.events.dropped").tag("reason", "queue_full").register(meterRegistry);
+        droppedDisconnected = Counter.builder("sse.events.dropped").tag("reason", "disconnected")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long instructorId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(instructorId, emitter);
+        // Adds under the map's lock, so a close() dropping the last subscriber cannot orphan the set it is added to.
+        subscribers.compute(instructorId, (id, set) -> {
+            Set<Subscriber> added = set != null ? set : ConcurrentHashMap.newKeySet();
+            added.add(subscriber);
+            return added;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    @Override
+    public void enrollmentSaved(CourseStudent courseStudent) {
+        Course course = courseStudent.getCourse();
+        if (course == null || course.getInstructor() == null || course.getInstructor().getId() == null) {
+            return;
+        }
+        Long instructorId = course.getInstructor().getId();
+        // Map while the entity is still attached; only the DTO outlives the transaction.
+        EnrollmentEvent event = EnrollmentEvent.of(courseStudent);
+        afterCommit(() -> publish(instructorId, event));
+    }
+
+    void publish(Long instructorId, EnrollmentEvent event) {
+        Set<Subscriber> targets = subscribers.getOrDefault(instructorId, Collections.emptySet());
+        if (targets.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize enrollment event", e);
+        }
+        String id = String.valueOf(event.getEnrollmentId());
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(id, json);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private final class Subscriber {
+
+        private final Long instructorId;
+
+        private final SseEmitter emitter;
+
+        private final Queue<String[]> pending = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long instructorId, SseEmitter emitter) {
+            this.instructorId = instructorId;
+            this.emitter = emitter;
+        }
+
+        void offer(String id, String json) {
+            if (size.incrementAndGet() > maxPending) {
+                size.decrementAndGet();
+                droppedQueueFull.increment();
+                return;
+            }
+            pending.add(new String[]{id, json});
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sseExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // Stays queued; the next event for this instructor tries again.
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            String[] next;
+            while ((next = pending.poll()) != null) {
+                size.decrementAndGet();
+                try {
+                    emitter.send(SseEmitter.event().id(next[0]).name("enrollment").data(next[1],
+                            MediaType.APPLICATION_JSON));
+                    sent.increment();
+                } catch (IOException | IllegalStateException e) {
+                    droppedDisconnected.increment();
+                    emitter.completeWithError(e);
+                    close();
+                    return;
+                }
+            }
+            draining.set(false);
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            connections.decrementAndGet();
+            subscribers.computeIfPresent(instructorId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            int lost = size.getAndSet(0);
+            pending.clear();
+            if (lost > 0) {
+                droppedDisconnected.increment(lost);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.privateschool.server.service;
+
+/** The student is neither enrolled in nor waiting for the course; answered with 404. */
+public class EnrollmentNotFoundException extends RuntimeException {
+
+    public EnrollmentNotFoundException(String message) {
+        super(message);
+    }
+
+}
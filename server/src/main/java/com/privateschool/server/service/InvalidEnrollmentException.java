@@ -0,0 +1,10 @@
+package com.privateschool.server.service;
+
+/** The enrollment names no student or course, or one that does not exist; answered with 400. */
+public class InvalidEnrollmentException extends RuntimeException {
+
+    public InvalidEnrollmentException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.privateschool.server.service;
+
+import com.privateschool.server.model.Role;
+
+public interface ResourceVersionService {
+
+    String catalogETag();
+
+    String studentCoursesETag(Long studentId);
+
+    String instructorRosterETag(Long instructorId);
+
+    void catalogChanged();
+
+    /**
+     * An existing user's name or role changed; previousRole is the role before the change. New users need no call,
+     * since they teach and take no courses yet.
+     */
+    void userChanged(Long userId, Role previousRole, Role role);
+
+    void enrollmentChanged(Long studentId, Long instructorId);
+
+}
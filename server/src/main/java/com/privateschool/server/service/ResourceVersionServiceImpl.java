@@ -0,0 +1,187 @@
+package com.privateschool.server.service;
+
+import com.privateschool.server.model.ResourceVersion;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.repository.ResourceVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Version stamps for the cacheable read endpoints, kept in the {@code resource_version} table so that every node
+ * behind the load balancer hands out the same ETag for the same data. An ETag is the concatenation of the stamps
+ * its payload depends on; it is read before the payload, so a tag is never newer than the data it goes out with.
+ * The tags are weak: they vouch for the data rather than the bytes, which lets Tomcat compress these responses.
+ * <p>
+ * This node keeps the stamps it has read for {@code app.etag.refresh-ms}, so a hot conditional GET is answered
+ * with a 304 without touching the database. Its own writes drop their stamps once they commit; another node's
+ * writes show up here once the copy expires, so for that long a client may be told its stale copy is current.
+ * <p>
+ * Writes bump their stamps in their own transaction, just before it commits: a reader can never pair a new tag
+ * with uncommitted (or rolled back) data. Bumps are collected per transaction and applied once each, in name
+ * order, so two writers never wait on each other's version rows in opposite orders.
+ */
+@Service
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+
+    private static final String CATALOG = "catalog";
+
+    private static final String INSTRUCTORS = "instructors";
+
+    private static final String ROSTERS = "rosters";
+
+    // One per student and instructor read; past this many the copies are dropped and read again as needed.
+    private static final int MAX_STAMPS = 50_000;
+
+    private final ConcurrentMap<String, Stamp> stamps = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Value("${app.etag.refresh-ms:1000}")
+    private long refreshMs;
+
+    @Override
+    public String catalogETag() {
+        return tag("c", CATALOG, INSTRUCTORS);
+    }
+
+    @Override
+    public String studentCoursesETag(Long studentId) {
+        return tag("s" + studentId, CATALOG, INSTRUCTORS, student(studentId));
+    }
+
+    @Override
+    public String instructorRosterETag(Long instructorId) {
+        return tag("t" + instructorId, CATALOG, INSTRUCTORS, ROSTERS, instructor(instructorId));
+    }
+
+    @Override
+    public void catalogChanged() {
+        bump(CATALOG);
+    }
+
+    // Instructors show up in every course list, students only in rosters and their own list.
+    @Override
+    public void userChanged(Long userId, Role previousRole, Role role) {
+        if (previousRole == Role.TEACHER || role == Role.TEACHER) {
+            bump(INSTRUCTORS);
+        }
+        if (previousRole == Role.STUDENT || role == Role.STUDENT) {
+            bump(student(userId));
+            bump(ROSTERS);
+        }
+    }
+
+    @Override
+    public void enrollmentChanged(Long studentId, Long instructorId) {
+        if (studentId != null) {
+            bump(student(studentId));
+        }
+        // The instructor is unknown (partial course payload), so every roster has to be revalidated.
+        bump(instructorId != null ? instructor(instructorId) : ROSTERS);
+    }
+
+    private String tag(String key, String... names) {
+        long now = System.nanoTime();
+        Map<String, Long> versions = new HashMap<>();
+        List<String> expired = new ArrayList<>();
+        for (String name : names) {
+            Stamp stamp = stamps.get(name);
+            if (stamp != null && now - stamp.readAt < TimeUnit.MILLISECONDS.toNanos(refreshMs)) {
+                versions.put(name, stamp.version);
+            } else {
+                expired.add(name);
+            }
+        }
+        if (!expired.isEmpty()) {
+            Map<String, Long> read = new HashMap<>();
+            for (ResourceVersion version : resourceVersionRepository.findByNameIn(expired)) {
+                read.put(version.getName(), version.getVersion());
+            }
+            if (stamps.size() + expired.size() > MAX_STAMPS) {
+                stamps.clear();
+            }
+            for (String name : expired) {
+                long version = read.getOrDefault(name, 0L);
+                stamps.put(name, new Stamp(version, now));
+                versions.put(name, version);
+            }
+        }
+        StringBuilder sb = new StringBuilder("W/\"").append(key);
+        for (String name : names) {
+            sb.append('.').append(Long.toHexString(versions.get(name)));
+        }
+        return sb.append('"').toString();
+    }
+
+    private void bump(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            resourceVersionRepository.bump(name);
+            stamps.remove(name);
+            return;
+        }
+        PendingBumps pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps) {
+                pending = (PendingBumps) synchronization;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingBumps();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.names.add(name);
+    }
+
+    private static String student(Long studentId) {
+        return "student:" + studentId;
+    }
+
+    private static String instructor(Long instructorId) {
+        return "instructor:" + instructorId;
+    }
+
+    private final class PendingBumps extends TransactionSynchronizationAdapter {
+
+        private final Set<String> names = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            names.forEach(resourceVersionRepository::bump);
+        }
+
+        @Override
+        public void afterCommit() {
+            names.forEach(stamps::remove);
+        }
+
+    }
+
+    private static final class Stamp {
+
+        private final long version;
+
+        private final long readAt;
+
+        private Stamp(long version, long readAt) {
+            this.version = version;
+            this.readAt = readAt;
+        }
+
+    }
+
+}
@@ -8,6 +8,8 @@ public interface UserService {
 
     User saveUser(User user);
 
+    User register(User user);
+
     User findByUsername(String username);
 
     List<User> findAllUsers();
@@ -1,30 +1,64 @@
 package com.privateschool.server.service;
 
+import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
 import com.privateschool.server.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    private static final String USERNAME_CONSTRAINT = "uq_user_username";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     @Override
     public User saveUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
+        userChanged(user);
         return userRepository.save(user);
     }
 
+    // The username is checked before the password is hashed, so a known duplicate costs one indexed read and no
+    // BCrypt work. The unique index decides races between the check and the insert. No transaction is held open
+    // while hashing; the insert runs in the repository's own.
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public User register(User user) {
+        if (userRepository.existsByUsername(user.getUsername())) {
+            throw usernameTaken();
+        }
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, USERNAME_CONSTRAINT)) {
+                throw e;
+            }
+            throw usernameTaken();
+        }
+        // A new user is in no course list yet, so no ETag changes.
+        return saved;
+    }
+
     @Override
     public User findByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
@@ -37,7 +71,31 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User updateUser(User user) {
+        userChanged(user);
         return userRepository.save(user);
     }
 
+    private void userChanged(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        Role previousRole = userRepository.findById(user.getId()).map(User::getRole).orElse(null);
+        resourceVersionService.userChanged(user.getId(), previousRole, user.getRole());
+    }
+
+    private static UsernameTakenException usernameTaken() {
+        return new UsernameTakenException();
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String name = ((ConstraintViolationException) cause).getConstraintName();
+                String message = name != null ? name : cause.getMessage();
+                return message != null && message.toLowerCase(Locale.ROOT).contains(constraint);
+            }
+        }
+        return false;
+    }
+
 }
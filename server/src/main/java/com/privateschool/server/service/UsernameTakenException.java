@@ -0,0 +1,10 @@
+package com.privateschool.server.service;
+
+/** Registration chose a username that another user already has; answered with 409. */
+public class UsernameTakenException extends RuntimeException {
+
+    public UsernameTakenException() {
+        super("Username is already taken");
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.privateschool.server.service;
+
+public interface WaitlistService {
+
+    /** Queues the student for the course, or finds them already queued, and returns their position. */
+    int join(Long studentId, Long courseId);
+
+    Integer position(Long studentId, Long courseId);
+
+    boolean hasWaiting(Long courseId);
+
+    boolean leave(Long studentId, Long courseId);
+
+    /** Fills free seats from the head of the waitlist once the current transaction commits, off the caller's thread. */
+    void promoteLater(Long courseId);
+
+    /**
+     * Moves as many students from the head of the waitlist into the course as it has free seats, up to
+     * {@code app.waitlist.batch-size}, in the current transaction.
+     *
+     * @return the number of students promoted, or -1 if the free seats were taken while this pass ran
+     */
+    int promote(Long courseId);
+
+}
@@ -0,0 +1,224 @@
+package com.privateschool.server.service;
+
+import com.privateschool.server.cache.SeatLedger;
+import com.privateschool.server.cache.WaitlistIndex;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.repository.CourseRepository;
+import com.privateschool.server.repository.CourseStudentRepository;
+import com.privateschool.server.repository.WaitlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the waitlist of full courses and fills freed seats from it in FIFO order. A promotion pass handles a whole
+ * batch of students with a fixed number of statements: one conditional update takes all their seats, one
+ * INSERT ... SELECT enrolls them and one delete clears their waitlist rows, all in one transaction.
+ */
+@Service
+@Transactional
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final int MAX_RETRIES = 3;
+
+    // Courses with a promotion pass queued but not started yet; more freed seats meanwhile need no second pass.
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseStudentRepository courseStudentRepository;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private EnrollmentEventService enrollmentEventService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("waitlistExecutor")
+    private Executor waitlistExecutor;
+
+    @Value("${app.waitlist.batch-size:100}")
+    private int batchSize;
+
+    @Override
+    public int join(Long studentId, Long courseId) {
+        if (waitlistRepository.insertIfAbsent(studentId, courseId) == 0) {
+            Integer position = waitlistIndex.position(courseId, studentId);
+            if (position == null) {
+                // Maybe queued through another node since this node last loaded the course.
+                waitlistIndex.invalidate(courseId);
+                position = waitlistIndex.position(courseId, studentId);
+            }
+            if (position == null) {
+                throw new InvalidEnrollmentException("Unknown student or course");
+            }
+            return position;
+        }
+        int position = waitlistIndex.append(courseId, studentId);
+        afterRollback(() -> waitlistIndex.invalidate(courseId));
+        // A seat may have been freed between this student finding the course full and joining.
+        promoteLater(courseId);
+        return position;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Integer position(Long studentId, Long courseId) {
+        return waitlistIndex.position(courseId, studentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasWaiting(Long courseId) {
+        return waitlistIndex.size(courseId) > 0;
+    }
+
+    @Override
+    public boolean leave(Long studentId, Long courseId) {
+        if (waitlistRepository.deleteEntry(studentId, courseId) == 0) {
+            return false;
+        }
+        afterCommit(() -> waitlistIndex.invalidate(courseId));
+        return true;
+    }
+
+    @Override
+    public void promoteLater(Long courseId) {
+        afterCommit(() -> schedule(courseId));
+    }
+
+    @Override
+    public int promote(Long courseId) {
+        CourseRepository.Seats seats = courseRepository.findSeatsById(courseId);
+        if (seats == null) {
+            return 0;
+        }
+        int free = seats.getCapacity() == null ? batchSize
+                : Math.min(batchSize, seats.getCapacity() - seats.getEnrolled());
+        if (free <= 0) {
+            return 0;
+        }
+        List<WaitlistRepository.Waiting> head = waitlistRepository.findHead(courseId, PageRequest.of(0, free));
+        if (head.isEmpty()) {
+            return 0;
+        }
+        if (courseRepository.reserveSeats(courseId, head.size()) == 0) {
+            return -1;
+        }
+        List<Long> ids = head.stream().map(WaitlistRepository.Waiting::getId).collect(Collectors.toList());
+        List<Long> studentIds = head.stream().map(WaitlistRepository.Waiting::getStudentId)
+                .collect(Collectors.toList());
+        int enrolled = waitlistRepository.enrollAll(ids);
+        waitlistRepository.deleteAllByIdIn(ids);
+        if (enrolled < head.size()) {
+            // Already enrolled students leave the waitlist without taking a seat.
+            courseRepository.releaseSeats(courseId, head.size() - enrolled);
+        }
+        for (CourseStudent enrollment : courseStudentRepository.findEnrollments(courseId, studentIds)) {
+            Course course = enrollment.getCourse();
+            resourceVersionService.enrollmentChanged(enrollment.getStudent().getId(),
+                    course.getInstructor() != null ? course.getInstructor().getId() : null);
+            enrollmentEventService.enrollmentSaved(enrollment);
+        }
+        afterCommit(() -> {
+            waitlistIndex.removePromoted(courseId, studentIds);
+            seatLedger.invalidate(courseId);
+        });
+        return head.size();
+    }
+
+    private void schedule(Long courseId) {
+        if (!pending.add(courseId)) {
+            return;
+        }
+        try {
+            waitlistExecutor.execute(() -> promoteAll(courseId));
+        } catch (TaskRejectedException e) {
+            // The next freed seat or join for this course schedules it again.
+            pending.remove(courseId);
+        }
+    }
+
+    // Runs on the waitlist executor, so it opens its own transaction for each pass. A fresh transaction per retry
+    // also means a fresh read of the free seats.
+    private void promoteAll(Long courseId) {
+        pending.remove(courseId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int retries = 0;
+        while (true) {
+            Integer promoted;
+            try {
+                promoted = transaction.execute(status -> promote(courseId));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent pass enrolled one of these students first; the portable INSERT ... SELECT cannot
+                // skip a row that was not committed yet. Retry, like a lost seat race, with a fresh head.
+                promoted = -1;
+            }
+            if (promoted == null || promoted == 0 || (promoted < 0 && ++retries > MAX_RETRIES)) {
+                return;
+            }
+            if (promoted > 0 && promoted < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.privateschool.server.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One timed operation of a trace. Spans of unsampled traces keep their ids, so logs still carry a trace id, but are
+ * never exported; {@link #NOOP} stands in where there is no trace at all. Ending a span twice exports it once.
+ */
+public final class Span {
+
+    /** The span handed out outside a trace. */
+    public static final Span NOOP = new Span(null, "0000000000000000", "0000000000000000", null, "noop");
+
+    private final Tracer tracer;
+
+    private final String traceId;
+
+    private final String spanId;
+
+    private final String parentId;
+
+    private final long timestampMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+    private final long startNanos = System.nanoTime();
+
+    private volatile String name;
+
+    private Map<String, String> tags;
+
+    private volatile long durationMicros = -1;
+
+    Span(Tracer tracer, String traceId, String spanId, String parentId, String name) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+    }
+
+    static String newId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    /** Starts a span under this one; it is recorded if and only if this one is. */
+    public Span child(String name) {
+        if (tracer == null) {
+            return NOOP;
+        }
+        return new Span(tracer, traceId, newId(), spanId, name);
+    }
+
+    public boolean isRecorded() {
+        return tracer != null;
+    }
+
+    public Span name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public synchronized Span tag(String key, Object value) {
+        if (tracer != null && value != null) {
+            if (tags == null) {
+                tags = new LinkedHashMap<>();
+            }
+            tags.put(key, value.toString());
+        }
+        return this;
+    }
+
+    public void end() {
+        if (tracer == null) {
+            return;
+        }
+        synchronized (this) {
+            if (durationMicros >= 0) {
+                return;
+            }
+            durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        }
+        tracer.export(this);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** When the span started, in microseconds since the epoch. */
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    /** How long the span took in microseconds, or -1 while it is running. */
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public synchronized Map<String, String> getTags() {
+        return tags != null ? Collections.unmodifiableMap(new LinkedHashMap<>(tags)) : Collections.emptyMap();
+    }
+
+}
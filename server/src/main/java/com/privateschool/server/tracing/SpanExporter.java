@@ -0,0 +1,11 @@
+package com.privateschool.server.tracing;
+
+/**
+ * Receives every finished span of a sampled trace, on the thread that ended it, so implementations must be quick and
+ * thread-safe. Each {@code SpanExporter} bean gets every span; {@link ZipkinFileSpanExporter} is the default.
+ */
+public interface SpanExporter {
+
+    void export(Span span);
+
+}
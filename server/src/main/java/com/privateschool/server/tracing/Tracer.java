@@ -0,0 +1,58 @@
+package com.privateschool.server.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Starts traces and hands their finished spans to the {@link SpanExporter}s. A request that arrives with a W3C
+ * {@code traceparent} header continues that trace and keeps the caller's sampling decision; any other request is
+ * sampled at {@code app.tracing.sample-rate}.
+ */
+public class Tracer {
+
+    private static final Logger log = LoggerFactory.getLogger(Tracer.class);
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final double sampleRate;
+
+    private final List<SpanExporter> exporters;
+
+    public Tracer(double sampleRate, List<SpanExporter> exporters) {
+        this.sampleRate = sampleRate;
+        this.exporters = exporters;
+    }
+
+    /** Starts the root span of a request, continuing the caller's trace if traceparent is a valid header. */
+    public Span startTrace(String name, String traceparent) {
+        if (traceparent != null && TRACEPARENT.matcher(traceparent).matches()) {
+            String traceId = traceparent.substring(3, 35);
+            String parentId = traceparent.substring(36, 52);
+            if (!traceId.equals(INVALID_TRACE_ID) && !parentId.equals(INVALID_SPAN_ID)) {
+                boolean sampled = (Integer.parseInt(traceparent.substring(53), 16) & 1) != 0;
+                return new Span(sampled ? this : null, traceId, Span.newId(), parentId, name);
+            }
+        }
+        boolean sampled = sampleRate >= 1 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return new Span(sampled ? this : null, Span.newId() + Span.newId(), Span.newId(), null, name);
+    }
+
+    void export(Span span) {
+        for (SpanExporter exporter : exporters) {
+            try {
+                exporter.export(span);
+            } catch (RuntimeException e) {
+                log.warn("Span exporter {} failed", exporter.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.privateschool.server.tracing;
+
+import org.slf4j.MDC;
+
+/**
+ * The span of the request running on this thread. The TracingFilter binds the root span of each request, and the
+ * repository interceptor and response writing start their spans under it through {@link #startSpan}. The trace and
+ * span ids are also put in the MDC, as {@code traceId} and {@code spanId}, so every log line of the request can be
+ * matched with its trace. Work a request hands to one of our executors stays in its trace, see
+ * {@link #propagate(Runnable)}.
+ */
+public final class Tracing {
+
+    public static final String TRACE_ID = "traceId";
+
+    public static final String SPAN_ID = "spanId";
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    /** The span bound to this thread, or null outside a request. */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /** Starts a span under the current one, or returns {@link Span#NOOP} outside a trace. */
+    public static Span startSpan(String name) {
+        Span current = CURRENT.get();
+        return current != null ? current.child(name) : Span.NOOP;
+    }
+
+    /** Binds the span to this thread and returns what was bound before, to hand back to {@link #restore}. */
+    public static Span bind(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        MDC.put(TRACE_ID, span.getTraceId());
+        MDC.put(SPAN_ID, span.getSpanId());
+        return previous;
+    }
+
+    public static void restore(Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+            MDC.remove(TRACE_ID);
+            MDC.remove(SPAN_ID);
+        } else {
+            bind(previous);
+        }
+    }
+
+    public static Runnable propagate(Runnable task) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = bind(span);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+}
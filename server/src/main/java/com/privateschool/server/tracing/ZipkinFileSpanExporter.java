@@ -0,0 +1,138 @@
+package com.privateschool.server.tracing;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+import ch.qos.logback.core.util.FileSize;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes spans to a local file as Zipkin v2 JSON, one span per line, so the file can be read with {@code jq} or
+ * posted to any Zipkin-compatible backend as is. Writing goes through Logback: a bounded queue drained by a
+ * background thread, and a file rolled daily and at {@code app.tracing.file.max-size}, gzipped, kept for
+ * {@code app.tracing.file.max-history} days and at most {@code app.tracing.file.total-size-cap} in all. When the
+ * queue is full spans are dropped rather than slowing requests.
+ * <p>
+ * The appenders are not attached to any logger, so Logback reconfiguring itself leaves them alone.
+ */
+public class ZipkinFileSpanExporter implements SpanExporter {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, String> localEndpoint;
+
+    private final String file;
+
+    private final String maxFileSize;
+
+    private final int maxHistory;
+
+    private final String totalSizeCap;
+
+    private ch.qos.logback.classic.Logger logger;
+
+    private AsyncAppender appender;
+
+    public ZipkinFileSpanExporter(String serviceName, String file, String maxFileSize, int maxHistory,
+                                  String totalSizeCap) {
+        this.localEndpoint = Collections.singletonMap("serviceName", serviceName);
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+        this.totalSizeCap = totalSizeCap;
+    }
+
+    public void start() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logger = context.getLogger(ZipkinFileSpanExporter.class);
+
+        RollingFileAppender<ILoggingEvent> fileAppender = new RollingFileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("traces-file");
+        fileAppender.setFile(file);
+
+        SizeAndTimeBasedRollingPolicy<ILoggingEvent> policy = new SizeAndTimeBasedRollingPolicy<>();
+        policy.setContext(context);
+        policy.setParent(fileAppender);
+        policy.setFileNamePattern(file + ".%d{yyyy-MM-dd}.%i.gz");
+        policy.setMaxFileSize(FileSize.valueOf(maxFileSize));
+        policy.setMaxHistory(maxHistory);
+        policy.setTotalSizeCap(FileSize.valueOf(totalSizeCap));
+        policy.start();
+        fileAppender.setRollingPolicy(policy);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("traces");
+        async.setQueueSize(8192);
+        // Every span is an INFO event, so only a full queue drops them.
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(fileAppender);
+        async.start();
+        appender = async;
+    }
+
+    /** Writes what is still queued and closes the file. */
+    public void stop() {
+        if (appender != null) {
+            appender.stop();
+            appender = null;
+        }
+    }
+
+    @Override
+    public void export(Span span) {
+        AsyncAppender current = appender;
+        if (current == null) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(toZipkin(span));
+            current.doAppend(new LoggingEvent(ZipkinFileSpanExporter.class.getName(), logger, Level.INFO, json,
+                    null, null));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Object> toZipkin(Span span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        if (span.getParentId() != null) {
+            json.put("parentId", span.getParentId());
+        }
+        json.put("id", span.getSpanId());
+        if (span.getTags().containsKey("http.method")) {
+            json.put("kind", "SERVER");
+        }
+        json.put("name", span.getName());
+        json.put("timestamp", span.getTimestampMicros());
+        json.put("duration", span.getDurationMicros());
+        json.put("localEndpoint", localEndpoint);
+        Map<String, String> tags = span.getTags();
+        if (!tags.isEmpty()) {
+            json.put("tags", tags);
+        }
+        return json;
+    }
+
+}
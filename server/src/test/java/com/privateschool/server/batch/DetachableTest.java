@@ -0,0 +1,31 @@
+package com.privateschool.server.batch;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DetachableTest {
+
+    @Test
+    void testProxy_DelegatesUntilDetached() {
+        // Given
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("Authorization")).thenReturn("Bearer token");
+        Detachable<HttpServletRequest> detachable = Detachable.of(HttpServletRequest.class, request);
+        SubRequest subRequest = new SubRequest(detachable.proxy(), "/api/user/courses");
+
+        // When
+        String before = subRequest.getHeader("Authorization");
+        detachable.detach();
+
+        // Then
+        assertThat(before).isEqualTo("Bearer token");
+        assertThatThrownBy(() -> subRequest.getHeader("Authorization")).isInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.privateschool.server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.privateschool.server.dto.EnrollmentResponse;
+import com.privateschool.server.dto.ResponseMapper;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares encode/decode time and payload size of the manager enrollments list across the negotiated wire
+ * formats. Not a unit test; run it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.privateschool.server.benchmark.EnrollmentWireFormatBenchmark}.
+ */
+public class EnrollmentWireFormatBenchmark {
+
+    private static final int ENROLLMENTS = 10_000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 200;
+
+    public static void main(String[] args) throws Exception {
+        List<EnrollmentResponse> payload = ResponseMapper.enrollments(enrollments(ENROLLMENTS));
+
+        System.out.printf("%-8s %12s %14s %14s%n", "format", "bytes", "encode us/op", "decode us/op");
+        run("json", new ObjectMapper(), payload);
+        run("cbor", new ObjectMapper(new CBORFactory()), payload);
+        run("smile", new ObjectMapper(new SmileFactory()), payload);
+    }
+
+    private static void run(String name, ObjectMapper mapper, List<EnrollmentResponse> payload) throws Exception {
+        CollectionType type = mapper.getTypeFactory().constructCollectionType(List.class, EnrollmentResponse.class);
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(payload), type);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            bytes = mapper.writeValueAsBytes(payload);
+            long encoded = System.nanoTime();
+            mapper.readValue(bytes, type);
+            decodeNanos += System.nanoTime() - encoded;
+            encodeNanos += encoded - start;
+        }
+        System.out.printf("%-8s %12d %14.1f %14.1f%n", name, bytes.length,
+                encodeNanos / 1_000.0 / MEASURED_ROUNDS, decodeNanos / 1_000.0 / MEASURED_ROUNDS);
+    }
+
+    static List<CourseStudent> enrollments(int count) {
+        List<User> instructors = new ArrayList<>();
+        List<Course> courses = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            User instructor = user(i, "instructor" + i, Role.TEACHER);
+            instructors.add(instructor);
+            Course course = new Course();
+            course.setId(i);
+            course.setName("COURSE-" + (100 + i));
+            course.setInstructor(instructor);
+            courses.add(course);
+        }
+        List<CourseStudent> enrollments = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            CourseStudent courseStudent = new CourseStudent();
+            courseStudent.setId(i);
+            courseStudent.setStudent(user(1_000 + i / 4, "student" + (i / 4), Role.STUDENT));
+            courseStudent.setCourse(courses.get((int) (i % courses.size())));
+            enrollments.add(courseStudent);
+        }
+        return enrollments;
+    }
+
+    private static User user(long id, String username, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setName(username.toUpperCase());
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3H.VTGX1YwZ6FYZ1HhZ9Lsm");
+        user.setRole(role);
+        return user;
+    }
+
+}
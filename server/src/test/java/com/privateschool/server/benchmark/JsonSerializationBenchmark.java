@@ -0,0 +1,188 @@
+package com.privateschool.server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.privateschool.server.dto.NormalizedEnrollmentsResponse;
+import com.privateschool.server.dto.ResponseMapper;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * JMH benchmarks of the application's {@link ObjectMapper} writing the lists the manager, teacher and catalog
+ * endpoints return. Each list is written as entities, as the DTOs the controllers build (the mapping counts, since
+ * it runs on every request) and, for enrollments, normalized; with and without the bytecode-generating Afterburner
+ * module; and either into a byte array first or streamed straight into the response stream. Allocation per op comes
+ * from the GC profiler. Not a unit test; run it from the IDE or with {@code mvn test-compile exec:exec
+ * -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.privateschool.server.benchmark.JsonSerializationBenchmark"} (JMH forks JVMs
+ * with the launching JVM's class path, so {@code exec:java} does not work).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int ENROLLMENTS = 10_000;
+    private static final int COURSES = 1_000;
+    private static final int STUDENTS = 2_000;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        @Param({"enrollments-entity", "enrollments-dto", "enrollments-normalized", "courses-entity", "courses-dto",
+                "roster-entity", "roster-dto"})
+        public String payload;
+
+        @Param({"default", "afterburner"})
+        public String mapper;
+
+        ObjectMapper objectMapper;
+
+        Supplier<Object> value;
+
+        @Setup
+        public void setUp() {
+            objectMapper = applicationObjectMapper();
+            if ("afterburner".equals(mapper)) {
+                objectMapper = objectMapper.copy().registerModule(new AfterburnerModule());
+            }
+            value = payload(payload);
+        }
+
+    }
+
+    // Stands in for the response stream; counting the bytes keeps the writes from being optimized away.
+    @State(Scope.Thread)
+    public static class Sink extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+    }
+
+    // The whole document as one array first, as the course catalog cache does.
+    @Benchmark
+    public byte[] buffered(Payload payload) throws IOException {
+        return payload.objectMapper.writeValueAsBytes(payload.value.get());
+    }
+
+    // Straight into the response stream through the generator's own buffer, as the message converter does.
+    @Benchmark
+    public long streaming(Payload payload, Sink sink) throws IOException {
+        payload.objectMapper.writeValue(sink, payload.value.get());
+        return sink.bytes;
+    }
+
+    // The mapper Spring Boot builds for the application from its spring.jackson.* properties and modules.
+    private static ObjectMapper applicationObjectMapper() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .web(WebApplicationType.NONE).bannerMode(Banner.Mode.OFF).logStartupInfo(false).run()) {
+            return context.getBean(ObjectMapper.class);
+        }
+    }
+
+    private static Supplier<Object> payload(String name) {
+        switch (name) {
+            case "enrollments-entity":
+            case "enrollments-dto":
+            case "enrollments-normalized": {
+                List<CourseStudent> enrollments = EnrollmentWireFormatBenchmark.enrollments(ENROLLMENTS);
+                return name.endsWith("entity") ? () -> enrollments
+                        : name.endsWith("dto") ? () -> ResponseMapper.enrollments(enrollments)
+                        : () -> NormalizedEnrollmentsResponse.of(enrollments);
+            }
+            case "courses-entity":
+            case "courses-dto": {
+                List<Course> courses = courses(COURSES);
+                return name.endsWith("entity") ? () -> courses : () -> ResponseMapper.courses(courses);
+            }
+            case "roster-entity":
+            case "roster-dto": {
+                List<User> roster = students(STUDENTS);
+                return name.endsWith("entity") ? () -> roster : () -> ResponseMapper.users(roster);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown payload " + name);
+        }
+    }
+
+    static List<Course> courses(int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            Course course = new Course();
+            course.setId(i);
+            course.setName("COURSE-" + (100 + i));
+            course.setInstructor(user(i % 50 + 1, "instructor" + (i % 50 + 1), Role.TEACHER));
+            course.setCapacity(i % 3 == 0 ? null : 30);
+            course.setEnrolled((int) (i % 30));
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    static List<User> students(int count) {
+        List<User> students = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            students.add(user(1_000 + i, "student" + i, Role.STUDENT));
+        }
+        return students;
+    }
+
+    private static User user(long id, String username, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setName(username.toUpperCase());
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3H.VTGX1YwZ6FYZ1HhZ9Lsm");
+        user.setRole(role);
+        return user;
+    }
+
+}
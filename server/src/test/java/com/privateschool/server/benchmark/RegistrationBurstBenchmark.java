@@ -0,0 +1,108 @@
+package com.privateschool.server.benchmark;
+
+import com.privateschool.server.ServerApplication;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import com.privateschool.server.service.UserService;
+import com.privateschool.server.service.UsernameTakenException;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires a burst of concurrent registrations, a fifth of them for usernames that are already taken, at the old
+ * check-then-save flow and at {@link UserService#register}, against the in-memory test database. Not a unit test;
+ * run it from the IDE or with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.privateschool.server.benchmark.RegistrationBurstBenchmark}.
+ */
+public class RegistrationBurstBenchmark {
+
+    private static final int CLIENTS = 64;
+    private static final int REGISTRATIONS = 500;
+    private static final int DUPLICATE_EVERY = 5;
+
+    public static void main(String[] args) throws Exception {
+        // A devtools restart would run the application in another class loader than this benchmark.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class)
+                .run("--server.port=0", "--spring.jpa.hibernate.ddl-auto=create-drop")) {
+            UserService userService = context.getBean(UserService.class);
+            System.out.printf("%-18s %8s %9s %7s %7s %9s %9s%n",
+                    "flow", "req/s", "created", "409", "errors", "p50 ms", "p99 ms");
+            run("warmup", user -> userService.register(user));
+            run("check-then-save", user -> {
+                if (userService.findByUsername(user.getUsername()) != null) {
+                    throw new UsernameTakenException();
+                }
+                return userService.saveUser(user);
+            });
+            run("register", userService::register);
+        }
+    }
+
+    private static void run(String flow, Registration registration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[REGISTRATIONS];
+        List<Callable<Void>> calls = new ArrayList<>(REGISTRATIONS);
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            int n = i;
+            // Every fifth request reuses a username from earlier in the burst, like a double-submitted form.
+            String username = flow + "-" + (n % DUPLICATE_EVERY == DUPLICATE_EVERY - 1 ? n - 1 : n);
+            calls.add(() -> {
+                long start = System.nanoTime();
+                try {
+                    registration.register(user(username));
+                    created.incrementAndGet();
+                } catch (UsernameTakenException e) {
+                    conflicts.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // The check-then-save race ends here: both requests passed the check, one insert failed.
+                    errors.incrementAndGet();
+                }
+                latencies[n] = System.nanoTime() - start;
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Future<Void> future : clients.invokeAll(calls)) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-18s %8.0f %9d %7d %7d %9.1f %9.1f%n", flow,
+                REGISTRATIONS / (elapsed / 1e9), created.get(), conflicts.get(), errors.get(),
+                latencies[REGISTRATIONS / 2] / 1e6, latencies[REGISTRATIONS * 99 / 100] / 1e6);
+        clients.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(username);
+        user.setPassword("correct horse battery staple");
+        user.setRole(Role.STUDENT);
+        return user;
+    }
+
+    private interface Registration {
+
+        User register(User user);
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.privateschool.server.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.service.CourseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCatalogCacheTest {
+
+    @Mock
+    private CourseService courseService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CourseCatalogCache courseCatalogCache;
+
+    @BeforeEach
+    void setUp() {
+        List<Course> courses = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            Course course = new Course();
+            course.setId(i);
+            course.setName("COURSE-" + i);
+            courses.add(course);
+        }
+        lenient().when(courseService.findAllCourses()).thenReturn(courses);
+        courseCatalogCache.registerMeters();
+    }
+
+    @Test
+    void testGet_SameETag_ReusesPayload() {
+        // When
+        CourseCatalogCache.Payload first = courseCatalogCache.get("\"v1\"");
+        CourseCatalogCache.Payload second = courseCatalogCache.get("\"v1\"");
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.getGzip().length).isLessThan(first.getJson().length);
+        verify(courseService, times(1)).findAllCourses();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "courseCatalog").tag("result", "hit").counter()
+                .count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "courseCatalog").tag("result", "miss").counter()
+                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testGet_NewETag_RebuildsPayload() {
+        // When
+        courseCatalogCache.get("\"v1\"");
+        courseCatalogCache.get("\"v2\"");
+
+        // Then
+        verify(courseService, times(2)).findAllCourses();
+    }
+
+    @Test
+    void testBody_Gzip_RecordsBytesSaved() {
+        // Given
+        CourseCatalogCache.Payload payload = courseCatalogCache.get("\"v1\"");
+
+        // When
+        byte[] body = courseCatalogCache.body(payload, true);
+
+        // Then
+        assertThat(body).isSameAs(payload.getGzip());
+        assertThat(meterRegistry.get("catalog.precompressed.bytes.saved").counter().count())
+                .isEqualTo(payload.getJson().length - payload.getGzip().length);
+        assertThat(meterRegistry.get("catalog.precompressed.requests").tag("encoding", "gzip").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testBody_Identity_ReturnsJson() {
+        // Given
+        CourseCatalogCache.Payload payload = courseCatalogCache.get("\"v1\"");
+
+        // When
+        byte[] body = courseCatalogCache.body(payload, false);
+
+        // Then
+        assertThat(body).isSameAs(payload.getJson());
+        assertThat(meterRegistry.get("catalog.precompressed.build").timer().count()).isEqualTo(1L);
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.privateschool.server.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(2, 1000, now::get);
+    }
+
+    @Test
+    void testBegin_SecondCallSeesInFlightThenStoredResponse() {
+        // When
+        IdempotencyStore.Entry first = store.begin("k", "f");
+        IdempotencyStore.Entry inFlight = store.begin("k", "f");
+
+        // Then
+        assertThat(first).isNull();
+        assertThat(inFlight.getResponse()).isNull();
+
+        // When
+        store.complete("k", new IdempotencyStore.StoredResponse(201, "application/json", new byte[]{1}));
+        IdempotencyStore.Entry completed = store.begin("k", "f");
+
+        // Then
+        assertThat(completed.getResponse().getStatus()).isEqualTo(201);
+        assertThat(completed.getFingerprint()).isEqualTo("f");
+    }
+
+    @Test
+    void testBegin_AfterTtl_StartsOver() {
+        // Given
+        store.begin("k", "f");
+        store.complete("k", new IdempotencyStore.StoredResponse(201, null, new byte[0]));
+
+        // When
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        // Then
+        assertThat(store.begin("k", "f")).isNull();
+        assertThat(store.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void testBegin_WhenFull_EvictsOldestKey() {
+        // When
+        store.begin("a", "f");
+        store.begin("b", "f");
+        store.begin("c", "f");
+
+        // Then
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.evictions()).isEqualTo(1);
+        assertThat(store.begin("b", "f")).isNotNull();
+        assertThat(store.begin("a", "f")).isNull();
+    }
+
+    @Test
+    void testRelease_LetsTheKeyRunAgain() {
+        // Given
+        store.begin("k", "f");
+
+        // When
+        store.release("k");
+
+        // Then
+        assertThat(store.begin("k", "f")).isNull();
+    }
+
+}
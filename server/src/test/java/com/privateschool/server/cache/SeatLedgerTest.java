@@ -0,0 +1,205 @@
+package com.privateschool.server.cache;
+
+import com.privateschool.server.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatLedgerTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @InjectMocks
+    private SeatLedger seatLedger;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seatLedger, "refreshMs", 60000L);
+    }
+
+    @Test
+    void testTryAcquire_HandsOutExactlyTheFreeSeats() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(10, 3));
+
+        // When
+        int acquired = 0;
+        for (int i = 0; i < 20; i++) {
+            acquired += seatLedger.tryAcquire(1L) ? 1 : 0;
+        }
+
+        // Then
+        assertThat(acquired).isEqualTo(7);
+        verify(courseRepository, times(1)).findSeatsById(1L);
+    }
+
+    @Test
+    void testTryAcquire_ConcurrentCallersNeverOverbook() throws Exception {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(50, 0));
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 1000; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return seatLedger.tryAcquire(1L);
+                }));
+            }
+            start.countDown();
+            int acquired = 0;
+            for (Future<Boolean> result : results) {
+                acquired += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+
+            // Then
+            assertThat(acquired).isEqualTo(50);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTryAcquire_NoCapacityIsUnlimited() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(null, 500));
+
+        // When/Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(seatLedger.tryAcquire(1L)).isTrue();
+        }
+    }
+
+    @Test
+    void testTryAcquire_UnknownCourseHasNoSeats() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(null);
+
+        // When/Then
+        assertThat(seatLedger.tryAcquire(1L)).isFalse();
+        assertThat(seatLedger.courseCount()).isZero();
+    }
+
+    @Test
+    void testRelease_MakesTheSeatAvailableAgain() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(1, 0));
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+        assertThat(seatLedger.tryAcquire(1L)).isFalse();
+
+        // When
+        seatLedger.release(1L);
+
+        // Then
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+    }
+
+    @Test
+    void testReleaseOnRollback_GivesTheSeatBack() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(1, 0));
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+
+        // When
+        rollBack(() -> seatLedger.releaseOnRollback(1L));
+
+        // Then
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+        assertThat(seatLedger.tryAcquire(1L)).isFalse();
+    }
+
+    @Test
+    void testReleaseOnRollback_DoesNotRepeatAnEarlierRelease() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(1, 0));
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+
+        // When: the seat is given back on the duplicate path, then the transaction rolls back
+        rollBack(() -> {
+            seatLedger.releaseOnRollback(1L);
+            seatLedger.release(1L);
+        });
+
+        // Then: still exactly one seat
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+        assertThat(seatLedger.tryAcquire(1L)).isFalse();
+    }
+
+    @Test
+    void testMarkFull_TurnsAwayUntilTheViewIsRefreshed() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(10, 0), seats(10, 9), seats(10, 10));
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+
+        // When
+        seatLedger.markFull(1L);
+
+        // Then
+        assertThat(seatLedger.tryAcquire(1L)).isFalse();
+        ReflectionTestUtils.setField(seatLedger, "refreshMs", 0L);
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+        assertThat(seatLedger.tryAcquire(1L)).isFalse();
+    }
+
+    @Test
+    void testInvalidate_ReloadsTheCourse() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(1, 1), seats(2, 1));
+        assertThat(seatLedger.tryAcquire(1L)).isFalse();
+
+        // When
+        seatLedger.invalidate(1L);
+
+        // Then
+        assertThat(seatLedger.tryAcquire(1L)).isTrue();
+    }
+
+    private static void rollBack(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static CourseRepository.Seats seats(Integer capacity, int enrolled) {
+        return new CourseRepository.Seats() {
+            @Override
+            public Integer getCapacity() {
+                return capacity;
+            }
+
+            @Override
+            public int getEnrolled() {
+                return enrolled;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.privateschool.server.cache;
+
+import com.privateschool.server.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistIndexTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @InjectMocks
+    private WaitlistIndex waitlistIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(waitlistIndex, "refreshMs", 60000L);
+    }
+
+    @Test
+    void testPosition_FollowsTheTableOrder() {
+        // Given
+        when(waitlistRepository.findStudentIds(1L)).thenReturn(Arrays.asList(30L, 10L, 20L));
+
+        // When/Then
+        assertThat(waitlistIndex.position(1L, 30L)).isEqualTo(1);
+        assertThat(waitlistIndex.position(1L, 20L)).isEqualTo(3);
+        assertThat(waitlistIndex.position(1L, 99L)).isNull();
+        assertThat(waitlistIndex.size(1L)).isEqualTo(3);
+        verify(waitlistRepository, times(1)).findStudentIds(1L);
+    }
+
+    @Test
+    void testAppend_QueuesAtTheTailOnce() {
+        // Given
+        when(waitlistRepository.findStudentIds(1L)).thenReturn(Collections.singletonList(10L));
+
+        // When
+        int joined = waitlistIndex.append(1L, 20L);
+        int again = waitlistIndex.append(1L, 20L);
+
+        // Then
+        assertThat(joined).isEqualTo(2);
+        assertThat(again).isEqualTo(2);
+        assertThat(waitlistIndex.size(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void testRemovePromoted_MovesEveryoneUp() {
+        // Given
+        when(waitlistRepository.findStudentIds(1L)).thenReturn(Arrays.asList(10L, 20L, 30L, 40L));
+        waitlistIndex.size(1L);
+
+        // When
+        waitlistIndex.removePromoted(1L, Arrays.asList(10L, 20L));
+
+        // Then
+        assertThat(waitlistIndex.position(1L, 10L)).isNull();
+        assertThat(waitlistIndex.position(1L, 30L)).isEqualTo(1);
+        assertThat(waitlistIndex.position(1L, 40L)).isEqualTo(2);
+        assertThat(waitlistIndex.append(1L, 50L)).isEqualTo(3);
+        verify(waitlistRepository, times(1)).findStudentIds(1L);
+    }
+
+    @Test
+    void testRemovePromoted_NotAtTheHead_ReloadsTheCourse() {
+        // Given
+        when(waitlistRepository.findStudentIds(1L)).thenReturn(Arrays.asList(10L, 20L))
+                .thenReturn(Collections.singletonList(10L));
+        waitlistIndex.size(1L);
+
+        // When: promoted through another node's newer view
+        waitlistIndex.removePromoted(1L, Collections.singletonList(20L));
+
+        // Then
+        assertThat(waitlistIndex.position(1L, 20L)).isNull();
+        assertThat(waitlistIndex.position(1L, 10L)).isEqualTo(1);
+        verify(waitlistRepository, times(2)).findStudentIds(1L);
+    }
+
+    @Test
+    void testPosition_StaleCopyIsReloaded() {
+        // Given
+        ReflectionTestUtils.setField(waitlistIndex, "refreshMs", 0L);
+        when(waitlistRepository.findStudentIds(1L)).thenReturn(Arrays.asList(10L, 20L))
+                .thenReturn(Collections.singletonList(20L));
+        waitlistIndex.size(1L);
+
+        // When
+        Integer position = waitlistIndex.position(1L, 20L);
+
+        // Then
+        assertThat(position).isEqualTo(1);
+    }
+
+}
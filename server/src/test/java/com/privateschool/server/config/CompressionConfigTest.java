@@ -0,0 +1,127 @@
+package com.privateschool.server.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.jwt.JwtTokenProvider;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import com.privateschool.server.service.CourseStudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Talks to the embedded Tomcat over a plain HttpURLConnection, which (unlike the HTTP clients behind
+// TestRestTemplate) leaves the gzip body and its Content-Encoding alone.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compression;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "server.compression.enabled=true",
+        "server.compression.mime-types=application/json",
+        "server.compression.min-response-size=1B"})
+class CompressionConfigTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private CourseStudentService courseStudentService;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = new User();
+        instructor.setId(1L);
+        instructor.setName("John Teacher");
+        instructor.setRole(Role.TEACHER);
+
+        User student = new User();
+        student.setId(2L);
+        student.setName("Jane Student");
+        student.setRole(Role.STUDENT);
+
+        Course course = new Course();
+        course.setId(1L);
+        course.setName("Java Programming");
+        course.setInstructor(instructor);
+
+        CourseStudent enrollment = new CourseStudent();
+        enrollment.setId(1L);
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+
+        // Any bearer token authenticates as the role it names, e.g. "Bearer STUDENT"
+        when(jwtTokenProvider.getAuthentication(any())).thenAnswer(invocation -> {
+            String header = ((HttpServletRequest) invocation.getArgument(0)).getHeader("Authorization");
+            if (header == null) {
+                return null;
+            }
+            String role = header.substring(7);
+            return new UsernamePasswordAuthenticationToken("jane.student", null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+        });
+        when(courseStudentService.findAllCoursesOfStudent(2L)).thenReturn(Collections.singletonList(enrollment));
+        when(courseStudentService.findAllStudentsOfInstructor(1L)).thenReturn(Collections.singletonList(enrollment));
+    }
+
+    @Test
+    void testStudentCourses_AreCompressedDespiteETag() throws Exception {
+        // When
+        HttpURLConnection connection = get("/api/student/courses/2", "STUDENT");
+
+        // Then
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField("ETag")).startsWith("W/\"");
+        assertThat(connection.getHeaderField("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gunzip(connection).get(0).path("name").asText()).isEqualTo("Java Programming");
+    }
+
+    @Test
+    void testTeacherRoster_IsCompressedDespiteETag() throws Exception {
+        // When
+        HttpURLConnection connection = get("/api/teacher/students/1", "TEACHER");
+
+        // Then
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField("ETag")).startsWith("W/\"");
+        assertThat(connection.getHeaderField("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gunzip(connection).get(0).path("name").asText()).isEqualTo("Jane Student");
+    }
+
+    private HttpURLConnection get(String path, String role) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestProperty("Authorization", "Bearer " + role);
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        return connection;
+    }
+
+    private JsonNode gunzip(HttpURLConnection connection) throws Exception {
+        try (InputStream in = new GZIPInputStream(connection.getInputStream())) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.cache.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyFilter filter =
+            new IdempotencyFilter(new IdempotencyStore(100, 60_000), new SimpleMeterRegistry());
+
+    @Test
+    void testRetryWhileInFlight_IsToldToComeBackLater() throws Exception {
+        // Given
+        AtomicReference<MockHttpServletResponse> retry = new AtomicReference<>();
+
+        // When: the retry arrives while the first attempt is still in the chain
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(registration("key-1", "{\"username\":\"jane\"}"), first, (req, res) -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(registration("key-1", "{\"username\":\"jane\"}"), response, (r, s) -> {
+                throw new AssertionError("The retry must not reach the controller");
+            });
+            retry.set(response);
+        });
+
+        // Then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(retry.get().getStatus()).isEqualTo(429);
+        assertThat(retry.get().getHeader("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    void testAnonymousKeys_AreScopedToTheBody() throws Exception {
+        // Given
+        AtomicInteger handled = new AtomicInteger();
+
+        // When: two anonymous clients happen to pick the same key
+        MockHttpServletResponse jane = new MockHttpServletResponse();
+        filter.doFilter(registration("1", "{\"username\":\"jane\"}"), jane, (req, res) -> handled.incrementAndGet());
+        MockHttpServletResponse john = new MockHttpServletResponse();
+        filter.doFilter(registration("1", "{\"username\":\"john\"}"), john, (req, res) -> handled.incrementAndGet());
+
+        // Then
+        assertThat(handled).hasValue(2);
+        assertThat(john.getStatus()).isEqualTo(200);
+        assertThat(john.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void testErrorSentBySendError_IsNotReplayedWithAnEmptyBody() throws Exception {
+        // Given
+        AtomicInteger handled = new AtomicInteger();
+
+        // When: the first attempt ends in a ResponseStatusException-style sendError
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(registration("key-2", "{\"username\":\"jane\"}"), first, (req, res) -> {
+            handled.incrementAndGet();
+            ((HttpServletResponse) res).sendError(409, "Username is already taken");
+        });
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(registration("key-2", "{\"username\":\"jane\"}"), retry,
+                (req, res) -> handled.incrementAndGet());
+
+        // Then: the retry runs again instead of getting an empty 409
+        assertThat(first.getStatus()).isEqualTo(409);
+        assertThat(handled).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    private static MockHttpServletRequest registration(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/user/registration");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+}
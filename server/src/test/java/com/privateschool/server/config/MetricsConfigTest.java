@@ -0,0 +1,159 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import com.privateschool.server.repository.CourseRepository;
+import com.privateschool.server.repository.CourseStudentRepository;
+import com.privateschool.server.repository.ProjectionRepository;
+import com.privateschool.server.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.repository.invocations=true",
+        "management.metrics.distribution.maximum-expected-value.http.server.requests=10s",
+        "management.metrics.distribution.slo.http.server.requests=50ms,100ms,250ms,500ms,1s"})
+@AutoConfigureMockMvc
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseStudentRepository courseStudentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void testRepositoryCalls_AreTimedPerRepositoryAndMethod() {
+        // When
+        userRepository.findByUsername("nobody");
+        userRepository.existsByUsername("nobody");
+        projectionRepository.findCourses(FieldSelection.parse("id,name", FieldSelection.COURSE_FIELDS));
+
+        // Then
+        assertThat(meterRegistry.get("repository.invocations").tag("repository", "UserRepository")
+                .tag("method", "findByUsername").tag("exception", "none").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("repository.invocations").tag("repository", "UserRepository")
+                .tag("method", "existsByUsername").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("repository.invocations").tag("repository", "ProjectionRepository")
+                .tag("method", "findCourses").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPasswordEncoder_IsTimed() {
+        // When
+        passwordEncoder.matches("secret", passwordEncoder.encode("secret"));
+
+        // Then
+        assertThat(passwordEncoder).isInstanceOf(TimedPasswordEncoder.class);
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPrometheusEndpoint_ExposesRouteAndRepositoryHistograms() throws Exception {
+        // Given
+        mockMvc.perform(get("/api/user/courses")).andExpect(status().isOk());
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(scrape).contains("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\"");
+        // The SLO boundary is one of the buckets
+        assertThat(scrape).contains("uri=\"/api/user/courses\",le=\"0.25\"");
+        assertThat(scrape).contains("repository_invocations_seconds_bucket{exception=\"none\",method=\"findAll\""
+                + ",repository=\"CourseRepository\"");
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testEnrollmentsReport_PublishesAConstantStatementCountForItsRoute() throws Exception {
+        // Given
+        enroll(1);
+        getEnrollments();
+        enroll(5);
+
+        // When
+        getEnrollments();
+
+        // Then: one statement however many enrollments, counted on the report executor
+        DistributionSummary statements = meterRegistry.get("hibernate.request.statements")
+                .tag("method", "GET").tag("uri", "/api/manager/enrollments").summary();
+        assertThat(statements.count()).isEqualTo(2);
+        assertThat(statements.max()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("hibernate.request.entities.loaded")
+                .tag("uri", "/api/manager/enrollments").summary().max()).isGreaterThanOrEqualTo(11);
+        assertThat(meterRegistry.get("hibernate.request.collections.fetched")
+                .tag("uri", "/api/manager/enrollments").summary().totalAmount()).isZero();
+    }
+
+    private void getEnrollments() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/manager/enrollments")).andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    // Adds the given number of students, each enrolled in a course of their own.
+    private void enroll(int students) {
+        User teacher = userRepository.save(user("teacher", Role.TEACHER));
+        for (int i = 0; i < students; i++) {
+            User student = userRepository.save(user("student", Role.STUDENT));
+            Course course = new Course();
+            course.setName("Course " + i);
+            course.setInstructor(teacher);
+            course = courseRepository.save(course);
+            CourseStudent enrollment = new CourseStudent();
+            enrollment.setStudent(student);
+            enrollment.setCourse(course);
+            courseStudentRepository.save(enrollment);
+        }
+    }
+
+    private static User user(String prefix, Role role) {
+        User user = new User();
+        user.setUsername(prefix + "." + UUID.randomUUID());
+        user.setName(prefix);
+        user.setPassword("encodedPassword");
+        user.setRole(role);
+        return user;
+    }
+
+}
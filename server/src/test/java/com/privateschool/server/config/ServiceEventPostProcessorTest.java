@@ -0,0 +1,35 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.service.CourseService;
+import com.privateschool.server.service.CourseServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceEventPostProcessorTest {
+
+    private final ServiceEventPostProcessor postProcessor = new ServiceEventPostProcessor();
+
+    @Test
+    void testServiceBeans_GetTheInterceptor() {
+        // When
+        Object processed = postProcessor.postProcessAfterInitialization(new CourseServiceImpl(), "courseServiceImpl");
+
+        // Then
+        assertThat(processed).isInstanceOf(CourseService.class);
+        assertThat(AopUtils.isAopProxy(processed)).isTrue();
+        assertThat(((Advised) processed).getAdvisors()[0].getAdvice()).isInstanceOf(ServiceEventInterceptor.class);
+    }
+
+    @Test
+    void testOtherBeans_AreLeftAlone() {
+        // Given
+        Object bean = new Object();
+
+        // When / Then
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "bean")).isSameAs(bean);
+    }
+
+}
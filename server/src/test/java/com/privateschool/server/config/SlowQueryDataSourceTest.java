@@ -0,0 +1,114 @@
+package com.privateschool.server.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryDataSourceTest {
+
+    // The console appender is asynchronous, so the log is read straight off the logger.
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryLog.class);
+
+    @BeforeEach
+    void attachAppender() {
+        events.start();
+        logger.addAppender(events);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(events);
+    }
+
+    private static DataSource dataSource(long thresholdMs, double bindSampleRate) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        return new SlowQueryDataSource(h2, new SlowQueryLog(thresholdMs, bindSampleRate));
+    }
+
+    @Test
+    void testStatementOverThreshold_IsLoggedWithCallerAndSampledBinds() throws SQLException {
+        // Given
+        String previous = SlowQueryLog.enter("CourseRepository.findSeatsById");
+
+        // When
+        try (Connection connection = dataSource(0, 1).getConnection();
+             PreparedStatement statement = connection.prepareStatement("select ?, ?, ?")) {
+            statement.setLong(1, 42L);
+            statement.setString(2, "jane");
+            statement.setNull(3, Types.VARCHAR);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertThat(resultSet.next()).isTrue();
+                assertThat(resultSet.getLong(1)).isEqualTo(42L);
+            }
+        } finally {
+            SlowQueryLog.exit(previous);
+        }
+
+        // Then
+        assertThat(output()).contains("Slow query took")
+                .contains("in CourseRepository.findSeatsById: select ?, ?, ? binds [1=42, 2='jane', 3=NULL]");
+    }
+
+    @Test
+    void testStatementWithoutSampling_IsLoggedWithoutBinds() throws SQLException {
+        // When
+        try (Connection connection = dataSource(0, 0).getConnection();
+             PreparedStatement statement = connection.prepareStatement("select ?")) {
+            statement.setString(1, "secret");
+            statement.executeQuery().close();
+        }
+
+        // Then
+        assertThat(output()).contains("in no repository: select ?").doesNotContain("secret").doesNotContain("binds");
+    }
+
+    @Test
+    void testStatementUnderThreshold_IsNotLogged() throws SQLException {
+        // When
+        try (Connection connection = dataSource(60_000, 1).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+        }
+
+        // Then
+        assertThat(output()).doesNotContain("Slow query");
+    }
+
+    @Test
+    void testProxies_KeepTheirOwnIdentityAndConnection() throws SQLException {
+        // When
+        try (Connection connection = dataSource(60_000, 0).getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+
+            // Then
+            assertThat(connection).isEqualTo(connection);
+            assertThat(statement).isEqualTo(statement).isNotEqualTo(connection);
+            assertThat(statement.hashCode()).isEqualTo(System.identityHashCode(statement));
+            assertThat(statement.getConnection()).isSameAs(connection);
+        }
+    }
+
+    private String output() {
+        return events.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.joining("\n"));
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.privateschool.server.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowRequestFilterTest {
+
+    // The console appender is asynchronous, so the log is read straight off the logger.
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowRequestFilter.class);
+
+    private final RequestPhaseTracker tracker = new RequestPhaseTracker();
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/student/courses/7");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void attachAppender() {
+        events.start();
+        logger.addAppender(events);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(events);
+    }
+
+    @Test
+    void testSlowRequest_IsLoggedWithItsPhases() throws Exception {
+        // Given
+        QueryStats previous = QueryStats.bind(new QueryStats());
+
+        // When
+        try {
+            new SlowRequestFilter(0).doFilter(request, response, new MockFilterChain(new Handler()));
+        } finally {
+            QueryStats.restore(previous);
+        }
+
+        // Then
+        assertThat(output()).containsPattern("Slow request GET /api/student/courses/\\{studentId} 200 took \\d+ ms: "
+                + "filters \\d+ ms, handler \\d+ ms, serialization \\d+ ms, 0 statements");
+    }
+
+    @Test
+    void testHandlerAndSerialization_AreMeasuredSeparately() throws Exception {
+        // When
+        new SlowRequestFilter(-1).doFilter(request, response, new MockFilterChain(new Handler()));
+
+        // Then
+        RequestPhases phases = RequestPhases.of(request);
+        assertThat(phases.handlerStart).isGreaterThanOrEqualTo(phases.start);
+        assertThat(phases.bodyStart - phases.handlerStart).isGreaterThanOrEqualTo(20_000_000L);
+        assertThat(phases.handlerEnd - phases.bodyStart).isGreaterThanOrEqualTo(10_000_000L);
+    }
+
+    @Test
+    void testFastRequest_IsNotLogged() throws Exception {
+        // When
+        new SlowRequestFilter(60_000).doFilter(request, response, new MockFilterChain(new Handler()));
+
+        // Then
+        assertThat(output()).doesNotContain("Slow request");
+    }
+
+    @Test
+    void testWithoutTheFilter_TrackerDoesNothing() {
+        // When
+        tracker.preHandle(request, response, new Object());
+        tracker.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        assertThat(RequestPhases.of(request)).isNull();
+    }
+
+    // Stands in for the dispatcher: 20ms in the handler, then 10ms writing the body.
+    private class Handler extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest req, HttpServletResponse resp) {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/student/courses/{studentId}");
+            tracker.preHandle(req, resp, this);
+            sleep(20);
+            tracker.beforeBodyWrite("body", null, null, null, new ServletServerHttpRequest(req),
+                    new ServletServerHttpResponse(resp));
+            sleep(10);
+            tracker.afterCompletion(req, resp, this, null);
+        }
+
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String output() {
+        return events.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.joining("\n"));
+    }
+
+}
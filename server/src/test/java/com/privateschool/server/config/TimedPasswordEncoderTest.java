@@ -0,0 +1,29 @@
+package com.privateschool.server.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TimedPasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+
+    @Test
+    void testEncodeAndMatches_AreTimedSeparately() {
+        // When
+        String encoded = encoder.encode("secret");
+        boolean matches = encoder.matches("secret", encoded);
+        boolean wrong = encoder.matches("other", encoded);
+
+        // Then
+        assertThat(matches).isTrue();
+        assertThat(wrong).isFalse();
+        assertThat(meterRegistry.get("password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+}
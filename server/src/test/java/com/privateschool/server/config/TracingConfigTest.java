@@ -0,0 +1,124 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.tracing.Span;
+import com.privateschool.server.tracing.SpanExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.tracing.enabled=true",
+        "app.tracing.file.enabled=false"})
+@AutoConfigureMockMvc
+class TracingConfigTest {
+
+    @TestConfiguration
+    static class CapturingExporterConfig {
+
+        @Bean
+        public CapturingExporter capturingExporter() {
+            return new CapturingExporter();
+        }
+
+    }
+
+    static class CapturingExporter implements SpanExporter {
+
+        final List<Span> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void export(Span span) {
+            spans.add(span);
+        }
+
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CapturingExporter exporter;
+
+    @BeforeEach
+    void clearSpans() {
+        exporter.spans.clear();
+    }
+
+    @Test
+    void testRequest_IsTracedThroughSecurityRepositoriesAndResponseWriting() throws Exception {
+        // When
+        String traceId = mockMvc.perform(get("/api/user/courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(TracingFilter.TRACE_ID_HEADER))
+                .andReturn().getResponse().getHeader(TracingFilter.TRACE_ID_HEADER);
+
+        // Then
+        Span root = exporter.spans.get(exporter.spans.size() - 1);
+        assertThat(root.getName()).isEqualTo("GET /api/user/courses");
+        assertThat(root.getTraceId()).isEqualTo(traceId);
+        assertThat(root.getTags()).containsEntry("http.route", "/api/user/courses")
+                .containsEntry("http.status_code", "200");
+        List<String> children = exporter.spans.stream().filter(span -> span != root)
+                .peek(span -> assertThat(span.getParentId()).isEqualTo(root.getSpanId()))
+                .map(Span::getName).collect(Collectors.toList());
+        assertThat(children).contains("security", "write response");
+        assertThat(children).anyMatch(name -> name.startsWith("CourseRepository."));
+    }
+
+    @Test
+    void testRequest_WithTraceparent_ContinuesTheCallersTrace() throws Exception {
+        // When
+        mockMvc.perform(get("/api/user/courses")
+                        .header("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"))
+                .andExpect(header().string(TracingFilter.TRACE_ID_HEADER, "4bf92f3577b34da6a3ce929d0e0e4736"));
+
+        // Then
+        assertThat(exporter.spans).isNotEmpty()
+                .allMatch(span -> span.getTraceId().equals("4bf92f3577b34da6a3ce929d0e0e4736"));
+    }
+
+    @Test
+    void testRejectedRequest_StillEndsItsSecuritySpan() throws Exception {
+        // When
+        mockMvc.perform(get("/api/manager/enrollments")).andExpect(status().isUnauthorized());
+
+        // Then
+        assertThat(exporter.spans).extracting(Span::getName).contains("security");
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testAsyncRequest_EndsWhenItsAsyncWorkCompletes() throws Exception {
+        // When
+        MvcResult started = mockMvc.perform(get("/api/manager/enrollments")).andReturn();
+        assertThat(exporter.spans).extracting(Span::getName).doesNotContain("GET /api/manager/enrollments");
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // Then: the query ran on the report executor, in the same trace
+        Span root = exporter.spans.stream().filter(span -> span.getName().equals("GET /api/manager/enrollments"))
+                .findFirst().orElseThrow(AssertionError::new);
+        assertThat(exporter.spans).filteredOn(span -> span.getName().startsWith("CourseStudentRepository."))
+                .isNotEmpty().allMatch(span -> span.getTraceId().equals(root.getTraceId()));
+        assertThat(exporter.spans).extracting(Span::getName).contains("write response");
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.privateschool.server.config;
+
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.service.CourseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Only meaningful on a Java 21+ runtime, e.g. mvn test with JAVA_HOME pointing at JDK 21.
+@EnabledIfSystemProperty(named = "java.specification.version", matches = "2[1-9]|[3-9][0-9]")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.virtual-threads.enabled=true")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private CourseService courseService;
+
+    @Test
+    void testRequests_RunOnVirtualThreads() throws Exception {
+        // Given
+        AtomicReference<Thread> handler = new AtomicReference<>();
+        when(courseService.findAllCourses(any(FieldSelection.class))).thenAnswer(invocation -> {
+            handler.set(Thread.currentThread());
+            return Collections.emptyList();
+        });
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/user/courses?fields=name", String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(Thread.class.getMethod("isVirtual").invoke(handler.get())).isEqualTo(true);
+    }
+
+    @Test
+    void testPasswordEncoder_IsBounded() {
+        // Then: bounded underneath the timing wrapper
+        assertThat(passwordEncoder).isInstanceOf(TimedPasswordEncoder.class)
+                .extracting("delegate").isInstanceOf(BoundedPasswordEncoder.class);
+    }
+
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -20,9 +21,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:websecurity;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "management.endpoints.web.exposure.include=health,logscopes,flightrecording,hotpaths"})
 @AutoConfigureMockMvc
 class WebSecurityConfigTest {
 
@@ -230,4 +235,88 @@ class WebSecurityConfigTest {
                         .header("Access-Control-Request-Method", "GET"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithAnonymousUser
+    void testLogScopesEndpoint_RequiresAuthentication() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/actuator/logscopes"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testLogScopesEndpoint_DeniesStudentRole() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/actuator/logscopes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user\":\"testuser\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testLogScopesEndpoint_AllowsManagerRole() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/actuator/logscopes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"user\":\"testuser\",\"seconds\":60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user").value("testuser"))
+                .andExpect(jsonPath("$.level").value("DEBUG"))
+                .andExpect(jsonPath("$.logger").value("com.privateschool.server"));
+        mockMvc.perform(get("/actuator/logscopes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.user == 'testuser')]").exists());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testLogScopesEndpoint_RejectsScopeWithoutUserOrPath() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/actuator/logscopes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"level\":\"TRACE\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testFlightRecordingEndpoint_DeniesStudentRole() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/actuator/flightrecording").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testFlightRecordingEndpoint_AllowsManagerRole() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/actuator/flightrecording").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\":\"default\",\"seconds\":60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        mockMvc.perform(get("/actuator/flightrecording"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/actuator/flightrecording"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testHotPathsEndpoint_DeniesStudentRole() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/actuator/hotpaths"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testHotPathsEndpoint_AllowsManagerRole() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/actuator/hotpaths"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.auth.jwtVerify.count").exists())
+                .andExpect(jsonPath("$.caches.idempotency.size").exists())
+                .andExpect(jsonPath("$.caches.seatLedger.evictions").exists())
+                .andExpect(jsonPath("$.hotCourses").isArray());
+    }
+
+}
@@ -0,0 +1,271 @@
+package com.privateschool.server.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.dto.BatchRequest;
+import com.privateschool.server.jwt.JwtTokenProvider;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import com.privateschool.server.service.CourseService;
+import com.privateschool.server.service.CourseStudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.batch.max-requests=5", "app.async.timeout-ms=200"})
+class BatchControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private CourseService courseService;
+
+    @MockBean
+    private CourseStudentService courseStudentService;
+
+    private Course testCourse;
+
+    private CourseStudent enrollment;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = new User();
+        instructor.setId(1L);
+        instructor.setName("John Teacher");
+        instructor.setRole(Role.TEACHER);
+
+        User student = new User();
+        student.setId(2L);
+        student.setName("Jane Student");
+        student.setRole(Role.STUDENT);
+
+        testCourse = new Course();
+        testCourse.setId(1L);
+        testCourse.setName("Java Programming");
+        testCourse.setInstructor(instructor);
+
+        enrollment = new CourseStudent();
+        enrollment.setId(1L);
+        enrollment.setStudent(student);
+        enrollment.setCourse(testCourse);
+
+        // Any bearer token authenticates as the role it names, e.g. "Bearer STUDENT"
+        when(jwtTokenProvider.getAuthentication(any())).thenAnswer(invocation -> {
+            String header = ((HttpServletRequest) invocation.getArgument(0)).getHeader("Authorization");
+            if (header == null) {
+                return null;
+            }
+            String role = header.substring(7);
+            return new UsernamePasswordAuthenticationToken("jane.student", null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+        });
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+        when(courseStudentService.findAllCoursesOfStudent(2L)).thenReturn(Collections.singletonList(enrollment));
+    }
+
+    @Test
+    void testBatch_RunsSubRequestsWithSingleAuthentication() throws Exception {
+        // Given
+        BatchRequest batch = batch(item("courses", "/api/user/courses"), item("mine", "/api/student/courses/2"));
+
+        // When
+        ResponseEntity<String> response = post(batch, "STUDENT");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode responses = objectMapper.readTree(response.getBody()).path("responses");
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(0).path("id").asText()).isEqualTo("courses");
+        assertThat(responses.get(0).path("status").asInt()).isEqualTo(200);
+        assertThat(responses.get(0).path("body").get(0).path("name").asText()).isEqualTo("Java Programming");
+        assertThat(responses.get(1).path("status").asInt()).isEqualTo(200);
+        assertThat(responses.get(1).path("headers").path("ETag").asText()).isNotEmpty();
+        assertThat(responses.get(1).path("body").get(0).path("instructor").path("name").asText())
+                .isEqualTo("John Teacher");
+        verify(jwtTokenProvider, times(1)).getAuthentication(any());
+    }
+
+    @Test
+    void testBatch_AppliesRoleRulesPerSubRequest() throws Exception {
+        // Given
+        BatchRequest batch = batch(item("mine", "/api/student/courses/2"), item("all", "/api/manager/enrollments"),
+                item("parameter", "/api/manager;x/enrollments"), item("encoded", "/api/%6danager/enrollments"),
+                item("dots", "/api/student/../manager/enrollments"));
+
+        // When
+        ResponseEntity<String> response = post(batch, "STUDENT");
+
+        // Then
+        JsonNode responses = objectMapper.readTree(response.getBody()).path("responses");
+        assertThat(responses.get(0).path("status").asInt()).isEqualTo(200);
+        assertThat(responses.get(1).path("status").asInt()).isEqualTo(403);
+        assertThat(responses.get(2).path("status").asInt()).isEqualTo(403);
+        assertThat(responses.get(3).path("status").asInt()).isEqualTo(403);
+        assertThat(responses.get(4).path("status").asInt()).isEqualTo(400);
+        verify(courseStudentService, never()).findAllEnrollments();
+    }
+
+    @Test
+    void testBatch_AsyncReport_IsDispatchedAgainForItsResult() throws Exception {
+        // Given
+        when(courseStudentService.findAllEnrollments()).thenReturn(Collections.singletonList(enrollment));
+        BatchRequest batch = batch(item("report", "/api/manager/enrollments"));
+
+        // When
+        ResponseEntity<String> response = post(batch, "MANAGER");
+
+        // Then
+        JsonNode report = objectMapper.readTree(response.getBody()).path("responses").get(0);
+        assertThat(report.path("status").asInt()).isEqualTo(200);
+        assertThat(report.path("body").get(0).path("student").path("name").asText()).isEqualTo("Jane Student");
+    }
+
+    @Test
+    void testBatch_AsyncReportTimeout_ReturnsServiceUnavailable() throws Exception {
+        // Given
+        when(courseStudentService.findAllEnrollments()).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return Collections.singletonList(enrollment);
+        });
+        BatchRequest batch = batch(item("report", "/api/manager/enrollments"), item("courses", "/api/user/courses"));
+
+        // When
+        ResponseEntity<String> response = post(batch, "MANAGER");
+
+        // Then
+        JsonNode responses = objectMapper.readTree(response.getBody()).path("responses");
+        assertThat(responses.get(0).path("status").asInt()).isEqualTo(503);
+        assertThat(responses.get(1).path("status").asInt()).isEqualTo(200);
+    }
+
+    @Test
+    void testBatch_Anonymous_OnlyReachesPublicPaths() throws Exception {
+        // Given
+        BatchRequest batch = batch(item("courses", "/api/user/courses"), item("mine", "/api/student/courses/2"));
+
+        // When
+        ResponseEntity<String> response = post(batch, null);
+
+        // Then
+        JsonNode responses = objectMapper.readTree(response.getBody()).path("responses");
+        assertThat(responses.get(0).path("status").asInt()).isEqualTo(200);
+        assertThat(responses.get(1).path("status").asInt()).isEqualTo(401);
+    }
+
+    @Test
+    void testBatch_KeepsQueryParametersAndErrorsSeparate() throws Exception {
+        // Given
+        BatchRequest batch = batch(item("bad", "/api/user/courses?fields=password"),
+                item("missing", "/api/user/nothing"));
+
+        // When
+        ResponseEntity<String> response = post(batch, "STUDENT");
+
+        // Then
+        JsonNode responses = objectMapper.readTree(response.getBody()).path("responses");
+        assertThat(responses.get(0).path("status").asInt()).isEqualTo(400);
+        assertThat(responses.get(1).path("status").asInt()).isEqualTo(404);
+    }
+
+    @Test
+    void testBatch_RejectsNonGetAndNestedBatches() throws Exception {
+        // Given
+        BatchRequest.Item enroll = item("enroll", "/api/student/enroll");
+        enroll.setMethod("POST");
+        BatchRequest batch = batch(enroll, item("nested", "/api/batch"));
+
+        // When
+        ResponseEntity<String> response = post(batch, "STUDENT");
+
+        // Then
+        JsonNode responses = objectMapper.readTree(response.getBody()).path("responses");
+        assertThat(responses.get(0).path("status").asInt()).isEqualTo(405);
+        assertThat(responses.get(1).path("status").asInt()).isEqualTo(400);
+    }
+
+    @Test
+    void testBatch_RejectsEventStreams() throws Exception {
+        // Given
+        BatchRequest batch = batch(item("events", "/api/teacher/students/1/events"),
+                item("courses", "/api/user/courses"));
+
+        // When
+        ResponseEntity<String> response = post(batch, "TEACHER");
+
+        // Then
+        JsonNode responses = objectMapper.readTree(response.getBody()).path("responses");
+        assertThat(responses.get(0).path("status").asInt()).isEqualTo(400);
+        assertThat(responses.get(1).path("status").asInt()).isEqualTo(200);
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isZero();
+    }
+
+    @Test
+    void testBatch_TooManyRequests_ReturnsBadRequest() {
+        // Given
+        List<BatchRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            items.add(item("courses" + i, "/api/user/courses"));
+        }
+
+        // When
+        ResponseEntity<String> response = post(new BatchRequest(items), "STUDENT");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(courseService, never()).findAllCourses();
+    }
+
+    private ResponseEntity<String> post(BatchRequest batch, String role) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (role != null) {
+            headers.set("Authorization", "Bearer " + role);
+        }
+        return restTemplate.postForEntity("/api/batch", new HttpEntity<>(batch, headers), String.class);
+    }
+
+    private static BatchRequest batch(BatchRequest.Item... items) {
+        return new BatchRequest(Arrays.asList(items));
+    }
+
+    private static BatchRequest.Item item(String id, String path) {
+        return new BatchRequest.Item(id, "GET", path);
+    }
+
+}
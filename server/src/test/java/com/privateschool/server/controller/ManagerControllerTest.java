@@ -1,30 +1,46 @@
 package com.privateschool.server.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.privateschool.server.config.ExecutorConfig;
+import com.privateschool.server.dto.FieldSelection;
 import com.privateschool.server.jwt.JwtTokenProvider;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
 import com.privateschool.server.service.CourseStudentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ManagerController.class)
+@Import({ExecutorConfig.class, SimpleMeterRegistry.class})
 class ManagerControllerTest {
 
     @Autowired
@@ -99,7 +115,7 @@ class ManagerControllerTest {
         when(courseStudentService.findAllEnrollments()).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/manager/enrollments"))
+        performAsync(get("/api/manager/enrollments"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(3)))
@@ -123,7 +139,7 @@ class ManagerControllerTest {
         when(courseStudentService.findAllEnrollments()).thenReturn(Collections.emptyList());
 
         // When/Then
-        mockMvc.perform(get("/api/manager/enrollments"))
+        performAsync(get("/api/manager/enrollments"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
@@ -139,7 +155,7 @@ class ManagerControllerTest {
         when(courseStudentService.findAllEnrollments()).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/manager/enrollments"))
+        performAsync(get("/api/manager/enrollments"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
@@ -187,7 +203,7 @@ class ManagerControllerTest {
         when(courseStudentService.findAllEnrollments()).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/manager/enrollments"))
+        performAsync(get("/api/manager/enrollments"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").exists())
                 .andExpect(jsonPath("$[0].student").exists())
@@ -235,7 +251,7 @@ class ManagerControllerTest {
         when(courseStudentService.findAllEnrollments()).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/manager/enrollments"))
+        performAsync(get("/api/manager/enrollments"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(4)))
                 .andExpect(jsonPath("$[3].student.name").value("Alice Student"))
@@ -253,7 +269,7 @@ class ManagerControllerTest {
         when(courseStudentService.findAllEnrollments()).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/manager/enrollments"))
+        performAsync(get("/api/manager/enrollments"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].course.instructor.id").value(1))
                 .andExpect(jsonPath("$[0].course.instructor.name").value("John Teacher"))
@@ -283,10 +299,136 @@ class ManagerControllerTest {
         when(courseStudentService.findAllEnrollments()).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/manager/enrollments"))
+        performAsync(get("/api/manager/enrollments"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(5)));
 
         verify(courseStudentService, times(1)).findAllEnrollments();
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testGetAllEnrollments_DoesNotExposePasswords() throws Exception {
+        // Given
+        testStudent1.setPassword("encodedPassword");
+        testTeacher.setPassword("encodedPassword");
+        when(courseStudentService.findAllEnrollments()).thenReturn(Collections.singletonList(enrollment1));
+
+        // When/Then
+        performAsync(get("/api/manager/enrollments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].student.password").doesNotExist())
+                .andExpect(jsonPath("$[0].student.token").doesNotExist())
+                .andExpect(jsonPath("$[0].course.instructor.name").value("John Teacher"))
+                .andExpect(jsonPath("$[0].course.instructor.password").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testGetAllEnrollments_Normalized_ReferencesUsersAndCoursesById() throws Exception {
+        // Given
+        List<CourseStudent> enrollments = Arrays.asList(enrollment1, enrollment2, enrollment3);
+        when(courseStudentService.findAllEnrollments()).thenReturn(enrollments);
+
+        // When/Then
+        performAsync(get("/api/manager/enrollments").param("normalized", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrollments", hasSize(3)))
+                .andExpect(jsonPath("$.enrollments[0].id").value(1))
+                .andExpect(jsonPath("$.enrollments[0].studentId").value(2))
+                .andExpect(jsonPath("$.enrollments[0].courseId").value(1))
+                .andExpect(jsonPath("$.enrollments[2].courseId").value(2))
+                .andExpect(jsonPath("$.included.users", hasSize(3)))
+                .andExpect(jsonPath("$.included.courses", hasSize(2)))
+                .andExpect(jsonPath("$.included.courses[0].instructorId").value(1))
+                .andExpect(jsonPath("$.included.users[*].password").isEmpty());
+
+        verify(courseStudentService, times(1)).findAllEnrollments();
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testGetAllEnrollments_AcceptCbor_ReturnsCbor() throws Exception {
+        // Given
+        when(courseStudentService.findAllEnrollments()).thenReturn(Arrays.asList(enrollment1, enrollment2));
+
+        // When
+        byte[] body = performAsync(get("/api/manager/enrollments").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode tree = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(tree).hasSize(2);
+        assertThat(tree.get(0).path("student").path("name").asText()).isEqualTo("Jane Student");
+        assertThat(tree.get(1).path("course").path("name").asText()).isEqualTo("Java Programming");
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testGetAllEnrollments_AcceptSmile_ReturnsSmile() throws Exception {
+        // Given
+        when(courseStudentService.findAllEnrollments()).thenReturn(Collections.singletonList(enrollment1));
+
+        // When
+        byte[] body = performAsync(get("/api/manager/enrollments").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode tree = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertThat(tree.get(0).path("id").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testGetAllEnrollments_AcceptAny_DefaultsToJson() throws Exception {
+        // Given
+        when(courseStudentService.findAllEnrollments()).thenReturn(Collections.singletonList(enrollment1));
+
+        // When/Then
+        performAsync(get("/api/manager/enrollments").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testGetAllEnrollments_WithFields_UsesProjection() throws Exception {
+        // Given
+        Map<String, Object> student = Collections.singletonMap("name", "Jane Student");
+        Map<String, Object> row = Collections.singletonMap("student", student);
+        when(courseStudentService.findAllEnrollments(any(FieldSelection.class)))
+                .thenReturn(Collections.singletonList(row));
+
+        // When/Then
+        performAsync(get("/api/manager/enrollments").param("fields", "student.name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].student.name").value("Jane Student"))
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+
+        verify(courseStudentService, never()).findAllEnrollments();
+        verify(courseStudentService).findAllEnrollments(argThat((FieldSelection selection) ->
+                selection.getFields().equals(Collections.singletonList("student.name"))));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void testGetAllEnrollments_WithUnknownField_ReturnsBadRequest() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/api/manager/enrollments").param("fields", "student.password"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(courseStudentService);
+    }
+
+    // The report endpoints hand their work to the report executor; the body arrives on the async dispatch.
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
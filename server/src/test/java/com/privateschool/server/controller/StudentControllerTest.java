@@ -1,17 +1,29 @@
 package com.privateschool.server.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.config.IdempotencyConfig;
+import com.privateschool.server.config.IdempotencyFilter;
+import com.privateschool.server.dto.EnrollmentResult;
+import com.privateschool.server.dto.FieldSelection;
 import com.privateschool.server.jwt.JwtTokenProvider;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
+import com.privateschool.server.repository.InMemoryResourceVersionRepository;
 import com.privateschool.server.service.CourseStudentService;
+import com.privateschool.server.service.EnrollmentNotFoundException;
+import com.privateschool.server.service.InvalidEnrollmentException;
+import com.privateschool.server.service.ResourceVersionService;
+import com.privateschool.server.service.ResourceVersionServiceImpl;
+import com.privateschool.server.service.WaitlistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,16 +32,21 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(StudentController.class)
+@Import({ResourceVersionServiceImpl.class, InMemoryResourceVersionRepository.class, IdempotencyConfig.class,
+        SimpleMeterRegistry.class})
 class StudentControllerTest {
 
     @Autowired
@@ -41,9 +58,15 @@ class StudentControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private WaitlistService waitlistService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     private User testStudent;
     private User testInstructor;
     private Course testCourse1;
@@ -169,7 +192,8 @@ class StudentControllerTest {
         savedEnrollment.setStudent(testStudent);
         savedEnrollment.setCourse(testCourse1);
 
-        when(courseStudentService.saveCourseStudent(any(CourseStudent.class))).thenReturn(savedEnrollment);
+        when(courseStudentService.enroll(any(CourseStudent.class)))
+                .thenReturn(EnrollmentResult.created(savedEnrollment));
 
         // When/Then
         mockMvc.perform(post("/api/student/enroll")
@@ -181,7 +205,91 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.student.id").value(1))
                 .andExpect(jsonPath("$.course.id").value(1));
 
-        verify(courseStudentService, times(1)).saveCourseStudent(any(CourseStudent.class));
+        verify(courseStudentService, times(1)).enroll(any(CourseStudent.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testEnrollStudent_RetryWithSameIdempotencyKey_ReplaysResponse() throws Exception {
+        // Given
+        when(courseStudentService.enroll(any(CourseStudent.class))).thenReturn(EnrollmentResult.created(enrollment1));
+        String body = objectMapper.writeValueAsString(enrollment1);
+
+        // When
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .header(IdempotencyFilter.HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+
+        // Then
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .header(IdempotencyFilter.HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.course.name").value("Java Programming"));
+
+        verify(courseStudentService, times(1)).enroll(any(CourseStudent.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testEnrollStudent_IdempotencyKeyReusedForOtherBody_ReturnsUnprocessableEntity() throws Exception {
+        // Given
+        when(courseStudentService.enroll(any(CourseStudent.class))).thenReturn(EnrollmentResult.created(enrollment1));
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .header(IdempotencyFilter.HEADER, "reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enrollment1)))
+                .andExpect(status().isCreated());
+
+        // When/Then
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .header(IdempotencyFilter.HEADER, "reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enrollment2)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(courseStudentService, times(1)).enroll(any(CourseStudent.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testEnrollStudent_ServerError_IsNotReplayed() throws Exception {
+        // Given
+        when(courseStudentService.enroll(any(CourseStudent.class)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(EnrollmentResult.created(enrollment1));
+        String body = objectMapper.writeValueAsString(enrollment1);
+
+        // When
+        try {
+            mockMvc.perform(post("/api/student/enroll")
+                    .with(csrf())
+                    .header(IdempotencyFilter.HEADER, "after-error")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+        } catch (Exception expected) {
+            // MockMvc rethrows the unhandled exception instead of rendering a 500
+        }
+
+        // Then
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .header(IdempotencyFilter.HEADER, "after-error")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        verify(courseStudentService, times(2)).enroll(any(CourseStudent.class));
     }
 
     @Test
@@ -193,7 +301,7 @@ class StudentControllerTest {
         enrollment.setStudent(testStudent);
         enrollment.setCourse(testCourse2);
 
-        when(courseStudentService.saveCourseStudent(any(CourseStudent.class))).thenReturn(enrollment);
+        when(courseStudentService.enroll(any(CourseStudent.class))).thenReturn(EnrollmentResult.created(enrollment));
 
         // When/Then
         mockMvc.perform(post("/api/student/enroll")
@@ -205,7 +313,102 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.student.name").value("Jane Student"))
                 .andExpect(jsonPath("$.course.name").value("Python Programming"));
 
-        verify(courseStudentService, times(1)).saveCourseStudent(any(CourseStudent.class));
+        verify(courseStudentService, times(1)).enroll(any(CourseStudent.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testEnrollStudent_AlreadyEnrolled_ReturnsOkWithExistingEnrollment() throws Exception {
+        // Given
+        when(courseStudentService.enroll(any(CourseStudent.class)))
+                .thenReturn(EnrollmentResult.existing(enrollment1));
+
+        // When/Then
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enrollment1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.course.name").value("Java Programming"));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testEnrollStudent_FullCourse_ReturnsAcceptedWithWaitlistPosition() throws Exception {
+        // Given
+        when(courseStudentService.enroll(any(CourseStudent.class))).thenReturn(EnrollmentResult.waitlisted(3));
+
+        // When/Then
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enrollment1)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.courseId").value(1))
+                .andExpect(jsonPath("$.position").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testUnenroll_ReturnsNoContent() throws Exception {
+        // When/Then
+        mockMvc.perform(delete("/api/student/courses/1/1").with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(courseStudentService).unenroll(1L, 1L);
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testUnenroll_NeitherEnrolledNorWaiting_ReturnsNotFound() throws Exception {
+        // Given
+        doThrow(new EnrollmentNotFoundException("Not enrolled in or waiting for this course"))
+                .when(courseStudentService).unenroll(1L, 1L);
+
+        // When/Then
+        mockMvc.perform(delete("/api/student/courses/1/1").with(csrf()))
+                .andExpect(status().isNotFound())
+                .andExpect(status().reason("Not enrolled in or waiting for this course"));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testEnrollStudent_UnknownCourse_ReturnsBadRequest() throws Exception {
+        // Given
+        when(courseStudentService.enroll(any(CourseStudent.class)))
+                .thenThrow(new InvalidEnrollmentException("Unknown student or course"));
+
+        // When/Then
+        mockMvc.perform(post("/api/student/enroll")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enrollment1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason("Unknown student or course"));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testWaitlistPosition_Waiting_ReturnsPosition() throws Exception {
+        // Given
+        when(waitlistService.position(1L, 1L)).thenReturn(2);
+
+        // When/Then
+        mockMvc.perform(get("/api/student/courses/1/waitlist/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testWaitlistPosition_NotWaiting_ReturnsNotFound() throws Exception {
+        // Given
+        when(waitlistService.position(1L, 1L)).thenReturn(null);
+
+        // When/Then
+        mockMvc.perform(get("/api/student/courses/1/waitlist/1"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -220,7 +423,7 @@ class StudentControllerTest {
                         .content(objectMapper.writeValueAsString(enrollment)))
                 .andExpect(status().isUnauthorized());
 
-        verify(courseStudentService, never()).saveCourseStudent(any(CourseStudent.class));
+        verify(courseStudentService, never()).enroll(any(CourseStudent.class));
     }
 
     @Test
@@ -278,4 +481,75 @@ class StudentControllerTest {
 
         verify(courseStudentService, times(1)).findAllCoursesOfStudent(studentId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testGetCoursesOfStudent_WithMatchingETag_ReturnsNotModified() throws Exception {
+        // Given
+        Long studentId = 1L;
+        String eTag = resourceVersionService.studentCoursesETag(studentId);
+
+        // When/Then
+        mockMvc.perform(get("/api/student/courses/{studentId}", studentId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag));
+
+        verify(courseStudentService, never()).findAllCoursesOfStudent(anyLong());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testGetCoursesOfStudent_AfterEnrollment_ETagChanges() throws Exception {
+        // Given
+        Long studentId = 1L;
+        String eTag = resourceVersionService.studentCoursesETag(studentId);
+        resourceVersionService.enrollmentChanged(studentId, testInstructor.getId());
+        when(courseStudentService.findAllCoursesOfStudent(studentId)).thenReturn(Collections.singletonList(enrollment1));
+
+        // When/Then
+        mockMvc.perform(get("/api/student/courses/{studentId}", studentId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", resourceVersionService.studentCoursesETag(studentId)))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(courseStudentService, times(1)).findAllCoursesOfStudent(studentId);
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testGetCoursesOfStudent_WithSmileAccept_UsesOwnETag() throws Exception {
+        // Given
+        Long studentId = 1L;
+        String jsonETag = resourceVersionService.studentCoursesETag(studentId);
+        when(courseStudentService.findAllCoursesOfStudent(studentId))
+                .thenReturn(Collections.singletonList(enrollment1));
+
+        // When/Then
+        mockMvc.perform(get("/api/student/courses/{studentId}", studentId)
+                        .accept("application/x-jackson-smile")
+                        .header("If-None-Match", jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", jsonETag.replaceAll("\"$", "-x-jackson-smile\"")))
+                .andExpect(result -> assertThat(result.getResponse().getHeaders("Vary")).contains("Accept"));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void testGetCoursesOfStudent_WithFields_UsesProjection() throws Exception {
+        // Given
+        Long studentId = 1L;
+        when(courseStudentService.findAllCoursesOfStudent(eq(studentId), any(FieldSelection.class)))
+                .thenReturn(Collections.singletonList(Collections.singletonMap("name", "Java Programming")));
+
+        // When/Then
+        mockMvc.perform(get("/api/student/courses/{studentId}", studentId).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Java Programming"))
+                .andExpect(jsonPath("$[0].instructor").doesNotExist());
+
+        verify(courseStudentService, never()).findAllCoursesOfStudent(anyLong());
+    }
+}
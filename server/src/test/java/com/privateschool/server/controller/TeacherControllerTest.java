@@ -1,31 +1,49 @@
 package com.privateschool.server.controller;
 
+import com.privateschool.server.config.ExecutorConfig;
+import com.privateschool.server.dto.FieldSelection;
 import com.privateschool.server.jwt.JwtTokenProvider;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
+import com.privateschool.server.repository.InMemoryResourceVersionRepository;
 import com.privateschool.server.service.CourseStudentService;
+import com.privateschool.server.service.EnrollmentEventService;
+import com.privateschool.server.service.EnrollmentEventServiceImpl;
+import com.privateschool.server.service.ResourceVersionService;
+import com.privateschool.server.service.ResourceVersionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TeacherController.class)
+@Import({ResourceVersionServiceImpl.class, InMemoryResourceVersionRepository.class, EnrollmentEventServiceImpl.class,
+        ExecutorConfig.class, SimpleMeterRegistry.class})
 class TeacherControllerTest {
 
     @Autowired
@@ -37,6 +55,12 @@ class TeacherControllerTest {
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private EnrollmentEventService enrollmentEventService;
+
     private User testTeacher;
     private User testStudent1;
     private User testStudent2;
@@ -89,7 +113,7 @@ class TeacherControllerTest {
         when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId))
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
@@ -112,7 +136,7 @@ class TeacherControllerTest {
         when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(Collections.emptyList());
 
         // When/Then
-        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId))
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
@@ -129,7 +153,7 @@ class TeacherControllerTest {
         when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId))
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
@@ -185,7 +209,7 @@ class TeacherControllerTest {
         when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(Collections.emptyList());
 
         // When/Then
-        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId))
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
 
@@ -200,7 +224,7 @@ class TeacherControllerTest {
         when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(Collections.emptyList());
 
         // When/Then
-        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId))
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
 
@@ -217,12 +241,13 @@ class TeacherControllerTest {
         when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId))
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").exists())
                 .andExpect(jsonPath("$[0].name").exists())
                 .andExpect(jsonPath("$[0].username").exists())
-                .andExpect(jsonPath("$[0].role").exists());
+                .andExpect(jsonPath("$[0].role").exists())
+                .andExpect(jsonPath("$[0].password").doesNotExist());
 
         verify(courseStudentService, times(1)).findAllStudentsOfInstructor(teacherId);
     }
@@ -248,7 +273,7 @@ class TeacherControllerTest {
         when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(enrollments);
 
         // When/Then
-        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId))
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(3)))
                 .andExpect(jsonPath("$[0].name").value("Jane Student"))
@@ -257,4 +282,117 @@ class TeacherControllerTest {
 
         verify(courseStudentService, times(1)).findAllStudentsOfInstructor(teacherId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void testGetStudentsOfTeacher_WithMatchingETag_ReturnsNotModified() throws Exception {
+        // Given
+        Long teacherId = 1L;
+        String eTag = resourceVersionService.instructorRosterETag(teacherId);
+
+        // When/Then
+        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag));
+
+        verify(courseStudentService, never()).findAllStudentsOfInstructor(anyLong());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void testGetStudentsOfTeacher_EnrollmentForOtherInstructor_KeepsETag() throws Exception {
+        // Given
+        Long teacherId = 1L;
+        String eTag = resourceVersionService.instructorRosterETag(teacherId);
+        resourceVersionService.enrollmentChanged(testStudent1.getId(), 42L);
+
+        // When/Then
+        mockMvc.perform(get("/api/teacher/students/{teacherId}", teacherId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        verify(courseStudentService, never()).findAllStudentsOfInstructor(anyLong());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void testGetStudentsOfTeacher_WithFields_UsesProjectionAndOwnETag() throws Exception {
+        // Given
+        Long teacherId = 1L;
+        when(courseStudentService.findAllStudentsOfInstructor(eq(teacherId), any(FieldSelection.class)))
+                .thenReturn(Collections.singletonList(Collections.singletonMap("name", "Jane Student")));
+
+        // When/Then
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId)
+                        .param("fields", "name")
+                        .header("If-None-Match", resourceVersionService.instructorRosterETag(teacherId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Jane Student"))
+                .andExpect(jsonPath("$[0].username").doesNotExist());
+
+        verify(courseStudentService, never()).findAllStudentsOfInstructor(anyLong());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void testGetStudentsOfTeacher_WithCborAccept_UsesOwnETag() throws Exception {
+        // Given
+        Long teacherId = 1L;
+        String jsonETag = resourceVersionService.instructorRosterETag(teacherId);
+        when(courseStudentService.findAllStudentsOfInstructor(teacherId)).thenReturn(Collections.emptyList());
+
+        // When/Then
+        performAsync(get("/api/teacher/students/{teacherId}", teacherId)
+                        .accept("application/cbor")
+                        .header("If-None-Match", jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", jsonETag.replaceAll("\"$", "-cbor\"")))
+                .andExpect(result -> assertThat(result.getResponse().getHeaders("Vary")).contains("Accept"));
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void testStreamEnrollments_PushesCommittedEnrollmentsOfThatTeacher() throws Exception {
+        // Given
+        Long teacherId = 1L;
+        MvcResult result = mockMvc.perform(get("/api/teacher/students/{teacherId}/events", teacherId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        enrollmentEventService.enrollmentSaved(enrollment2);
+
+        // Then
+        String body = awaitContent(result, "Bob Student");
+        assertThat(body).contains("id:2", "event:enrollment", "\"courseName\":\"Java Programming\"");
+        assertThat(body).doesNotContain("password");
+    }
+
+    @Test
+    void testStreamEnrollments_Unauthorized() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/api/teacher/students/{teacherId}/events", 1L))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    // The report endpoints hand their work to the report executor; the body arrives on the async dispatch.
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -1,29 +1,46 @@
 package com.privateschool.server.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.cache.CourseCatalogCache;
+import com.privateschool.server.dto.EnrollmentResult;
+import com.privateschool.server.dto.FieldSelection;
 import com.privateschool.server.jwt.JwtTokenProvider;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
+import com.privateschool.server.repository.InMemoryResourceVersionRepository;
 import com.privateschool.server.service.CourseService;
 import com.privateschool.server.service.CourseStudentService;
+import com.privateschool.server.service.ResourceVersionService;
+import com.privateschool.server.service.ResourceVersionServiceImpl;
 import com.privateschool.server.service.UserService;
+import com.privateschool.server.service.UsernameTakenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -34,6 +51,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import({ResourceVersionServiceImpl.class, InMemoryResourceVersionRepository.class, CourseCatalogCache.class,
+        SimpleMeterRegistry.class})
 class UserControllerTest {
 
     @Autowired
@@ -54,6 +73,9 @@ class UserControllerTest {
     @MockBean
     private CourseStudentService courseStudentService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     private User testUser;
     private Course testCourse;
 
@@ -69,14 +91,16 @@ class UserControllerTest {
         testCourse = new Course();
         testCourse.setId(1L);
         testCourse.setName("Test Course");
+
+        // Each test stubs its own catalog, so start from a fresh catalog version
+        resourceVersionService.catalogChanged();
     }
 
     @Test
     @WithMockUser
     void register_WithNewUser_ShouldReturnCreated() throws Exception {
         // Arrange
-        when(userService.findByUsername(anyString())).thenReturn(null);
-        when(userService.saveUser(any(User.class))).thenReturn(testUser);
+        when(userService.register(any(User.class))).thenReturn(testUser);
 
         // Act & Assert
         mockMvc.perform(post("/api/user/registration")
@@ -84,17 +108,18 @@ class UserControllerTest {
                 .content(objectMapper.writeValueAsString(testUser)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.username").value("testuser"))
-                .andExpect(jsonPath("$.name").value("Test User"));
+                .andExpect(jsonPath("$.name").value("Test User"))
+                .andExpect(jsonPath("$.password").doesNotExist());
 
-        verify(userService).findByUsername("testuser");
-        verify(userService).saveUser(any(User.class));
+        verify(userService).register(any(User.class));
     }
 
     @Test
     @WithMockUser
     void register_WithExistingUsername_ShouldReturnConflict() throws Exception {
         // Arrange
-        when(userService.findByUsername(anyString())).thenReturn(testUser);
+        when(userService.register(any(User.class)))
+                .thenThrow(new UsernameTakenException());
 
         // Act & Assert
         mockMvc.perform(post("/api/user/registration")
@@ -102,8 +127,7 @@ class UserControllerTest {
                 .content(objectMapper.writeValueAsString(testUser)))
                 .andExpect(status().isConflict());
 
-        verify(userService).findByUsername("testuser");
-        verify(userService, never()).saveUser(any(User.class));
+        verify(userService, never()).findByUsername(anyString());
     }
 
     @Test
@@ -115,8 +139,7 @@ class UserControllerTest {
         newUser.setPassword("password");
         newUser.setName("New User");
 
-        when(userService.findByUsername(anyString())).thenReturn(null);
-        when(userService.saveUser(any(User.class))).thenAnswer(invocation -> {
+        when(userService.register(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0);
             savedUser.setId(2L);
             return savedUser;
@@ -128,7 +151,7 @@ class UserControllerTest {
                 .content(objectMapper.writeValueAsString(newUser)))
                 .andExpect(status().isCreated());
 
-        verify(userService).saveUser(argThat(user -> user.getRole() == Role.STUDENT));
+        verify(userService).register(argThat(user -> user.getRole() == Role.STUDENT));
     }
 
     @Test
@@ -148,7 +171,8 @@ class UserControllerTest {
                 .with(authentication(authToken)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value("testuser"))
-                .andExpect(jsonPath("$.token").value(token));
+                .andExpect(jsonPath("$.token").value(token))
+                .andExpect(jsonPath("$.password").doesNotExist());
 
         verify(userService).findByUsername("testuser");
         verify(tokenProvider).generateToken(any());
@@ -172,7 +196,7 @@ class UserControllerTest {
         CourseStudent courseStudent = new CourseStudent();
         courseStudent.setId(1L);
 
-        when(courseStudentService.saveCourseStudent(any(CourseStudent.class))).thenReturn(courseStudent);
+        when(courseStudentService.enroll(any(CourseStudent.class))).thenReturn(EnrollmentResult.created(courseStudent));
 
         // Act & Assert
         mockMvc.perform(post("/api/user/enroll")
@@ -181,7 +205,7 @@ class UserControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(1));
 
-        verify(courseStudentService).saveCourseStudent(any(CourseStudent.class));
+        verify(courseStudentService).enroll(any(CourseStudent.class));
     }
 
     @Test
@@ -220,4 +244,247 @@ class UserControllerTest {
 
         verify(courseService).findAllCourses();
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+        String eTag = mockMvc.perform(get("/api/user/courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        verify(courseService, times(1)).findAllCourses();
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_AfterCatalogChange_ShouldReturnFreshBody() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+        String eTag = resourceVersionService.catalogETag();
+        resourceVersionService.catalogChanged();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", resourceVersionService.catalogETag()))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(courseService).findAllCourses();
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithGzipAcceptEncoding_ShouldServePrecompressedCatalog() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+
+        // Act
+        MockHttpServletResponse first = mockMvc.perform(get("/api/user/courses")
+                .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        mockMvc.perform(get("/api/user/courses")
+                .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertThat(first.getHeaders("Vary")).contains("Accept-Encoding");
+        List<?> courses = objectMapper.readValue(gunzip(first.getContentAsByteArray()), List.class);
+        assertThat(courses).hasSize(1);
+        verify(courseService, times(1)).findAllCourses();
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_GzipAndIdentity_ShouldHaveDistinctETags() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+
+        // Act
+        String gzipETag = mockMvc.perform(get("/api/user/courses")
+                .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String identityETag = mockMvc.perform(get("/api/user/courses"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Assert
+        assertThat(gzipETag).isEqualTo(identityETag.replaceAll("\"$", "-gz\""));
+        mockMvc.perform(get("/api/user/courses")
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", gzipETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/user/courses")
+                .header("If-None-Match", gzipETag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithGzipQualityZero_ShouldServeIdentity() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses")
+                .header("Accept-Encoding", "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/user/courses")
+                .header("Accept-Encoding", "identity, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithCborAccept_ShouldBypassCatalogCache() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses")
+                .accept("application/cbor")
+                .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithCborAccept_ShouldSendOwnETagAndVaryOnAccept() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+        String jsonETag = resourceVersionService.catalogETag();
+
+        // Act
+        MockHttpServletResponse cbor = mockMvc.perform(get("/api/user/courses")
+                .accept("application/cbor")
+                .header("If-None-Match", jsonETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse smile = mockMvc.perform(get("/api/user/courses")
+                .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse();
+
+        // Assert
+        assertThat(cbor.getHeader("ETag")).isNotEqualTo(jsonETag).endsWith("-cbor\"");
+        assertThat(smile.getHeader("ETag")).isNotEqualTo(jsonETag).endsWith("-x-jackson-smile\"");
+        assertThat(cbor.getHeaders("Vary")).contains("Accept");
+        mockMvc.perform(get("/api/user/courses")
+                .accept("application/cbor")
+                .header("If-None-Match", cbor.getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithJsonAccept_ShouldVaryOnAcceptAndAcceptEncoding() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+
+        // Act & Assert
+        MockHttpServletResponse response = mockMvc.perform(get("/api/user/courses"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(response.getHeaders("Vary")).contains("Accept-Encoding", "Accept");
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_NotModified_ShouldStillVaryOnAcceptAndAcceptEncoding() throws Exception {
+        // Act & Assert
+        MockHttpServletResponse response = mockMvc.perform(get("/api/user/courses")
+                .header("If-None-Match", resourceVersionService.catalogETag()))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        assertThat(response.getHeaders("Vary")).contains("Accept", "Accept-Encoding");
+        verify(courseService, never()).findAllCourses();
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithJsonRefusedNextToWildcard_ShouldServeCbor() throws Exception {
+        // Arrange
+        when(courseService.findAllCourses()).thenReturn(Collections.singletonList(testCourse));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses").header("Accept", "*/*, application/json;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithMalformedAccept_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses").header("Accept", "application/json;q=\"1"))
+                .andExpect(status().isBadRequest());
+
+        verify(courseService, never()).findAllCourses();
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithUnsupportedAccept_ShouldReturnNotAcceptable() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses").accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+
+        verify(courseService, never()).findAllCourses();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws Exception {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void getAllCourses_WithFields_ShouldUseProjection() throws Exception {
+        // Arrange
+        Map<String, Object> instructor = Collections.singletonMap("name", "John Teacher");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", "Test Course");
+        row.put("instructor", instructor);
+        when(courseService.findAllCourses(any(FieldSelection.class))).thenReturn(Collections.singletonList(row));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/courses")
+                .param("fields", "name,instructor.name")
+                .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[0].name").value("Test Course"))
+                .andExpect(jsonPath("$[0].instructor.name").value("John Teacher"))
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+
+        verify(courseService, never()).findAllCourses();
+    }
+}
@@ -0,0 +1,82 @@
+package com.privateschool.server.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Inserts rows into one table as multi-row {@code INSERT ... VALUES (...), (...)} statements of {@code batchSize}
+ * rows, which both MySQL and H2 execute far faster than a row per statement, without needing
+ * {@code rewriteBatchedStatements}. Rows are buffered until a statement is full; {@link #flush} writes the rest.
+ * Meant for an auto-commit connection: each statement is committed on its own, so millions of rows never sit in
+ * one transaction.
+ */
+class BulkInserter implements AutoCloseable {
+
+    private final Connection connection;
+
+    private final String prefix;
+
+    private final String row;
+
+    private final int columns;
+
+    private final int batchSize;
+
+    private final Object[] buffer;
+
+    private final PreparedStatement full;
+
+    private int buffered;
+
+    private long inserted;
+
+    BulkInserter(Connection connection, String table, String[] columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.prefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        this.columns = columns.length;
+        this.batchSize = batchSize;
+        this.buffer = new Object[batchSize * columns.length];
+        this.full = connection.prepareStatement(sql(batchSize));
+    }
+
+    void add(Object... values) throws SQLException {
+        System.arraycopy(values, 0, buffer, buffered * columns, columns);
+        if (++buffered == batchSize) {
+            execute(full, buffered);
+        }
+    }
+
+    void flush() throws SQLException {
+        if (buffered > 0) {
+            try (PreparedStatement rest = connection.prepareStatement(sql(buffered))) {
+                execute(rest, buffered);
+            }
+        }
+    }
+
+    long inserted() {
+        return inserted;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        full.close();
+    }
+
+    private void execute(PreparedStatement statement, int rows) throws SQLException {
+        for (int i = 0; i < rows * columns; i++) {
+            statement.setObject(i + 1, buffer[i]);
+        }
+        statement.executeUpdate();
+        inserted += rows;
+        buffered = 0;
+    }
+
+    private String sql(int rows) {
+        return prefix + String.join(", ", Collections.nCopies(rows, row));
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.privateschool.server.datagen;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Bulk-loads a synthetic school into the {@code user}, {@code course} and {@code course_student} tables of the
+ * Liquibase schema, for load tests and query plans at production scale. Not a unit test:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.privateschool.server.datagen.DataGenerator \
+ *     -Dexec.args="jdbc-url=jdbc:mysql://localhost:3306/school jdbc-password=secret students=1000000"
+ * </pre>
+ * {@code migrate=true} runs the changelog first. The other settings and their defaults are in
+ * {@link SchoolSpec#DEFAULTS}.
+ * <p>
+ * Rows get explicit ids above the current maximum, so nothing has to be read back, and go in as multi-row inserts
+ * committed statement by statement. Nothing is rolled back: a failed run leaves part of a school behind, which the
+ * next run with the same prefix deletes before writing its own. Courses are written with their final
+ * {@code enrolled} count: the enrollments are drawn twice from the same seed, once to count them and once to write
+ * them, instead of being held in memory. Every table draws from its own random generator, so changing the number of
+ * students leaves the courses alone.
+ */
+public class DataGenerator {
+
+    private static final Map<String, String> CONNECTION_DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        CONNECTION_DEFAULTS.put("jdbc-url", "");
+        CONNECTION_DEFAULTS.put("jdbc-user", "root");
+        CONNECTION_DEFAULTS.put("jdbc-password", "");
+        CONNECTION_DEFAULTS.put("migrate", "false");
+    }
+
+    // The columns written, as created by db.changelog-1.0.xml.
+    private static final Map<String, String[]> SCHEMA = new LinkedHashMap<>();
+
+    static {
+        SCHEMA.put("user", new String[]{"id", "username", "name", "password", "role"});
+        SCHEMA.put("course", new String[]{"id", "name", "instructor_id", "capacity", "enrolled"});
+        SCHEMA.put("course_student", new String[]{"student_id", "course_id"});
+    }
+
+    private static final String CHANGELOG = "classpath:/database/changelog/database.changelog-master.xml";
+
+    private static final int COURSES = 1;
+
+    private static final int ENROLLMENTS = 2;
+
+    private final DataSource dataSource;
+
+    public DataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> connection = new LinkedHashMap<>(CONNECTION_DEFAULTS);
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            (connection.containsKey(pair[0]) ? connection : settings).put(pair[0], pair[1]);
+        }
+        if (connection.get("jdbc-url").isEmpty()) {
+            throw new IllegalArgumentException("jdbc-url is needed");
+        }
+        SchoolSpec spec = SchoolSpec.of(settings);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(connection.get("jdbc-url"),
+                connection.get("jdbc-user"), connection.get("jdbc-password"));
+        if (Boolean.parseBoolean(connection.get("migrate"))) {
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(dataSource);
+            liquibase.setChangeLog(CHANGELOG);
+            liquibase.afterPropertiesSet();
+        }
+        long start = System.nanoTime();
+        GeneratedSchool school = new DataGenerator(dataSource).generate(spec);
+        System.out.printf("Generated %d managers, %d teachers, %d courses, %d students and %d enrollments in %d ms%n",
+                school.getManagers(), school.getTeachers(), school.getCourses(), school.getStudents(),
+                school.getEnrollments(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Deletes what an earlier run with the same prefix generated, then writes the school described by spec. Every
+     * statement commits on its own; if this throws, run it again with the same prefix.
+     */
+    public GeneratedSchool generate(SchoolSpec spec) throws SQLException {
+        String password = new BCryptPasswordEncoder().encode(spec.password);
+        try (Connection connection = dataSource.getConnection()) {
+            checkSchema(connection);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try {
+                deletePrevious(connection, spec.prefix);
+                long firstUserId = nextId(connection, "user");
+                long firstCourseId = nextId(connection, "course");
+                PowerLawSampler popularity = new PowerLawSampler(spec.courses, spec.skew);
+                int[] enrolled = new int[spec.courses];
+                long enrollments = enroll(spec, popularity, enrolled, null, 0, 0);
+                GeneratedSchool school = new GeneratedSchool(spec, firstUserId, firstCourseId, popularity,
+                        enrollments);
+
+                insertUsers(connection, spec, school, password);
+                insertCourses(connection, spec, school, enrolled);
+                try (BulkInserter inserter = new BulkInserter(connection, "course_student",
+                        SCHEMA.get("course_student"), spec.batchSize)) {
+                    enroll(spec, popularity, new int[spec.courses], inserter, school.studentId(0), firstCourseId);
+                    inserter.flush();
+                }
+                return school;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static void checkSchema(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (Map.Entry<String, String[]> table : SCHEMA.entrySet()) {
+            String name = metaData.storesUpperCaseIdentifiers()
+                    ? table.getKey().toUpperCase(Locale.ROOT) : table.getKey();
+            Set<String> missing = new LinkedHashSet<>(Arrays.asList(table.getValue()));
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, name, null)) {
+                while (columns.next()) {
+                    missing.remove(columns.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Table " + table.getKey() + " lacks columns " + missing
+                        + "; run the Liquibase changelog first, e.g. with migrate=true");
+            }
+        }
+    }
+
+    // The prefix is bound, with LIKE's wildcards escaped, so "load_" does not also delete "loadX" users.
+    private static void deletePrevious(Connection connection, String prefix) throws SQLException {
+        String pattern = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        String previous = "(SELECT id FROM user WHERE username LIKE ? ESCAPE '!')";
+        update(connection, "DELETE FROM waitlist WHERE student_id IN " + previous, pattern);
+        update(connection, "DELETE FROM course_student WHERE student_id IN " + previous
+                + " OR course_id IN (SELECT id FROM course WHERE instructor_id IN " + previous + ")", pattern, pattern);
+        update(connection, "DELETE FROM waitlist WHERE course_id IN "
+                + "(SELECT id FROM course WHERE instructor_id IN " + previous + ")", pattern);
+        update(connection, "DELETE FROM course WHERE instructor_id IN " + previous, pattern);
+        update(connection, "DELETE FROM user WHERE username LIKE ? ESCAPE '!'", pattern);
+    }
+
+    private static void update(Connection connection, String sql, String... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            max.next();
+            return max.getLong(1) + 1;
+        }
+    }
+
+    private static void insertUsers(Connection connection, SchoolSpec spec, GeneratedSchool school, String password)
+            throws SQLException {
+        try (BulkInserter inserter = new BulkInserter(connection, "user", SCHEMA.get("user"), spec.batchSize)) {
+            for (int i = 0; i < spec.managers; i++) {
+                inserter.add(school.managerId(i), spec.username("manager", i), "Manager " + i, password, "MANAGER");
+            }
+            for (int i = 0; i < spec.teachers; i++) {
+                inserter.add(school.teacherId(i), spec.username("teacher", i), "Teacher " + i, password, "TEACHER");
+            }
+            for (int i = 0; i < spec.students; i++) {
+                inserter.add(school.studentId(i), spec.username("student", i), "Student " + i, password, "STUDENT");
+            }
+            inserter.flush();
+        }
+    }
+
+    // A few teachers give most of the courses, following teacher-skew.
+    private static void insertCourses(Connection connection, SchoolSpec spec, GeneratedSchool school, int[] enrolled)
+            throws SQLException {
+        Random random = random(spec, COURSES);
+        PowerLawSampler teachers = new PowerLawSampler(spec.teachers, spec.teacherSkew);
+        try (BulkInserter inserter = new BulkInserter(connection, "course", SCHEMA.get("course"), spec.batchSize)) {
+            for (int i = 0; i < spec.courses; i++) {
+                inserter.add(school.courseId(i), spec.prefix + "course." + i,
+                        school.teacherId(teachers.sample(random)), spec.capacity, enrolled[i]);
+            }
+            inserter.flush();
+        }
+    }
+
+    /**
+     * Draws every student's courses, counting them into enrolled and writing them to inserter unless it is null.
+     * Students take between one and twice the mean minus one courses, never the same one twice; when courses have a
+     * capacity, a student whose pick is full draws again, so the popular courses fill up first.
+     */
+    private static long enroll(SchoolSpec spec, PowerLawSampler popularity, int[] enrolled, BulkInserter inserter,
+                               long firstStudentId, long firstCourseId) throws SQLException {
+        Random random = random(spec, ENROLLMENTS);
+        long seats = spec.capacity != null ? (long) spec.capacity * spec.courses : Long.MAX_VALUE;
+        long total = 0;
+        Set<Integer> picked = new LinkedHashSet<>();
+        for (int student = 0; student < spec.students && total < seats; student++) {
+            int wanted = spec.enrollmentsPerStudent == 0 ? 0
+                    : Math.min(1 + random.nextInt(2 * spec.enrollmentsPerStudent - 1), spec.courses);
+            picked.clear();
+            // Gives up on a student after many full or repeated picks, once few seats are left.
+            for (int attempt = 0; picked.size() < wanted && attempt < 32 * wanted; attempt++) {
+                int course = popularity.sample(random);
+                if ((spec.capacity == null || enrolled[course] < spec.capacity) && picked.add(course)) {
+                    enrolled[course]++;
+                    total++;
+                }
+            }
+            if (inserter != null) {
+                for (Integer course : picked) {
+                    inserter.add(firstStudentId + student, firstCourseId + course);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static Random random(SchoolSpec spec, int table) {
+        return new Random(spec.seed * 1_000_003 + table);
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.privateschool.server.datagen;
+
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import com.privateschool.server.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The generator commits on its own connection, so the tests run outside a transaction and drop the database after.
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class DataGeneratorTest {
+
+    private static final String ENROLLMENTS = "SELECT u.username, c.name FROM course_student cs "
+            + "JOIN user u ON u.id = cs.student_id JOIN course c ON c.id = cs.course_id ORDER BY u.username, c.name";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        generator = new DataGenerator(dataSource);
+    }
+
+    @Test
+    void testGenerate_WritesTheSchoolWithConsistentCounts() throws Exception {
+        // When
+        GeneratedSchool school = generator.generate(spec("students", "300"));
+
+        // Then
+        assertThat(count("SELECT COUNT(*) FROM user WHERE username LIKE 'test.%'")).isEqualTo(1 + 10 + 300);
+        assertThat(count("SELECT COUNT(*) FROM course WHERE name LIKE 'test.course.%'")).isEqualTo(50);
+        assertThat(count("SELECT COUNT(*) FROM course_student")).isEqualTo(school.getEnrollments());
+        assertThat(school.getEnrollments()).isBetween(300L * 2, 300L * 4);
+        assertThat(count("SELECT COUNT(*) FROM course c WHERE c.enrolled <> "
+                + "(SELECT COUNT(*) FROM course_student cs WHERE cs.course_id = c.id)")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT username FROM user WHERE id = ?", String.class,
+                school.studentId(7))).isEqualTo("test.student.7");
+        String hash = jdbcTemplate.queryForObject("SELECT password FROM user WHERE id = ?", String.class,
+                school.teacherId(0));
+        assertThat(new BCryptPasswordEncoder().matches("secret", hash)).isTrue();
+    }
+
+    @Test
+    void testGenerate_SameSeed_ReplacesWithTheSameRows() throws Exception {
+        // Given
+        generator.generate(spec());
+        List<Map<String, Object>> first = jdbcTemplate.queryForList(ENROLLMENTS);
+
+        // When
+        generator.generate(spec());
+
+        // Then
+        assertThat(jdbcTemplate.queryForList(ENROLLMENTS)).isEqualTo(first);
+        assertThat(count("SELECT COUNT(*) FROM user WHERE username LIKE 'test.%'")).isEqualTo(1 + 10 + 200);
+    }
+
+    @Test
+    void testGenerate_PrefixWildcards_MatchOnlyThemselves() throws Exception {
+        // Given: a user that "keep_%" would match if the underscore were a wildcard
+        User user = new User();
+        user.setName("Bystander");
+        user.setUsername("keepX.bystander");
+        user.setPassword("secret");
+        user.setRole(Role.STUDENT);
+        userRepository.save(user);
+
+        // When: no students, so the enrollment counts of the other tests stay exact
+        generator.generate(spec("prefix", "keep_", "students", "0"));
+        generator.generate(spec("prefix", "keep_", "students", "0"));
+
+        // Then
+        assertThat(userRepository.findByUsername("keepX.bystander")).isPresent();
+        assertThat(count("SELECT COUNT(*) FROM user WHERE username LIKE 'keep!_%' ESCAPE '!'")).isEqualTo(1 + 10);
+    }
+
+    @Test
+    void testGenerate_FavoursThePopularCourses() throws Exception {
+        // When
+        GeneratedSchool school = generator.generate(spec("students", "1000"));
+
+        // Then
+        int first = enrolled(school.courseId(0));
+        int last = enrolled(school.courseId(49));
+        assertThat(first).isGreaterThan(10 * last);
+    }
+
+    @Test
+    void testGenerate_WithCapacity_NeverOverfillsACourse() throws Exception {
+        // When
+        GeneratedSchool school = generator.generate(spec("students", "1000", "capacity", "30"));
+
+        // Then
+        assertThat(count("SELECT MAX(enrolled) FROM course")).isEqualTo(30);
+        assertThat(count("SELECT MAX(n) FROM (SELECT COUNT(*) n FROM course_student GROUP BY course_id)"))
+                .isEqualTo(30);
+        assertThat(school.getEnrollments()).isLessThanOrEqualTo(50 * 30);
+    }
+
+    @Test
+    void testGenerate_LeavesTheIdentityAheadOfTheGeneratedIds() throws Exception {
+        // Given
+        GeneratedSchool school = generator.generate(spec());
+        User user = new User();
+        user.setName("Late Joiner");
+        user.setUsername("late.joiner");
+        user.setPassword("secret");
+        user.setRole(Role.STUDENT);
+
+        // When
+        User saved = userRepository.save(user);
+
+        // Then
+        assertThat(saved.getId()).isGreaterThan(school.studentId(199));
+    }
+
+    private static SchoolSpec spec(String... overrides) {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("prefix", "test.");
+        settings.put("teachers", "10");
+        settings.put("courses", "50");
+        settings.put("students", "200");
+        settings.put("password", "secret");
+        settings.put("batch-size", "64");
+        for (int i = 0; i < overrides.length; i += 2) {
+            settings.put(overrides[i], overrides[i + 1]);
+        }
+        return SchoolSpec.of(settings);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private int enrolled(long courseId) {
+        return jdbcTemplate.queryForObject("SELECT enrolled FROM course WHERE id = ?", Integer.class, courseId);
+    }
+
+}
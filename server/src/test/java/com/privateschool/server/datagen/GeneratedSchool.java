@@ -0,0 +1,74 @@
+package com.privateschool.server.datagen;
+
+/**
+ * The ids {@link DataGenerator} gave the rows it wrote. Each kind of row has a contiguous id range, so the i-th
+ * student is {@code studentId(i)} and is called {@code spec.username("student", i)}; course 0 is the most popular.
+ */
+public final class GeneratedSchool {
+
+    private final SchoolSpec spec;
+
+    private final long firstUserId;
+
+    private final long firstCourseId;
+
+    private final PowerLawSampler popularity;
+
+    private final long enrollments;
+
+    GeneratedSchool(SchoolSpec spec, long firstUserId, long firstCourseId, PowerLawSampler popularity,
+                    long enrollments) {
+        this.spec = spec;
+        this.firstUserId = firstUserId;
+        this.firstCourseId = firstCourseId;
+        this.popularity = popularity;
+        this.enrollments = enrollments;
+    }
+
+    public SchoolSpec getSpec() {
+        return spec;
+    }
+
+    public int getManagers() {
+        return spec.managers;
+    }
+
+    public int getTeachers() {
+        return spec.teachers;
+    }
+
+    public int getStudents() {
+        return spec.students;
+    }
+
+    public int getCourses() {
+        return spec.courses;
+    }
+
+    public long getEnrollments() {
+        return enrollments;
+    }
+
+    /** Course indexes drawn from the popularity curve the enrollments were generated with. */
+    public PowerLawSampler getPopularity() {
+        return popularity;
+    }
+
+    // Users are written managers first, then teachers, then students.
+    public long managerId(int index) {
+        return firstUserId + index;
+    }
+
+    public long teacherId(int index) {
+        return firstUserId + spec.managers + index;
+    }
+
+    public long studentId(int index) {
+        return firstUserId + spec.managers + spec.teachers + index;
+    }
+
+    public long courseId(int index) {
+        return firstCourseId + index;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.privateschool.server.datagen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Picks an index in [0, size) with probability proportional to 1 / (index + 1)^exponent, so index 0 is the most
+ * popular course or busiest teacher, a handful get most of the traffic and the rest form a long tail. An exponent of
+ * 0 is uniform.
+ */
+public class PowerLawSampler {
+
+    private final double[] cumulative;
+
+    public PowerLawSampler(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+}
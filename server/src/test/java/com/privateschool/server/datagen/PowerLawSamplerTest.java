@@ -0,0 +1,60 @@
+package com.privateschool.server.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PowerLawSamplerTest {
+
+    @Test
+    void testSample_FavoursTheFirstIndexes() {
+        // Given
+        PowerLawSampler sampler = new PowerLawSampler(100, 1.0);
+        Random random = new Random(42);
+        int[] hits = new int[100];
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            hits[sampler.sample(random)]++;
+        }
+
+        // Then: under Zipf the top course gets about 19%, the tenth about 2% and the last 0.2%
+        assertThat(hits[0]).isBetween(17_000, 21_000);
+        assertThat(hits[9]).isBetween(1_500, 2_400);
+        assertThat(hits[99]).isBetween(100, 350);
+    }
+
+    @Test
+    void testSample_WithZeroExponent_IsUniform() {
+        // Given
+        PowerLawSampler sampler = new PowerLawSampler(4, 0);
+        Random random = new Random(42);
+        int[] hits = new int[4];
+
+        // When
+        for (int i = 0; i < 40_000; i++) {
+            hits[sampler.sample(random)]++;
+        }
+
+        // Then
+        for (int count : hits) {
+            assertThat(count).isBetween(9_500, 10_500);
+        }
+    }
+
+    @Test
+    void testSample_IsDeterministicForASeed() {
+        // Given
+        PowerLawSampler sampler = new PowerLawSampler(50, 1.2);
+        Random first = new Random(7);
+        Random second = new Random(7);
+
+        // When / Then
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(sampler.sample(first)).isEqualTo(sampler.sample(second));
+        }
+    }
+
+}
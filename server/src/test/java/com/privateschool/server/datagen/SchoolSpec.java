@@ -0,0 +1,102 @@
+package com.privateschool.server.datagen;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What {@link DataGenerator} builds, read from {@code key=value} settings; {@link #DEFAULTS} lists them all. The same
+ * settings and seed always produce the same rows.
+ */
+public final class SchoolSpec {
+
+    public static final Map<String, String> DEFAULTS;
+
+    static {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        // Prepended to every username and course name; rows with it are replaced on the next run.
+        defaults.put("prefix", "gen.");
+        defaults.put("managers", "1");
+        defaults.put("teachers", "500");
+        defaults.put("courses", "5000");
+        defaults.put("students", "100000");
+        // Students take between 1 and twice this minus one courses, this many on average.
+        defaults.put("enrollments-per-student", "3");
+        // Power-law exponent of course popularity; 0 is uniform, 1 is Zipf.
+        defaults.put("skew", "1.0");
+        // Power-law exponent of how courses are shared out between teachers.
+        defaults.put("teacher-skew", "0.5");
+        // Seats per course; empty for unlimited courses.
+        defaults.put("capacity", "");
+        defaults.put("seed", "42");
+        // Every account gets this password; it is hashed once.
+        defaults.put("password", "password");
+        defaults.put("batch-size", "1000");
+        DEFAULTS = Collections.unmodifiableMap(defaults);
+    }
+
+    final String prefix;
+
+    final int managers;
+
+    final int teachers;
+
+    final int courses;
+
+    final int students;
+
+    final int enrollmentsPerStudent;
+
+    final double skew;
+
+    final double teacherSkew;
+
+    final Integer capacity;
+
+    final long seed;
+
+    final String password;
+
+    final int batchSize;
+
+    private SchoolSpec(Map<String, String> settings) {
+        prefix = settings.get("prefix");
+        managers = Integer.parseInt(settings.get("managers"));
+        teachers = Integer.parseInt(settings.get("teachers"));
+        courses = Integer.parseInt(settings.get("courses"));
+        students = Integer.parseInt(settings.get("students"));
+        enrollmentsPerStudent = Integer.parseInt(settings.get("enrollments-per-student"));
+        skew = Double.parseDouble(settings.get("skew"));
+        teacherSkew = Double.parseDouble(settings.get("teacher-skew"));
+        capacity = settings.get("capacity").isEmpty() ? null : Integer.valueOf(settings.get("capacity"));
+        seed = Long.parseLong(settings.get("seed"));
+        password = settings.get("password");
+        batchSize = Integer.parseInt(settings.get("batch-size"));
+        if (teachers < 1 || courses < 1 || students < 0 || managers < 0 || enrollmentsPerStudent < 0
+                || batchSize < 1) {
+            throw new IllegalArgumentException("Need at least one teacher and one course, and no negative counts");
+        }
+    }
+
+    /** The defaults overridden by the given settings; keys that are not in {@link #DEFAULTS} are rejected. */
+    public static SchoolSpec of(Map<String, String> settings) {
+        Map<String, String> merged = new LinkedHashMap<>(DEFAULTS);
+        settings.forEach((key, value) -> {
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown setting " + key + ", expected one of "
+                        + DEFAULTS.keySet());
+            }
+            merged.put(key, value);
+        });
+        return new SchoolSpec(merged);
+    }
+
+    public String username(String kind, int index) {
+        return prefix + kind + "." + index;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+}
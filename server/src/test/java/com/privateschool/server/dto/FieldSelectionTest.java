@@ -0,0 +1,82 @@
+package com.privateschool.server.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldSelectionTest {
+
+    @Test
+    void testParse_WithBlank_ReturnsNull() {
+        assertThat(FieldSelection.parse(null, FieldSelection.COURSE_FIELDS)).isNull();
+        assertThat(FieldSelection.parse(" ", FieldSelection.COURSE_FIELDS)).isNull();
+        assertThat(FieldSelection.parse(",", FieldSelection.COURSE_FIELDS)).isNull();
+    }
+
+    @Test
+    void testParse_TrimsAndDeduplicates() {
+        // When
+        FieldSelection selection = FieldSelection.parse(" name, instructor.name ,name", FieldSelection.COURSE_FIELDS);
+
+        // Then
+        assertThat(selection.getFields()).containsExactly("name", "instructor.name");
+    }
+
+    @Test
+    void testParse_WithUnknownField_IsRejected() {
+        assertThatThrownBy(() -> FieldSelection.parse("name,instructor.password", FieldSelection.COURSE_FIELDS))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("instructor.password");
+    }
+
+    @Test
+    void testWhitelists_NeverContainCredentials() {
+        assertThat(FieldSelection.ENROLLMENT_FIELDS)
+                .contains("student.name", "course.instructor.name")
+                .noneMatch(field -> field.endsWith("password") || field.endsWith("token"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testToRow_NestsDottedFields() {
+        // Given
+        FieldSelection selection = FieldSelection.parse("id,course.name,course.instructor.name",
+                FieldSelection.ENROLLMENT_FIELDS);
+
+        // When
+        Map<String, Object> row = selection.toRow(new Object[]{1L, "MAT-101", "Instructor One"});
+
+        // Then
+        assertThat(row).containsEntry("id", 1L);
+        Map<String, Object> course = (Map<String, Object>) row.get("course");
+        assertThat(course).containsEntry("name", "MAT-101");
+        assertThat((Map<String, Object>) course.get("instructor")).containsEntry("name", "Instructor One");
+    }
+
+    @Test
+    void testETag_DependsOnFields() {
+        // Given
+        FieldSelection names = FieldSelection.parse("name", FieldSelection.COURSE_FIELDS);
+        FieldSelection ids = FieldSelection.parse("id", FieldSelection.COURSE_FIELDS);
+
+        // Then
+        assertThat(names.eTag("\"v1\"")).isEqualTo("\"v1-fname\"");
+        assertThat(names.eTag("\"v1\"")).isNotEqualTo(ids.eTag("\"v1\""));
+    }
+
+    @Test
+    void testETag_ListsSortedFields() {
+        // Given
+        FieldSelection selection = FieldSelection.parse("name,instructor.name,id", FieldSelection.COURSE_FIELDS);
+        FieldSelection reordered = FieldSelection.parse("id,name,instructor.name", FieldSelection.COURSE_FIELDS);
+
+        // Then
+        assertThat(selection.eTag("W/\"v1\"")).isEqualTo("W/\"v1-fid,instructor.name,name\"");
+        assertThat(reordered.eTag("W/\"v1\"")).isEqualTo(selection.eTag("W/\"v1\""));
+    }
+
+}
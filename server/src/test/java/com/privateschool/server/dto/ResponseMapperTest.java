@@ -0,0 +1,124 @@
+package com.privateschool.server.dto;
+
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseMapperTest {
+
+    private User testInstructor;
+    private User testStudent;
+    private Course testCourse;
+
+    @BeforeEach
+    void setUp() {
+        testInstructor = new User();
+        testInstructor.setId(1L);
+        testInstructor.setName("John Teacher");
+        testInstructor.setUsername("john.teacher");
+        testInstructor.setPassword("encodedPassword");
+        testInstructor.setRole(Role.TEACHER);
+
+        testStudent = new User();
+        testStudent.setId(2L);
+        testStudent.setName("Jane Student");
+        testStudent.setUsername("jane.student");
+        testStudent.setPassword("encodedPassword");
+        testStudent.setRole(Role.STUDENT);
+
+        testCourse = new Course();
+        testCourse.setId(1L);
+        testCourse.setName("Java Programming");
+        testCourse.setInstructor(testInstructor);
+    }
+
+    @Test
+    void testUserResponse_CopiesPublicFieldsOnly() {
+        // When
+        UserResponse response = UserResponse.of(testStudent);
+
+        // Then
+        assertThat(response.getId()).isEqualTo(2L);
+        assertThat(response.getName()).isEqualTo("Jane Student");
+        assertThat(response.getUsername()).isEqualTo("jane.student");
+        assertThat(response.getRole()).isEqualTo(Role.STUDENT);
+        assertThat(response.getToken()).isNull();
+    }
+
+    @Test
+    void testUserResponse_WithNull_ReturnsNull() {
+        assertThat(UserResponse.of(null)).isNull();
+    }
+
+    @Test
+    void testCourses_ShareRepeatedInstructor() {
+        // Given
+        Course other = new Course();
+        other.setId(2L);
+        other.setName("Python Programming");
+        other.setInstructor(testInstructor);
+
+        // When
+        List<CourseResponse> responses = ResponseMapper.courses(Arrays.asList(testCourse, other));
+
+        // Then
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(0).getInstructor()).isSameAs(responses.get(1).getInstructor());
+        assertThat(responses.get(0).getInstructor().getName()).isEqualTo("John Teacher");
+    }
+
+    @Test
+    void testEnrollments_WithMissingReferences_MapsNulls() {
+        // Given
+        CourseStudent courseStudent = new CourseStudent();
+        courseStudent.setId(5L);
+
+        // When
+        List<EnrollmentResponse> responses = ResponseMapper.enrollments(Collections.singletonList(courseStudent));
+
+        // Then
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getId()).isEqualTo(5L);
+        assertThat(responses.get(0).getStudent()).isNull();
+        assertThat(responses.get(0).getCourse()).isNull();
+    }
+
+    @Test
+    void testNormalizedEnrollments_WritesEachUserAndCourseOnce() {
+        // Given
+        User otherStudent = new User();
+        otherStudent.setId(3L);
+        otherStudent.setName("Bob Student");
+        otherStudent.setRole(Role.STUDENT);
+
+        CourseStudent first = new CourseStudent();
+        first.setId(1L);
+        first.setStudent(testStudent);
+        first.setCourse(testCourse);
+
+        CourseStudent second = new CourseStudent();
+        second.setId(2L);
+        second.setStudent(otherStudent);
+        second.setCourse(testCourse);
+
+        // When
+        NormalizedEnrollmentsResponse response = NormalizedEnrollmentsResponse.of(Arrays.asList(first, second));
+
+        // Then
+        assertThat(response.getEnrollments()).extracting(NormalizedEnrollmentsResponse.Row::getStudentId)
+                .containsExactly(2L, 3L);
+        assertThat(response.getIncluded().getCourses()).hasSize(1);
+        assertThat(response.getIncluded().getUsers()).extracting(UserResponse::getId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+}
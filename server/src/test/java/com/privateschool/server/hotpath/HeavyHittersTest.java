@@ -0,0 +1,94 @@
+package com.privateschool.server.hotpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHittersTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final HeavyHitters heavyHitters = new HeavyHitters(Duration.ofMinutes(5), 5, 16, now::get);
+
+    @Test
+    void testTop_FindsTheHotIdsInALongTail() {
+        // Given: three ids take half the traffic, the rest is spread over 10,000 others
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            heavyHitters.offer(random.nextBoolean() ? 1 + random.nextInt(3) : 100 + random.nextInt(10_000));
+        }
+
+        // When
+        List<HeavyHitters.Count> top = heavyHitters.top(3);
+
+        // Then
+        assertThat(top).extracting(HeavyHitters.Count::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        for (HeavyHitters.Count count : top) {
+            assertThat(count.getCount() - count.getError()).isBetween(15_000L, 18_500L);
+            assertThat(count.getCount()).isGreaterThanOrEqualTo(15_000L);
+        }
+    }
+
+    @Test
+    void testTop_OrdersByCountAndLimits() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            heavyHitters.offer(7);
+        }
+        heavyHitters.offer(8);
+        heavyHitters.offer(8);
+        heavyHitters.offer(9);
+
+        // When
+        List<HeavyHitters.Count> top = heavyHitters.top(2);
+
+        // Then
+        assertThat(top).extracting(HeavyHitters.Count::getId).containsExactly(7L, 8L);
+        assertThat(top).extracting(HeavyHitters.Count::getCount).containsExactly(5L, 2L);
+    }
+
+    @Test
+    void testTop_ForgetsIdsOnceTheyLeaveTheWindow() {
+        // Given
+        heavyHitters.offer(1);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(3));
+        heavyHitters.offer(2);
+
+        // When
+        List<Long> stillIn = ids(heavyHitters.top(10));
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        List<Long> afterFive = ids(heavyHitters.top(10));
+        now.addAndGet(TimeUnit.MINUTES.toNanos(3));
+        List<Long> afterEight = ids(heavyHitters.top(10));
+
+        // Then
+        assertThat(stillIn).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(afterFive).containsExactly(2L);
+        assertThat(afterEight).isEmpty();
+    }
+
+    @Test
+    void testOffer_ReusedBucketStartsOver() {
+        // Given
+        heavyHitters.offer(1);
+
+        // When: the same bucket slot comes round again a window later
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        heavyHitters.offer(2);
+
+        // Then
+        assertThat(ids(heavyHitters.top(10))).containsExactly(2L);
+    }
+
+    private static List<Long> ids(List<HeavyHitters.Count> counts) {
+        return counts.stream().map(HeavyHitters.Count::getId).collect(Collectors.toList());
+    }
+
+}
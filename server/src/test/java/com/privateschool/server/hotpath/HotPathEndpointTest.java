@@ -0,0 +1,126 @@
+package com.privateschool.server.hotpath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotPathEndpointTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final HotKeys hotKeys = new HotKeys(new HeavyHitters(Duration.ofMinutes(5), 5, 16),
+            new HeavyHitters(Duration.ofMinutes(5), 5, 16));
+
+    private final HotPathEndpoint endpoint = new HotPathEndpoint(meterRegistry, hotKeys, 2, Duration.ofMinutes(5));
+
+    @BeforeEach
+    void setUp() {
+        hotKeys.install();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotKeys.uninstall();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHotPaths_SummarizesAuth() {
+        // Given
+        timer("jwt.verify", "result", "valid").record(2, TimeUnit.MILLISECONDS);
+        timer("jwt.verify", "result", "valid").record(4, TimeUnit.MILLISECONDS);
+        timer("jwt.verify", "result", "expired").record(6, TimeUnit.MILLISECONDS);
+        timer("password.hash", "operation", "matches").record(80, TimeUnit.MILLISECONDS);
+        timer("password.hash", "operation", "encode").record(90, TimeUnit.MILLISECONDS);
+
+        // When
+        Map<String, Object> auth = (Map<String, Object>) endpoint.hotPaths().get("auth");
+
+        // Then
+        assertThat((Map<String, Object>) auth.get("tokens")).containsEntry("valid", 2L).containsEntry("expired", 1L);
+        assertThat((Map<String, Object>) auth.get("jwtVerify"))
+                .containsEntry("count", 3L).containsEntry("meanMs", 4.0).containsEntry("maxMs", 6.0);
+        assertThat((Map<String, Object>) auth.get("passwordMatch")).containsEntry("count", 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHotPaths_ListsSlowestRoutesFirst() {
+        // Given
+        meterRegistry.timer("http.server.requests", "method", "GET", "uri", "/api/user/courses", "status", "200")
+                .record(10, TimeUnit.MILLISECONDS);
+        meterRegistry.timer("http.server.requests", "method", "GET", "uri", "/api/manager/enrollments",
+                "status", "200").record(300, TimeUnit.MILLISECONDS);
+        meterRegistry.timer("http.server.requests", "method", "GET", "uri", "/api/manager/enrollments",
+                "status", "503").record(100, TimeUnit.MILLISECONDS);
+        meterRegistry.timer("http.server.requests", "method", "POST", "uri", "/api/student/enroll", "status", "201")
+                .record(50, TimeUnit.MILLISECONDS);
+
+        // When
+        List<Map<String, Object>> routes = (List<Map<String, Object>>) endpoint.hotPaths().get("slowestRoutes");
+
+        // Then
+        assertThat(routes).extracting(route -> route.get("route"))
+                .containsExactly("GET /api/manager/enrollments", "POST /api/student/enroll");
+        assertThat(routes.get(0)).containsEntry("count", 2L).containsEntry("meanMs", 200.0)
+                .containsEntry("maxMs", 300.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHotPaths_ReportsCachesByName() {
+        // Given
+        meterRegistry.gauge("cache.size", Tags.of("cache", "seatLedger"), 12);
+        meterRegistry.counter("cache.evictions", "cache", "seatLedger").increment(3);
+        meterRegistry.counter("cache.gets", "cache", "courseCatalog", "result", "hit").increment(3);
+        meterRegistry.counter("cache.gets", "cache", "courseCatalog", "result", "miss").increment();
+
+        // When
+        Map<String, Object> caches = (Map<String, Object>) endpoint.hotPaths().get("caches");
+
+        // Then
+        assertThat((Map<String, Object>) caches.get("seatLedger"))
+                .containsEntry("size", 12.0).containsEntry("evictions", 3.0).doesNotContainKey("hitRatio");
+        assertThat((Map<String, Object>) caches.get("courseCatalog"))
+                .containsEntry("hits", 3.0).containsEntry("misses", 1.0).containsEntry("hitRatio", 0.75);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHotPaths_ListsMostRequestedIds() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            HotKeys.course(5L);
+        }
+        HotKeys.course(6L);
+        HotKeys.course(7L);
+        HotKeys.course(7L);
+        HotKeys.teacher(9L);
+        HotKeys.teacher(null);
+
+        // When
+        Map<String, Object> document = endpoint.hotPaths();
+
+        // Then
+        assertThat((List<HeavyHitters.Count>) document.get("hotCourses"))
+                .extracting(HeavyHitters.Count::getId).containsExactly(5L, 7L);
+        assertThat((List<HeavyHitters.Count>) document.get("hotTeachers"))
+                .extracting(HeavyHitters.Count::getCount).containsExactly(1L);
+    }
+
+    private Timer timer(String name, String tag, String value) {
+        return meterRegistry.timer(name, tag, value);
+    }
+
+}
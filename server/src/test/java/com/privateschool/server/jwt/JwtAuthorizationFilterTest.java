@@ -10,6 +10,7 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -58,7 +59,6 @@ class JwtAuthorizationFilterTest {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_STUDENT"))
         );
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(true);
         when(jwtTokenProvider.getAuthentication(any())).thenReturn(authentication);
 
         // When
@@ -68,10 +68,10 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNotNull();
         assertThat(contextAuth.getName()).isEqualTo("testuser");
-        assertThat(contextAuth.getAuthorities()).contains(new SimpleGrantedAuthority("ROLE_STUDENT"));
+        assertThat(contextAuth.getAuthorities()).extracting(GrantedAuthority::getAuthority).contains("ROLE_STUDENT");
 
-        verify(jwtTokenProvider, times(1)).validateToken(request);
         verify(jwtTokenProvider, times(1)).getAuthentication(request);
+        verify(jwtTokenProvider, never()).validateToken(any());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -81,7 +81,7 @@ class JwtAuthorizationFilterTest {
         String token = "Bearer invalid.jwt.token";
         request.addHeader("Authorization", token);
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(false);
+        when(jwtTokenProvider.getAuthentication(any())).thenReturn(null);
 
         // When
         jwtAuthorizationFilter.doFilterInternal(request, response, filterChain);
@@ -90,8 +90,8 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNull();
 
-        verify(jwtTokenProvider, times(1)).validateToken(request);
-        verify(jwtTokenProvider, never()).getAuthentication(any());
+        verify(jwtTokenProvider, times(1)).getAuthentication(request);
+        verify(jwtTokenProvider, never()).validateToken(any());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -99,7 +99,7 @@ class JwtAuthorizationFilterTest {
     void testDoFilterInternal_NoToken() throws ServletException, IOException {
         // Given - No Authorization header
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(false);
+        when(jwtTokenProvider.getAuthentication(any())).thenReturn(null);
 
         // When
         jwtAuthorizationFilter.doFilterInternal(request, response, filterChain);
@@ -108,15 +108,15 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNull();
 
-        verify(jwtTokenProvider, times(1)).validateToken(request);
-        verify(jwtTokenProvider, never()).getAuthentication(any());
+        verify(jwtTokenProvider, times(1)).getAuthentication(request);
+        verify(jwtTokenProvider, never()).validateToken(any());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
     @Test
     void testDoFilterInternal_NullToken() throws ServletException, IOException {
         // Given: Simulate null token by not setting the Authorization header at all
-        when(jwtTokenProvider.validateToken(any())).thenReturn(false);
+        when(jwtTokenProvider.getAuthentication(any())).thenReturn(null);
 
         // When
         jwtAuthorizationFilter.doFilterInternal(request, response, filterChain);
@@ -125,7 +125,7 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNull();
 
-        verify(jwtTokenProvider, times(1)).validateToken(request);
+        verify(jwtTokenProvider, times(1)).getAuthentication(request);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -141,7 +141,6 @@ class JwtAuthorizationFilterTest {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_TEACHER"))
         );
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(true);
         when(jwtTokenProvider.getAuthentication(any())).thenReturn(authentication);
 
         // When
@@ -151,7 +150,7 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNotNull();
         assertThat(contextAuth.getName()).isEqualTo("teacher.user");
-        assertThat(contextAuth.getAuthorities()).contains(new SimpleGrantedAuthority("ROLE_TEACHER"));
+        assertThat(contextAuth.getAuthorities()).extracting(GrantedAuthority::getAuthority).contains("ROLE_TEACHER");
 
         verify(filterChain, times(1)).doFilter(request, response);
     }
@@ -168,7 +167,6 @@ class JwtAuthorizationFilterTest {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_MANAGER"))
         );
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(true);
         when(jwtTokenProvider.getAuthentication(any())).thenReturn(authentication);
 
         // When
@@ -177,7 +175,7 @@ class JwtAuthorizationFilterTest {
         // Then
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNotNull();
-        assertThat(contextAuth.getAuthorities()).contains(new SimpleGrantedAuthority("ROLE_MANAGER"));
+        assertThat(contextAuth.getAuthorities()).extracting(GrantedAuthority::getAuthority).contains("ROLE_MANAGER");
 
         verify(filterChain, times(1)).doFilter(request, response);
     }
@@ -187,7 +185,7 @@ class JwtAuthorizationFilterTest {
         // Given
         request.addHeader("Authorization", "");
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(false);
+        when(jwtTokenProvider.getAuthentication(any())).thenReturn(null);
 
         // When
         jwtAuthorizationFilter.doFilterInternal(request, response, filterChain);
@@ -196,7 +194,7 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNull();
 
-        verify(jwtTokenProvider, times(1)).validateToken(request);
+        verify(jwtTokenProvider, times(1)).getAuthentication(request);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -205,7 +203,7 @@ class JwtAuthorizationFilterTest {
         // Given
         request.addHeader("Authorization", "invalid.format.token");
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(false);
+        when(jwtTokenProvider.getAuthentication(any())).thenReturn(null);
 
         // When
         jwtAuthorizationFilter.doFilterInternal(request, response, filterChain);
@@ -214,7 +212,7 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNull();
 
-        verify(jwtTokenProvider, times(1)).validateToken(request);
+        verify(jwtTokenProvider, times(1)).getAuthentication(request);
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -224,7 +222,6 @@ class JwtAuthorizationFilterTest {
         String token = "Bearer valid.jwt.token";
         request.addHeader("Authorization", token);
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(true);
         when(jwtTokenProvider.getAuthentication(any())).thenReturn(null);
 
         // When
@@ -234,15 +231,15 @@ class JwtAuthorizationFilterTest {
         Authentication contextAuth = SecurityContextHolder.getContext().getAuthentication();
         assertThat(contextAuth).isNull();
 
-        verify(jwtTokenProvider, times(1)).validateToken(request);
         verify(jwtTokenProvider, times(1)).getAuthentication(request);
+        verify(jwtTokenProvider, never()).validateToken(any());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
     @Test
     void testDoFilterInternal_FilterChainContinues() throws ServletException, IOException {
         // Given
-        when(jwtTokenProvider.validateToken(any())).thenReturn(false);
+        when(jwtTokenProvider.getAuthentication(any())).thenReturn(null);
 
         // When
         jwtAuthorizationFilter.doFilterInternal(request, response, filterChain);
@@ -263,7 +260,6 @@ class JwtAuthorizationFilterTest {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_STUDENT"))
         );
 
-        when(jwtTokenProvider.validateToken(any())).thenReturn(true);
         when(jwtTokenProvider.getAuthentication(any())).thenReturn(authentication);
 
         // Verify context is clear before
@@ -3,21 +3,24 @@ package com.privateschool.server.jwt;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import javax.servlet.http.HttpServletRequest;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import javax.servlet.http.HttpServletRequest;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -34,6 +37,9 @@ class JwtTokenProviderTest {
     @Mock
     private HttpServletRequest request;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private String jwtSecret = "testSecretKeyForJwtTokenProviderTesting";
     private String jwtTokenPrefix = "Bearer ";
     private String jwtHeaderString = "Authorization";
@@ -45,6 +51,7 @@ class JwtTokenProviderTest {
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtTokenPrefix", jwtTokenPrefix);
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtHeaderString", jwtHeaderString);
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", jwtExpirationInMs);
+        jwtTokenProvider.registerMeters();
     }
 
     @Test
@@ -212,6 +219,44 @@ class JwtTokenProviderTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void getAuthentication_WithExpiredToken_ShouldReturnNullAfterOneVerification() {
+        // Arrange
+        String expiredToken = Jwts.builder()
+            .setSubject("testuser")
+            .claim("roles", "ROLE_STUDENT")
+            .setExpiration(new Date(System.currentTimeMillis() - 1000))
+            .signWith(SignatureAlgorithm.HS512, jwtSecret)
+            .compact();
+        when(request.getHeader(jwtHeaderString)).thenReturn(jwtTokenPrefix + expiredToken);
+
+        // Act
+        Authentication result = jwtTokenProvider.getAuthentication(request);
+
+        // Assert
+        assertNull(result);
+        assertEquals(1, meterRegistry.get("jwt.verify").tag("result", "expired").timer().count());
+    }
+
+    @Test
+    void validateToken_RecordsVerifyTimingByResult() {
+        // Arrange
+        String expiredToken = Jwts.builder()
+            .setSubject("testuser")
+            .claim("roles", "ROLE_STUDENT")
+            .setExpiration(new Date(System.currentTimeMillis() - 1000))
+            .signWith(SignatureAlgorithm.HS512, jwtSecret)
+            .compact();
+        when(request.getHeader(jwtHeaderString)).thenReturn(jwtTokenPrefix + expiredToken);
+
+        // Act
+        jwtTokenProvider.validateToken(request);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("jwt.verify").tag("result", "expired").timer().count());
+        assertEquals(0, meterRegistry.get("jwt.verify").tag("result", "valid").timer().count());
+    }
+
     @Test
     void validateToken_WithNoToken_ShouldReturnFalse() {
         // Arrange
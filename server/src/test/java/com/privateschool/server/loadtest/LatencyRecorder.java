@@ -0,0 +1,121 @@
+package com.privateschool.server.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The latencies one client measured during one phase, per scenario. Each client has its own, so recording never
+ * contends; {@link #merge} combines them once the phase is over.
+ */
+class LatencyRecorder {
+
+    private final Map<Scenario, Samples> samples = new EnumMap<>(Scenario.class);
+
+    void record(Scenario scenario, long nanos, boolean error) {
+        samples.computeIfAbsent(scenario, key -> new Samples()).add(nanos, error);
+    }
+
+    void merge(LatencyRecorder other) {
+        other.samples.forEach((scenario, theirs) ->
+                samples.computeIfAbsent(scenario, key -> new Samples()).addAll(theirs));
+    }
+
+    Map<Scenario, Summary> summarize(double seconds) {
+        Map<Scenario, Summary> summaries = new EnumMap<>(Scenario.class);
+        samples.forEach((scenario, recorded) -> summaries.put(scenario, recorded.summarize(seconds)));
+        return summaries;
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+
+        private int count;
+
+        private int errors;
+
+        void add(long latency, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        Summary summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long latency : sorted) {
+                total += latency;
+            }
+            return new Summary(count, errors, count / seconds, millis(total / Math.max(count, 1)),
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                    millis(percentile(sorted, 0.99)), millis(percentile(sorted, 0.999)),
+                    millis(count > 0 ? sorted[count - 1] : 0));
+        }
+
+        // Nearest rank: the smallest latency that at least the given fraction of requests did not exceed.
+        private static long percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(fraction * sorted.length);
+            return sorted[Math.max(rank, 1) - 1];
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+
+    }
+
+    /** Latencies in milliseconds, throughput in requests per second. */
+    static final class Summary {
+
+        final int requests;
+
+        final int errors;
+
+        final double throughput;
+
+        final double mean;
+
+        final double p50;
+
+        final double p90;
+
+        final double p99;
+
+        final double p999;
+
+        final double max;
+
+        Summary(int requests, int errors, double throughput, double mean, double p50, double p90, double p99,
+                double p999, double max) {
+            this.requests = requests;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+    }
+
+}
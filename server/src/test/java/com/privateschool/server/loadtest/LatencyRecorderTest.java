@@ -0,0 +1,40 @@
+package com.privateschool.server.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    @Test
+    void testSummarize_MergesClientsAndComputesNearestRankPercentiles() {
+        // Given: 1..100 ms spread over two clients, two of them failed
+        LatencyRecorder first = new LatencyRecorder();
+        LatencyRecorder second = new LatencyRecorder();
+        for (int millis = 1; millis <= 100; millis++) {
+            (millis % 2 == 0 ? first : second).record(Scenario.BROWSE_COURSES, TimeUnit.MILLISECONDS.toNanos(millis),
+                    millis > 98);
+        }
+        first.merge(second);
+
+        // When
+        Map<Scenario, LatencyRecorder.Summary> summaries = first.summarize(10);
+
+        // Then
+        LatencyRecorder.Summary summary = summaries.get(Scenario.BROWSE_COURSES);
+        assertThat(summary.requests).isEqualTo(100);
+        assertThat(summary.errors).isEqualTo(2);
+        assertThat(summary.throughput).isEqualTo(10);
+        assertThat(summary.p50).isEqualTo(50);
+        assertThat(summary.p90).isEqualTo(90);
+        assertThat(summary.p99).isEqualTo(99);
+        assertThat(summary.p999).isEqualTo(100);
+        assertThat(summary.max).isEqualTo(100);
+        assertThat(summary.mean).isEqualTo(50.5);
+        assertThat(summaries).doesNotContainKey(Scenario.LOGIN);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.privateschool.server.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a run as JSON: how the school was built and driven, then per phase and endpoint the request and
+ * error counts, throughput and latency percentiles. Two reports of the same settings and seed compare two builds;
+ * {@link #compare} prints the differences.
+ */
+class LoadReport {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    private final List<Map<String, Object>> phases = new ArrayList<>();
+
+    LoadReport(Map<String, Object> settings) {
+        report.putAll(settings);
+        report.put("phases", phases);
+    }
+
+    void addPhase(Workload workload, double seconds, Map<Scenario, LatencyRecorder.Summary> summaries) {
+        Map<String, Object> phase = new LinkedHashMap<>();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        int requests = 0;
+        int errors = 0;
+        for (Map.Entry<Scenario, LatencyRecorder.Summary> entry : summaries.entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue();
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", summary.requests);
+            endpoint.put("errors", summary.errors);
+            endpoint.put("throughput", round(summary.throughput));
+            endpoint.put("meanMs", summary.mean);
+            endpoint.put("p50Ms", summary.p50);
+            endpoint.put("p90Ms", summary.p90);
+            endpoint.put("p99Ms", summary.p99);
+            endpoint.put("p999Ms", summary.p999);
+            endpoint.put("maxMs", summary.max);
+            endpoints.put(entry.getKey().endpoint(), endpoint);
+            requests += summary.requests;
+            errors += summary.errors;
+        }
+        phase.put("workload", workload.id());
+        phase.put("seconds", round(seconds));
+        phase.put("requests", requests);
+        phase.put("errors", errors);
+        phase.put("throughput", round(requests / seconds));
+        phase.put("endpoints", endpoints);
+        phases.add(phase);
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+
+    @SuppressWarnings("unchecked")
+    void print(PrintStream out) {
+        for (Map<String, Object> phase : phases) {
+            out.printf("%n%s: %s req/s, %s errors%n", phase.get("workload"), phase.get("throughput"),
+                    phase.get("errors"));
+            out.printf("  %-40s %8s %7s %9s %9s %9s %9s%n", "endpoint", "req/s", "errors", "p50 ms", "p90 ms",
+                    "p99 ms", "max ms");
+            ((Map<String, Map<String, Object>>) phase.get("endpoints")).forEach((endpoint, stats) ->
+                    out.printf("  %-40s %8s %7s %9s %9s %9s %9s%n", endpoint, stats.get("throughput"),
+                            stats.get("errors"), stats.get("p50Ms"), stats.get("p90Ms"), stats.get("p99Ms"),
+                            stats.get("maxMs")));
+        }
+    }
+
+    /** Prints throughput and p99 of each endpoint next to those in the baseline report, for matching phases. */
+    @SuppressWarnings("unchecked")
+    void compare(Path baselineFile, PrintStream out) throws IOException {
+        JsonNode baseline = objectMapper.readTree(baselineFile.toFile());
+        out.printf("%nCompared with %s (%s)%n", baselineFile, baseline.path("label").asText("no label"));
+        out.printf("  %-17s %-40s %10s %10s %10s %10s%n", "phase", "endpoint", "req/s", "change", "p99 ms",
+                "change");
+        for (int i = 0; i < phases.size() && i < baseline.path("phases").size(); i++) {
+            Map<String, Object> phase = phases.get(i);
+            JsonNode before = baseline.path("phases").get(i);
+            if (!before.path("workload").asText().equals(phase.get("workload"))) {
+                continue;
+            }
+            ((Map<String, Map<String, Object>>) phase.get("endpoints")).forEach((endpoint, stats) -> {
+                JsonNode old = before.path("endpoints").path(endpoint);
+                if (old.isMissingNode()) {
+                    return;
+                }
+                double throughput = ((Number) stats.get("throughput")).doubleValue();
+                double p99 = ((Number) stats.get("p99Ms")).doubleValue();
+                out.printf("  %-17s %-40s %10.1f %9s%% %10.1f %9s%%%n", phase.get("workload"), endpoint,
+                        throughput, change(old.path("throughput").asDouble(), throughput), p99,
+                        change(old.path("p99Ms").asDouble(), p99));
+            });
+        }
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return "n/a ";
+        }
+        return String.format("%+.1f", (after - before) * 100 / before);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+}
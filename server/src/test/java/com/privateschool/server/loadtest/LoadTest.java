@@ -0,0 +1,199 @@
+package com.privateschool.server.loadtest;
+
+import com.privateschool.server.ServerApplication;
+import com.privateschool.server.datagen.DataGenerator;
+import com.privateschool.server.datagen.GeneratedSchool;
+import com.privateschool.server.datagen.SchoolSpec;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Generates a school with the {@link DataGenerator} and replays school-day traffic against it, phase by phase, then
+ * writes latency percentiles and throughput per endpoint to a JSON report. Not a unit test. Without {@code url} it
+ * starts the server in-process on the in-memory test database:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.privateschool.server.loadtest.LoadTest -Dexec.args="students=5000 clients=64"
+ * </pre>
+ * With {@code url} it drives a running server and generates the school in the database given by {@code jdbc-url}, {@code jdbc-user}
+ * and {@code jdbc-password}, e.g. the MySQL of docker-compose. Each client draws its requests from its own random
+ * generator seeded from {@code seed}, so two runs with the same settings send the same traffic and their reports,
+ * one passed to the other as {@code baseline}, compare two builds. All settings and their defaults are in
+ * {@link #DEFAULTS}.
+ */
+public class LoadTest {
+
+    static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static final String PREFIX = "loadtest.";
+
+    static final String PASSWORD = "loadtest";
+
+    // Settings handed on to the data generator.
+    private static final String[] GENERATED = {"teachers", "courses", "students", "enrollments-per-student", "skew",
+        "teacher-skew", "capacity", "seed"};
+
+    static {
+        DEFAULTS.put("url", "");
+        DEFAULTS.put("jdbc-url", "");
+        DEFAULTS.put("jdbc-user", "root");
+        DEFAULTS.put("jdbc-password", "");
+        DEFAULTS.put("teachers", "20");
+        DEFAULTS.put("courses", "100");
+        DEFAULTS.put("students", "2000");
+        DEFAULTS.put("enrollments-per-student", "3");
+        // Exponents of the course popularity curve and of how courses are shared out; 0 is uniform, 1 is Zipf.
+        DEFAULTS.put("skew", "1.0");
+        // Seats per course; empty for unlimited courses.
+        DEFAULTS.put("capacity", "");
+        DEFAULTS.put("teacher-skew", "0.5");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("clients", "32");
+        DEFAULTS.put("warmup", "10");
+        // Workloads and their duration in seconds, run in this order.
+        DEFAULTS.put("phases", "login-rush:20,browse:30,enrollment-burst:20,manager-export:20,mixed:60");
+        DEFAULTS.put("report", "target/loadtest/report.json");
+        DEFAULTS.put("baseline", "");
+        DEFAULTS.put("label", "");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = settings(args);
+        String url = settings.get("url");
+        if (url.isEmpty()) {
+            // A devtools restart would run the application in another class loader than this harness.
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class)
+                    .run("--server.port=0", "--spring.jpa.hibernate.ddl-auto=create-drop")) {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                run("http://localhost:" + port, context.getBean(DataSource.class), settings);
+            }
+        } else {
+            if (settings.get("jdbc-url").isEmpty()) {
+                throw new IllegalArgumentException("jdbc-url is needed to seed the database behind " + url);
+            }
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(settings.get("jdbc-url"),
+                    settings.get("jdbc-user"), settings.get("jdbc-password"));
+            run(url, dataSource, settings);
+        }
+    }
+
+    static Map<String, String> settings(String[] args) {
+        Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (pair.length != 2 || !DEFAULTS.containsKey(pair[0])) {
+                throw new IllegalArgumentException("Unknown setting " + arg + ", expected one of " + DEFAULTS.keySet());
+            }
+            settings.put(pair[0], pair[1]);
+        }
+        return settings;
+    }
+
+    static LoadReport run(String baseUrl, DataSource dataSource, Map<String, String> settings) throws Exception {
+        long seed = Long.parseLong(settings.get("seed"));
+        int clients = Integer.parseInt(settings.get("clients"));
+        Map<String, String> generated = new LinkedHashMap<>();
+        for (String key : GENERATED) {
+            generated.put(key, settings.get(key));
+        }
+        generated.put("prefix", PREFIX);
+        generated.put("password", PASSWORD);
+        generated.put("managers", "1");
+        long seedingStart = System.nanoTime();
+        GeneratedSchool school = new DataGenerator(dataSource).generate(SchoolSpec.of(generated));
+        System.out.printf("Seeded %d teachers, %d courses, %d students and %d enrollments in %d ms%n",
+                school.getTeachers(), school.getCourses(), school.getStudents(), school.getEnrollments(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedingStart));
+
+        // HttpURLConnection keeps only five idle connections per host unless told otherwise.
+        System.setProperty("http.maxConnections", String.valueOf(clients));
+        SchoolClient client = new SchoolClient(baseUrl, PASSWORD);
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("label", settings.get("label"));
+        header.put("startedAt", Instant.now().toString());
+        header.put("target", baseUrl);
+        header.put("java", System.getProperty("java.version"));
+        header.put("settings", settings);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            LoadReport report = new LoadReport(header);
+            int warmup = Integer.parseInt(settings.get("warmup"));
+            if (warmup > 0) {
+                System.out.printf("Warming up for %d s%n", warmup);
+                runPhase(pool, client, school, Workload.MIXED, warmup, clients, seed - 1);
+            }
+            int phase = 0;
+            for (String spec : settings.get("phases").split(",")) {
+                String[] parts = spec.trim().split(":");
+                Workload workload = Workload.of(parts[0]);
+                int seconds = Integer.parseInt(parts[1]);
+                System.out.printf("Running %s for %d s with %d clients%n", workload.id(), seconds, clients);
+                long start = System.nanoTime();
+                LatencyRecorder recorder = runPhase(pool, client, school, workload, seconds, clients,
+                        seed + phase++ * clients);
+                double elapsed = (System.nanoTime() - start) / 1e9;
+                report.addPhase(workload, elapsed, recorder.summarize(elapsed));
+            }
+            report.print(System.out);
+            Path file = Paths.get(settings.get("report"));
+            report.write(file);
+            System.out.printf("%nReport written to %s%n", file.toAbsolutePath());
+            if (!settings.get("baseline").isEmpty()) {
+                report.compare(Paths.get(settings.get("baseline")), System.out);
+            }
+            return report;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Closed loop: every client sends its next request as soon as the previous one has been answered.
+    private static LatencyRecorder runPhase(ExecutorService pool, SchoolClient client, GeneratedSchool school,
+                                            Workload workload, int seconds, int clients, long seed)
+            throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<LatencyRecorder>> results = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Random random = new Random(seed + i);
+            results.add(pool.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.nanoTime() < deadline) {
+                    Scenario scenario = workload.next(random);
+                    long start = System.nanoTime();
+                    boolean error;
+                    try {
+                        error = scenario.run(client, school, random) >= 400;
+                    } catch (IOException e) {
+                        error = true;
+                    }
+                    recorder.record(scenario, System.nanoTime() - start, error);
+                }
+                return recorder;
+            }));
+        }
+        LatencyRecorder merged = new LatencyRecorder();
+        for (Future<LatencyRecorder> result : results) {
+            merged.merge(result.get());
+        }
+        return merged;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.privateschool.server.loadtest;
+
+import com.privateschool.server.datagen.GeneratedSchool;
+
+import java.io.IOException;
+import java.util.Random;
+
+/** One kind of request, reported under its route template. */
+enum Scenario {
+
+    LOGIN("GET /api/user/login") {
+        @Override
+        int run(SchoolClient client, GeneratedSchool school, Random random) throws IOException {
+            return client.login(school.getSpec().username("student", random.nextInt(school.getStudents())));
+        }
+    },
+
+    BROWSE_COURSES("GET /api/user/courses") {
+        @Override
+        int run(SchoolClient client, GeneratedSchool school, Random random) throws IOException {
+            return client.get(school.getSpec().username("student", random.nextInt(school.getStudents())),
+                    "/api/user/courses");
+        }
+    },
+
+    // Students go for the popular courses, like the generated enrollments do.
+    ENROLL("POST /api/student/enroll") {
+        @Override
+        int run(SchoolClient client, GeneratedSchool school, Random random) throws IOException {
+            int student = random.nextInt(school.getStudents());
+            long course = school.courseId(school.getPopularity().sample(random));
+            return client.post(school.getSpec().username("student", student), "/api/student/enroll",
+                    "{\"student\":{\"id\":" + school.studentId(student) + "},\"course\":{\"id\":" + course + "}}");
+        }
+    },
+
+    TEACHER_ROSTER("GET /api/teacher/students/{teacherId}") {
+        @Override
+        int run(SchoolClient client, GeneratedSchool school, Random random) throws IOException {
+            int teacher = random.nextInt(school.getTeachers());
+            return client.get(school.getSpec().username("teacher", teacher),
+                    "/api/teacher/students/" + school.teacherId(teacher));
+        }
+    },
+
+    MANAGER_EXPORT("GET /api/manager/enrollments") {
+        @Override
+        int run(SchoolClient client, GeneratedSchool school, Random random) throws IOException {
+            return client.get(school.getSpec().username("manager", 0), "/api/manager/enrollments");
+        }
+    };
+
+    private final String endpoint;
+
+    Scenario(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    /** Sends one request and returns its HTTP status. */
+    abstract int run(SchoolClient client, GeneratedSchool school, Random random) throws IOException;
+
+}
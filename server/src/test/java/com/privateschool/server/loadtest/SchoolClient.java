@@ -0,0 +1,114 @@
+package com.privateschool.server.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Talks to the server the way the Angular client does: logs in with HTTP Basic to get a JWT, then sends it as a
+ * bearer token. Tokens are cached per user for the whole run, so only the login scenario pays for BCrypt. Bodies are
+ * read to the end, so latencies include the transfer, and connections are kept alive.
+ */
+class SchoolClient {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+
+    private final String password;
+
+    private final ConcurrentMap<String, String> tokens = new ConcurrentHashMap<>();
+
+    SchoolClient(String baseUrl, String password) {
+        this.baseUrl = baseUrl;
+        this.password = password;
+    }
+
+    /** Logs the user in, replacing any cached token, and returns the status. */
+    int login(String username) throws IOException {
+        String basic = Base64.getEncoder().encodeToString(
+                (username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        Response response = send("GET", "/api/user/login", "Basic " + basic, null);
+        if (response.status == 200 && response.body.length > 0) {
+            JsonNode token = objectMapper.readTree(response.body).get("token");
+            if (token != null && !token.isNull()) {
+                tokens.put(username, token.asText());
+            }
+        }
+        return response.status;
+    }
+
+    int get(String username, String path) throws IOException {
+        return send("GET", path, bearer(username), null).status;
+    }
+
+    int post(String username, String path, String json) throws IOException {
+        return send("POST", path, bearer(username), json).status;
+    }
+
+    private String bearer(String username) throws IOException {
+        if (username == null) {
+            return null;
+        }
+        String token = tokens.get(username);
+        if (token == null) {
+            login(username);
+            token = tokens.get(username);
+        }
+        return token != null ? "Bearer " + token : null;
+    }
+
+    private Response send(String method, String path, String authorization, String json) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+        if (authorization != null) {
+            connection.setRequestProperty("Authorization", authorization);
+        }
+        if (json != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        // Draining the error stream too lets the connection go back to the keep-alive pool.
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+            }
+        }
+        return new Response(status, body.toByteArray());
+    }
+
+    private static final class Response {
+
+        private final int status;
+
+        private final byte[] body;
+
+        Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.privateschool.server.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/** A traffic profile: the mix of scenarios the clients draw from during one phase of a run. */
+enum Workload {
+
+    /** The start of the school day: everyone logs in, and BCrypt is the bottleneck. */
+    LOGIN_RUSH("login-rush", mix(Scenario.LOGIN, 90, Scenario.BROWSE_COURSES, 10)),
+
+    BROWSE("browse", mix(Scenario.BROWSE_COURSES, 85, Scenario.TEACHER_ROSTER, 15)),
+
+    /** Registration opens: enrollments pile onto the popular courses. */
+    ENROLLMENT_BURST("enrollment-burst", mix(Scenario.ENROLL, 80, Scenario.BROWSE_COURSES, 20)),
+
+    /** Managers pull the full enrollment export while students keep browsing. */
+    MANAGER_EXPORT("manager-export", mix(Scenario.MANAGER_EXPORT, 20, Scenario.BROWSE_COURSES, 80)),
+
+    MIXED("mixed", mix(Scenario.BROWSE_COURSES, 55, Scenario.ENROLL, 15, Scenario.TEACHER_ROSTER, 15,
+            Scenario.LOGIN, 10, Scenario.MANAGER_EXPORT, 5));
+
+    private final String id;
+
+    private final Scenario[] scenarios;
+
+    private final int[] cumulativeWeights;
+
+    Workload(String id, Map<Scenario, Integer> mix) {
+        this.id = id;
+        this.scenarios = mix.keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += mix.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    String id() {
+        return id;
+    }
+
+    Scenario next(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < scenarios.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    static Workload of(String id) {
+        for (Workload workload : values()) {
+            if (workload.id.equals(id)) {
+                return workload;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload " + id);
+    }
+
+    private static Map<Scenario, Integer> mix(Object... scenariosAndWeights) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (int i = 0; i < scenariosAndWeights.length; i += 2) {
+            mix.put((Scenario) scenariosAndWeights[i], (Integer) scenariosAndWeights[i + 1]);
+        }
+        return mix;
+    }
+
+}
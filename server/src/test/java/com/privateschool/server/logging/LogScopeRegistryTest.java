@@ -0,0 +1,97 @@
+package com.privateschool.server.logging;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogScopeRegistryTest {
+
+    private final LogScopeRegistry registry = new LogScopeRegistry(2, Duration.ofMinutes(10));
+
+    @Test
+    void testMatching_NoScopes_ReturnsEmpty() {
+        // When
+        List<LogScope> scopes = registry.matching("jane", "/api/student/courses/1");
+
+        // Then
+        assertThat(scopes).isEmpty();
+    }
+
+    @Test
+    void testMatching_ByUserAndByPath() {
+        // Given
+        LogScope forJane = registry.add("jane", null, "com.privateschool.server", Level.DEBUG, Duration.ofMinutes(1));
+        LogScope forStudents = registry.add(null, "/api/student/**", "com.privateschool.server", Level.TRACE,
+                Duration.ofMinutes(1));
+
+        // When / Then
+        assertThat(registry.matching("jane", "/api/user/courses")).containsExactly(forJane);
+        assertThat(registry.matching("bob", "/api/student/courses/1")).containsExactly(forStudents);
+        assertThat(registry.matching("jane", "/api/student/courses/1")).containsExactly(forJane, forStudents);
+        assertThat(registry.matching(null, "/api/manager/enrollments")).isEmpty();
+    }
+
+    @Test
+    void testAdd_WithoutUserOrPath_IsRejected() {
+        // When / Then
+        assertThatThrownBy(() -> registry.add(null, null, "com.privateschool.server", Level.DEBUG,
+                Duration.ofMinutes(1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testAdd_OverTheLimit_IsRejected() {
+        // Given
+        registry.add("jane", null, "com.privateschool.server", Level.DEBUG, Duration.ofMinutes(1));
+        registry.add("bob", null, "com.privateschool.server", Level.DEBUG, Duration.ofMinutes(1));
+
+        // When / Then
+        assertThatThrownBy(() -> registry.add("alice", null, "com.privateschool.server", Level.DEBUG,
+                Duration.ofMinutes(1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testAdd_CapsTheDuration() {
+        // When
+        LogScope scope = registry.add("jane", null, "com.privateschool.server", Level.DEBUG, Duration.ofDays(1));
+
+        // Then
+        assertThat(scope.getExpiresAt()).isBefore(Instant.now().plus(Duration.ofMinutes(11)));
+    }
+
+    @Test
+    void testExpiredScope_StopsMatchingAndFreesItsSlot() throws InterruptedException {
+        // Given
+        registry.add("jane", null, "com.privateschool.server", Level.DEBUG, Duration.ofMillis(1));
+        registry.add("bob", null, "com.privateschool.server", Level.DEBUG, Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        // When
+        List<LogScope> matching = registry.matching("jane", "/api/user/courses");
+        LogScope added = registry.add("alice", null, "com.privateschool.server", Level.DEBUG, Duration.ofMinutes(1));
+
+        // Then
+        assertThat(matching).isEmpty();
+        assertThat(registry.active()).containsExactly(added);
+    }
+
+    @Test
+    void testRemove_EndsTheScope() {
+        // Given
+        LogScope scope = registry.add("jane", null, "com.privateschool.server", Level.DEBUG, Duration.ofMinutes(1));
+
+        // When
+        boolean removed = registry.remove(scope.getId());
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(registry.remove(scope.getId())).isFalse();
+        assertThat(registry.matching("jane", "/api/user/courses")).isEmpty();
+    }
+
+}
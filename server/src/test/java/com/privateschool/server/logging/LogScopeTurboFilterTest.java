@@ -0,0 +1,117 @@
+package com.privateschool.server.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogScopeTurboFilterTest {
+
+    private final LogScopeTurboFilter filter = new LogScopeTurboFilter();
+
+    private final LogScopeRegistry registry = new LogScopeRegistry(10, Duration.ofMinutes(10));
+
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("com.privateschool.server.logging.Sample");
+
+    @BeforeEach
+    void setUp() {
+        filter.install();
+        events.start();
+        logger.addAppender(events);
+        logger.setLevel(Level.INFO);
+        registry.add("jane", null, "com.privateschool.server", Level.DEBUG, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.uninstall();
+        logger.detachAppender(events);
+        logger.setLevel(null);
+    }
+
+    @Test
+    void testScopedRequest_LogsBelowTheConfiguredLevel() {
+        // Given
+        List<LogScope> previous = LogScopeTurboFilter.bind(registry.matching("jane", "/api/user/courses"));
+
+        // When
+        try {
+            logger.debug("scoped");
+            logger.trace("too fine");
+        } finally {
+            LogScopeTurboFilter.restore(previous);
+        }
+        logger.debug("after the request");
+
+        // Then
+        assertThat(events.list).extracting(ILoggingEvent::getMessage).containsExactly("scoped");
+    }
+
+    @Test
+    void testOtherUser_KeepsTheConfiguredLevel() {
+        // Given
+        List<LogScope> previous = LogScopeTurboFilter.bind(registry.matching("bob", "/api/user/courses"));
+
+        // When
+        try {
+            logger.debug("not scoped");
+            logger.info("info");
+        } finally {
+            LogScopeTurboFilter.restore(previous);
+        }
+
+        // Then
+        assertThat(events.list).extracting(ILoggingEvent::getMessage).containsExactly("info");
+    }
+
+    @Test
+    void testOtherLogger_KeepsItsConfiguredLevel() {
+        // Given
+        Logger other = (Logger) LoggerFactory.getLogger("org.hibernate.Sample");
+        other.addAppender(events);
+        List<LogScope> previous = LogScopeTurboFilter.bind(registry.matching("jane", "/api/user/courses"));
+
+        // When
+        try {
+            other.debug("outside the scope's logger");
+        } finally {
+            LogScopeTurboFilter.restore(previous);
+            other.detachAppender(events);
+        }
+
+        // Then
+        assertThat(events.list).isEmpty();
+    }
+
+    @Test
+    void testPropagate_AppliesTheScopesOnAnotherThread() throws InterruptedException {
+        // Given
+        List<LogScope> previous = LogScopeTurboFilter.bind(registry.matching("jane", "/api/user/courses"));
+        Runnable task;
+        try {
+            task = LogScopeTurboFilter.propagate(() -> logger.debug("from the executor"));
+        } finally {
+            LogScopeTurboFilter.restore(previous);
+        }
+
+        // When
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+
+        // Then
+        assertThat(events.list).extracting(ILoggingEvent::getMessage).containsExactly("from the executor");
+    }
+
+}
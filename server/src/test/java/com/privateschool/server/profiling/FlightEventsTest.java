@@ -0,0 +1,99 @@
+package com.privateschool.server.profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightEventsTest {
+
+    private Recording recording;
+
+    private Path file;
+
+    @BeforeEach
+    void startRecording() throws IOException {
+        file = Files.createTempFile("flight-events-", ".jfr");
+        recording = new Recording();
+        JfrEvents.TYPES.forEach(recording::enable);
+        recording.start();
+    }
+
+    @AfterEach
+    void closeRecording() throws IOException {
+        recording.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testSpans_AreRecordedWithHashedSubjects() throws IOException {
+        // Given
+        FlightEvents.Span jwt = FlightEvents.jwtParse();
+        jwt.subject("jane.student");
+        jwt.finish("valid");
+        FlightEvents.Span service = FlightEvents.serviceCall("CourseServiceImpl", "findCourseById");
+        service.subject(42L);
+        service.finish("ok");
+        FlightEvents.passwordMatch().finish("mismatch");
+        FlightEvents.serialization("ArrayList", "application/json").finish("200");
+
+        // When
+        List<RecordedEvent> events = stopAndRead();
+
+        // Then
+        assertThat(events).extracting(event -> event.getEventType().getName()).containsExactly(
+                "com.privateschool.JwtParse", "com.privateschool.ServiceCall", "com.privateschool.PasswordMatch",
+                "com.privateschool.Serialization");
+        RecordedEvent jwtEvent = events.get(0);
+        assertThat(jwtEvent.getString("outcome")).isEqualTo("valid");
+        assertThat(jwtEvent.getString("subject")).isEqualTo(FlightEvents.hash("jane.student"))
+                .hasSize(16).doesNotContain("jane");
+        RecordedEvent serviceEvent = events.get(1);
+        assertThat(serviceEvent.getString("service")).isEqualTo("CourseServiceImpl");
+        assertThat(serviceEvent.getString("method")).isEqualTo("findCourseById");
+        assertThat(serviceEvent.getString("subject")).isEqualTo(FlightEvents.hash(42L));
+        assertThat(events.get(2).getString("subject")).isNull();
+        assertThat(events.get(3).getString("mediaType")).isEqualTo("application/json");
+    }
+
+    @Test
+    void testSpans_WhenNotRecording_AreNotRecorded() throws IOException {
+        // Given
+        recording.disable(JfrEvents.ServiceCallEvent.class);
+
+        // When
+        FlightEvents.Span span = FlightEvents.serviceCall("CourseServiceImpl", "findAllCourses");
+
+        // Then
+        assertThat(span).isSameAs(FlightEvents.NONE);
+        span.finish("ok");
+        assertThat(stopAndRead()).isEmpty();
+    }
+
+    @Test
+    void testHash_IsStableWithinTheProcess() {
+        // When / Then
+        assertThat(FlightEvents.hash("jane")).isEqualTo(FlightEvents.hash("jane"));
+        assertThat(FlightEvents.hash("jane")).isNotEqualTo(FlightEvents.hash("bob"));
+        assertThat(FlightEvents.hash(null)).isNull();
+    }
+
+    private List<RecordedEvent> stopAndRead() throws IOException {
+        recording.stop();
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.privateschool."))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.privateschool.server.profiling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingEndpointTest {
+
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(Duration.ofMinutes(1));
+
+    @AfterEach
+    void stop() {
+        endpoint.stop();
+    }
+
+    @Test
+    void testDump_WithoutRecording_ReturnsNotFound() {
+        // When
+        WebEndpointResponse<Resource> response = endpoint.dump();
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void testStart_CapsTheDuration() {
+        // When
+        Map<String, Object> status = endpoint.start("default", 3600L);
+
+        // Then
+        assertThat(status.get("duration")).isEqualTo(Duration.ofMinutes(1));
+        assertThat(status.get("state").toString()).isEqualTo("RUNNING");
+    }
+
+    @Test
+    void testStart_WhileRecording_IsRejected() {
+        // Given
+        endpoint.start(null, null);
+
+        // When / Then
+        assertThatThrownBy(() -> endpoint.start(null, null)).isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    @Test
+    void testStart_UnknownSettings_IsRejected() {
+        // When / Then
+        assertThatThrownBy(() -> endpoint.start("verbose", null))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    @Test
+    void testDump_ReturnsJfrFileAndRemovesItAfterwards() throws IOException {
+        // Given
+        endpoint.start("default", 60L);
+        FlightEvents.serviceCall("CourseServiceImpl", "findAllCourses").finish("ok");
+
+        // When
+        WebEndpointResponse<Resource> response = endpoint.dump();
+
+        // Then
+        Resource resource = response.getBody();
+        byte[] content;
+        try (InputStream in = resource.getInputStream()) {
+            content = StreamUtils.copyToByteArray(in);
+        }
+        assertThat(new String(Arrays.copyOf(content, 3), StandardCharsets.US_ASCII)).isEqualTo("FLR");
+        assertThat(resource.exists()).isFalse();
+    }
+
+    @Test
+    void testStop_DiscardsTheRecording() {
+        // Given
+        endpoint.start(null, null);
+
+        // When / Then
+        assertThat(endpoint.stop()).isTrue();
+        assertThat(endpoint.stop()).isFalse();
+        assertThat(endpoint.dump().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.config.QueryStats;
+import com.privateschool.server.config.QueryStatsConfig;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static com.privateschool.server.support.QueryCounter.assertStatements;
+import static com.privateschool.server.support.QueryCounter.count;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(QueryStatsConfig.class)
+class CourseStudentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseStudentRepository courseStudentRepository;
+
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = entityManager.persist(user("john.teacher", Role.TEACHER));
+        student = entityManager.persist(user("jane.student", Role.STUDENT));
+        course = new Course();
+        course.setName("Java Programming");
+        course.setInstructor(teacher);
+        course = entityManager.persist(course);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testInsertIfAbsent_InsertsOnceThenSkips() {
+        // When
+        int first = courseStudentRepository.insertIfAbsent(student.getId(), course.getId());
+        int second = courseStudentRepository.insertIfAbsent(student.getId(), course.getId());
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(courseStudentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testInsertIfAbsent_UnknownCourse_InsertsNothing() {
+        // When
+        int inserted = courseStudentRepository.insertIfAbsent(student.getId(), course.getId() + 100);
+
+        // Then
+        assertThat(inserted).isZero();
+        assertThat(courseStudentRepository.findEnrollment(student.getId(), course.getId() + 100)).isNull();
+    }
+
+    @Test
+    void testFindEnrollment_LoadsStudentCourseAndInstructor() {
+        // Given
+        courseStudentRepository.insertIfAbsent(student.getId(), course.getId());
+        entityManager.clear();
+
+        // When
+        CourseStudent enrollment = courseStudentRepository.findEnrollment(student.getId(), course.getId());
+
+        // Then
+        assertThat(enrollment.getId()).isNotNull();
+        assertThat(enrollment.getStudent().getUsername()).isEqualTo("jane.student");
+        assertThat(enrollment.getCourse().getInstructor().getUsername()).isEqualTo("john.teacher");
+    }
+
+    @Test
+    void testFindAllEnrollments_RunsOneStatementWhateverTheNumberOfEnrollments() {
+        // Given
+        enrollMore(4);
+
+        // When
+        List<CourseStudent> enrollments = assertStatements(1, () -> courseStudentRepository.findAllEnrollments());
+
+        // Then
+        assertThat(enrollments).hasSize(5);
+        assertThat(enrollments).allSatisfy(enrollment ->
+                assertThat(enrollment.getCourse().getInstructor().getUsername()).isEqualTo("john.teacher"));
+    }
+
+    @Test
+    void testFindAllEnrollments_LoadsEachEntityOnce() {
+        // Given
+        enrollMore(4);
+
+        // When
+        QueryStats stats = count(() -> courseStudentRepository.findAllEnrollments());
+
+        // Then: five enrollments, five students, five courses and their one instructor
+        assertThat(stats.getStatements()).isEqualTo(1);
+        assertThat(stats.getEntitiesLoaded()).isEqualTo(16);
+        assertThat(stats.getCollectionsFetched()).isZero();
+    }
+
+    @Test
+    void testFindByStudentIdAndInstructorId_RunOneStatementEach() {
+        // Given
+        enrollMore(4);
+
+        // When / Then
+        assertThat(assertStatements(1, () -> courseStudentRepository.findByStudentId(student.getId())))
+                .hasSize(1);
+        entityManager.clear();
+        assertThat(assertStatements(1, () -> courseStudentRepository.findByCourseInstructorId(
+                course.getInstructor().getId()))).hasSize(5);
+    }
+
+    @Test
+    void testCount_OutsideAScope_CountsNothing() {
+        // When
+        courseStudentRepository.count();
+
+        // Then
+        assertThat(QueryStats.current()).isNull();
+    }
+
+    // Enrolls the setUp student plus the given number of new students, each in a course of their own.
+    private void enrollMore(int students) {
+        courseStudentRepository.insertIfAbsent(student.getId(), course.getId());
+        User teacher = entityManager.find(User.class, course.getInstructor().getId());
+        for (int i = 0; i < students; i++) {
+            User other = entityManager.persist(user("student" + i, Role.STUDENT));
+            Course otherCourse = new Course();
+            otherCourse.setName("Course " + i);
+            otherCourse.setInstructor(teacher);
+            otherCourse = entityManager.persist(otherCourse);
+            entityManager.flush();
+            courseStudentRepository.insertIfAbsent(other.getId(), otherCourse.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(username);
+        user.setPassword("encodedPassword");
+        user.setRole(role);
+        return user;
+    }
+
+}
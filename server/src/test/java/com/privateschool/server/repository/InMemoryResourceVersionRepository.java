@@ -0,0 +1,37 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.model.ResourceVersion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Stands in for the resource_version table in the MVC slice tests, which run without a database.
+public class InMemoryResourceVersionRepository implements ResourceVersionRepository {
+
+    private final ConcurrentMap<String, Long> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public int bump(String name) {
+        versions.merge(name, 1L, Long::sum);
+        return 1;
+    }
+
+    @Override
+    public List<ResourceVersion> findByNameIn(Collection<String> names) {
+        List<ResourceVersion> found = new ArrayList<>();
+        for (String name : names) {
+            Long version = versions.get(name);
+            if (version != null) {
+                ResourceVersion resourceVersion = new ResourceVersion();
+                resourceVersion.setName(name);
+                resourceVersion.setVersion(version);
+                found.add(resourceVersion);
+            }
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.dto.FieldSelection;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(ProjectionRepository.class)
+class ProjectionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    private User teacher;
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        teacher = entityManager.persist(user("john.teacher", "John Teacher", Role.TEACHER));
+        student = entityManager.persist(user("jane.student", "Jane Student", Role.STUDENT));
+        User otherTeacher = entityManager.persist(user("other.teacher", "Other Teacher", Role.TEACHER));
+
+        course = entityManager.persist(course("Java Programming", teacher));
+        Course otherCourse = entityManager.persist(course("Python Programming", otherTeacher));
+
+        entityManager.persist(enrollment(student, course));
+        entityManager.persist(enrollment(student, otherCourse));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindCourses_ReturnsOnlyRequestedFields() {
+        // When
+        List<Map<String, Object>> rows = projectionRepository.findCourses(
+                FieldSelection.parse("name,instructor.name", FieldSelection.COURSE_FIELDS));
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsOnlyKeys("name", "instructor");
+        assertThat((Map<String, Object>) rows.get(0).get("instructor")).containsOnlyKeys("name");
+        assertThat(rows).extracting(row -> row.get("name"))
+                .containsExactlyInAnyOrder("Java Programming", "Python Programming");
+    }
+
+    @Test
+    void testFindCoursesOfStudent_FiltersByStudent() {
+        // When
+        List<Map<String, Object>> rows = projectionRepository.findCoursesOfStudent(student.getId(),
+                FieldSelection.parse("id,name", FieldSelection.COURSE_FIELDS));
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(projectionRepository.findCoursesOfStudent(teacher.getId(),
+                FieldSelection.parse("id", FieldSelection.COURSE_FIELDS))).isEmpty();
+    }
+
+    @Test
+    void testFindStudentsOfInstructor_FiltersByInstructor() {
+        // When
+        List<Map<String, Object>> rows = projectionRepository.findStudentsOfInstructor(teacher.getId(),
+                FieldSelection.parse("name,role", FieldSelection.USER_FIELDS));
+
+        // Then
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsEntry("name", "Jane Student").containsEntry("role", Role.STUDENT);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindEnrollments_WithNestedFields() {
+        // When
+        List<Map<String, Object>> rows = projectionRepository.findEnrollments(
+                FieldSelection.parse("student.name,course.instructor.name", FieldSelection.ENROLLMENT_FIELDS));
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat((Map<String, Object>) rows.get(0).get("student")).containsEntry("name", "Jane Student");
+        Map<String, Object> course = (Map<String, Object>) rows.get(0).get("course");
+        assertThat((Map<String, Object>) course.get("instructor")).containsKey("name");
+    }
+
+    private static User user(String username, String name, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(name);
+        user.setPassword("encodedPassword");
+        user.setRole(role);
+        return user;
+    }
+
+    private static Course course(String name, User instructor) {
+        Course course = new Course();
+        course.setName(name);
+        course.setInstructor(instructor);
+        return course;
+    }
+
+    private static CourseStudent enrollment(User student, Course course) {
+        CourseStudent courseStudent = new CourseStudent();
+        courseStudent.setStudent(student);
+        courseStudent.setCourse(course);
+        return courseStudent;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persistAndFlush(user("jane.student"));
+        entityManager.clear();
+    }
+
+    @Test
+    void testExistsByUsername() {
+        // Then
+        assertThat(userRepository.existsByUsername("jane.student")).isTrue();
+        assertThat(userRepository.existsByUsername("john.student")).isFalse();
+    }
+
+    @Test
+    void testSaveAndFlush_DuplicateUsername_ViolatesNamedUniqueIndex() {
+        // When/Then
+        assertThatThrownBy(() -> userRepository.saveAndFlush(user("jane.student")))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("UQ_USER_USERNAME");
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName("Jane Student");
+        user.setPassword("encodedPassword");
+        user.setRole(Role.STUDENT);
+        return user;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.privateschool.server.repository;
+
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class WaitlistRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private CourseStudentRepository courseStudentRepository;
+
+    private User first;
+    private User second;
+    private User third;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = entityManager.persist(user("john.teacher", Role.TEACHER));
+        first = entityManager.persist(user("first", Role.STUDENT));
+        second = entityManager.persist(user("second", Role.STUDENT));
+        third = entityManager.persist(user("third", Role.STUDENT));
+        course = new Course();
+        course.setName("Java Programming");
+        course.setInstructor(teacher);
+        course.setCapacity(1);
+        course = entityManager.persist(course);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testInsertIfAbsent_QueuesOnceInJoinOrder() {
+        // When
+        int joined = waitlistRepository.insertIfAbsent(second.getId(), course.getId());
+        waitlistRepository.insertIfAbsent(first.getId(), course.getId());
+        int again = waitlistRepository.insertIfAbsent(second.getId(), course.getId());
+        int unknown = waitlistRepository.insertIfAbsent(third.getId() + 100, course.getId());
+
+        // Then
+        assertThat(joined).isEqualTo(1);
+        assertThat(again).isZero();
+        assertThat(unknown).isZero();
+        assertThat(waitlistRepository.findStudentIds(course.getId())).containsExactly(second.getId(), first.getId());
+    }
+
+    @Test
+    void testEnrollAll_EnrollsTheHeadAndSkipsEnrolledStudents() {
+        // Given
+        waitlistRepository.insertIfAbsent(first.getId(), course.getId());
+        waitlistRepository.insertIfAbsent(second.getId(), course.getId());
+        waitlistRepository.insertIfAbsent(third.getId(), course.getId());
+        courseStudentRepository.insertIfAbsent(second.getId(), course.getId());
+
+        // When
+        List<WaitlistRepository.Waiting> head = waitlistRepository.findHead(course.getId(), PageRequest.of(0, 2));
+        List<Long> ids = head.stream().map(WaitlistRepository.Waiting::getId).collect(Collectors.toList());
+        int enrolled = waitlistRepository.enrollAll(ids);
+        int deleted = waitlistRepository.deleteAllByIdIn(ids);
+
+        // Then
+        assertThat(head).extracting(WaitlistRepository.Waiting::getStudentId)
+                .containsExactly(first.getId(), second.getId());
+        assertThat(enrolled).isEqualTo(1);
+        assertThat(deleted).isEqualTo(2);
+        assertThat(courseStudentRepository.count()).isEqualTo(2);
+        assertThat(waitlistRepository.findStudentIds(course.getId())).containsExactly(third.getId());
+    }
+
+    private static User user(String username, Role role) {
+        User user = new User();
+        user.setName(username);
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.privateschool.server.service;
+
+import com.privateschool.server.dto.EnrollmentResult;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import com.privateschool.server.repository.CourseRepository;
+import com.privateschool.server.repository.CourseStudentRepository;
+import com.privateschool.server.repository.UserRepository;
+import com.privateschool.server.repository.WaitlistRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:capacity;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=20"})
+class CourseCapacityConcurrencyTest {
+
+    private static final int CAPACITY = 50;
+    private static final int STUDENTS = 2000;
+
+    @Autowired
+    private CourseStudentService courseStudentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseStudentRepository courseStudentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Test
+    void testEnroll_StampedeIntoOneCourse_NeverOverbooks() throws Exception {
+        // Given
+        Long courseId = course("stampede", CAPACITY);
+        List<User> students = students("stampede", STUDENTS);
+
+        // When
+        Stampede stampede = enrollAll(courseId, students);
+
+        // Then: everyone got a seat or a waitlist spot; a seat the database refused under contention is handed to
+        // the head of the waitlist by the promotion pass
+        assertThat(stampede.created.get() + stampede.waitlisted.get()).isEqualTo(STUDENTS);
+        assertThat(stampede.created.get()).isLessThanOrEqualTo(CAPACITY);
+        awaitEnrolled(courseId, students, CAPACITY);
+        assertThat(courseRepository.findSeatsById(courseId).getEnrolled()).isEqualTo(CAPACITY);
+        assertThat(waitlistRepository.findStudentIds(courseId)).hasSize(STUDENTS - CAPACITY);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(stampede.slowestNanos.get())).isLessThan(10000);
+    }
+
+    @Test
+    void testUnenroll_PromotesTheWaitlistInOrder() throws Exception {
+        // Given
+        Long courseId = course("promotion", 5);
+        List<User> students = students("promotion", 20);
+        enrollAll(courseId, students.subList(0, 5));
+        for (User student : students.subList(5, 20)) {
+            courseStudentService.enroll(enrollment(student.getId(), courseId));
+        }
+
+        // When
+        for (User student : students.subList(0, 3)) {
+            courseStudentService.unenroll(student.getId(), courseId);
+        }
+
+        // Then
+        awaitEnrolled(courseId, students.subList(5, 8), 3);
+        assertThat(courseRepository.findSeatsById(courseId).getEnrolled()).isEqualTo(5);
+        assertThat(waitlistRepository.findStudentIds(courseId)).containsExactlyElementsOf(ids(students.subList(8, 20)));
+        assertThat(waitlistService.position(students.get(8).getId(), courseId)).isEqualTo(1);
+    }
+
+    private Stampede enrollAll(Long courseId, List<User> students) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(100);
+        CountDownLatch start = new CountDownLatch(1);
+        Stampede stampede = new Stampede();
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (User student : students) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    long began = System.nanoTime();
+                    try {
+                        EnrollmentResult result = courseStudentService.enroll(enrollment(student.getId(), courseId));
+                        if (result.isCreated()) {
+                            stampede.created.incrementAndGet();
+                        } else if (result.isWaitlisted()) {
+                            stampede.waitlisted.incrementAndGet();
+                        }
+                    } finally {
+                        stampede.slowestNanos.accumulateAndGet(System.nanoTime() - began, Math::max);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return stampede;
+    }
+
+    // Promotion runs on the waitlist executor after the freeing transaction commits.
+    private void awaitEnrolled(Long courseId, List<User> students, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (courseStudentRepository.findEnrollments(courseId, ids(students)).size() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(courseStudentRepository.findEnrollments(courseId, ids(students))).hasSize(expected);
+    }
+
+    private Long course(String name, int capacity) {
+        User teacher = userRepository.save(user(name + ".teacher", Role.TEACHER));
+        Course course = new Course();
+        course.setName(name);
+        course.setInstructor(teacher);
+        course.setCapacity(capacity);
+        return courseRepository.save(course).getId();
+    }
+
+    private List<User> students(String prefix, int count) {
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(user(prefix + i, Role.STUDENT));
+        }
+        return userRepository.saveAll(students);
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).collect(Collectors.toList());
+    }
+
+    private static User user(String username, Role role) {
+        User user = new User();
+        user.setName(username);
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+
+    private static CourseStudent enrollment(Long studentId, Long courseId) {
+        User student = new User();
+        student.setId(studentId);
+        Course course = new Course();
+        course.setId(courseId);
+        CourseStudent enrollment = new CourseStudent();
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+        return enrollment;
+    }
+
+    private static final class Stampede {
+
+        private final AtomicInteger created = new AtomicInteger();
+
+        private final AtomicInteger waitlisted = new AtomicInteger();
+
+        private final AtomicLong slowestNanos = new AtomicLong();
+
+    }
+
+}
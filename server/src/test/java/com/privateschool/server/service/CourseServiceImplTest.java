@@ -1,5 +1,6 @@
 package com.privateschool.server.service;
 
+import com.privateschool.server.cache.SeatLedger;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
@@ -26,6 +27,15 @@ class CourseServiceImplTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private SeatLedger seatLedger;
+
+    @Mock
+    private WaitlistService waitlistService;
+
     @InjectMocks
     private CourseServiceImpl courseService;
 
@@ -99,6 +109,8 @@ class CourseServiceImplTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getName()).isEqualTo("Advanced Java Programming");
         verify(courseRepository, times(1)).save(updatedCourse);
+        verify(seatLedger).invalidate(1L);
+        verify(waitlistService).promoteLater(1L);
     }
 
     @Test
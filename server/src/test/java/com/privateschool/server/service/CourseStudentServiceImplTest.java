@@ -1,9 +1,12 @@
 package com.privateschool.server.service;
 
+import com.privateschool.server.cache.SeatLedger;
+import com.privateschool.server.dto.EnrollmentResult;
 import com.privateschool.server.model.Course;
 import com.privateschool.server.model.CourseStudent;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
+import com.privateschool.server.repository.CourseRepository;
 import com.privateschool.server.repository.CourseStudentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
@@ -27,6 +31,21 @@ class CourseStudentServiceImplTest {
     @Mock
     private CourseStudentRepository courseStudentRepository;
 
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private SeatLedger seatLedger;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private EnrollmentEventService enrollmentEventService;
+
     @InjectMocks
     private CourseStudentServiceImpl courseStudentService;
 
@@ -60,45 +79,6 @@ class CourseStudentServiceImplTest {
         testEnrollment.setCourse(testCourse);
     }
 
-    @Test
-    void testSaveCourseStudent_Success() {
-        // Given
-        when(courseStudentRepository.save(any(CourseStudent.class))).thenReturn(testEnrollment);
-
-        // When
-        CourseStudent result = courseStudentService.saveCourseStudent(testEnrollment);
-
-        // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1L);
-        assertThat(result.getStudent()).isEqualTo(testStudent);
-        assertThat(result.getCourse()).isEqualTo(testCourse);
-        verify(courseStudentRepository, times(1)).save(testEnrollment);
-    }
-
-    @Test
-    void testSaveCourseStudent_NewEnrollment() {
-        // Given
-        CourseStudent newEnrollment = new CourseStudent();
-        newEnrollment.setStudent(testStudent);
-        newEnrollment.setCourse(testCourse);
-
-        CourseStudent savedEnrollment = new CourseStudent();
-        savedEnrollment.setId(2L);
-        savedEnrollment.setStudent(testStudent);
-        savedEnrollment.setCourse(testCourse);
-
-        when(courseStudentRepository.save(any(CourseStudent.class))).thenReturn(savedEnrollment);
-
-        // When
-        CourseStudent result = courseStudentService.saveCourseStudent(newEnrollment);
-
-        // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(2L);
-        verify(courseStudentRepository, times(1)).save(newEnrollment);
-    }
-
     @Test
     void testFindAllCoursesOfStudent_WithEnrollments() {
         // Given
@@ -208,7 +188,7 @@ class CourseStudentServiceImplTest {
         enrollment2.setCourse(course2);
 
         List<CourseStudent> allEnrollments = Arrays.asList(testEnrollment, enrollment2);
-        when(courseStudentRepository.findAll()).thenReturn(allEnrollments);
+        when(courseStudentRepository.findAllEnrollments()).thenReturn(allEnrollments);
 
         // When
         List<CourseStudent> result = courseStudentService.findAllEnrollments();
@@ -218,13 +198,13 @@ class CourseStudentServiceImplTest {
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getStudent().getName()).isEqualTo("Jane Student");
         assertThat(result.get(1).getStudent().getName()).isEqualTo("Alice Student");
-        verify(courseStudentRepository, times(1)).findAll();
+        verify(courseStudentRepository, times(1)).findAllEnrollments();
     }
 
     @Test
     void testFindAllEnrollments_EmptyList() {
         // Given
-        when(courseStudentRepository.findAll()).thenReturn(Collections.emptyList());
+        when(courseStudentRepository.findAllEnrollments()).thenReturn(Collections.emptyList());
 
         // When
         List<CourseStudent> result = courseStudentService.findAllEnrollments();
@@ -232,26 +212,193 @@ class CourseStudentServiceImplTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
-        verify(courseStudentRepository, times(1)).findAll();
+        verify(courseStudentRepository, times(1)).findAllEnrollments();
     }
 
     @Test
-    void testSaveCourseStudent_WithNullStudent() {
+    void testEnroll_NewEnrollment_IsCreatedAndPublished() {
         // Given
-        CourseStudent enrollmentWithNullStudent = new CourseStudent();
-        enrollmentWithNullStudent.setId(10L);
-        enrollmentWithNullStudent.setStudent(null);
-        enrollmentWithNullStudent.setCourse(testCourse);
+        when(seatLedger.tryAcquire(1L)).thenReturn(true);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+        when(courseStudentRepository.insertIfAbsent(1L, 1L)).thenReturn(1);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(testEnrollment);
 
-        when(courseStudentRepository.save(any(CourseStudent.class))).thenReturn(enrollmentWithNullStudent);
+        // When
+        EnrollmentResult result = courseStudentService.enroll(testEnrollment);
+
+        // Then
+        assertThat(result.isCreated()).isTrue();
+        assertThat(result.getEnrollment()).isEqualTo(testEnrollment);
+        verify(resourceVersionService).enrollmentChanged(1L, 2L);
+        verify(enrollmentEventService).enrollmentSaved(testEnrollment);
+        verify(courseStudentRepository, never()).save(any(CourseStudent.class));
+        verify(courseRepository, never()).releaseSeat(anyLong());
+    }
+
+    @Test
+    void testEnroll_AlreadyEnrolled_ReturnsExistingAndGivesBackTheSeat() {
+        // Given
+        when(seatLedger.tryAcquire(1L)).thenReturn(true);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+        when(courseStudentRepository.insertIfAbsent(1L, 1L)).thenReturn(0);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(testEnrollment);
 
         // When
-        CourseStudent result = courseStudentService.saveCourseStudent(enrollmentWithNullStudent);
+        EnrollmentResult result = courseStudentService.enroll(testEnrollment);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getStudent()).isNull();
-        verify(courseStudentRepository, times(1)).save(enrollmentWithNullStudent);
+        assertThat(result.isCreated()).isFalse();
+        assertThat(result.getEnrollment().getId()).isEqualTo(1L);
+        verify(courseRepository).releaseSeat(1L);
+        verify(seatLedger).release(1L);
+        verifyNoInteractions(resourceVersionService, enrollmentEventService);
+    }
+
+    @Test
+    void testEnroll_UnknownStudent_ReturnsBadRequest() {
+        // Given
+        when(seatLedger.tryAcquire(1L)).thenReturn(true);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+        when(courseStudentRepository.insertIfAbsent(1L, 1L)).thenReturn(0);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(null);
+
+        // When/Then
+        assertThatThrownBy(() -> courseStudentService.enroll(testEnrollment))
+                .isInstanceOf(InvalidEnrollmentException.class)
+                .hasMessageContaining("Unknown student or course");
+    }
+
+    @Test
+    void testEnroll_UnknownCourse_ReturnsBadRequest() {
+        // Given
+        when(seatLedger.tryAcquire(1L)).thenReturn(false);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(null);
+        when(courseRepository.existsById(1L)).thenReturn(false);
+
+        // When/Then
+        assertThatThrownBy(() -> courseStudentService.enroll(testEnrollment))
+                .isInstanceOf(InvalidEnrollmentException.class)
+                .hasMessageContaining("Unknown student or course");
+        verify(courseStudentRepository, never()).insertIfAbsent(anyLong(), anyLong());
+    }
+
+    @Test
+    void testEnroll_FullOnThisNode_JoinsWaitlistWithoutReservingInTheDatabase() {
+        // Given
+        when(seatLedger.tryAcquire(1L)).thenReturn(false);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(null);
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(waitlistService.join(1L, 1L)).thenReturn(4);
+
+        // When
+        EnrollmentResult result = courseStudentService.enroll(testEnrollment);
+
+        // Then
+        assertThat(result.isWaitlisted()).isTrue();
+        assertThat(result.getWaitlistPosition()).isEqualTo(4);
+        verify(courseRepository, never()).reserveSeat(anyLong());
+        verify(courseStudentRepository, never()).insertIfAbsent(anyLong(), anyLong());
+    }
+
+    @Test
+    void testEnroll_FullInTheDatabase_MarksTheLedgerFullAndJoinsWaitlist() {
+        // Given: another node took the last seat
+        when(seatLedger.tryAcquire(1L)).thenReturn(true);
+        when(courseRepository.reserveSeat(1L)).thenReturn(0);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(null);
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(waitlistService.join(1L, 1L)).thenReturn(1);
+
+        // When
+        EnrollmentResult result = courseStudentService.enroll(testEnrollment);
+
+        // Then
+        assertThat(result.getWaitlistPosition()).isEqualTo(1);
+        verify(seatLedger).markFull(1L);
+        verify(courseStudentRepository, never()).insertIfAbsent(anyLong(), anyLong());
+    }
+
+    @Test
+    void testEnroll_CourseWithWaitlist_QueuesNewcomerBehindIt() {
+        // Given
+        when(waitlistService.hasWaiting(1L)).thenReturn(true);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(null);
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(waitlistService.join(1L, 1L)).thenReturn(7);
+
+        // When
+        EnrollmentResult result = courseStudentService.enroll(testEnrollment);
+
+        // Then
+        assertThat(result.getWaitlistPosition()).isEqualTo(7);
+        verifyNoInteractions(seatLedger);
+        verify(courseRepository, never()).reserveSeat(anyLong());
+    }
+
+    @Test
+    void testUnenroll_FreesTheSeatForTheWaitlist() {
+        // Given
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(testEnrollment);
+
+        // When
+        courseStudentService.unenroll(1L, 1L);
+
+        // Then
+        verify(courseStudentRepository).delete(testEnrollment);
+        verify(courseRepository).releaseSeat(1L);
+        verify(resourceVersionService).enrollmentChanged(1L, 2L);
+        verify(waitlistService).promoteLater(1L);
+    }
+
+    @Test
+    void testUnenroll_WaitingStudent_LeavesWaitlist() {
+        // Given
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(null);
+        when(waitlistService.leave(1L, 1L)).thenReturn(true);
+
+        // When
+        courseStudentService.unenroll(1L, 1L);
+
+        // Then
+        verify(courseRepository, never()).releaseSeat(anyLong());
+        verify(waitlistService, never()).promoteLater(anyLong());
+    }
+
+    @Test
+    void testUnenroll_NeitherEnrolledNorWaiting_ReturnsNotFound() {
+        // Given
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(null);
+        when(waitlistService.leave(1L, 1L)).thenReturn(false);
+
+        // When/Then
+        assertThatThrownBy(() -> courseStudentService.unenroll(1L, 1L))
+                .isInstanceOf(EnrollmentNotFoundException.class)
+                .hasMessageContaining("Not enrolled");
+    }
+
+    @Test
+    void testEnroll_FullCourse_StillAnswersAnEnrolledStudent() {
+        // Given
+        when(seatLedger.tryAcquire(1L)).thenReturn(false);
+        when(courseStudentRepository.findEnrollment(1L, 1L)).thenReturn(testEnrollment);
+
+        // When
+        EnrollmentResult result = courseStudentService.enroll(testEnrollment);
+
+        // Then
+        assertThat(result.isCreated()).isFalse();
+        verifyNoInteractions(resourceVersionService, enrollmentEventService);
+    }
+
+    @Test
+    void testEnroll_WithoutStudent_ReturnsBadRequest() {
+        // Given
+        testEnrollment.setStudent(null);
+
+        // When/Then
+        assertThatThrownBy(() -> courseStudentService.enroll(testEnrollment))
+                .isInstanceOf(InvalidEnrollmentException.class);
+        verifyNoInteractions(courseStudentRepository);
     }
 
     @Test
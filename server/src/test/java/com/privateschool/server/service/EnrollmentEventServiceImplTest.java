@@ -0,0 +1,125 @@
+package com.privateschool.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.Role;
+import com.privateschool.server.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnrollmentEventServiceImplTest {
+
+    private EnrollmentEventServiceImpl enrollmentEventService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    private CourseStudent enrollment;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        enrollmentEventService = new EnrollmentEventServiceImpl();
+        ReflectionTestUtils.setField(enrollmentEventService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(enrollmentEventService, "sseExecutor", (Executor) pendingDrains::add);
+        ReflectionTestUtils.setField(enrollmentEventService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(enrollmentEventService, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(enrollmentEventService, "maxPending", 2);
+        enrollmentEventService.registerMeters();
+
+        User instructor = new User();
+        instructor.setId(1L);
+        instructor.setRole(Role.TEACHER);
+
+        User student = new User();
+        student.setId(2L);
+        student.setName("Jane Student");
+        student.setRole(Role.STUDENT);
+
+        Course course = new Course();
+        course.setId(3L);
+        course.setName("Java Programming");
+        course.setInstructor(instructor);
+
+        enrollment = new CourseStudent();
+        enrollment.setId(4L);
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testEnrollmentSaved_ReachesEverySubscriberOfTheInstructor() {
+        // Given
+        enrollmentEventService.subscribe(1L);
+        enrollmentEventService.subscribe(1L);
+        enrollmentEventService.subscribe(99L);
+
+        // When
+        enrollmentEventService.enrollmentSaved(enrollment);
+        drain();
+
+        // Then
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("sse.events.sent").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testEnrollmentSaved_WaitsForCommit() {
+        // Given
+        enrollmentEventService.subscribe(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        enrollmentEventService.enrollmentSaved(enrollment);
+
+        // Then
+        assertThat(pendingDrains).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        drain();
+        assertThat(meterRegistry.get("sse.events.sent").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testSlowSubscriber_DropsEventsBeyondItsQueue() {
+        // Given
+        enrollmentEventService.subscribe(1L);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            enrollmentEventService.enrollmentSaved(enrollment);
+        }
+        drain();
+
+        // Then
+        assertThat(meterRegistry.get("sse.events.sent").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("sse.events.dropped").tag("reason", "queue_full").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    private void drain() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.remove(0).run();
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.privateschool.server.service;
+
+import com.privateschool.server.model.Role;
+import com.privateschool.server.repository.ResourceVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The stamps are committed with the writes, so the tests run outside a transaction and drop the database after.
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(ResourceVersionServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class ResourceVersionServiceImplTest {
+
+    @Autowired
+    private ResourceVersionServiceImpl resourceVersionService;
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void testETags_AreWeakAndStableWithoutWrites() {
+        // When
+        String first = resourceVersionService.catalogETag();
+        String second = resourceVersionService.catalogETag();
+
+        // Then
+        assertThat(first).startsWith("W/\"").endsWith("\"");
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void testCatalogChanged_InvalidatesEveryPayload() {
+        // Given
+        String catalog = resourceVersionService.catalogETag();
+        String student = resourceVersionService.studentCoursesETag(1L);
+        String roster = resourceVersionService.instructorRosterETag(2L);
+
+        // When
+        resourceVersionService.catalogChanged();
+
+        // Then
+        assertThat(resourceVersionService.catalogETag()).isNotEqualTo(catalog);
+        assertThat(resourceVersionService.studentCoursesETag(1L)).isNotEqualTo(student);
+        assertThat(resourceVersionService.instructorRosterETag(2L)).isNotEqualTo(roster);
+    }
+
+    @Test
+    void testEnrollmentChanged_OnlyInvalidatesAffectedStudentAndInstructor() {
+        // Given
+        String catalog = resourceVersionService.catalogETag();
+        String student = resourceVersionService.studentCoursesETag(1L);
+        String otherStudent = resourceVersionService.studentCoursesETag(3L);
+        String roster = resourceVersionService.instructorRosterETag(2L);
+        String otherRoster = resourceVersionService.instructorRosterETag(4L);
+
+        // When
+        resourceVersionService.enrollmentChanged(1L, 2L);
+
+        // Then
+        assertThat(resourceVersionService.catalogETag()).isEqualTo(catalog);
+        assertThat(resourceVersionService.studentCoursesETag(1L)).isNotEqualTo(student);
+        assertThat(resourceVersionService.studentCoursesETag(3L)).isEqualTo(otherStudent);
+        assertThat(resourceVersionService.instructorRosterETag(2L)).isNotEqualTo(roster);
+        assertThat(resourceVersionService.instructorRosterETag(4L)).isEqualTo(otherRoster);
+    }
+
+    @Test
+    void testUserChanged_Student_LeavesTheCatalog() {
+        // Given
+        String catalog = resourceVersionService.catalogETag();
+        String student = resourceVersionService.studentCoursesETag(7L);
+        String roster = resourceVersionService.instructorRosterETag(2L);
+
+        // When
+        resourceVersionService.userChanged(7L, Role.STUDENT, Role.STUDENT);
+
+        // Then
+        assertThat(resourceVersionService.catalogETag()).isEqualTo(catalog);
+        assertThat(resourceVersionService.studentCoursesETag(7L)).isNotEqualTo(student);
+        assertThat(resourceVersionService.instructorRosterETag(2L)).isNotEqualTo(roster);
+    }
+
+    @Test
+    void testUserChanged_Teacher_InvalidatesTheCatalog() {
+        // Given
+        String catalog = resourceVersionService.catalogETag();
+
+        // When
+        resourceVersionService.userChanged(2L, Role.TEACHER, Role.MANAGER);
+
+        // Then
+        assertThat(resourceVersionService.catalogETag()).isNotEqualTo(catalog);
+    }
+
+    @Test
+    void testEnrollmentChanged_WithUnknownInstructor_InvalidatesAllRosters() {
+        // Given
+        String roster = resourceVersionService.instructorRosterETag(2L);
+        String otherRoster = resourceVersionService.instructorRosterETag(4L);
+
+        // When
+        resourceVersionService.enrollmentChanged(1L, null);
+
+        // Then
+        assertThat(resourceVersionService.instructorRosterETag(2L)).isNotEqualTo(roster);
+        assertThat(resourceVersionService.instructorRosterETag(4L)).isNotEqualTo(otherRoster);
+    }
+
+    @Test
+    void testBump_InsideTransaction_IsWrittenOnceOnCommit() {
+        // Given
+        String catalog = resourceVersionService.catalogETag();
+        AtomicReference<String> duringTransaction = new AtomicReference<>();
+
+        // When
+        transaction.execute(status -> {
+            resourceVersionService.catalogChanged();
+            resourceVersionService.catalogChanged();
+            duringTransaction.set(resourceVersionService.catalogETag());
+            return null;
+        });
+
+        // Then
+        assertThat(duringTransaction.get()).isEqualTo(catalog);
+        String committed = resourceVersionService.catalogETag();
+        assertThat(committed).isNotEqualTo(catalog);
+    }
+
+    @Test
+    void testBumpOnAnotherNode_IsSeenOnceTheStampExpires() {
+        // Given: a freshly read stamp that is kept for a minute
+        ReflectionTestUtils.setField(resourceVersionService, "refreshMs", 0L);
+        String catalog = resourceVersionService.catalogETag();
+        ReflectionTestUtils.setField(resourceVersionService, "refreshMs", 60_000L);
+        try {
+            // When
+            resourceVersionRepository.bump("catalog");
+
+            // Then
+            assertThat(resourceVersionService.catalogETag()).isEqualTo(catalog);
+            ReflectionTestUtils.setField(resourceVersionService, "refreshMs", 0L);
+            assertThat(resourceVersionService.catalogETag()).isNotEqualTo(catalog);
+        } finally {
+            ReflectionTestUtils.setField(resourceVersionService, "refreshMs", 1000L);
+        }
+    }
+
+    @Test
+    void testBump_InRolledBackTransaction_KeepsETags() {
+        // Given
+        String student = resourceVersionService.studentCoursesETag(5L);
+
+        // When
+        transaction.execute(status -> {
+            resourceVersionService.enrollmentChanged(5L, 6L);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        // Then
+        assertThat(resourceVersionService.studentCoursesETag(5L)).isEqualTo(student);
+    }
+
+}
@@ -59,7 +59,7 @@ class UserDetailsServiceImplTest {
         Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
         assertThat(authorities).isNotNull();
         assertThat(authorities).hasSize(1);
-        assertThat(authorities).contains(new SimpleGrantedAuthority("ROLE_STUDENT"));
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).contains("ROLE_STUDENT");
 
         verify(userRepository, times(1)).findByUsername("johndoe");
     }
@@ -77,7 +77,7 @@ class UserDetailsServiceImplTest {
         assertThat(userDetails).isNotNull();
         Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
         assertThat(authorities).hasSize(1);
-        assertThat(authorities).contains(new SimpleGrantedAuthority("ROLE_TEACHER"));
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).contains("ROLE_TEACHER");
 
         verify(userRepository, times(1)).findByUsername("johndoe");
     }
@@ -95,7 +95,7 @@ class UserDetailsServiceImplTest {
         assertThat(userDetails).isNotNull();
         Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
         assertThat(authorities).hasSize(1);
-        assertThat(authorities).contains(new SimpleGrantedAuthority("ROLE_MANAGER"));
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).contains("ROLE_MANAGER");
 
         verify(userRepository, times(1)).findByUsername("johndoe");
     }
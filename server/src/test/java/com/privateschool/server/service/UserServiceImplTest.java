@@ -3,14 +3,17 @@ package com.privateschool.server.service;
 import com.privateschool.server.model.Role;
 import com.privateschool.server.model.User;
 import com.privateschool.server.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +32,9 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -78,6 +84,61 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).save(testUser);
     }
 
+    @Test
+    void register_WithNewUsername_ShouldSaveHashedUser() {
+        // Arrange
+        when(userRepository.existsByUsername("testuser")).thenReturn(false);
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword123");
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+
+        // Act
+        User result = userService.register(testUser);
+
+        // Assert
+        assertSame(testUser, result);
+        assertEquals("encodedPassword123", testUser.getPassword());
+        verify(resourceVersionService, never()).userChanged(any(), any(), any());
+    }
+
+    @Test
+    void register_WithExistingUsername_ShouldConflictWithoutHashing() {
+        // Arrange
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+
+        // Act
+        assertThrows(UsernameTakenException.class, () -> userService.register(testUser));
+
+        // Assert
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(resourceVersionService, never()).userChanged(any(), any(), any());
+    }
+
+    @Test
+    void register_WhenUniqueIndexRejectsInsert_ShouldConflict() {
+        // Arrange
+        when(userRepository.existsByUsername("testuser")).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(testUser)).thenThrow(integrityViolation("UQ_USER_USERNAME_INDEX_2"));
+
+        // Act
+        assertThrows(UsernameTakenException.class, () -> userService.register(testUser));
+
+        // Assert
+        verify(resourceVersionService, never()).userChanged(any(), any(), any());
+    }
+
+    @Test
+    void register_WhenOtherConstraintFails_ShouldRethrow() {
+        // Arrange
+        when(userRepository.existsByUsername("testuser")).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(testUser)).thenThrow(integrityViolation("NOT_NULL_NAME"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> userService.register(testUser));
+    }
+
     @Test
     void findByUsername_WhenUserExists_ShouldReturnUser() {
         // Arrange
@@ -171,4 +232,26 @@ class UserServiceImplTest {
         // Assert
         verify(userRepository, times(1)).save(testUser);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateUser_WhenTeacherBecomesStudent_ShouldPassBothRoles() {
+        // Arrange
+        User stored = new User();
+        stored.setId(1L);
+        stored.setRole(Role.TEACHER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        // Act
+        userService.updateUser(testUser);
+
+        // Assert
+        verify(resourceVersionService).userChanged(1L, Role.TEACHER, Role.STUDENT);
+    }
+
+    private static DataIntegrityViolationException integrityViolation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraint));
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.privateschool.server.service;
+
+import com.privateschool.server.cache.SeatLedger;
+import com.privateschool.server.cache.WaitlistIndex;
+import com.privateschool.server.model.Course;
+import com.privateschool.server.model.CourseStudent;
+import com.privateschool.server.model.User;
+import com.privateschool.server.repository.CourseRepository;
+import com.privateschool.server.repository.CourseStudentRepository;
+import com.privateschool.server.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceImplTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private CourseStudentRepository courseStudentRepository;
+
+    @Mock
+    private WaitlistIndex waitlistIndex;
+
+    @Mock
+    private SeatLedger seatLedger;
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private EnrollmentEventService enrollmentEventService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private WaitlistServiceImpl waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(waitlistService, "batchSize", 100);
+        Executor inline = Runnable::run;
+        ReflectionTestUtils.setField(waitlistService, "waitlistExecutor", inline);
+    }
+
+    @Test
+    void testJoin_NewStudent_ReturnsTailPosition() {
+        // Given
+        when(waitlistRepository.insertIfAbsent(5L, 1L)).thenReturn(1);
+        when(waitlistIndex.append(1L, 5L)).thenReturn(3);
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(10, 10));
+
+        // When
+        int position = waitlistService.join(5L, 1L);
+
+        // Then
+        assertThat(position).isEqualTo(3);
+        verify(courseRepository, never()).reserveSeats(anyLong(), anyInt());
+    }
+
+    @Test
+    void testJoin_AlreadyWaiting_ReturnsCurrentPosition() {
+        // Given
+        when(waitlistRepository.insertIfAbsent(5L, 1L)).thenReturn(0);
+        when(waitlistIndex.position(1L, 5L)).thenReturn(2);
+
+        // When
+        int position = waitlistService.join(5L, 1L);
+
+        // Then
+        assertThat(position).isEqualTo(2);
+        verify(waitlistIndex, never()).append(anyLong(), anyLong());
+    }
+
+    @Test
+    void testJoin_UnknownStudent_ReturnsBadRequest() {
+        // Given
+        when(waitlistRepository.insertIfAbsent(5L, 1L)).thenReturn(0);
+        when(waitlistIndex.position(1L, 5L)).thenReturn(null);
+
+        // When/Then
+        assertThatThrownBy(() -> waitlistService.join(5L, 1L))
+                .isInstanceOf(InvalidEnrollmentException.class)
+                .hasMessageContaining("Unknown student or course");
+        verify(waitlistIndex).invalidate(1L);
+    }
+
+    @Test
+    void testPromote_TakesTheHeadInOneBatch() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(10, 8));
+        when(waitlistRepository.findHead(1L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(waiting(11L, 5L), waiting(12L, 6L)));
+        when(courseRepository.reserveSeats(1L, 2)).thenReturn(1);
+        when(waitlistRepository.enrollAll(Arrays.asList(11L, 12L))).thenReturn(2);
+        when(courseStudentRepository.findEnrollments(1L, Arrays.asList(5L, 6L)))
+                .thenReturn(Arrays.asList(enrollment(5L), enrollment(6L)));
+
+        // When
+        int promoted = waitlistService.promote(1L);
+
+        // Then
+        assertThat(promoted).isEqualTo(2);
+        verify(waitlistRepository).deleteAllByIdIn(Arrays.asList(11L, 12L));
+        verify(courseRepository, never()).releaseSeats(anyLong(), anyInt());
+        verify(resourceVersionService).enrollmentChanged(5L, 2L);
+        verify(enrollmentEventService, times(2)).enrollmentSaved(any(CourseStudent.class));
+        verify(waitlistIndex).removePromoted(1L, Arrays.asList(5L, 6L));
+    }
+
+    @Test
+    void testPromote_AlreadyEnrolledStudent_GivesItsSeatBack() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(null, 3));
+        when(waitlistRepository.findHead(1L, PageRequest.of(0, 100)))
+                .thenReturn(Arrays.asList(waiting(11L, 5L), waiting(12L, 6L)));
+        when(courseRepository.reserveSeats(1L, 2)).thenReturn(1);
+        when(waitlistRepository.enrollAll(Arrays.asList(11L, 12L))).thenReturn(1);
+
+        // When
+        waitlistService.promote(1L);
+
+        // Then
+        verify(courseRepository).releaseSeats(1L, 1);
+    }
+
+    @Test
+    void testPromote_NoFreeSeats_DoesNothing() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(10, 10));
+
+        // When
+        int promoted = waitlistService.promote(1L);
+
+        // Then
+        assertThat(promoted).isZero();
+        verify(waitlistRepository, never()).findHead(anyLong(), any());
+    }
+
+    @Test
+    void testPromote_SeatsTakenMeanwhile_ReportsContention() {
+        // Given
+        when(courseRepository.findSeatsById(1L)).thenReturn(seats(10, 9));
+        when(waitlistRepository.findHead(1L, PageRequest.of(0, 1)))
+                .thenReturn(Collections.singletonList(waiting(11L, 5L)));
+        when(courseRepository.reserveSeats(1L, 1)).thenReturn(0);
+
+        // When
+        int promoted = waitlistService.promote(1L);
+
+        // Then
+        assertThat(promoted).isEqualTo(-1);
+        verify(waitlistRepository, never()).enrollAll(any());
+    }
+
+    private static CourseRepository.Seats seats(Integer capacity, int enrolled) {
+        return new CourseRepository.Seats() {
+            @Override
+            public Integer getCapacity() {
+                return capacity;
+            }
+
+            @Override
+            public int getEnrolled() {
+                return enrolled;
+            }
+        };
+    }
+
+    private static WaitlistRepository.Waiting waiting(Long id, Long studentId) {
+        return new WaitlistRepository.Waiting() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getStudentId() {
+                return studentId;
+            }
+        };
+    }
+
+    private static CourseStudent enrollment(Long studentId) {
+        User student = new User();
+        student.setId(studentId);
+        User instructor = new User();
+        instructor.setId(2L);
+        Course course = new Course();
+        course.setId(1L);
+        course.setInstructor(instructor);
+        CourseStudent enrollment = new CourseStudent();
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+        return enrollment;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.privateschool.server.support;
+
+import com.privateschool.server.config.QueryStats;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts what Hibernate does during a call, so a test can pin the number of statements a query path runs and catch
+ * an N+1 creeping back in. Needs the hooks from {@link com.privateschool.server.config.QueryStatsConfig}, which a
+ * {@code @DataJpaTest} has to import. Only statements run on the calling thread are counted.
+ */
+public final class QueryCounter {
+
+    private QueryCounter() {
+    }
+
+    public static QueryStats count(Runnable call) {
+        QueryStats stats = new QueryStats();
+        QueryStats previous = QueryStats.bind(stats);
+        try {
+            call.run();
+        } finally {
+            QueryStats.restore(previous);
+        }
+        return stats;
+    }
+
+    /** Runs the call, asserts it executed exactly {@code expected} SQL statements and returns its result. */
+    public static <T> T assertStatements(long expected, Supplier<T> call) {
+        AtomicReference<T> result = new AtomicReference<>();
+        QueryStats stats = count(() -> result.set(call.get()));
+        assertThat(stats.getStatements()).as("SQL statements executed").isEqualTo(expected);
+        return result.get();
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.privateschool.server.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracerTest {
+
+    private final List<Span> exported = new CopyOnWriteArrayList<>();
+
+    private final Tracer tracer = new Tracer(1.0, Collections.singletonList(exported::add));
+
+    @Test
+    void testStartTrace_WithoutTraceparent_StartsANewSampledTrace() {
+        // When
+        Span root = tracer.startTrace("GET /api/user/courses", null);
+
+        // Then
+        assertThat(root.isRecorded()).isTrue();
+        assertThat(root.getTraceId()).hasSize(32);
+        assertThat(root.getSpanId()).hasSize(16);
+        assertThat(root.getParentId()).isNull();
+    }
+
+    @Test
+    void testStartTrace_WithTraceparent_ContinuesTheCallersTrace() {
+        // When
+        Span sampled = tracer.startTrace("GET /", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        Span notSampled = tracer.startTrace("GET /", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+
+        // Then
+        assertThat(sampled.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(sampled.getParentId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(sampled.isRecorded()).isTrue();
+        assertThat(notSampled.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(notSampled.isRecorded()).isFalse();
+    }
+
+    @Test
+    void testStartTrace_WithInvalidTraceparent_StartsANewTrace() {
+        // When
+        Span root = tracer.startTrace("GET /", "00-00000000000000000000000000000000-00f067aa0ba902b7-01");
+
+        // Then
+        assertThat(root.getTraceId()).isNotEqualTo("00000000000000000000000000000000");
+        assertThat(root.getParentId()).isNull();
+    }
+
+    @Test
+    void testUnsampledTrace_KeepsItsIdsButExportsNothing() {
+        // Given
+        Tracer unsampled = new Tracer(0, Collections.singletonList(exported::add));
+        Span root = unsampled.startTrace("GET /", null);
+
+        // When
+        Span child = root.child("security");
+        child.end();
+        root.end();
+
+        // Then
+        assertThat(root.getTraceId()).hasSize(32);
+        assertThat(child).isSameAs(Span.NOOP);
+        assertThat(exported).isEmpty();
+    }
+
+    @Test
+    void testChildSpans_AreExportedOnceWhenTheyEnd() {
+        // Given
+        Span root = tracer.startTrace("GET /", null);
+        Span child = root.child("UserRepository.findByUsername").tag("error", "DataAccessException");
+
+        // When
+        child.end();
+        child.end();
+
+        // Then
+        assertThat(exported).containsExactly(child);
+        assertThat(child.getTraceId()).isEqualTo(root.getTraceId());
+        assertThat(child.getParentId()).isEqualTo(root.getSpanId());
+        assertThat(child.getDurationMicros()).isGreaterThanOrEqualTo(0);
+        assertThat(child.getTags()).containsEntry("error", "DataAccessException");
+    }
+
+    @Test
+    void testPropagate_RunsTheTaskInTheTraceAndPutsItInTheMdc() throws InterruptedException {
+        // Given
+        Span root = tracer.startTrace("GET /", null);
+        Span previous = Tracing.bind(root);
+        Runnable task;
+        try {
+            task = Tracing.propagate(() -> {
+                Tracing.startSpan("ReportRepository.findAll").end();
+                assertThat(MDC.get(Tracing.TRACE_ID)).isEqualTo(root.getTraceId());
+            });
+        } finally {
+            Tracing.restore(previous);
+        }
+
+        // When
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+
+        // Then
+        assertThat(exported).hasSize(1);
+        assertThat(exported.get(0).getParentId()).isEqualTo(root.getSpanId());
+        assertThat(MDC.get(Tracing.TRACE_ID)).isNull();
+        assertThat(Tracing.startSpan("outside")).isSameAs(Span.NOOP);
+    }
+
+}
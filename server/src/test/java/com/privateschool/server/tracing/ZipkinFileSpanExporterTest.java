@@ -0,0 +1,69 @@
+package com.privateschool.server.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZipkinFileSpanExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testExport_WritesOneZipkinSpanPerLine() throws IOException {
+        // Given
+        Path file = directory.resolve("traces.json");
+        ZipkinFileSpanExporter exporter = new ZipkinFileSpanExporter("server", file.toString(), "10MB", 1, "100MB");
+        exporter.start();
+        Tracer tracer = new Tracer(1.0, Collections.singletonList(exporter));
+        Span root = tracer.startTrace("GET /api/teacher/students/{id}", null).tag("http.method", "GET");
+        Span child = root.child("CourseStudentRepository.findByCourseInstructorId");
+
+        // When
+        child.end();
+        root.tag("http.status_code", 200).end();
+        exporter.stop();
+
+        // Then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(2);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode childJson = objectMapper.readTree(lines.get(0));
+        assertThat(childJson.get("traceId").asText()).isEqualTo(root.getTraceId());
+        assertThat(childJson.get("parentId").asText()).isEqualTo(root.getSpanId());
+        assertThat(childJson.get("name").asText()).isEqualTo("CourseStudentRepository.findByCourseInstructorId");
+        assertThat(childJson.has("kind")).isFalse();
+        assertThat(childJson.get("localEndpoint").get("serviceName").asText()).isEqualTo("server");
+        JsonNode rootJson = objectMapper.readTree(lines.get(1));
+        assertThat(rootJson.has("parentId")).isFalse();
+        assertThat(rootJson.get("kind").asText()).isEqualTo("SERVER");
+        assertThat(rootJson.get("timestamp").asLong()).isPositive();
+        assertThat(rootJson.get("duration").asLong()).isGreaterThanOrEqualTo(childJson.get("duration").asLong());
+        assertThat(rootJson.get("tags").get("http.status_code").asText()).isEqualTo("200");
+    }
+
+    @Test
+    void testExport_AfterStop_IsIgnored() {
+        // Given
+        ZipkinFileSpanExporter exporter = new ZipkinFileSpanExporter("server",
+                directory.resolve("traces.json").toString(), "10MB", 1, "100MB");
+        exporter.start();
+        exporter.stop();
+        Span span = new Tracer(1.0, Collections.singletonList(exporter)).startTrace("GET /", null);
+
+        // When / Then
+        span.end();
+        assertThat(directory.resolve("traces.json")).hasContent("");
+    }
+
+}